@@ -23,6 +23,7 @@
 package com.odysseusinc.arachne.portal.api.v1.controller;
 
 import com.odysseusinc.arachne.commons.utils.ConverterUtils;
+import com.odysseusinc.arachne.portal.jobs.SearchIndexesRefresher;
 import com.odysseusinc.arachne.portal.model.Analysis;
 import com.odysseusinc.arachne.portal.model.IDataSource;
 import com.odysseusinc.arachne.portal.model.IUser;
@@ -39,6 +40,7 @@ import com.odysseusinc.arachne.portal.service.PaperService;
 import com.odysseusinc.arachne.portal.service.ProfessionalTypeService;
 import com.odysseusinc.arachne.portal.service.StudyService;
 import com.odysseusinc.arachne.portal.service.TenantService;
+import com.odysseusinc.arachne.portal.service.impl.AchillesReportIndex;
 import com.odysseusinc.arachne.portal.service.analysis.AnalysisService;
 import io.swagger.annotations.Api;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -61,12 +63,14 @@ public class AdminController extends BaseAdminController<IUser, Study, IDataSour
                            final TenantService tenantService,
                            final ConverterUtils converterUtils,
                            final Validator validator,
-                           final MessageSource messageSource) {
+                           final MessageSource messageSource,
+                           final SearchIndexesRefresher<?, ?, ?, ?, ?, ?, ?, ?> searchIndexesRefresher,
+                           final AchillesReportIndex achillesReportIndex) {
 
         super(dataSourceService, professionalTypeService, adminService,
                 studyService, analysisService, paperService,
                 tenantService, converterUtils, validator,
-                messageSource);
+                messageSource, searchIndexesRefresher, achillesReportIndex);
     }
 
     @Override
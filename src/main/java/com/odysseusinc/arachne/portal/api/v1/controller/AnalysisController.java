@@ -35,12 +35,12 @@ import com.odysseusinc.arachne.portal.service.analysis.AnalysisFilesSavingServic
 import com.odysseusinc.arachne.portal.service.analysis.BaseAnalysisService;
 import com.odysseusinc.arachne.portal.service.analysis.heracles.HeraclesAnalysisService;
 import com.odysseusinc.arachne.portal.service.submission.BaseSubmissionService;
+import com.odysseusinc.arachne.portal.service.messaging.DataNodeMessageExchange;
 import com.odysseusinc.arachne.portal.service.submission.SubmissionInsightService;
 import org.springframework.core.convert.support.GenericConversionService;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
-import org.springframework.jms.core.JmsTemplate;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.web.bind.annotation.RestController;
@@ -63,7 +63,7 @@ public class AnalysisController extends BaseAnalysisController<Analysis, Analysi
             DataReferenceService dataReferenceService,
             GenericConversionService conversionService,
             SimpMessagingTemplate wsTemplate,
-            JmsTemplate jmsTemplate,
+            DataNodeMessageExchange messageExchange,
             ImportService importService,
             BaseSubmissionService submissionService,
             ToPdfConverter toPdfConverter,
@@ -74,7 +74,7 @@ public class AnalysisController extends BaseAnalysisController<Analysis, Analysi
         super(analysisService,
                 submissionService,
                 dataReferenceService,
-                jmsTemplate,
+                messageExchange,
                 conversionService,
                 baseDataNodeService,
                 importService,
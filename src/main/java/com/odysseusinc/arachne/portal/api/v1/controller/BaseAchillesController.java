@@ -24,10 +24,8 @@ package com.odysseusinc.arachne.portal.api.v1.controller;
 
 import static com.odysseusinc.arachne.commons.api.v1.dto.util.JsonResult.ErrorCode.NO_ERROR;
 
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.google.gson.Gson;
-import com.google.gson.JsonObject;
+import com.fasterxml.jackson.databind.util.RawValue;
 import com.odysseusinc.arachne.commons.api.v1.dto.CommonAchillesReportDTO;
 import com.odysseusinc.arachne.commons.api.v1.dto.util.JsonResult;
 import com.odysseusinc.arachne.portal.api.v1.dto.AchillesReportDTO;
@@ -48,22 +46,28 @@ import com.odysseusinc.arachne.portal.util.ArachneConverterUtils;
 import io.swagger.annotations.ApiOperation;
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.GenericTypeResolver;
 import org.springframework.core.convert.support.GenericConversionService;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 public abstract class BaseAchillesController<DS extends IDataSource> {
+    private static final long FILE_MAX_AGE_DAYS = 365L;
     private static final String ACHILLES_RESULT_LOADED_LOG
             = "Loaded Achilles result for Data Source with id='{}', name='{}', Data Node with id='{}' name='{}'";
     protected static Logger LOGGER = LoggerFactory.getLogger(BaseAchillesController.class);
@@ -163,22 +167,38 @@ public abstract class BaseAchillesController<DS extends IDataSource> {
             "datasource/{id}/files/{filepath:.*}/{filename:.*}"},
             method = RequestMethod.GET,
             produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
-    public JsonResult<JsonNode> getFile(@PathVariable("id") Long datasourceId,
-                                        @RequestParam(name = "char", required = false) Long characterizationId,
-                                        @PathVariable(value = "filepath", required = false) String path,
-                                        @PathVariable("filename") String filename) throws NotExistException, IOException {
+    public ResponseEntity<JsonResult<RawValue>> getFile(@PathVariable("id") Long datasourceId,
+                                                        @RequestParam(name = "char", required = false) Long characterizationId,
+                                                        @PathVariable(value = "filepath", required = false) String path,
+                                                        @PathVariable("filename") String filename,
+                                                        WebRequest request) throws NotExistException {
 
         final String filepath = StringUtils.isBlank(path) ? filename : path + File.separator + filename;
         DS dataSource = checkDataSource(datasourceId);
-        if (characterizationId == null) {
+        final boolean latest = characterizationId == null;
+        if (latest) {
             characterizationId = achillesService.getLatestCharacterizationId(dataSource);
         }
-        AchillesFile file = achillesService.getAchillesFile(characterizationId, filepath)
+        // characterizations are never changed after import, so the id and the path identify the content
+        final String etag = "\"" + DigestUtils.md5DigestAsHex(
+                (characterizationId + File.separator + filepath).getBytes(StandardCharsets.UTF_8)) + "\"";
+        final CacheControl cacheControl = latest
+                ? CacheControl.noCache().cachePrivate()
+                : CacheControl.maxAge(FILE_MAX_AGE_DAYS, TimeUnit.DAYS).cachePrivate();
+        if (request.checkNotModified(etag)) {
+            // the ETag is already set, a 304 has to repeat the other caching headers of the full response
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+        // the stored JSON text is written into the response as is
+        final String data = achillesService.getAchillesFileData(characterizationId, filepath)
                 .orElseThrow(() -> new NotExistException(String.format("File %s not found",
                         filepath), AchillesFile.class));
-        JsonObject jsonObject = file.getData();
-        JsonNode node = objectMapper.readTree(new Gson().toJson(jsonObject));
-        return new JsonResult<>(NO_ERROR, node);
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .body(new JsonResult<>(NO_ERROR, new RawValue(data)));
     }
 
     @ApiOperation("List Achilles reports")
@@ -186,7 +206,7 @@ public abstract class BaseAchillesController<DS extends IDataSource> {
             produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
     public ResponseEntity<List<CommonAchillesReportDTO>> listReports() throws NotExistException {
 
-        List<AchillesReport> reports = achillesReportRepository.findAllByOrderBySortOrderAsc();
+        List<AchillesReport> reports = achillesService.getReports();
         List<CommonAchillesReportDTO> result = converterUtils.convertList(reports, CommonAchillesReportDTO.class);
         return new ResponseEntity<>(result, HttpStatus.OK);
     }
@@ -32,10 +32,12 @@ import com.odysseusinc.arachne.portal.api.v1.dto.ArachneConsts;
 import com.odysseusinc.arachne.portal.api.v1.dto.BulkUsersRegistrationDTO;
 import com.odysseusinc.arachne.portal.api.v1.dto.DeletableUserWithTenantsDTO;
 import com.odysseusinc.arachne.portal.api.v1.dto.DeletableUserWithTenantsListDTO;
+import com.odysseusinc.arachne.portal.api.v1.dto.SearchIndexRebuildStatusDTO;
 import com.odysseusinc.arachne.portal.exception.EmailNotUniqueException;
 import com.odysseusinc.arachne.portal.exception.NotExistException;
 import com.odysseusinc.arachne.portal.exception.PermissionDeniedException;
 import com.odysseusinc.arachne.portal.exception.UserNotFoundException;
+import com.odysseusinc.arachne.portal.jobs.SearchIndexesRefresher;
 import com.odysseusinc.arachne.portal.model.AbstractUserStudyListItem;
 import com.odysseusinc.arachne.portal.model.Analysis;
 import com.odysseusinc.arachne.portal.model.DataNode;
@@ -55,6 +57,7 @@ import com.odysseusinc.arachne.portal.service.BaseStudyService;
 import com.odysseusinc.arachne.portal.service.BaseTenantService;
 import com.odysseusinc.arachne.portal.service.ProfessionalTypeService;
 import com.odysseusinc.arachne.portal.service.analysis.BaseAnalysisService;
+import com.odysseusinc.arachne.portal.service.impl.AchillesReportIndex;
 import io.swagger.annotations.ApiOperation;
 import java.io.IOException;
 import java.security.Principal;
@@ -112,6 +115,8 @@ public abstract class BaseAdminController<
     private final ConverterUtils converterUtils;
     private final Validator validator;
     private final MessageSource messageSource;
+    private final SearchIndexesRefresher<?, ?, ?, ?, ?, ?, ?, ?> searchIndexesRefresher;
+    private final AchillesReportIndex achillesReportIndex;
 
     @Autowired
     public BaseAdminController(final BaseDataSourceService<DS> dataSourceService,
@@ -123,7 +128,9 @@ public abstract class BaseAdminController<
                                final BaseTenantService tenantService,
                                final ConverterUtils converterUtils,
                                final Validator validator,
-                               final MessageSource messageSource) {
+                               final MessageSource messageSource,
+                               final SearchIndexesRefresher<?, ?, ?, ?, ?, ?, ?, ?> searchIndexesRefresher,
+                               final AchillesReportIndex achillesReportIndex) {
 
         this.dataSourceService = dataSourceService;
         this.professionalTypeService = professionalTypeService;
@@ -135,6 +142,8 @@ public abstract class BaseAdminController<
         this.converterUtils = converterUtils;
         this.validator = validator;
         this.messageSource = messageSource;
+        this.searchIndexesRefresher = searchIndexesRefresher;
+        this.achillesReportIndex = achillesReportIndex;
     }
 
     @ApiOperation(value = "Enable user.", hidden = true)
@@ -302,6 +311,21 @@ public abstract class BaseAdminController<
         return new JsonResult<>(NO_ERROR);
     }
 
+    @ApiOperation(value = "Get progress of Solr indices rebuild", hidden = true)
+    @RequestMapping(value = "/api/v1/admin/reindex-solr/status", method = RequestMethod.GET)
+    public JsonResult<List<SearchIndexRebuildStatusDTO>> getReindexSolrStatus() {
+
+        return new JsonResult<>(NO_ERROR, searchIndexesRefresher.getStatus());
+    }
+
+    @ApiOperation(value = "Reload Achilles reports and their file matchers", hidden = true)
+    @RequestMapping(value = "/api/v1/admin/achilles/reports/refresh", method = RequestMethod.POST)
+    public JsonResult refreshAchillesReports() {
+
+        achillesReportIndex.refresh();
+        return new JsonResult<>(NO_ERROR);
+    }
+
     private Map<String, String> getEmailValidationErrors(List<U> users) {
 
         List<U> persistentUsers = userService.findUsersInAnyTenantByEmailIgnoreCaseIn(users.stream()
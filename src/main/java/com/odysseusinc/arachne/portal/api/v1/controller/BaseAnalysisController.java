@@ -25,7 +25,6 @@ import com.odysseusinc.arachne.commons.api.v1.dto.CommonAnalysisType;
 import com.odysseusinc.arachne.commons.api.v1.dto.CommonEntityRequestDTO;
 import com.odysseusinc.arachne.commons.api.v1.dto.OptionDTO;
 import com.odysseusinc.arachne.commons.api.v1.dto.util.JsonResult;
-import com.odysseusinc.arachne.commons.service.messaging.ProducerConsumerTemplate;
 import com.odysseusinc.arachne.commons.utils.CommonFilenameUtils;
 import com.odysseusinc.arachne.portal.api.v1.dto.AnalysisCreateDTO;
 import com.odysseusinc.arachne.portal.api.v1.dto.AnalysisDTO;
@@ -71,6 +70,7 @@ import com.odysseusinc.arachne.portal.service.analysis.AnalysisFilesSavingServic
 import com.odysseusinc.arachne.portal.service.analysis.BaseAnalysisService;
 import com.odysseusinc.arachne.portal.service.analysis.heracles.HeraclesAnalysisKind;
 import com.odysseusinc.arachne.portal.service.analysis.heracles.HeraclesAnalysisService;
+import com.odysseusinc.arachne.portal.service.messaging.DataNodeMessageExchange;
 import com.odysseusinc.arachne.portal.service.messaging.MessagingUtils;
 import com.odysseusinc.arachne.portal.service.submission.BaseSubmissionService;
 import com.odysseusinc.arachne.portal.service.submission.SubmissionInsightService;
@@ -85,8 +85,6 @@ import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Sort;
-import org.springframework.jms.core.JmsTemplate;
-import org.springframework.jms.support.destination.DestinationResolver;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.util.StringUtils;
@@ -101,7 +99,6 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.multipart.MultipartFile;
 
 import javax.jms.JMSException;
-import javax.jms.ObjectMessage;
 import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import java.io.IOException;
@@ -115,6 +112,7 @@ import java.util.Date;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -143,8 +141,7 @@ public abstract class BaseAnalysisController<T extends Analysis,
     private final DataReferenceService dataReferenceService;
     private final GenericConversionService conversionService;
     private final SimpMessagingTemplate wsTemplate;
-    private final JmsTemplate jmsTemplate;
-    private final DestinationResolver destinationResolver;
+    private final DataNodeMessageExchange messageExchange;
     private final ImportService importService;
     private final BaseSubmissionService<Submission, Analysis> submissionService;
     private final ToPdfConverter toPdfConverter;
@@ -160,7 +157,7 @@ public abstract class BaseAnalysisController<T extends Analysis,
     public BaseAnalysisController(BaseAnalysisService analysisService,
                                   BaseSubmissionService submissionService,
                                   DataReferenceService dataReferenceService,
-                                  JmsTemplate jmsTemplate,
+                                  DataNodeMessageExchange messageExchange,
                                   GenericConversionService conversionService,
                                   BaseDataNodeService baseDataNodeService,
                                   ImportService importService,
@@ -173,9 +170,8 @@ public abstract class BaseAnalysisController<T extends Analysis,
         this.analysisService = analysisService;
         this.submissionService = submissionService;
         this.dataReferenceService = dataReferenceService;
-        this.jmsTemplate = jmsTemplate;
+        this.messageExchange = messageExchange;
         this.conversionService = conversionService;
-        this.destinationResolver = jmsTemplate.getDestinationResolver();
         this.dataNodeService = baseDataNodeService;
         this.importService = importService;
         this.wsTemplate = wsTemplate;
@@ -650,30 +646,23 @@ public abstract class BaseAnalysisController<T extends Analysis,
     public List<MultipartFile> getEntityFiles(DataReferenceDTO entityReference, DataNode dataNode, CommonAnalysisType entityType)
             throws JMSException, IOException, URISyntaxException {
 
-        Long waitForResponse = datanodeImportTimeout;
-        Long messageLifeTime = datanodeImportTimeout;
         String baseQueue = MessagingUtils.Entities.getBaseQueue(dataNode);
         CommonEntityRequestDTO request = new CommonEntityRequestDTO(entityReference.getEntityGuid(), entityType);
 
-        ProducerConsumerTemplate exchangeTpl = new ProducerConsumerTemplate(
-                destinationResolver,
-                request,
-                baseQueue,
-                waitForResponse,
-                messageLifeTime
-        );
-        final ObjectMessage responseMessage = jmsTemplate.execute(
-                exchangeTpl,
-                true
-        );
-        if (responseMessage == null) {
-            String message = String.format(ENTITY_IS_NOT_AVAILABLE,
-                    entityType.getTitle(),
-                    entityReference.getEntityGuid(),
-                    entityReference.getDataNodeId());
-            throw new ServiceNotAvailableException(message);
+        final List<ImportedFile> importedFiles;
+        try {
+            // the imported files are processed within the request, so the reply is awaited here
+            importedFiles = messageExchange.<List<ImportedFile>>sendAndReceive(baseQueue, request, datanodeImportTimeout).join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof ServiceNotAvailableException) {
+                String message = String.format(ENTITY_IS_NOT_AVAILABLE,
+                        entityType.getTitle(),
+                        entityReference.getEntityGuid(),
+                        entityReference.getDataNodeId());
+                throw new ServiceNotAvailableException(message);
+            }
+            throw ex;
         }
-        final List<ImportedFile> importedFiles = (List<ImportedFile>) responseMessage.getObject();
         boolean hasAnalysisRunner = hasAnalysisRunner(importedFiles);
         if (entityType.equals(CommonAnalysisType.ESTIMATION) && !hasAnalysisRunner) {
             return importService.processEstimation(importedFiles);
@@ -31,6 +31,7 @@ import com.odysseusinc.arachne.portal.model.DataNode;
 import com.odysseusinc.arachne.portal.model.IUser;
 import com.odysseusinc.arachne.portal.model.Skill;
 import com.odysseusinc.arachne.portal.security.DataNodeAuthenticationToken;
+import com.odysseusinc.arachne.portal.security.DataNodeIdentity;
 import com.odysseusinc.arachne.portal.service.BaseUserService;
 import java.security.Principal;
 import java.util.HashMap;
@@ -57,12 +58,12 @@ public abstract class BaseController<DN extends DataNode, U extends IUser> {
         return userService.getUser(principal);
     }
 
-    protected DN getDatanode(Principal principal) throws PermissionDeniedException {
+    protected DataNodeIdentity getDataNodeIdentity(Principal principal) throws PermissionDeniedException {
 
         if (principal == null || !(principal instanceof DataNodeAuthenticationToken)) {
             throw new PermissionDeniedException();
         }
-        return (DN) ((DataNodeAuthenticationToken) principal).getPrincipal();
+        return ((DataNodeAuthenticationToken) principal).getPrincipal();
     }
 
 
@@ -26,15 +26,17 @@ import static org.springframework.web.bind.annotation.RequestMethod.GET;
 
 import com.odysseusinc.arachne.commons.api.v1.dto.CommonAnalysisType;
 import com.odysseusinc.arachne.commons.api.v1.dto.CommonCohortShortDTO;
+import com.odysseusinc.arachne.portal.api.v1.controller.util.ControllerUtils;
 import com.odysseusinc.arachne.portal.exception.NotExistException;
 import com.odysseusinc.arachne.portal.model.DataNode;
 import com.odysseusinc.arachne.portal.service.BaseDataNodeService;
 import com.odysseusinc.arachne.portal.service.messaging.BaseDataNodeMessageService;
 import io.swagger.annotations.ApiOperation;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.context.request.async.DeferredResult;
 
-import javax.jms.JMSException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -46,6 +48,9 @@ public abstract class BaseDataNodeCommonAnalysisController<DN extends DataNode>
 
     private final Map<String, CommonAnalysisType> analysisTypeMap = new HashMap<>();
 
+    @Value("${datanode.messaging.importTimeout}")
+    private Long messagingTimeout;
+
     public BaseDataNodeCommonAnalysisController(BaseDataNodeService<DN> baseDataNodeService, BaseDataNodeMessageService<DN> dataNodeMessageService) {
 
         this.baseDataNodeService = baseDataNodeService;
@@ -67,14 +72,17 @@ public abstract class BaseDataNodeCommonAnalysisController<DN extends DataNode>
             value = "/api/v1/data-nodes/{dataNodeId}/{type}",
             method = GET
     )
-    public List<CommonCohortShortDTO> listCohorts(
+    public DeferredResult<List<CommonCohortShortDTO>> listCohorts(
             @PathVariable("dataNodeId") Long dataNodeId,
             @PathVariable("type") String type
-    ) throws JMSException, NotExistException {
+    ) throws NotExistException {
 
         DN dataNode = baseDataNodeService.getById(dataNodeId);
         CommonAnalysisType analysisType = analysisTypeMap.getOrDefault(type, CommonAnalysisType.COHORT);
-        return dataNodeMessageService.getDataList(dataNode, analysisType);
+        return ControllerUtils.toDeferredResult(
+                dataNodeMessageService.<CommonCohortShortDTO>getDataList(dataNode, analysisType),
+                messagingTimeout
+        );
     }
 
 }
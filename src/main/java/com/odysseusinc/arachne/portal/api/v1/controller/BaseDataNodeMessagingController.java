@@ -23,7 +23,6 @@
 package com.odysseusinc.arachne.portal.api.v1.controller;
 
 import static com.odysseusinc.arachne.commons.service.messaging.MessagingUtils.getRequestQueueName;
-import static com.odysseusinc.arachne.commons.service.messaging.MessagingUtils.getResponseQueueName;
 import static org.springframework.web.bind.annotation.RequestMethod.DELETE;
 import static org.springframework.web.bind.annotation.RequestMethod.GET;
 import static org.springframework.web.bind.annotation.RequestMethod.POST;
@@ -33,7 +32,7 @@ import com.odysseusinc.arachne.commons.api.v1.dto.CommonEntityDTO;
 import com.odysseusinc.arachne.commons.api.v1.dto.CommonEntityRequestDTO;
 import com.odysseusinc.arachne.commons.api.v1.dto.CommonListEntityRequest;
 import com.odysseusinc.arachne.commons.api.v1.dto.CommonListEntityResponseDTO;
-import com.odysseusinc.arachne.commons.service.messaging.ConsumerTemplate;
+import com.odysseusinc.arachne.portal.api.v1.controller.util.ControllerUtils;
 import com.odysseusinc.arachne.portal.exception.NotExistException;
 import com.odysseusinc.arachne.portal.exception.PermissionDeniedException;
 import com.odysseusinc.arachne.portal.model.DataNode;
@@ -42,6 +41,7 @@ import com.odysseusinc.arachne.portal.model.IUser;
 import com.odysseusinc.arachne.portal.service.BaseAtlasService;
 import com.odysseusinc.arachne.portal.service.BaseDataNodeService;
 import com.odysseusinc.arachne.portal.service.messaging.BaseDataNodeMessageService;
+import com.odysseusinc.arachne.portal.service.messaging.DataNodeMessageExchange;
 import com.odysseusinc.arachne.portal.service.messaging.MessagingUtils;
 import com.odysseusinc.arachne.portal.util.ImportedFile;
 import java.io.IOException;
@@ -50,6 +50,7 @@ import java.security.Principal;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import javax.jms.JMSException;
 import javax.jms.ObjectMessage;
 import javax.validation.Valid;
@@ -58,33 +59,31 @@ import io.swagger.annotations.ApiOperation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.jms.core.JmsTemplate;
-import org.springframework.jms.support.destination.DestinationResolver;
+import org.springframework.jms.support.JmsUtils;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.web.multipart.MultipartFile;
 
 public abstract class BaseDataNodeMessagingController<DN extends DataNode, A extends IAtlas> extends BaseController<DN, IUser> {
 
     private static final Logger log = LoggerFactory.getLogger(BaseDataNodeController.class);
 
-    private final JmsTemplate jmsTemplate;
-    private final DestinationResolver destinationResolver;
+    private final DataNodeMessageExchange messageExchange;
     private final BaseDataNodeService<DN> baseDataNodeService;
     private final BaseDataNodeMessageService<DN> dataNodeMessageService;
     private final BaseAtlasService<A> atlasService;
 
     @Autowired
     public BaseDataNodeMessagingController(
-            JmsTemplate jmsTemplate,
+            DataNodeMessageExchange messageExchange,
             BaseDataNodeService<DN> dataNodeService,
             BaseDataNodeMessageService<DN> dataNodeMessageService,
             BaseAtlasService<A> atlasService) {
 
-        this.jmsTemplate = jmsTemplate;
-        this.destinationResolver = jmsTemplate.getDestinationResolver();
+        this.messageExchange = messageExchange;
         this.baseDataNodeService = dataNodeService;
         this.dataNodeMessageService = dataNodeMessageService;
         this.atlasService = atlasService;
@@ -92,19 +91,20 @@ public abstract class BaseDataNodeMessagingController<DN extends DataNode, A ext
 
     /**
      * Returns pending requests for CommonEntity list
-     * (for polling by Node's back)
+     * (for polling by Node's back, waitMs enables long polling)
      */
     @ApiOperation("Returns pending requests for CommonEntity list")
     @RequestMapping(
             value = "/api/v1/data-nodes/entity-lists/requests",
             method = GET
     )
-    public CommonListEntityRequest getListRequests(
-            Principal principal
-    ) throws Exception {
+    public DeferredResult<CommonListEntityRequest> getListRequests(
+            Principal principal,
+            @RequestParam(value = "waitMs", defaultValue = "0") long waitMs
+    ) throws PermissionDeniedException {
 
         DN dataNode = getDatanode(principal);
-        return dataNodeMessageService.getListRequest(dataNode);
+        return ControllerUtils.toDeferredResult(dataNodeMessageService.getListRequest(dataNode, waitMs), pollTimeout(waitMs));
     }
 
     /**
@@ -122,18 +122,11 @@ public abstract class BaseDataNodeMessagingController<DN extends DataNode, A ext
     ) throws PermissionDeniedException {
 
         DataNode dataNode = getDatanode(principal);
-        String responseQueue = getResponseQueueName(MessagingUtils.EntitiesList.getBaseQueue(dataNode));
+        String baseQueue = MessagingUtils.EntitiesList.getBaseQueue(dataNode);
         List<CommonEntityDTO> response = (List<CommonEntityDTO>) commonListEntityResponseDTO.getEntities();
 
         for (String correlationId : commonListEntityResponseDTO.getRequestIds()) {
-            jmsTemplate.send(
-                    responseQueue,
-                    session -> {
-                        ObjectMessage message = session.createObjectMessage((Serializable) response);
-                        message.setJMSCorrelationID(correlationId);
-                        return message;
-                    }
-            );
+            messageExchange.reply(baseQueue, correlationId, (Serializable) response);
         }
     }
 
@@ -181,30 +174,28 @@ public abstract class BaseDataNodeMessagingController<DN extends DataNode, A ext
             value = "/api/v1/data-nodes/entities",
             method = GET
     )
-    public List<CommonEntityRequestDTO> getEntityRequests(
-            Principal principal
-    ) throws PermissionDeniedException, JMSException {
+    public DeferredResult<List<CommonEntityRequestDTO>> getEntityRequests(
+            Principal principal,
+            @RequestParam(value = "waitMs", defaultValue = "0") long waitMs
+    ) throws PermissionDeniedException {
 
         DataNode dataNode = getDatanode(principal);
         final String requestQueue = getRequestQueueName(MessagingUtils.Entities.getBaseQueue(dataNode));
-        ConsumerTemplate consumerTpl = new ConsumerTemplate(
-                destinationResolver,
-                requestQueue,
-                // Give some time for case when new connection to a broker is established
-                1000L
-        );
-
-        List<CommonEntityRequestDTO> cohortRequests = new ArrayList<>();
-        while (true) {
-            ObjectMessage requestMessage = jmsTemplate.execute(consumerTpl, true);
-            if (requestMessage == null) {
-                break;
-            }
-            final CommonEntityRequestDTO cohortRequest = (CommonEntityRequestDTO) requestMessage.getObject();
-            cohortRequest.setId(requestMessage.getJMSCorrelationID());
-            cohortRequests.add(cohortRequest);
-        }
-        return cohortRequests;
+        final CompletableFuture<List<CommonEntityRequestDTO>> requests = messageExchange.awaitAll(requestQueue, waitMs)
+                .thenApply(requestMessages -> {
+                    List<CommonEntityRequestDTO> cohortRequests = new ArrayList<>();
+                    try {
+                        for (ObjectMessage requestMessage : requestMessages) {
+                            final CommonEntityRequestDTO cohortRequest = (CommonEntityRequestDTO) requestMessage.getObject();
+                            cohortRequest.setId(requestMessage.getJMSCorrelationID());
+                            cohortRequests.add(cohortRequest);
+                        }
+                    } catch (JMSException ex) {
+                        throw JmsUtils.convertJmsAccessException(ex);
+                    }
+                    return cohortRequests;
+                });
+        return ControllerUtils.toDeferredResult(requests, pollTimeout(waitMs));
     }
 
     @ApiOperation("Save entity")
@@ -232,6 +223,19 @@ public abstract class BaseDataNodeMessagingController<DN extends DataNode, A ext
 
     protected abstract A convert(AtlasShortDTO atlasDTO);
 
+    /**
+     * Returns a reference to the authenticated node, it is loaded only when more than its id is read.
+     */
+    protected DN getDatanode(Principal principal) throws PermissionDeniedException {
+
+        return baseDataNodeService.getReference(getDataNodeIdentity(principal).getId());
+    }
+
+    private long pollTimeout(long waitMs) {
+
+        return Math.min(Math.max(waitMs, 0L), messageExchange.getMaxPollWaitMs());
+    }
+
     private void saveCommonEntity(
             Principal principal,
             String id,
@@ -240,14 +244,6 @@ public abstract class BaseDataNodeMessagingController<DN extends DataNode, A ext
 
         DataNode dataNode = getDatanode(principal);
         String queueBase = MessagingUtils.Entities.getBaseQueue(dataNode);
-        String responseQueue = getResponseQueueName(queueBase);
-        jmsTemplate.send(
-                responseQueue,
-                session -> {
-                    ObjectMessage message = session.createObjectMessage(object);
-                    message.setJMSCorrelationID(id);
-                    return message;
-                }
-        );
+        messageExchange.reply(queueBase, id, object);
     }
 }
@@ -7,12 +7,14 @@ import com.odysseusinc.arachne.commons.api.v1.dto.CommonPredictionDTO;
 import com.odysseusinc.arachne.portal.model.DataNode;
 import com.odysseusinc.arachne.portal.service.BaseDataNodeService;
 import com.odysseusinc.arachne.portal.service.messaging.BaseDataNodeMessageService;
+import com.odysseusinc.arachne.portal.api.v1.controller.util.ControllerUtils;
 import io.swagger.annotations.ApiOperation;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.context.request.async.DeferredResult;
 
-import javax.jms.JMSException;
 import java.util.List;
 
 public class BaseDataNodePredictionController<DN extends DataNode> extends BaseController {
@@ -20,6 +22,9 @@ public class BaseDataNodePredictionController<DN extends DataNode> extends BaseC
     private final BaseDataNodeService<DN> dataNodeService;
     private final BaseDataNodeMessageService<DN> messageService;
 
+    @Value("${datanode.messaging.importTimeout}")
+    private Long messagingTimeout;
+
     @Autowired
     public BaseDataNodePredictionController(BaseDataNodeService<DN> dataNodeService,
                                             BaseDataNodeMessageService<DN> messageService) {
@@ -30,10 +35,12 @@ public class BaseDataNodePredictionController<DN extends DataNode> extends BaseC
 
     @RequestMapping(value = "/api/v1/data-nodes/{dataNodeId}/predictions", method = GET)
     @ApiOperation("Returns list of patient level predictions from datanode")
-    public List<CommonPredictionDTO> listPredictions(@PathVariable("dataNodeId") Long dataNodeId)
-            throws JMSException {
+    public DeferredResult<List<CommonPredictionDTO>> listPredictions(@PathVariable("dataNodeId") Long dataNodeId) {
 
         DN dataNode = dataNodeService.getById(dataNodeId);
-        return messageService.getDataList(dataNode, CommonAnalysisType.PREDICTION);
+        return ControllerUtils.toDeferredResult(
+                messageService.<CommonPredictionDTO>getDataList(dataNode, CommonAnalysisType.PREDICTION),
+                messagingTimeout
+        );
     }
 }
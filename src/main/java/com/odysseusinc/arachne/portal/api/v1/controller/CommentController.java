@@ -30,7 +30,6 @@ import com.odysseusinc.arachne.portal.api.v1.dto.CommentTopicDTO;
 import com.odysseusinc.arachne.portal.exception.NotExistException;
 import com.odysseusinc.arachne.portal.exception.PermissionDeniedException;
 import com.odysseusinc.arachne.portal.model.Comment;
-import com.odysseusinc.arachne.portal.model.CommentTopic;
 import com.odysseusinc.arachne.portal.model.IUser;
 import com.odysseusinc.arachne.portal.model.User;
 import com.odysseusinc.arachne.portal.service.CommentService;
@@ -66,9 +65,8 @@ public class CommentController extends BaseController {
             method = RequestMethod.GET)
     public JsonResult<CommentTopicDTO> get(@PathVariable("topicId") Long topicId) throws NotExistException {
 
-        final CommentTopic topic = commentService.getTopic(topicId);
         JsonResult<CommentTopicDTO> result = new JsonResult<>(NO_ERROR);
-        result.setResult(conversionService.convert(topic, CommentTopicDTO.class));
+        result.setResult(commentService.getTopicThread(topicId));
         return result;
     }
 
@@ -27,21 +27,21 @@ import com.odysseusinc.arachne.portal.model.DataNode;
 import com.odysseusinc.arachne.portal.model.IAtlas;
 import com.odysseusinc.arachne.portal.service.AtlasService;
 import com.odysseusinc.arachne.portal.service.DataNodeService;
+import com.odysseusinc.arachne.portal.service.messaging.DataNodeMessageExchange;
 import com.odysseusinc.arachne.portal.service.messaging.DataNodeMessageService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.jms.core.JmsTemplate;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
 public class DataNodeMessagingController extends BaseDataNodeMessagingController<DataNode, IAtlas> {
 
     @Autowired
-    public DataNodeMessagingController(JmsTemplate jmsTemplate,
+    public DataNodeMessagingController(DataNodeMessageExchange messageExchange,
                                        DataNodeService dataNodeService,
                                        DataNodeMessageService dataNodeMessageService,
                                        AtlasService atlasService) {
 
-        super(jmsTemplate, dataNodeService, dataNodeMessageService, atlasService);
+        super(messageExchange, dataNodeService, dataNodeMessageService, atlasService);
     }
 
     @Override
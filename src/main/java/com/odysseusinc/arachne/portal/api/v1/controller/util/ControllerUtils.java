@@ -24,10 +24,15 @@ package com.odysseusinc.arachne.portal.api.v1.controller.util;
 
 import com.odysseusinc.arachne.commons.api.v1.dto.util.JsonResult;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import org.springframework.validation.FieldError;
+import org.springframework.web.context.request.async.DeferredResult;
 
 public class ControllerUtils {
 
+    private static final long ASYNC_TIMEOUT_MARGIN = 5000L;
+
     public static JsonResult getFieldErrorsJsonResult(List<FieldError> fieldErrors) {
 
         JsonResult result = new JsonResult<>(JsonResult.ErrorCode.VALIDATION_ERROR);
@@ -38,6 +43,23 @@ public class ControllerUtils {
     }
 
 
+    /**
+     * Releases the servlet thread while the future is being completed, e.g. by a DataNode reply.
+     * The request is kept open a bit longer than the future may take, so that its own timeout error is reported.
+     */
+    public static <T> DeferredResult<T> toDeferredResult(CompletableFuture<? extends T> future, long timeoutMs) {
+
+        DeferredResult<T> result = new DeferredResult<>(timeoutMs + ASYNC_TIMEOUT_MARGIN);
+        future.whenComplete((value, ex) -> {
+            if (ex == null) {
+                result.setResult(value);
+            } else {
+                result.setErrorResult(ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex);
+            }
+        });
+        return result;
+    }
+
     // Sleep from second to five to simulate email sending
     public static void emulateEmailSent() throws InterruptedException {
 
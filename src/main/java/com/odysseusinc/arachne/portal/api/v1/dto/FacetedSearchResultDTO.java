@@ -33,6 +33,7 @@ import org.springframework.data.domain.Pageable;
 public class FacetedSearchResultDTO<T> extends CustomPageImpl<T> {
 
     private Map<String, FacetOptionList> facets;
+    private String nextCursorMark;
 
     public FacetedSearchResultDTO(List<T> content, Map<String, FacetOptionList> facets, Pageable pageable, long total) {
 
@@ -49,4 +50,17 @@ public class FacetedSearchResultDTO<T> extends CustomPageImpl<T> {
 
         this.facets = facets;
     }
+
+    /**
+     * Cursor of the next page, present when the page was requested by a cursor.
+     */
+    public String getNextCursorMark() {
+
+        return nextCursorMark;
+    }
+
+    public void setNextCursorMark(String nextCursorMark) {
+
+        this.nextCursorMark = nextCursorMark;
+    }
 }
@@ -37,6 +37,11 @@ public class SearchDTO extends PageDTO {
 
     private boolean fullFacetsQuery = false;
 
+    /**
+     * Solr cursor of the page to return, "*" for the first one. When it is set, the page number is ignored.
+     */
+    private String cursorMark;
+
     private Map<String, Object> filter;
 
     public SearchDTO() {
@@ -101,6 +106,16 @@ public class SearchDTO extends PageDTO {
         this.fullFacetsQuery = fullFacetsQuery;
     }
 
+    public String getCursorMark() {
+
+        return cursorMark;
+    }
+
+    public void setCursorMark(String cursorMark) {
+
+        this.cursorMark = cursorMark;
+    }
+
     public String[] getCollections() {
 
         return collections;
@@ -0,0 +1,118 @@
+/*
+ *
+ * Copyright 2021 Odysseus Data Services, inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Company: Odysseus Data Services, Inc.
+ * Product Owner/Architecture: Gregory Klebanov
+ * Authors: Yaroslav Molodkov, Alexandr Cumarav, Vitaliy Kulakov
+ * Created: July 05, 2021
+ *
+ */
+
+package com.odysseusinc.arachne.portal.api.v1.dto;
+
+import com.odysseusinc.arachne.portal.model.SearchIndexRebuildState;
+import java.util.Date;
+
+public class SearchIndexRebuildStatusDTO {
+
+    private String collection;
+    private SearchIndexRebuildState state;
+    private Long lastId;
+    private Long indexed;
+    private Boolean resumed;
+    private Date started;
+    private Date finished;
+    private String error;
+
+    public String getCollection() {
+
+        return collection;
+    }
+
+    public void setCollection(String collection) {
+
+        this.collection = collection;
+    }
+
+    public SearchIndexRebuildState getState() {
+
+        return state;
+    }
+
+    public void setState(SearchIndexRebuildState state) {
+
+        this.state = state;
+    }
+
+    public Long getLastId() {
+
+        return lastId;
+    }
+
+    public void setLastId(Long lastId) {
+
+        this.lastId = lastId;
+    }
+
+    public Long getIndexed() {
+
+        return indexed;
+    }
+
+    public void setIndexed(Long indexed) {
+
+        this.indexed = indexed;
+    }
+
+    public Boolean getResumed() {
+
+        return resumed;
+    }
+
+    public void setResumed(Boolean resumed) {
+
+        this.resumed = resumed;
+    }
+
+    public Date getStarted() {
+
+        return started;
+    }
+
+    public void setStarted(Date started) {
+
+        this.started = started;
+    }
+
+    public Date getFinished() {
+
+        return finished;
+    }
+
+    public void setFinished(Date finished) {
+
+        this.finished = finished;
+    }
+
+    public String getError() {
+
+        return error;
+    }
+
+    public void setError(String error) {
+
+        this.error = error;
+    }
+}
@@ -73,12 +73,14 @@ public abstract class BaseSearchResultToDataCatalogSearchResultDTOConverter<DS_D
     @Override
     public D convert(SearchResult<? extends DataSource> source) {
 
-        return newDataCatalogSearchResultDTO(
+        D result = newDataCatalogSearchResultDTO(
                 buildContent(source),
                 buildFacets(source, getSolrFields()),
                 buildPageRequest(source),
                 getTotal(source)
         );
+        result.setNextCursorMark(getNextCursorMark(source));
+        return result;
     }
 
     protected abstract D newDataCatalogSearchResultDTO(List<DS_DTO> dataSourceDTOS,
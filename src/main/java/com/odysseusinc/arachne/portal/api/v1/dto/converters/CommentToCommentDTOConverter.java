@@ -39,15 +39,7 @@ public class CommentToCommentDTOConverter extends BaseConversionServiceAwareConv
         commentDTO.setComment(source.getComment());
         commentDTO.setAuthor(conversionService.convert(source.getAuthor(), UserInfoDTO.class));
 
-        // Comments can not have childs in current flow.
-        // After uncommenting code is below it will be needed to Initialize comments recursively
-        /*
-        final List<CommentDTO> commentDTOS = source.getComments()
-                .stream()
-                .map(c -> conversionService.convert(c, CommentDTO.class))
-                .collect(Collectors.toList());
-        commentDTO.setComments(commentDTOS);
-        */
+        // Answers are not loaded here, CommentService assembles the whole thread of a topic from a single query
         return commentDTO;
     }
 }
@@ -33,6 +33,7 @@ import java.util.stream.Stream;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.solr.client.solrj.SolrQuery;
 import org.apache.solr.client.solrj.util.ClientUtils;
+import org.apache.solr.common.params.CursorMarkParams;
 import org.json.JSONException;
 import org.json.JSONObject;
 
@@ -46,6 +47,11 @@ public abstract class SearchDTOToSolrQuery {
         return facetName + "s";
     }
 
+    public static String getFacetName(String facetLabel) {
+
+        return StringUtils.removeEnd(facetLabel, "s");
+    }
+
     protected FieldList<SolrField> getSolrFields() {
 
         return new FieldList<>();
@@ -81,7 +87,16 @@ public abstract class SearchDTOToSolrQuery {
 
     protected void setPagination(SearchDTO source, SolrQuery result) {
 
-        if (source.getPage() != null && source.getPageSize() != null) {
+        if (source.getCursorMark() != null && source.getPageSize() != null) {
+            // deep pages are read from the cursor position instead of collecting and skipping all previous documents
+            result.setRows(source.getPageSize());
+            result.set(CursorMarkParams.CURSOR_MARK_PARAM, source.getCursorMark());
+            final boolean hasUniqueSort = result.getSorts().stream()
+                    .anyMatch(sort -> SolrService.SYSTEM_ID.equals(sort.getItem()));
+            if (!hasUniqueSort) {
+                result.addSort(SolrService.SYSTEM_ID, SolrQuery.ORDER.asc);
+            }
+        } else if (source.getPage() != null && source.getPageSize() != null) {
             result.setStart((source.getPage() - 1) * source.getPageSize());
             result.setRows(source.getPageSize());
         }
@@ -112,18 +127,14 @@ public abstract class SearchDTOToSolrQuery {
         }
     }
 
-    // TODO
     protected void setFacets(SearchDTO source, SolrQuery result, FieldList<SolrField> solrFields) {
 
+        // only JSON facets are requested, both the option lists and the excluded options are built from them
         JSONObject jsonFacet = new JSONObject();
         solrFields
                 .stream()
                 .filter(SolrField::getFaceted)
-                .forEach(solrField -> {
-                    result.addFacetField(SolrService.fieldNameToFacet(solrField));
-                    putIntoJsonFacet(jsonFacet, SolrService.fieldNameToFacet(solrField),
-                            Number.class.isAssignableFrom(solrField.getDataType()));
-                });
+                .forEach(solrField -> putIntoJsonFacet(jsonFacet, SolrService.fieldNameToFacet(solrField)));
         result.add("json.facet", jsonFacet.toString().replace("\"", ""));
     }
 
@@ -165,13 +176,12 @@ public abstract class SearchDTOToSolrQuery {
         return result;
     }
 
-    private void putIntoJsonFacet(JSONObject jsonFacet, String facetField, boolean isNumber) {
+    private void putIntoJsonFacet(JSONObject jsonFacet, String facetField) {
 
         try {
-            JSONObject parameters = getJsonFacetParameters(facetField);
-            if (!isNumber) {
-                parameters.put("mincount", 0);
-            }
+            // zero-count buckets are kept for every field type, the excluded options are built from them
+            JSONObject parameters = getJsonFacetParameters(facetField)
+                    .put("mincount", 0);
             jsonFacet.put(getFacetLabel(facetField), parameters);
         } catch (JSONException e) {
             throw new RuntimeException(e);
@@ -72,12 +72,14 @@ public class SearchResultToExpertListSearchResultDTOConverter
 
     @Override
     public ExpertListSearchResultDTO convert(SearchResult<User> source) {
-        return new ExpertListSearchResultDTO(
+        ExpertListSearchResultDTO result = new ExpertListSearchResultDTO(
                 buildContent(source),
                 buildFacets(source, getSolrFields()),
                 buildPageRequest(source),
                 getTotal(source)
         );
+        result.setNextCursorMark(getNextCursorMark(source));
+        return result;
     }
 
 }
@@ -30,11 +30,11 @@ import com.odysseusinc.arachne.portal.api.v1.dto.FacetOptionList;
 import com.odysseusinc.arachne.portal.service.SolrService;
 import com.odysseusinc.arachne.portal.service.impl.solr.FieldList;
 import com.odysseusinc.arachne.portal.service.impl.solr.SearchResult;
+import com.odysseusinc.arachne.portal.service.impl.solr.SolrField;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import org.apache.solr.client.solrj.response.FacetField;
 import org.apache.solr.common.util.NamedList;
 import org.apache.solr.common.util.SimpleOrderedMap;
 import org.springframework.data.domain.PageRequest;
@@ -49,7 +49,7 @@ public abstract class SearchResultToFacetedSearchResultDTOConverter {
         return new FieldList();
     }
 
-    protected Map<String, FacetOptionList> buildFacets(SearchResult source, FieldList solrFields) {
+    protected Map<String, FacetOptionList> buildFacets(SearchResult source, FieldList<? extends SolrField> solrFields) {
 
         Map<String, List<String>> excludedOptions = source.getExcludedOptions();
         NamedList response = source.getSolrResponse().getResponse();
@@ -57,13 +57,14 @@ public abstract class SearchResultToFacetedSearchResultDTOConverter {
         Map<String, FacetOptionList> facets = new HashMap<>();
 
         // Facets for option list and numeric type
-        List<FacetField> facetFieldList = source.getSolrResponse().getFacetFields();
-        if (facetFieldList != null) {
-            for (FacetField facetField : facetFieldList) {
-
-                FacetOptionList facetOptionList = getFacetOptionList(facetsMap, facetField.getName(),
-                        excludedOptions.get(facetField.getName()));
-                facets.put(solrFields.getBySolrName(SolrService.facetToFieldName(facetField)).getName(), facetOptionList);
+        if (facetsMap != null) {
+            for (SolrField solrField : solrFields.getFacetedFields()) {
+                String facetName = SolrService.fieldNameToFacet(solrField);
+                if (facetsMap.containsKey(getFacetLabel(facetName))) {
+                    FacetOptionList facetOptionList = getFacetOptionList(facetsMap, facetName,
+                            excludedOptions.get(facetName));
+                    facets.put(solrField.getName(), facetOptionList);
+                }
             }
         }
         return facets;
@@ -116,6 +117,11 @@ public abstract class SearchResultToFacetedSearchResultDTOConverter {
         return PageRequest.of(pageNum, itemsOnPage);
     }
 
+    protected String getNextCursorMark(SearchResult source) {
+
+        return source.getSolrResponse().getNextCursorMark();
+    }
+
     protected long getTotal(SearchResult source) {
 
         return source.getSolrResponse().getResults().getNumFound();
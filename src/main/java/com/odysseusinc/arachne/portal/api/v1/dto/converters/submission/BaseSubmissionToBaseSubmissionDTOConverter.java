@@ -22,9 +22,6 @@
 
 package com.odysseusinc.arachne.portal.api.v1.dto.converters.submission;
 
-import com.google.gson.Gson;
-import com.google.gson.JsonElement;
-import com.google.gson.reflect.TypeToken;
 import com.odysseusinc.arachne.portal.api.v1.dto.BaseSubmissionDTO;
 import com.odysseusinc.arachne.portal.api.v1.dto.DataSourceDTO;
 import com.odysseusinc.arachne.portal.api.v1.dto.PermissionsDTO;
@@ -38,11 +35,6 @@ import com.odysseusinc.arachne.portal.model.SubmissionStatus;
 import com.odysseusinc.arachne.portal.model.SubmissionStatusHistoryElement;
 import com.odysseusinc.arachne.portal.model.security.ArachneUser;
 import com.odysseusinc.arachne.portal.util.DataNodeUtils;
-import java.lang.reflect.Type;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.Objects;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 public abstract class BaseSubmissionToBaseSubmissionDTOConverter<T extends Submission, DTO extends BaseSubmissionDTO>
@@ -77,19 +69,8 @@ public abstract class BaseSubmissionToBaseSubmissionDTOConverter<T extends Submi
         }
         dto.setPermissions(conversionService.convert(source, PermissionsDTO.class));
         proceedAdditionalFields(dto, source);
-        final JsonElement resultInfo = source.getResultInfo();
-        Gson gson = new Gson();
-        Object result = null;
-        if (Objects.nonNull(resultInfo)) {
-            if (resultInfo.isJsonObject()) {
-                result = gson.fromJson(resultInfo, Map.class);
-            } else if (resultInfo.isJsonArray()) {
-                Type type = new TypeToken<List<HashMap<String, Object>>>() {
-                }.getType();
-                result = gson.fromJson(resultInfo, type);
-            }
-        }
-        dto.setResultInfo(result);
+        // the stored JSON is written into the response as is
+        dto.setResultInfo(source.getResultInfo());
         dto.setHidden(source.getHidden());
         return dto;
     }
@@ -56,6 +56,7 @@ import com.odysseusinc.arachne.portal.service.BaseArachneSecureService;
 import com.odysseusinc.arachne.portal.service.domain.DomainObjectLoaderFactory;
 import java.io.Serializable;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -64,6 +65,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import org.apache.commons.lang3.ObjectUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -78,15 +82,18 @@ public class ArachnePermissionEvaluator<T extends Paper, D extends IDataSource>
 
     protected final BaseArachneSecureService<T, D> secureService;
     protected final DomainObjectLoaderFactory domainObjectLoaderFactory;
+    protected final ParticipantRoleCache participantRoleCache;
     protected Map<String, Class> domainClassMap = new HashMap<>();
 
     @Autowired
     public ArachnePermissionEvaluator(
             BaseArachneSecureService<T, D> secureService,
-            DomainObjectLoaderFactory domainObjectLoaderFactory) {
+            DomainObjectLoaderFactory domainObjectLoaderFactory,
+            ParticipantRoleCache participantRoleCache) {
 
         this.secureService = secureService;
         this.domainObjectLoaderFactory = domainObjectLoaderFactory;
+        this.participantRoleCache = participantRoleCache;
 
         initDomainClassMap();
     }
@@ -158,14 +165,14 @@ public class ArachnePermissionEvaluator<T extends Paper, D extends IDataSource>
 
         return domainObject(domainObject)
                 .when(instanceOf(Study.class))
-                .then(study -> getArachnePermissions(secureService.getRolesByStudy(user, study))).apply();
+                .then(study -> getArachnePermissions(getRoles(user, study, () -> secureService.getRolesByStudy(user, study)))).apply();
     }
 
     protected PermissionDsl analysisRules(Object domainObject, ArachneUser user) {
 
         return domainObject(domainObject)
                 .when(instanceOf(Analysis.class))
-                .then(analysis -> getArachnePermissions(secureService.getRolesByAnalysis(user, analysis)))
+                .then(analysis -> getArachnePermissions(getRoles(user, analysis, () -> secureService.getRolesByAnalysis(user, analysis))))
                 .filter((analysis, permission) -> !(ArachnePermission.DELETE_ANALYSIS.equals(permission)
                         && (
                             Objects.isNull(analysis.getAuthor())
@@ -181,7 +188,7 @@ public class ArachnePermissionEvaluator<T extends Paper, D extends IDataSource>
     protected PermissionDsl submissionRules(Object domainObject, ArachneUser user) {
 
         return domainObject(domainObject).when(instanceOf(Submission.class))
-                .then(submission -> getArachnePermissions(secureService.getRolesBySubmission(user, submission))).apply();
+                .then(submission -> getArachnePermissions(getRoles(user, submission, () -> secureService.getRolesBySubmission(user, submission)))).apply();
     }
 
     protected PermissionDsl analysisFileRules(Object domainObject, ArachneUser user) {
@@ -196,7 +203,7 @@ public class ArachnePermissionEvaluator<T extends Paper, D extends IDataSource>
     protected PermissionDsl dataSourceRules(Object domainObject, ArachneUser user) {
 
         return domainObject(domainObject).when(instanceOf(IDataSource.class))
-                .then(dataSource -> getArachnePermissions(secureService.getRolesByDataSource(user, (D) dataSource))).apply()
+                .then(dataSource -> getArachnePermissions(getRoles(user, dataSource, () -> secureService.getRolesByDataSource(user, (D) dataSource)))).apply()
                 .when(instanceOf(IDataSource.class).and(hasRole(user, "ROLE_ADMIN")))
                 .then(dataSource -> Collections.singleton(DELETE_DATASOURCE)).apply();
 
@@ -205,20 +212,20 @@ public class ArachnePermissionEvaluator<T extends Paper, D extends IDataSource>
     protected PermissionDsl dataNodeRules(Object domainObject, ArachneUser user) {
 
         return domainObject(domainObject).when(instanceOf(DataNode.class))
-                .then(dataNode -> getArachnePermissions(secureService.getRolesByDataNode(user, dataNode))).apply();
+                .then(dataNode -> getArachnePermissions(getRoles(user, dataNode, () -> secureService.getRolesByDataNode(user, dataNode)))).apply();
     }
 
     protected PermissionDsl submissionGroupRules(Object domainObject, ArachneUser user) {
 
         return domainObject(domainObject).when(instanceOf(SubmissionGroup.class))
-                .then(submissionGroup -> getArachnePermissions(secureService.getRolesBySubmissionGroup(user, submissionGroup)))
+                .then(submissionGroup -> getArachnePermissions(getRoles(user, submissionGroup, () -> secureService.getRolesBySubmissionGroup(user, submissionGroup))))
                 .apply();
     }
 
     protected PermissionDsl paperRules(Object domainObject, ArachneUser user) {
 
         return domainObject(domainObject).when(instanceOf(Paper.class))
-                .then(paper -> getArachnePermissions(secureService.getRolesByPaper(user, (T) paper))).apply()
+                .then(paper -> getArachnePermissions(getRoles(user, paper, () -> secureService.getRolesByPaper(user, (T) paper)))).apply()
                 .when(instanceOf(Paper.class).and(paper -> paper.getPublishState() == PublishState.PUBLISHED))
                 .then(paper -> Collections.singleton(ArachnePermission.ACCESS_PAPER))
                 .apply();
@@ -227,13 +234,13 @@ public class ArachnePermissionEvaluator<T extends Paper, D extends IDataSource>
     protected PermissionDsl insightRules(Object domainObject, ArachneUser user) {
 
         return domainObject(domainObject).when(instanceOf(SubmissionInsight.class))
-                .then(insight -> getArachnePermissions(secureService.getRolesByInsight(user, (SubmissionInsight) insight))).apply();
+                .then(insight -> getArachnePermissions(getRoles(user, insight, () -> secureService.getRolesByInsight(user, (SubmissionInsight) insight)))).apply();
     }
 
     protected PermissionDsl topicRules(Object domainObject, ArachneUser user) {
 
         return domainObject(domainObject).when(instanceOf(CommentTopic.class))
-                .then(topic -> getArachnePermissions(secureService.getRolesByCommentTopic(user, (CommentTopic) topic))).apply();
+                .then(topic -> getArachnePermissions(getRoles(user, topic, () -> secureService.getRolesByCommentTopic(user, (CommentTopic) topic)))).apply();
     }
 
     protected PermissionDsl userRules(Object domainObject, ArachneUser user) {
@@ -246,7 +253,7 @@ public class ArachnePermissionEvaluator<T extends Paper, D extends IDataSource>
     protected PermissionDsl organizationRules(Object domainObject, ArachneUser user) {
 
         return domainObject(domainObject).when(instanceOf(Organization.class))
-                .then(organization -> getArachnePermissions(secureService.getRolesByOrganization(user, (Organization) organization))).apply();
+                .then(organization -> getArachnePermissions(getRoles(user, organization, () -> secureService.getRolesByOrganization(user, (Organization) organization)))).apply();
     }
 
     protected PermissionDsl additionalRules(Object domainObject, ArachneUser user) {
@@ -273,6 +280,12 @@ public class ArachnePermissionEvaluator<T extends Paper, D extends IDataSource>
                 .getPermissions();
     }
 
+    protected List<ParticipantRole> getRoles(ArachneUser user, Object domainObject,
+                                             Supplier<List<ParticipantRole>> loader) {
+
+        return participantRoleCache.getRoles(user, domainObject, loader);
+    }
+
     protected Set<ArachnePermission> getArachnePermissions(List<ParticipantRole> roles) {
 
         Set<ArachnePermission> allPermission = new HashSet<>();
@@ -292,6 +305,7 @@ public class ArachnePermissionEvaluator<T extends Paper, D extends IDataSource>
             final Analysis analysis = (Analysis) hasPermissionsObj;
             final List<SubmissionGroup> submissionGroups = analysis.getSubmissionGroups();
             if (!CollectionUtils.isEmpty(submissionGroups)) {
+                preloadSubmissionRoles(user, submissionGroups);
                 submissionGroups.forEach(submissionGroup -> submissionGroup.getSubmissions().forEach(submission -> {
                     final Set<ArachnePermission> submissionPermissions = getAllPermissions(submission, user);
                     submission.setPermissions(submissionPermissions);
@@ -306,6 +320,8 @@ public class ArachnePermissionEvaluator<T extends Paper, D extends IDataSource>
             }
         } else if (hasPermissionsObj instanceof Study) {
             final Study study = (Study) hasPermissionsObj;
+            preloadRoles(user, study.getAnalyses(), Analysis::getId,
+                    analyses -> secureService.getRolesByAnalyses(user, analyses));
             for (final Analysis analysis : study.getAnalyses()) {
                 analysis.setPermissions(getAllPermissions(analysis, user));
             }
@@ -315,6 +331,10 @@ public class ArachnePermissionEvaluator<T extends Paper, D extends IDataSource>
 
     public boolean addPermissions(ArachneUser user, Page<UserStudyGrouped> userStudyLinks) {
 
+        final List<Study> studies = userStudyLinks.getContent().stream()
+                .map(UserStudyGrouped::getStudy)
+                .collect(Collectors.toList());
+        preloadRoles(user, studies, Study::getId, s -> secureService.getRolesByStudies(user, s));
         for (UserStudyGrouped userStudyLink : userStudyLinks) {
             Study study = userStudyLink.getStudy();
             Set<ArachnePermission> allPermissions = getAllPermissions(study, user);
@@ -326,6 +346,7 @@ public class ArachnePermissionEvaluator<T extends Paper, D extends IDataSource>
 
     public boolean addPermissionsToSubmissions(ArachneUser user, Page<SubmissionGroup> submissionGroups) {
 
+        preloadSubmissionRoles(user, submissionGroups.getContent());
         for (SubmissionGroup submissionGroup : submissionGroups) {
             if (submissionGroup.getSubmissions() != null) {
                 submissionGroup.getSubmissions().forEach(s -> s.setPermissions(getAllPermissions(s, user)));
@@ -334,6 +355,35 @@ public class ArachnePermissionEvaluator<T extends Paper, D extends IDataSource>
         return true;
     }
 
+    protected void preloadSubmissionRoles(ArachneUser user, Collection<SubmissionGroup> submissionGroups) {
+
+        final List<Submission> submissions = submissionGroups.stream()
+                .map(SubmissionGroup::getSubmissions)
+                .filter(Objects::nonNull)
+                .flatMap(Collection::stream)
+                .collect(Collectors.toList());
+        preloadRoles(user, submissions, Submission::getId, s -> secureService.getRolesBySubmissions(user, s));
+    }
+
+    /**
+     * Resolves roles of all the entities in bulk and puts them into the request cache,
+     * so that the following per entity permission checks do not query them one by one.
+     */
+    protected <E> void preloadRoles(ArachneUser user, Collection<E> entities, Function<E, Long> getId,
+                                    Function<Collection<E>, Map<Long, List<ParticipantRole>>> loader) {
+
+        if (CollectionUtils.isEmpty(entities) || !participantRoleCache.isEnabled()) {
+            return;
+        }
+        final Map<Long, List<ParticipantRole>> roles = loader.apply(entities);
+        for (final E entity : entities) {
+            final List<ParticipantRole> entityRoles = entity == null ? null : roles.get(getId.apply(entity));
+            if (entityRoles != null) {
+                participantRoleCache.putRoles(user, entity, entityRoles);
+            }
+        }
+    }
+
     public boolean processPermissions(ArachneUser user, HasArachnePermissions hasPermissionsObj) {
 
         addPermissions(user, hasPermissionsObj);
@@ -0,0 +1,233 @@
+/*
+ *
+ * Copyright 2021 Odysseus Data Services, inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Company: Odysseus Data Services, Inc.
+ * Product Owner/Architecture: Gregory Klebanov
+ * Authors: Yaroslav Molodkov, Alexandr Cumarav, Vitaliy Kulakov
+ * Created: July 26, 2021
+ *
+ */
+
+package com.odysseusinc.arachne.portal.component;
+
+import com.odysseusinc.arachne.portal.model.ParticipantRole;
+import com.odysseusinc.arachne.portal.model.listeners.EntityChangeListener;
+import com.odysseusinc.arachne.portal.model.security.ArachneUser;
+import com.odysseusinc.arachne.portal.util.EvictingCache;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceUnitUtil;
+import org.hibernate.proxy.HibernateProxyHelper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Keeps participant roles resolved for a user and a domain object until the end of the current request,
+ * so that several permission checks of one call do not query the same roles again.
+ * With {@code arachne.participantRoleCache.ttlSeconds} set, resolved roles are also shared between the requests
+ * of the same user for that time.
+ * Any entity change written within the request, e.g. of study participants, data node users or user roles,
+ * drops everything cached. Changes made with bulk or native queries are not seen by Hibernate listeners,
+ * so the services issuing them call {@link #evict()} themselves.
+ * Outside of a web request only the shared cache, if enabled, is used.
+ */
+@Component
+public class ParticipantRoleCache extends EntityChangeListener {
+
+    private static final String ATTRIBUTE = ParticipantRoleCache.class.getName();
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final EvictingCache<Key, List<ParticipantRole>> sharedRoles;
+    private PersistenceUnitUtil persistenceUnitUtil;
+
+    public ParticipantRoleCache(EntityManagerFactory entityManagerFactory,
+                                @Value("${arachne.participantRoleCache.ttlSeconds:0}") long ttlSeconds,
+                                @Value("${arachne.participantRoleCache.maxSize:10000}") long maxSize) {
+
+        this.entityManagerFactory = entityManagerFactory;
+        this.sharedRoles = ttlSeconds > 0
+                ? new EvictingCache<>("Participant role", maxSize, ttlSeconds, TimeUnit.SECONDS)
+                : null;
+    }
+
+    @PostConstruct
+    public void init() {
+
+        persistenceUnitUtil = entityManagerFactory.getPersistenceUnitUtil();
+        register(entityManagerFactory);
+    }
+
+    public List<ParticipantRole> getRoles(ArachneUser user, Object domainObject,
+                                          Supplier<List<ParticipantRole>> loader) {
+
+        final Map<Key, List<ParticipantRole>> cache = getRequestCache(true);
+        final Object id = cache == null && sharedRoles == null ? null : getIdentifier(domainObject);
+        if (id == null) {
+            return loader.get();
+        }
+        // a cached value skips the query and with it the auto flush, which would reveal pending changes to the
+        // listener, so flush them here
+        flushPendingChanges();
+        final Key key = getKey(user, domainObject, id);
+        List<ParticipantRole> roles = cache == null ? null : cache.get(key);
+        if (roles == null && sharedRoles != null) {
+            roles = sharedRoles.getIfPresent(key);
+        }
+        if (roles == null) {
+            roles = loader.get();
+            put(cache, key, roles);
+        } else if (cache != null) {
+            cache.put(key, roles);
+        }
+        return roles;
+    }
+
+    /**
+     * Stores roles resolved in advance, e.g. in bulk for a whole page of entities.
+     */
+    public void putRoles(ArachneUser user, Object domainObject, List<ParticipantRole> roles) {
+
+        final Map<Key, List<ParticipantRole>> cache = getRequestCache(true);
+        final Object id = cache == null && sharedRoles == null ? null : getIdentifier(domainObject);
+        if (id != null) {
+            put(cache, getKey(user, domainObject, id), roles);
+        }
+    }
+
+    public boolean isEnabled() {
+
+        return RequestContextHolder.getRequestAttributes() != null || sharedRoles != null;
+    }
+
+    public void evict() {
+
+        final Map<Key, List<ParticipantRole>> cache = getRequestCache(false);
+        if (cache != null) {
+            cache.clear();
+        }
+        if (sharedRoles != null) {
+            sharedRoles.evictAll();
+        }
+    }
+
+    @Override
+    protected void onChange(Object entity) {
+
+        evict();
+    }
+
+    private void put(Map<Key, List<ParticipantRole>> cache, Key key, List<ParticipantRole> roles) {
+
+        if (cache != null) {
+            cache.put(key, roles);
+        }
+        if (sharedRoles != null) {
+            sharedRoles.put(key, roles);
+        }
+    }
+
+    private void flushPendingChanges() {
+
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return;
+        }
+        final EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+        if (entityManager != null) {
+            entityManager.flush();
+        }
+    }
+
+    private Object getIdentifier(Object domainObject) {
+
+        try {
+            return persistenceUnitUtil.getIdentifier(domainObject);
+        } catch (IllegalArgumentException ex) {
+            // not an entity
+            return null;
+        }
+    }
+
+    private Key getKey(ArachneUser user, Object domainObject, Object id) {
+
+        return new Key(user.getId(), user.getActiveTenantId(),
+                HibernateProxyHelper.getClassWithoutInitializingProxy(domainObject), id);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Key, List<ParticipantRole>> getRequestCache(boolean create) {
+
+        final RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Map<Key, List<ParticipantRole>> cache
+                = (Map<Key, List<ParticipantRole>>) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (cache == null && create) {
+            cache = new HashMap<>();
+            attributes.setAttribute(ATTRIBUTE, cache, RequestAttributes.SCOPE_REQUEST);
+        }
+        return cache;
+    }
+
+    private static class Key {
+
+        private final Long userId;
+        private final Long tenantId;
+        private final Class<?> type;
+        private final Object id;
+
+        Key(Long userId, Long tenantId, Class<?> type, Object id) {
+
+            this.userId = userId;
+            this.tenantId = tenantId;
+            this.type = type;
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final Key key = (Key) o;
+            return Objects.equals(userId, key.userId)
+                    && Objects.equals(tenantId, key.tenantId)
+                    && Objects.equals(type, key.type)
+                    && Objects.equals(id, key.id);
+        }
+
+        @Override
+        public int hashCode() {
+
+            return Objects.hash(userId, tenantId, type, id);
+        }
+    }
+}
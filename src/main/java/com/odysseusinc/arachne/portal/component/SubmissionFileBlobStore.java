@@ -0,0 +1,208 @@
+/*
+ *
+ * Copyright 2021 Odysseus Data Services, inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Company: Odysseus Data Services, Inc.
+ * Product Owner/Architecture: Gregory Klebanov
+ * Authors: Yaroslav Molodkov, Alexandr Cumarav, Vitaliy Kulakov
+ * Created: August 16, 2021
+ *
+ */
+
+package com.odysseusinc.arachne.portal.component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps one immutable copy of every distinct submission file content, addressed by its MD5 as recorded
+ * for the analysis file when it was written.
+ * Files of submission groups are hard links to these blobs, so submitting the same analysis again
+ * does not copy bytes which are stored already. Falls back to plain copies where links are not supported.
+ * A blob which is linked from nowhere else is removed once it is older than the configured grace period.
+ */
+@Component
+public class SubmissionFileBlobStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SubmissionFileBlobStore.class);
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Path root;
+    private final Duration gcGracePeriod;
+    private volatile boolean linksSupported = true;
+
+    public SubmissionFileBlobStore(@Value("${files.store.path}") String fileStorePath,
+                                   @Value("${files.blobs.gcGraceMs:86400000}") long gcGraceMs) {
+
+        this.root = Paths.get(fileStorePath, "blobs");
+        this.gcGracePeriod = Duration.ofMillis(gcGraceMs);
+    }
+
+    /**
+     * Returns the checksum of a submission group: the MD5 of the checksums of its files, sorted,
+     * so that it depends on the contents only and not on the order or names of the files.
+     */
+    public static String groupChecksum(Collection<String> fileChecksums) {
+
+        final MessageDigest digest = newDigest();
+        fileChecksums.stream()
+                .sorted()
+                .forEach(checksum -> digest.update(checksum.getBytes(StandardCharsets.US_ASCII)));
+        return toHex(digest);
+    }
+
+    /**
+     * Places the content of the source at the target and returns its MD5.
+     * The source is read only when it has no recorded digest or its blob has to be created.
+     *
+     * @param digest MD5 of the source recorded when it was written, or null when unknown
+     */
+    public String link(Path source, String digest, Path target) throws IOException {
+
+        final String checksum = digest != null ? digest : md5(source);
+        if (linksSupported) {
+            final Path blob = blobPath(checksum);
+            if (Files.notExists(blob)) {
+                createBlob(source, blob);
+            }
+            try {
+                createLink(target, blob, source);
+                return checksum;
+            } catch (UnsupportedOperationException | FileSystemException e) {
+                LOGGER.warn("Cannot link submission file {} to {}, falling back to copies: {}", target, blob, e.getMessage());
+                linksSupported = false;
+            }
+        }
+        Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+        return checksum;
+    }
+
+    /**
+     * Removes blobs which have no links besides the store itself. Does nothing where link counts are not available.
+     */
+    @Scheduled(fixedDelayString = "${files.blobs.gcIntervalMs:86400000}", initialDelayString = "${files.blobs.gcIntervalMs:86400000}")
+    public void collectGarbage() {
+
+        if (Files.notExists(root)) {
+            return;
+        }
+        final Instant createdBefore = Instant.now().minus(gcGracePeriod);
+        int removed = 0;
+        try (DirectoryStream<Path> prefixes = Files.newDirectoryStream(root, Files::isDirectory)) {
+            for (Path prefix : prefixes) {
+                try (DirectoryStream<Path> blobs = Files.newDirectoryStream(prefix, blob -> !blob.toString().endsWith(".tmp"))) {
+                    for (Path blob : blobs) {
+                        if (isUnreferenced(blob, createdBefore)) {
+                            Files.deleteIfExists(blob);
+                            removed++;
+                        }
+                    }
+                }
+            }
+        } catch (UnsupportedOperationException | IllegalArgumentException e) {
+            LOGGER.info("Link counts are not available, submission file blobs are not collected: {}", e.getMessage());
+        } catch (IOException e) {
+            LOGGER.warn("Failed to collect submission file blobs", e);
+        }
+        if (removed > 0) {
+            LOGGER.info("Removed {} unreferenced submission file blobs", removed);
+        }
+    }
+
+    private boolean isUnreferenced(Path blob, Instant createdBefore) throws IOException {
+
+        // a fresh blob may be about to be linked by the submission which created it
+        return (Integer) Files.getAttribute(blob, "unix:nlink") <= 1
+                && Files.getLastModifiedTime(blob).toInstant().isBefore(createdBefore);
+    }
+
+    private void createLink(Path target, Path blob, Path source) throws IOException {
+
+        Files.deleteIfExists(target);
+        try {
+            Files.createLink(target, blob);
+        } catch (NoSuchFileException e) {
+            // collected between the existence check and the link, the blob was unreferenced so far
+            createBlob(source, blob);
+            Files.createLink(target, blob);
+        }
+    }
+
+    private void createBlob(Path source, Path blob) throws IOException {
+
+        Files.createDirectories(blob.getParent());
+        final Path tmp = Files.createTempFile(blob.getParent(), blob.getFileName().toString(), ".tmp");
+        try {
+            Files.copy(source, tmp, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(tmp, blob, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // created by a concurrent submission in the meantime
+            LOGGER.debug("Blob {} already exists", blob);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private Path blobPath(String checksum) {
+
+        return root.resolve(checksum.substring(0, 2)).resolve(checksum);
+    }
+
+    private static String md5(Path file) throws IOException {
+
+        final MessageDigest digest = newDigest();
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return toHex(digest);
+    }
+
+    private static MessageDigest newDigest() {
+
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toHex(MessageDigest digest) {
+
+        return String.format("%032x", new BigInteger(1, digest.digest()));
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ *
+ * Copyright 2021 Odysseus Data Services, inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Company: Odysseus Data Services, Inc.
+ * Product Owner/Architecture: Gregory Klebanov
+ * Authors: Yaroslav Molodkov, Alexandr Cumarav, Vitaliy Kulakov
+ * Created: August 09, 2021
+ *
+ */
+
+package com.odysseusinc.arachne.portal.component;
+
+import com.odysseusinc.arachne.portal.config.properties.ArchiveProperties;
+import com.odysseusinc.arachne.portal.util.ZipArchiveBuilder;
+import java.io.OutputStream;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates archive builders which deflate entries on the shared compression executor.
+ */
+@Component
+public class ZipArchiveFactory {
+
+    private final TaskExecutor executor;
+    private final int parallelism;
+
+    public ZipArchiveFactory(@Qualifier("archiveCompressionExecutor") TaskExecutor executor,
+                             ArchiveProperties properties) {
+
+        this.executor = executor;
+        this.parallelism = properties.getParallelism();
+    }
+
+    public ZipArchiveBuilder newArchive(OutputStream out) {
+
+        return new ZipArchiveBuilder(out, executor, parallelism);
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ *
+ * Copyright 2021 Odysseus Data Services, inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Company: Odysseus Data Services, Inc.
+ * Product Owner/Architecture: Gregory Klebanov
+ * Authors: Yaroslav Molodkov, Alexandr Cumarav, Vitaliy Kulakov
+ * Created: October 18, 2021
+ *
+ */
+
+package com.odysseusinc.arachne.portal.config;
+
+import java.util.HashMap;
+import java.util.Map;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Logs hits and misses of the Hibernate second-level and query cache regions since the previous report,
+ * to check that the dictionary regions are effective. Requires arachne.hibernateCache.statistics,
+ * which turns on hibernate.generate_statistics.
+ */
+@Component
+public class HibernateCacheStatistics {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HibernateCacheStatistics.class);
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final Map<String, long[]> reported = new HashMap<>();
+
+    public HibernateCacheStatistics(EntityManagerFactory entityManagerFactory) {
+
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Scheduled(fixedDelayString = "${arachne.hibernateCache.statsIntervalMs:600000}")
+    public synchronized void reportStats() {
+
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        if (!statistics.isStatisticsEnabled()) {
+            return;
+        }
+        for (final String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            final CacheRegionStatistics region = statistics.getCacheRegionStatistics(regionName);
+            if (region == null) {
+                continue;
+            }
+            final long[] previous = reported.getOrDefault(regionName, new long[2]);
+            final long hits = region.getHitCount() - previous[0];
+            final long misses = region.getMissCount() - previous[1];
+            reported.put(regionName, new long[]{region.getHitCount(), region.getMissCount()});
+            if (hits + misses > 0) {
+                LOGGER.info("Cache region {}: {} hits, {} misses, hit rate {}, {} entries",
+                        regionName, hits, misses, String.format("%.2f", (double) hits / (hits + misses)),
+                        region.getElementCountInMemory());
+            }
+        }
+    }
+}
@@ -31,6 +31,7 @@ import javax.jms.Session;
 import org.apache.activemq.ActiveMQConnectionFactory;
 import org.apache.activemq.broker.BrokerService;
 import org.apache.activemq.broker.TransportConnector;
+import org.apache.activemq.pool.PooledConnectionFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -41,6 +42,12 @@ public class JmsConfig {
 
     @Value("${spring.activemq.broker-url}")
     private String brokerUrl;
+    @Value("${datanode.messaging.pool.maxConnections:8}")
+    private int maxConnections;
+    @Value("${datanode.messaging.pool.maxSessionsPerConnection:500}")
+    private int maxSessionsPerConnection;
+    @Value("${datanode.messaging.pool.sessionWaitTimeout:30000}")
+    private long sessionWaitTimeout;
 
     // Required for tests
     // (SpringJUnit4ClassRunner has a feature: it caches all started contexts and
@@ -70,14 +77,18 @@ public class JmsConfig {
         return broker;
     }
 
-    @Bean
+    @Bean(destroyMethod = "stop")
     public ConnectionFactory connectionFactory() {
 
         ActiveMQConnectionFactory connectionFactory = new ActiveMQConnectionFactory(brokerUrl);
         connectionFactory.setTrustedPackages(Arrays.asList("com.odysseusinc", "java.util", "java.lang"));
-        return connectionFactory;
-        // TODO:
-        // return new PooledConnectionFactory(connectionFactory);
+        // JmsTemplate opens a connection and a session per operation, the pool keeps them open between calls
+        PooledConnectionFactory pooledConnectionFactory = new PooledConnectionFactory(connectionFactory);
+        pooledConnectionFactory.setMaxConnections(maxConnections);
+        pooledConnectionFactory.setMaximumActiveSessionPerConnection(maxSessionsPerConnection);
+        pooledConnectionFactory.setBlockIfSessionPoolIsFull(true);
+        pooledConnectionFactory.setBlockIfSessionPoolIsFullTimeout(sessionWaitTimeout);
+        return pooledConnectionFactory;
     }
 
     // http://chriswongdevblog.blogspot.ru/2013/01/jmstemplate-is-not-evil.html
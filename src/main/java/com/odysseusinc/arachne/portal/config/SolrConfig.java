@@ -20,13 +20,19 @@
 
 package com.odysseusinc.arachne.portal.config;
 
+import com.odysseusinc.arachne.portal.config.properties.DefaultExecutorConfigValues;
+import com.odysseusinc.arachne.portal.config.properties.SolrIndexingProperties;
 import org.apache.solr.client.solrj.SolrClient;
 import org.apache.solr.client.solrj.impl.HttpSolrClient;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 @Configuration
+@EnableConfigurationProperties(SolrIndexingProperties.class)
 public class SolrConfig {
 
     @Bean(destroyMethod = "close")
@@ -34,4 +40,16 @@ public class SolrConfig {
 
         return new HttpSolrClient.Builder(serverUrl).build();
     }
+
+    @Bean(name = "searchIndexesRebuildExecutor")
+    public TaskExecutor searchIndexesRebuildExecutor(SolrIndexingProperties properties) {
+
+        final DefaultExecutorConfigValues config = properties.getRebuild().getExecutor();
+        final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(config.getCorePoolSize());
+        executor.setMaxPoolSize(config.getMaxPoolSize());
+        executor.setQueueCapacity(config.getQueueCapacity());
+        executor.setThreadNamePrefix("solr-rebuild-");
+        return executor;
+    }
 }
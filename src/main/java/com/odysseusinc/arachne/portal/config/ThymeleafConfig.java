@@ -72,7 +72,7 @@ public class ThymeleafConfig {
         templateResolver.setPrefix("templates/");
         templateResolver.setSuffix(".txt");
         templateResolver.setTemplateMode(TemplateMode.TEXT);
-        templateResolver.setCacheable(false);
+        templateResolver.setCacheable(true);
         return templateResolver;
     }
 
@@ -26,13 +26,13 @@ import com.odysseusinc.arachne.portal.exception.SecurityConfigException;
 import com.odysseusinc.arachne.portal.security.AuthenticationSystemTokenFilter;
 import com.odysseusinc.arachne.portal.security.AuthenticationTokenFilter;
 import com.odysseusinc.arachne.portal.security.DataNodeAuthenticationProvider;
+import com.odysseusinc.arachne.portal.security.DataNodeTokenCache;
 import com.odysseusinc.arachne.portal.security.EntryPointUnauthorizedHandler;
 import com.odysseusinc.arachne.portal.security.HostNameIsNotInServiceException;
 import com.odysseusinc.arachne.portal.security.LoginRequestFilter;
 import com.odysseusinc.arachne.portal.security.Roles;
 import com.odysseusinc.arachne.portal.security.passwordvalidator.ArachnePasswordValidator;
 import com.odysseusinc.arachne.portal.security.passwordvalidator.PasswordValidatorBuilder;
-import com.odysseusinc.arachne.portal.service.BaseDataNodeService;
 import java.io.IOException;
 import java.net.URI;
 import java.util.LinkedHashMap;
@@ -123,7 +123,7 @@ public class WebSecurityConfig extends WebSecurityConfigurerAdapter {
     }
 
     @Autowired
-    protected BaseDataNodeService baseDataNodeService;
+    protected DataNodeTokenCache dataNodeTokenCache;
 
     @Autowired
     protected EntryPointUnauthorizedHandler unauthorizedHandler;
@@ -201,7 +201,7 @@ public class WebSecurityConfig extends WebSecurityConfigurerAdapter {
     @Bean
     public AuthenticationSystemTokenFilter authenticationSystemTokenFilter() {
 
-        return new AuthenticationSystemTokenFilter(baseDataNodeService);
+        return new AuthenticationSystemTokenFilter(dataNodeTokenCache);
     }
 
     @Bean
@@ -0,0 +1,56 @@
+/*
+ *
+ * Copyright 2021 Odysseus Data Services, inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Company: Odysseus Data Services, Inc.
+ * Product Owner/Architecture: Gregory Klebanov
+ * Authors: Yaroslav Molodkov, Alexandr Cumarav, Vitaliy Kulakov
+ * Created: August 09, 2021
+ *
+ */
+
+package com.odysseusinc.arachne.portal.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@ConfigurationProperties(prefix = "archive")
+@Validated
+public class ArchiveProperties {
+    /**
+     * Max number of entries of a single archive deflated at once, 1 disables parallel compression.
+     */
+    private int parallelism = 4;
+    private DefaultExecutorConfigValues executor = new DefaultExecutorConfigValues();
+
+    public int getParallelism() {
+
+        return parallelism;
+    }
+
+    public void setParallelism(int parallelism) {
+
+        this.parallelism = parallelism;
+    }
+
+    public DefaultExecutorConfigValues getExecutor() {
+
+        return executor;
+    }
+
+    public void setExecutor(DefaultExecutorConfigValues executor) {
+
+        this.executor = executor;
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ *
+ * Copyright 2021 Odysseus Data Services, inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Company: Odysseus Data Services, Inc.
+ * Product Owner/Architecture: Gregory Klebanov
+ * Authors: Yaroslav Molodkov, Alexandr Cumarav, Vitaliy Kulakov
+ * Created: October 25, 2021
+ *
+ */
+
+package com.odysseusinc.arachne.portal.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@ConfigurationProperties(prefix = "mail.outbox")
+@Validated
+public class MailOutboxProperties {
+
+    /**
+     * Max number of e-mails sent through a single SMTP connection.
+     */
+    private int batchSize = 50;
+    /**
+     * Delay between checks for due e-mails, new e-mails are picked up right after the commit anyway.
+     */
+    private long pollIntervalMs = 5000L;
+    private int maxAttempts = 8;
+    /**
+     * Delay before the first retry, doubled after each failed attempt up to maxBackoffMs.
+     */
+    private long initialBackoffMs = 30000L;
+    private long maxBackoffMs = 3600000L;
+    /**
+     * Max number of e-mails sent to the same address within recipientWindowMs, the rest are postponed.
+     */
+    private int recipientLimit = 10;
+    private long recipientWindowMs = 60000L;
+    /**
+     * Due e-mails taken by a sender are skipped by other senders for this period, should exceed the time
+     * to deliver a batch. E-mails of a sender which died are delivered again after it.
+     */
+    private long claimTimeoutMs = 900000L;
+    /**
+     * Sent and failed e-mails are removed from the outbox after this period. Their bodies are removed
+     * as soon as they are sent or given up.
+     */
+    private int retentionDays = 14;
+    private DefaultExecutorConfigValues executor = new DefaultExecutorConfigValues();
+
+    public int getBatchSize() {
+
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+
+        this.batchSize = batchSize;
+    }
+
+    public long getPollIntervalMs() {
+
+        return pollIntervalMs;
+    }
+
+    public void setPollIntervalMs(long pollIntervalMs) {
+
+        this.pollIntervalMs = pollIntervalMs;
+    }
+
+    public int getMaxAttempts() {
+
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+
+        this.maxAttempts = maxAttempts;
+    }
+
+    public long getInitialBackoffMs() {
+
+        return initialBackoffMs;
+    }
+
+    public void setInitialBackoffMs(long initialBackoffMs) {
+
+        this.initialBackoffMs = initialBackoffMs;
+    }
+
+    public long getMaxBackoffMs() {
+
+        return maxBackoffMs;
+    }
+
+    public void setMaxBackoffMs(long maxBackoffMs) {
+
+        this.maxBackoffMs = maxBackoffMs;
+    }
+
+    public int getRecipientLimit() {
+
+        return recipientLimit;
+    }
+
+    public void setRecipientLimit(int recipientLimit) {
+
+        this.recipientLimit = recipientLimit;
+    }
+
+    public long getRecipientWindowMs() {
+
+        return recipientWindowMs;
+    }
+
+    public void setRecipientWindowMs(long recipientWindowMs) {
+
+        this.recipientWindowMs = recipientWindowMs;
+    }
+
+    public long getClaimTimeoutMs() {
+
+        return claimTimeoutMs;
+    }
+
+    public void setClaimTimeoutMs(long claimTimeoutMs) {
+
+        this.claimTimeoutMs = claimTimeoutMs;
+    }
+
+    public int getRetentionDays() {
+
+        return retentionDays;
+    }
+
+    public void setRetentionDays(int retentionDays) {
+
+        this.retentionDays = retentionDays;
+    }
+
+    public DefaultExecutorConfigValues getExecutor() {
+
+        return executor;
+    }
+
+    public void setExecutor(DefaultExecutorConfigValues executor) {
+
+        this.executor = executor;
+    }
+}
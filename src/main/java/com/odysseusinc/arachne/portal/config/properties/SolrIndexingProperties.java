@@ -0,0 +1,209 @@
+/*
+ *
+ * Copyright 2021 Odysseus Data Services, inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Company: Odysseus Data Services, Inc.
+ * Product Owner/Architecture: Gregory Klebanov
+ * Authors: Yaroslav Molodkov, Alexandr Cumarav, Vitaliy Kulakov
+ * Created: July 05, 2021
+ *
+ */
+
+package com.odysseusinc.arachne.portal.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@ConfigurationProperties(prefix = "solr.indexing")
+@Validated
+public class SolrIndexingProperties {
+
+    /**
+     * When disabled, updates are sent to Solr on the caller thread (still without explicit commits).
+     */
+    private boolean async = true;
+    /**
+     * Max number of distinct pending updates, callers block when it is reached.
+     */
+    private int queueCapacity = 10000;
+    /**
+     * How long a caller may wait for free space in the queue before the update is rejected.
+     */
+    private long offerTimeoutMs = 30000L;
+    /**
+     * Max delay between an update being queued and being sent to Solr.
+     */
+    private long flushIntervalMs = 500L;
+    /**
+     * Passed to Solr as commitWithin, relies on soft commits to make changes visible.
+     */
+    private int commitWithinMs = 1000;
+    private int maxAttempts = 3;
+    private long shutdownTimeoutMs = 30000L;
+    /**
+     * Forces the full rebuild of all collections on start even if they are up to date.
+     */
+    private boolean rebuildOnStartup = false;
+    private RebuildConfig rebuild = new RebuildConfig();
+    private ChangesConfig changes = new ChangesConfig();
+
+    public boolean isAsync() {
+
+        return async;
+    }
+
+    public void setAsync(boolean async) {
+
+        this.async = async;
+    }
+
+    public int getQueueCapacity() {
+
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+
+        this.queueCapacity = queueCapacity;
+    }
+
+    public long getOfferTimeoutMs() {
+
+        return offerTimeoutMs;
+    }
+
+    public void setOfferTimeoutMs(long offerTimeoutMs) {
+
+        this.offerTimeoutMs = offerTimeoutMs;
+    }
+
+    public long getFlushIntervalMs() {
+
+        return flushIntervalMs;
+    }
+
+    public void setFlushIntervalMs(long flushIntervalMs) {
+
+        this.flushIntervalMs = flushIntervalMs;
+    }
+
+    public int getCommitWithinMs() {
+
+        return commitWithinMs;
+    }
+
+    public void setCommitWithinMs(int commitWithinMs) {
+
+        this.commitWithinMs = commitWithinMs;
+    }
+
+    public int getMaxAttempts() {
+
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+
+        this.maxAttempts = maxAttempts;
+    }
+
+    public long getShutdownTimeoutMs() {
+
+        return shutdownTimeoutMs;
+    }
+
+    public void setShutdownTimeoutMs(long shutdownTimeoutMs) {
+
+        this.shutdownTimeoutMs = shutdownTimeoutMs;
+    }
+
+    public boolean isRebuildOnStartup() {
+
+        return rebuildOnStartup;
+    }
+
+    public void setRebuildOnStartup(boolean rebuildOnStartup) {
+
+        this.rebuildOnStartup = rebuildOnStartup;
+    }
+
+    public RebuildConfig getRebuild() {
+
+        return rebuild;
+    }
+
+    public ChangesConfig getChanges() {
+
+        return changes;
+    }
+
+    public static class RebuildConfig {
+        /**
+         * Number of entities loaded and indexed at once during the full rebuild.
+         */
+        private int pageSize = 500;
+        private DefaultExecutorConfigValues executor = new DefaultExecutorConfigValues();
+
+        public int getPageSize() {
+
+            return pageSize;
+        }
+
+        public void setPageSize(int pageSize) {
+
+            this.pageSize = pageSize;
+        }
+
+        public DefaultExecutorConfigValues getExecutor() {
+
+            return executor;
+        }
+
+        public void setExecutor(DefaultExecutorConfigValues executor) {
+
+            this.executor = executor;
+        }
+    }
+
+    public static class ChangesConfig {
+        /**
+         * Delay between polls of the entity change log.
+         */
+        private long pollIntervalMs = 1000L;
+        /**
+         * Max number of change log entries applied at once.
+         */
+        private int batchSize = 500;
+
+        public long getPollIntervalMs() {
+
+            return pollIntervalMs;
+        }
+
+        public void setPollIntervalMs(long pollIntervalMs) {
+
+            this.pollIntervalMs = pollIntervalMs;
+        }
+
+        public int getBatchSize() {
+
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+
+            this.batchSize = batchSize;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ *
+ * Copyright 2021 Odysseus Data Services, inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Company: Odysseus Data Services, Inc.
+ * Product Owner/Architecture: Gregory Klebanov
+ * Authors: Yaroslav Molodkov, Alexandr Cumarav, Vitaliy Kulakov
+ * Created: August 23, 2021
+ *
+ */
+
+package com.odysseusinc.arachne.portal.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@ConfigurationProperties(prefix = "sql.translation")
+@Validated
+public class SqlTranslationProperties {
+    /**
+     * Max total length in characters of translated statements kept in the cache.
+     */
+    private long cacheMaxChars = 20_000_000L;
+    private long cacheExpireMinutes = 60L;
+    private DefaultExecutorConfigValues executor = new DefaultExecutorConfigValues();
+
+    public long getCacheMaxChars() {
+
+        return cacheMaxChars;
+    }
+
+    public void setCacheMaxChars(long cacheMaxChars) {
+
+        this.cacheMaxChars = cacheMaxChars;
+    }
+
+    public long getCacheExpireMinutes() {
+
+        return cacheExpireMinutes;
+    }
+
+    public void setCacheExpireMinutes(long cacheExpireMinutes) {
+
+        this.cacheExpireMinutes = cacheExpireMinutes;
+    }
+
+    public DefaultExecutorConfigValues getExecutor() {
+
+        return executor;
+    }
+
+    public void setExecutor(DefaultExecutorConfigValues executor) {
+
+        this.executor = executor;
+    }
+}
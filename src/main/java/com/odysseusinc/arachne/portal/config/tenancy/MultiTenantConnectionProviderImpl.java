@@ -1,18 +1,40 @@
 package com.odysseusinc.arachne.portal.config.tenancy;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.sql.DataSource;
 import org.apache.commons.lang3.ObjectUtils;
 import org.hibernate.engine.jdbc.connections.spi.MultiTenantConnectionProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+/**
+ * Passes the current tenant to the DB session as the app.tenant_id setting.
+ * The tenant applied to each physical connection is remembered, so the setting is sent
+ * only when a pooled connection is checked out for another tenant than it served last time.
+ */
 @Component
 public class MultiTenantConnectionProviderImpl implements MultiTenantConnectionProvider {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(MultiTenantConnectionProviderImpl.class);
     private static final String TENANT_VAR = "app.tenant_id";
+    // constant SQL, so the driver reuses its prepared statement for the connection
+    private static final String SET_TENANT_SQL = "SELECT set_config(?, ?, false)";
+    private static final Long NO_TENANT = -1L;
 
     private DataSource dataSource;
+    // physical connections are compared by identity and dropped once the pool closes them
+    private final Cache<Connection, Long> appliedTenants = CacheBuilder.newBuilder().weakKeys().build();
+    private final AtomicLong tenantSwitches = new AtomicLong();
+    private final AtomicLong skippedSwitches = new AtomicLong();
+    private long reportedSwitches = 0;
+    private long reportedSkipped = 0;
 
     public MultiTenantConnectionProviderImpl(DataSource dataSource) {
 
@@ -22,7 +44,7 @@ public class MultiTenantConnectionProviderImpl implements MultiTenantConnectionP
     @Override
     public Connection getAnyConnection() throws SQLException {
 
-        return dataSource.getConnection();
+        return getConnectionWithTenant(null);
     }
 
     @Override
@@ -34,15 +56,13 @@ public class MultiTenantConnectionProviderImpl implements MultiTenantConnectionP
     @Override
     public Connection getConnection(String tenantIdentifier) throws SQLException {
 
-        final Connection connection = getAnyConnection();
-        setTenantToDb(connection, TenantContext.getCurrentTenant());
-        return connection;
+        return getConnectionWithTenant(TenantContext.getCurrentTenant());
     }
 
     @Override
     public void releaseConnection(String s, Connection connection) throws SQLException {
 
-        setTenantToDb(connection, null);
+        // the tenant is not reset here, every checkout applies its own one
         connection.close();
     }
 
@@ -64,8 +84,65 @@ public class MultiTenantConnectionProviderImpl implements MultiTenantConnectionP
         return null;
     }
 
+    /**
+     * Number of times the tenant setting has been sent to the DB.
+     */
+    public long getTenantSwitchCount() {
+
+        return tenantSwitches.get();
+    }
+
+    /**
+     * Number of checkouts which found the required tenant already applied to the connection.
+     */
+    public long getSkippedSwitchCount() {
+
+        return skippedSwitches.get();
+    }
+
+    @Scheduled(fixedDelayString = "${arachne.tenancy.statsIntervalMs:300000}")
+    public void reportStats() {
+
+        final long switches = tenantSwitches.get();
+        final long skipped = skippedSwitches.get();
+        if (switches != reportedSwitches || skipped != reportedSkipped) {
+            LOGGER.info("Tenant settings: {} applied, {} skipped as unchanged",
+                    switches - reportedSwitches, skipped - reportedSkipped);
+        }
+        reportedSwitches = switches;
+        reportedSkipped = skipped;
+    }
+
+    private Connection getConnectionWithTenant(Long tenantId) throws SQLException {
+
+        final Connection connection = dataSource.getConnection();
+        try {
+            setTenantToDb(connection, tenantId);
+        } catch (SQLException | RuntimeException ex) {
+            connection.close();
+            throw ex;
+        }
+        return connection;
+    }
+
     private void setTenantToDb(Connection connection, Long value) throws SQLException {
 
-        connection.createStatement().execute("SELECT set_config('" + TENANT_VAR + "', '" + ObjectUtils.firstNonNull(value, -1) + "', false)");
+        final Long tenantId = ObjectUtils.firstNonNull(value, NO_TENANT);
+        final Connection physical = connection.isWrapperFor(Connection.class) ? connection.unwrap(Connection.class) : connection;
+        if (tenantId.equals(appliedTenants.getIfPresent(physical))) {
+            skippedSwitches.incrementAndGet();
+            return;
+        }
+        appliedTenants.invalidate(physical);
+        try (PreparedStatement statement = connection.prepareStatement(SET_TENANT_SQL)) {
+            statement.setString(1, TENANT_VAR);
+            statement.setString(2, tenantId.toString());
+            statement.execute();
+        }
+        tenantSwitches.incrementAndGet();
+        // inside a transaction the setting would be reverted by a rollback, so it cannot be trusted later
+        if (connection.getAutoCommit()) {
+            appliedTenants.put(physical, tenantId);
+        }
     }
 }
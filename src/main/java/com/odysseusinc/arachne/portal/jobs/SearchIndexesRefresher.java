@@ -21,32 +21,62 @@
 
 package com.odysseusinc.arachne.portal.jobs;
 
-import com.odysseusinc.arachne.portal.exception.ArachneSystemRuntimeException;
+import com.odysseusinc.arachne.portal.api.v1.dto.SearchIndexRebuildStatusDTO;
+import com.odysseusinc.arachne.portal.config.properties.SolrIndexingProperties;
 import com.odysseusinc.arachne.portal.model.AbstractUserStudyListItem;
 import com.odysseusinc.arachne.portal.model.Analysis;
 import com.odysseusinc.arachne.portal.model.IDataSource;
 import com.odysseusinc.arachne.portal.model.IUser;
 import com.odysseusinc.arachne.portal.model.Paper;
+import com.odysseusinc.arachne.portal.model.SearchIndexChange;
+import com.odysseusinc.arachne.portal.model.SearchIndexCheckpoint;
+import com.odysseusinc.arachne.portal.model.SearchIndexRebuildState;
 import com.odysseusinc.arachne.portal.model.Skill;
 import com.odysseusinc.arachne.portal.model.Study;
 import com.odysseusinc.arachne.portal.model.search.PaperSearch;
 import com.odysseusinc.arachne.portal.model.search.StudySearch;
+import com.odysseusinc.arachne.portal.model.solr.SolrCollection;
+import com.odysseusinc.arachne.portal.model.solr.SolrEntity;
+import com.odysseusinc.arachne.portal.repository.SearchIndexChangeRepository;
+import com.odysseusinc.arachne.portal.repository.SearchIndexCheckpointRepository;
 import com.odysseusinc.arachne.portal.service.BaseDataSourceService;
 import com.odysseusinc.arachne.portal.service.BasePaperService;
+import com.odysseusinc.arachne.portal.service.BaseSolrService;
 import com.odysseusinc.arachne.portal.service.BaseStudyService;
 import com.odysseusinc.arachne.portal.service.BaseUserService;
+import com.odysseusinc.arachne.portal.service.Indexable;
 import com.odysseusinc.arachne.portal.service.analysis.BaseAnalysisService;
+import com.odysseusinc.arachne.portal.service.impl.solr.SolrException;
+import com.odysseusinc.arachne.portal.service.impl.solr.SolrIndexingQueue;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
-
-import java.util.concurrent.CompletableFuture;
-
 
+/**
+ * Rebuilds Solr collections page by page, each collection in its own thread of the rebuild executor.
+ * Progress is saved after every page, so a rebuild interrupted by a restart continues where it stopped
+ * instead of starting from scratch.
+ * Once a collection is built, it is kept up to date by applying the entity change log, so the start of
+ * the application does not rebuild collections that are already complete.
+ */
 @Component
 public class SearchIndexesRefresher<IDS extends IDataSource,
         IUS extends IUser,
@@ -59,47 +89,289 @@ public class SearchIndexesRefresher<IDS extends IDataSource,
 
     private static final Logger log = LoggerFactory.getLogger(SearchIndexesRefresher.class);
 
-    private final BaseAnalysisService<IAnalysis> analysisService;
-    private final BaseDataSourceService<IDS> dataSourceService;
-    private final BasePaperService<IPaper, IPaperSearch, IStudy, IDS, IStudySearch, IUserStudyListItem> paperService;
-    private final BaseStudyService<IStudy, IDS, IStudySearch, IUserStudyListItem> studyService;
-    private final BaseUserService<IUS, Skill> userService;
+    private final Map<SolrCollection, Indexable> indexables = new EnumMap<>(SolrCollection.class);
+    private final Map<SolrCollection, RebuildProgress> progresses = new ConcurrentHashMap<>();
+    private final Map<SolrCollection, ReentrantLock> locks = new EnumMap<>(SolrCollection.class);
+    private final BaseSolrService<?> solrService;
+    private final SolrIndexingQueue indexingQueue;
+    private final SearchIndexCheckpointRepository checkpointRepository;
+    private final SearchIndexChangeRepository changeRepository;
+    private final TaskExecutor executor;
+    private final SolrIndexingProperties properties;
 
     @Autowired
-    public SearchIndexesRefresher(BaseDataSourceService<IDS> dataSourceService, BaseUserService<IUS, Skill> userService, BaseStudyService<IStudy, IDS, IStudySearch, IUserStudyListItem> studyService, BaseAnalysisService<IAnalysis> analysisService, BasePaperService<IPaper, IPaperSearch, IStudy, IDS, IStudySearch, IUserStudyListItem> paperService) {
+    public SearchIndexesRefresher(BaseDataSourceService<IDS> dataSourceService,
+                                  BaseUserService<IUS, Skill> userService,
+                                  BaseStudyService<IStudy, IDS, IStudySearch, IUserStudyListItem> studyService,
+                                  BaseAnalysisService<IAnalysis> analysisService,
+                                  BasePaperService<IPaper, IPaperSearch, IStudy, IDS, IStudySearch, IUserStudyListItem> paperService,
+                                  BaseSolrService<?> solrService,
+                                  SolrIndexingQueue indexingQueue,
+                                  SearchIndexCheckpointRepository checkpointRepository,
+                                  SearchIndexChangeRepository changeRepository,
+                                  @Qualifier("searchIndexesRebuildExecutor") TaskExecutor executor,
+                                  SolrIndexingProperties properties) {
 
-        this.dataSourceService = dataSourceService;
-        this.userService = userService;
-        this.studyService = studyService;
-        this.analysisService = analysisService;
-        this.paperService = paperService;
+        indexables.put(SolrCollection.DATA_SOURCES, dataSourceService);
+        indexables.put(SolrCollection.USERS, userService);
+        indexables.put(SolrCollection.STUDIES, studyService);
+        indexables.put(SolrCollection.ANALYSES, analysisService);
+        indexables.put(SolrCollection.PAPERS, paperService);
+        for (final SolrCollection collection : SolrCollection.values()) {
+            locks.put(collection, new ReentrantLock());
+        }
+        this.solrService = solrService;
+        this.indexingQueue = indexingQueue;
+        this.checkpointRepository = checkpointRepository;
+        this.changeRepository = changeRepository;
+        this.executor = executor;
+        this.properties = properties;
     }
 
     @EventListener(classes = ContextRefreshedEvent.class)
-    @Transactional
     public void startIndicesRebuild() {
 
         log.info("Start indices rebuilding...");
-        CompletableFuture.runAsync(this::rebuildAllIndexes)
+        final CompletableFuture[] rebuilds = Stream.of(SolrCollection.values())
+                .filter(collection -> properties.isRebuildOnStartup() || !isComplete(collection))
+                .map(this::rebuild)
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(rebuilds)
                 .thenRun(() -> log.info("Search indices rebuild complete"))
                 .exceptionally(err -> {
                     log.warn("Cannot rebuild search indices due to the error:", err);
                     return null;
                 });
+    }
+
+    /**
+     * Starts rebuild of the collection unless it is already in progress.
+     */
+    public CompletableFuture<Void> rebuild(SolrCollection collection) {
+
+        final RebuildProgress progress = new RebuildProgress(collection);
+        final RebuildProgress current = progresses.merge(collection, progress,
+                (existing, created) -> existing.isActive() ? existing : created);
+        if (current != progress) {
+            log.info("Rebuild of {} index is already in progress", collection.getName());
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.runAsync(() -> rebuild(collection, progress), executor);
+    }
+
+    /**
+     * Applies entries of the change log to the collections that are completely built.
+     * Collections being rebuilt are skipped, the entries written in the meantime are applied after the rebuild.
+     */
+    @Scheduled(fixedDelayString = "${solr.indexing.changes.pollIntervalMs:1000}")
+    public void applyChanges() {
+
+        for (final SolrCollection collection : SolrCollection.values()) {
+            final ReentrantLock lock = locks.get(collection);
+            if (!lock.tryLock()) {
+                continue;
+            }
+            try {
+                // read under the lock, a rebuild finished in the meantime may have reset the checkpoint
+                final SearchIndexCheckpoint checkpoint = checkpointRepository.findById(collection).orElse(null);
+                if (checkpoint != null && checkpoint.getCompleted()) {
+                    applyChanges(checkpoint);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception ex) {
+                log.warn("Cannot apply changes to {} index due to the error:", collection.getName(), ex);
+            } finally {
+                lock.unlock();
+            }
+        }
+        purgeAppliedChanges();
+    }
+
+    public List<SearchIndexRebuildStatusDTO> getStatus() {
 
+        return Stream.of(SolrCollection.values())
+                .map(progresses::get)
+                .filter(progress -> progress != null)
+                .map(RebuildProgress::toDTO)
+                .collect(Collectors.toList());
     }
 
-    private void rebuildAllIndexes() {
+    private boolean isComplete(SolrCollection collection) {
 
+        final boolean complete = checkpointRepository.findById(collection)
+                .map(SearchIndexCheckpoint::getCompleted)
+                .orElse(false);
+        if (complete) {
+            log.info("{} index is up to date, only changes will be applied", collection.getName());
+        }
+        return complete;
+    }
+
+    private void rebuild(SolrCollection collection, RebuildProgress progress) {
+
+        final ReentrantLock lock = locks.get(collection);
+        lock.lock();
         try {
-            dataSourceService.indexAllBySolr();
-            userService.indexAllBySolr();
-            studyService.indexAllBySolr();
-            analysisService.indexAllBySolr();
-            paperService.indexAllBySolr();
+            SearchIndexCheckpoint checkpoint = checkpointRepository.findById(collection).orElse(null);
+            if (checkpoint != null && !checkpoint.getCompleted()) {
+                log.info("Resuming rebuild of {} index after id {}", collection.getName(), checkpoint.getLastId());
+                progress.start(checkpoint, true);
+            } else {
+                // changes of the transactions finished before this point are covered by the rebuild itself
+                final Long changeTxId = changeRepository.findOldestRunningTxId();
+                solrService.deleteAll(collection);
+                checkpoint = new SearchIndexCheckpoint(collection);
+                checkpoint.setChangeTxId(changeTxId);
+                checkpoint.setChangeId(0L);
+                checkpoint = checkpointRepository.save(checkpoint);
+                progress.start(checkpoint, false);
+            }
+            final Indexable indexable = indexables.get(collection);
+            final int pageSize = properties.getRebuild().getPageSize();
+            List<Long> ids;
+            long dropped = indexingQueue.getDroppedCount(collection.getName());
+            while (!(ids = indexable.indexBySolrAfter(checkpoint.getLastId(), pageSize)).isEmpty()) {
+                // the checkpoint must not get ahead of what Solr has actually received
+                dropped = flush(collection, dropped);
+                checkpoint.setLastId(ids.get(ids.size() - 1));
+                checkpoint.setIndexed(checkpoint.getIndexed() + ids.size());
+                checkpoint.setUpdated(new Date());
+                checkpoint = checkpointRepository.save(checkpoint);
+                progress.update(checkpoint);
+            }
+            checkpoint.setCompleted(true);
+            checkpoint.setUpdated(new Date());
+            checkpointRepository.save(checkpoint);
+            progress.complete();
+            log.info("Rebuild of {} index complete, {} documents indexed", collection.getName(), checkpoint.getIndexed());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            progress.fail(ex);
+            log.warn("Rebuild of {} index was interrupted, it will be resumed on the next start", collection.getName());
         } catch (Exception ex) {
-            throw new ArachneSystemRuntimeException(ex);
+            progress.fail(ex);
+            log.warn("Cannot rebuild {} index due to the error:", collection.getName(), ex);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void applyChanges(SearchIndexCheckpoint checkpoint) throws InterruptedException {
+
+        final SolrCollection collection = checkpoint.getCollection();
+        final Indexable indexable = indexables.get(collection);
+        final SolrIndexingProperties.ChangesConfig config = properties.getChanges();
+        List<SearchIndexChange> changes;
+        long dropped = indexingQueue.getDroppedCount(collection.getName());
+        while (!(changes = changeRepository.findCommittedAfter(collection.name(), checkpoint.getChangeTxId(),
+                checkpoint.getChangeId(), config.getBatchSize())).isEmpty()) {
+            final Set<Long> ids = changes.stream()
+                    .map(SearchIndexChange::getEntityId)
+                    .collect(Collectors.toCollection(LinkedHashSet::new));
+            // entities that are gone or must not be searchable anymore are not returned
+            ids.removeAll(indexable.indexBySolrByIds(ids));
+            for (final Long id : ids) {
+                solrService.delete(collection, id + SolrEntity.ID_DELIMITER + collection.getName());
+            }
+            dropped = flush(collection, dropped);
+            final SearchIndexChange last = changes.get(changes.size() - 1);
+            checkpoint.setChangeTxId(last.getTxId());
+            checkpoint.setChangeId(last.getId());
+            checkpoint.setUpdated(new Date());
+            checkpoint = checkpointRepository.save(checkpoint);
+            log.debug("Applied {} changes to {} index", changes.size(), collection.getName());
         }
+    }
 
+    /**
+     * Waits until the queued updates are sent and fails if any update of the collection was dropped meanwhile,
+     * so that the checkpoint stays before the page and the page is indexed again by the next attempt.
+     */
+    private long flush(SolrCollection collection, long droppedBefore) throws InterruptedException {
+
+        indexingQueue.flush();
+        final long dropped = indexingQueue.getDroppedCount(collection.getName());
+        if (dropped != droppedBefore) {
+            throw new SolrException(String.format("%d updates of %s index were dropped by the indexing queue",
+                    dropped - droppedBefore, collection.getName()));
+        }
+        return dropped;
+    }
+
+    private void purgeAppliedChanges() {
+
+        final List<SearchIndexCheckpoint> checkpoints = checkpointRepository.findAll();
+        if (checkpoints.size() < SolrCollection.values().length) {
+            return;
+        }
+        checkpoints.stream()
+                .min(Comparator.comparing(SearchIndexCheckpoint::getChangeTxId)
+                        .thenComparing(SearchIndexCheckpoint::getChangeId))
+                .ifPresent(applied -> changeRepository.deleteUpTo(applied.getChangeTxId(), applied.getChangeId()));
+    }
+
+    private static class RebuildProgress {
+
+        private final SolrCollection collection;
+        private volatile SearchIndexRebuildState state = SearchIndexRebuildState.PENDING;
+        private volatile long lastId;
+        private volatile long indexed;
+        private volatile boolean resumed;
+        private volatile Date started;
+        private volatile Date finished;
+        private volatile String error;
+
+        RebuildProgress(SolrCollection collection) {
+
+            this.collection = collection;
+        }
+
+        boolean isActive() {
+
+            return state == SearchIndexRebuildState.PENDING || state == SearchIndexRebuildState.RUNNING;
+        }
+
+        void start(SearchIndexCheckpoint checkpoint, boolean resumed) {
+
+            this.resumed = resumed;
+            this.started = new Date();
+            this.state = SearchIndexRebuildState.RUNNING;
+            update(checkpoint);
+        }
+
+        void update(SearchIndexCheckpoint checkpoint) {
+
+            this.lastId = checkpoint.getLastId();
+            this.indexed = checkpoint.getIndexed();
+        }
+
+        void complete() {
+
+            this.finished = new Date();
+            this.state = SearchIndexRebuildState.COMPLETED;
+        }
+
+        void fail(Exception ex) {
+
+            this.finished = new Date();
+            this.error = ex.getMessage();
+            this.state = SearchIndexRebuildState.FAILED;
+        }
+
+        SearchIndexRebuildStatusDTO toDTO() {
+
+            final SearchIndexRebuildStatusDTO dto = new SearchIndexRebuildStatusDTO();
+            dto.setCollection(collection.getName());
+            dto.setState(state);
+            dto.setLastId(lastId);
+            dto.setIndexed(indexed);
+            dto.setResumed(resumed);
+            dto.setStarted(started);
+            dto.setFinished(finished);
+            dto.setError(error);
+            return dto;
+        }
     }
-}
\ No newline at end of file
+}
@@ -64,6 +64,12 @@ public class AnalysisFile extends ArachneFile {
     @Column(name = "entry_point")
     private String entryPoint;
 
+    /**
+     * MD5 of the content, computed when the content is written. Null for files stored before it was introduced.
+     */
+    @Column(name = "checksum")
+    private String checksum;
+
     @ManyToOne(targetEntity = DataReference.class, fetch = FetchType.LAZY)
     private DataReference dataReference;
 
@@ -151,4 +157,14 @@ public class AnalysisFile extends ArachneFile {
 
         this.entryPoint = entryPoint;
     }
+
+    public String getChecksum() {
+
+        return checksum;
+    }
+
+    public void setChecksum(String checksum) {
+
+        this.checksum = checksum;
+    }
 }
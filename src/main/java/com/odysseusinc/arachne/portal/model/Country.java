@@ -27,9 +27,12 @@ import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.Id;
 import javax.persistence.Table;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "countries")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "dictionaries.countries")
 public class Country implements SolrValue {
 
     @Id
@@ -0,0 +1,112 @@
+/*
+ *
+ * Copyright 2021 Odysseus Data Services, inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Company: Odysseus Data Services, Inc.
+ * Product Owner/Architecture: Gregory Klebanov
+ * Authors: Yaroslav Molodkov, Alexandr Cumarav, Vitaliy Kulakov
+ * Created: October 11, 2021
+ *
+ */
+
+package com.odysseusinc.arachne.portal.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Immutable JSON document stored in a jsonb column. Keeps the JSON text as it was read or written,
+ * the Gson tree is built on the first access only. The text is written into API responses as is.
+ */
+public final class JsonValue implements Serializable, JsonSerializable {
+
+    private final String json;
+    private transient volatile JsonElement element;
+
+    private JsonValue(String json, JsonElement element) {
+
+        this.json = Objects.requireNonNull(json);
+        this.element = element;
+    }
+
+    public static JsonValue of(String json) {
+
+        return json == null ? null : new JsonValue(json, null);
+    }
+
+    /**
+     * The tree is serialized right away, later changes of it do not affect the value.
+     */
+    public static JsonValue of(JsonElement element) {
+
+        return element == null ? null : new JsonValue(element.toString(), null);
+    }
+
+    /**
+     * Parsed document, shared by all readers of the value, so it must not be modified.
+     */
+    public JsonElement getAsJsonElement() {
+
+        JsonElement result = element;
+        if (result == null) {
+            result = new JsonParser().parse(json);
+            element = result;
+        }
+        return result;
+    }
+
+    @Override
+    public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+
+        gen.writeRawValue(json);
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer)
+            throws IOException {
+
+        serialize(gen, serializers);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return json.equals(((JsonValue) o).json);
+    }
+
+    @Override
+    public int hashCode() {
+
+        return json.hashCode();
+    }
+
+    @Override
+    public String toString() {
+
+        return json;
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ *
+ * Copyright 2021 Odysseus Data Services, inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Company: Odysseus Data Services, Inc.
+ * Product Owner/Architecture: Gregory Klebanov
+ * Authors: Yaroslav Molodkov, Alexandr Cumarav, Vitaliy Kulakov
+ * Created: October 25, 2021
+ *
+ */
+
+package com.odysseusinc.arachne.portal.model;
+
+import java.util.Date;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+
+@Entity
+@Table(name = "mail_outbox")
+public class MailOutboxEntry {
+
+    @Id
+    @SequenceGenerator(name = "mail_outbox_pk_sequence", sequenceName = "mail_outbox_id_seq", allocationSize = 1)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "mail_outbox_pk_sequence")
+    private Long id;
+    @Column(nullable = false)
+    private String recipient;
+    @Column
+    private String fromPersonal;
+    @Column(nullable = false)
+    private String subject;
+    @Column(nullable = false)
+    private String htmlBody;
+    @Column(nullable = false)
+    private String textBody;
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private MailOutboxStatus status = MailOutboxStatus.PENDING;
+    @Column(nullable = false)
+    private int attempts;
+    @Column
+    private String lastError;
+    @Column(nullable = false)
+    private Date createdAt;
+    @Column(nullable = false)
+    private Date nextAttemptAt;
+    @Column
+    private Date sentAt;
+
+    public Long getId() {
+
+        return id;
+    }
+
+    public void setId(Long id) {
+
+        this.id = id;
+    }
+
+    public String getRecipient() {
+
+        return recipient;
+    }
+
+    public void setRecipient(String recipient) {
+
+        this.recipient = recipient;
+    }
+
+    public String getFromPersonal() {
+
+        return fromPersonal;
+    }
+
+    public void setFromPersonal(String fromPersonal) {
+
+        this.fromPersonal = fromPersonal;
+    }
+
+    public String getSubject() {
+
+        return subject;
+    }
+
+    public void setSubject(String subject) {
+
+        this.subject = subject;
+    }
+
+    public String getHtmlBody() {
+
+        return htmlBody;
+    }
+
+    public void setHtmlBody(String htmlBody) {
+
+        this.htmlBody = htmlBody;
+    }
+
+    public String getTextBody() {
+
+        return textBody;
+    }
+
+    public void setTextBody(String textBody) {
+
+        this.textBody = textBody;
+    }
+
+    public MailOutboxStatus getStatus() {
+
+        return status;
+    }
+
+    public void setStatus(MailOutboxStatus status) {
+
+        this.status = status;
+    }
+
+    public int getAttempts() {
+
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+
+        this.attempts = attempts;
+    }
+
+    public String getLastError() {
+
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+
+        this.lastError = lastError;
+    }
+
+    public Date getCreatedAt() {
+
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+
+        this.createdAt = createdAt;
+    }
+
+    public Date getNextAttemptAt() {
+
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(Date nextAttemptAt) {
+
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public Date getSentAt() {
+
+        return sentAt;
+    }
+
+    public void setSentAt(Date sentAt) {
+
+        this.sentAt = sentAt;
+    }
+}
@@ -32,9 +32,12 @@ import javax.persistence.Id;
 import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 import javax.persistence.Transient;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "professional_types")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "dictionaries.professional_types")
 public class ProfessionalType implements Serializable, SolrValue {
 
     @Id
@@ -0,0 +1,108 @@
+/*
+ *
+ * Copyright 2021 Odysseus Data Services, inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Company: Odysseus Data Services, Inc.
+ * Product Owner/Architecture: Gregory Klebanov
+ * Authors: Yaroslav Molodkov, Alexandr Cumarav, Vitaliy Kulakov
+ * Created: July 12, 2021
+ *
+ */
+
+package com.odysseusinc.arachne.portal.model;
+
+import com.odysseusinc.arachne.portal.model.solr.SolrCollection;
+import java.util.Date;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * Entity that has been created, updated or removed and has to be reindexed.
+ * Rows are written by {@link com.odysseusinc.arachne.portal.model.listeners.SolrEntityChangesListener}.
+ */
+@Entity
+@Table(name = "search_index_changes")
+public class SearchIndexChange {
+
+    @Id
+    @Column(name = "id")
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "collection")
+    private SolrCollection collection;
+
+    @Column(name = "entity_id")
+    private Long entityId;
+
+    @Column(name = "tx_id")
+    private Long txId;
+
+    @Column(name = "created")
+    private Date created;
+
+    public Long getId() {
+
+        return id;
+    }
+
+    public void setId(Long id) {
+
+        this.id = id;
+    }
+
+    public SolrCollection getCollection() {
+
+        return collection;
+    }
+
+    public void setCollection(SolrCollection collection) {
+
+        this.collection = collection;
+    }
+
+    public Long getEntityId() {
+
+        return entityId;
+    }
+
+    public void setEntityId(Long entityId) {
+
+        this.entityId = entityId;
+    }
+
+    public Long getTxId() {
+
+        return txId;
+    }
+
+    public void setTxId(Long txId) {
+
+        this.txId = txId;
+    }
+
+    public Date getCreated() {
+
+        return created;
+    }
+
+    public void setCreated(Date created) {
+
+        this.created = created;
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ *
+ * Copyright 2021 Odysseus Data Services, inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Company: Odysseus Data Services, Inc.
+ * Product Owner/Architecture: Gregory Klebanov
+ * Authors: Yaroslav Molodkov, Alexandr Cumarav, Vitaliy Kulakov
+ * Created: July 05, 2021
+ *
+ */
+
+package com.odysseusinc.arachne.portal.model;
+
+import com.odysseusinc.arachne.portal.model.solr.SolrCollection;
+import java.util.Date;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+@Entity
+@Table(name = "search_index_checkpoints")
+public class SearchIndexCheckpoint {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "collection")
+    private SolrCollection collection;
+
+    @Column(name = "last_id")
+    private Long lastId = 0L;
+
+    @Column(name = "indexed")
+    private Long indexed = 0L;
+
+    @Column(name = "completed")
+    private Boolean completed = Boolean.FALSE;
+
+    @Column(name = "updated")
+    private Date updated;
+
+    /**
+     * Transaction and id of the last entry of the search_index_changes applied to the collection.
+     */
+    @Column(name = "change_tx_id")
+    private Long changeTxId = 0L;
+
+    @Column(name = "change_id")
+    private Long changeId = 0L;
+
+    public SearchIndexCheckpoint() {
+
+    }
+
+    public SearchIndexCheckpoint(SolrCollection collection) {
+
+        this.collection = collection;
+        this.updated = new Date();
+    }
+
+    public SolrCollection getCollection() {
+
+        return collection;
+    }
+
+    public void setCollection(SolrCollection collection) {
+
+        this.collection = collection;
+    }
+
+    public Long getLastId() {
+
+        return lastId;
+    }
+
+    public void setLastId(Long lastId) {
+
+        this.lastId = lastId;
+    }
+
+    public Long getIndexed() {
+
+        return indexed;
+    }
+
+    public void setIndexed(Long indexed) {
+
+        this.indexed = indexed;
+    }
+
+    public Boolean getCompleted() {
+
+        return completed;
+    }
+
+    public void setCompleted(Boolean completed) {
+
+        this.completed = completed;
+    }
+
+    public Date getUpdated() {
+
+        return updated;
+    }
+
+    public void setUpdated(Date updated) {
+
+        this.updated = updated;
+    }
+
+    public Long getChangeTxId() {
+
+        return changeTxId;
+    }
+
+    public void setChangeTxId(Long changeTxId) {
+
+        this.changeTxId = changeTxId;
+    }
+
+    public Long getChangeId() {
+
+        return changeId;
+    }
+
+    public void setChangeId(Long changeId) {
+
+        this.changeId = changeId;
+    }
+}
@@ -32,12 +32,15 @@ import javax.persistence.Id;
 import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
 import javax.persistence.Transient;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Created by AKrutov on 18.10.2016.
  */
 @Entity
 @Table(name = "skills")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "dictionaries.skills")
 public class Skill implements SolrValue, Serializable {
 
     @Id
@@ -30,9 +30,12 @@ import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "states_provinces")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "dictionaries.states_provinces")
 public class StateProvince implements SolrValue {
 
     @Id
@@ -32,12 +32,15 @@ import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Created by AKrutov on 15.11.2016.
  */
 @Entity
 @Table(name = "study_statuses")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "dictionaries.study_statuses")
 public class StudyStatus implements IsState {
 
     @Id
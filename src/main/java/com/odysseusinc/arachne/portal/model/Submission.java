@@ -23,7 +23,6 @@
 package com.odysseusinc.arachne.portal.model;
 
 import com.google.common.base.MoreObjects;
-import com.google.gson.JsonElement;
 import com.odysseusinc.arachne.portal.api.v1.dto.InvitationType;
 import com.odysseusinc.arachne.portal.security.ArachnePermission;
 import com.odysseusinc.arachne.portal.security.HasArachnePermissions;
@@ -109,7 +108,7 @@ public class Submission implements HasArachnePermissions, Breadcrumb, Invitation
 
     @Column
     @Type(type = "com.odysseusinc.arachne.portal.repository.hibernate.JsonbType")
-    private JsonElement resultInfo;
+    private JsonValue resultInfo;
 
     @Column
     private Boolean hidden = false;
@@ -334,12 +333,12 @@ public class Submission implements HasArachnePermissions, Breadcrumb, Invitation
         this.token = token;
     }
 
-    public JsonElement getResultInfo() {
+    public JsonValue getResultInfo() {
 
         return resultInfo;
     }
 
-    public void setResultInfo(JsonElement resultInfo) {
+    public void setResultInfo(JsonValue resultInfo) {
 
         this.resultInfo = resultInfo;
     }
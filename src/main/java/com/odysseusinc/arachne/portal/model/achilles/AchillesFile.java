@@ -22,7 +22,7 @@
 
 package com.odysseusinc.arachne.portal.model.achilles;
 
-import com.google.gson.JsonObject;
+import com.odysseusinc.arachne.portal.model.JsonValue;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
@@ -47,7 +47,7 @@ public class AchillesFile {
     private String filePath;
     @Column(name = "data", nullable = false)
     @Type(type = "com.odysseusinc.arachne.portal.repository.hibernate.JsonbType")
-    private JsonObject data;
+    private JsonValue data;
 
     public Long getId() {
 
@@ -79,12 +79,12 @@ public class AchillesFile {
         this.filePath = filePath;
     }
 
-    public JsonObject getData() {
+    public JsonValue getData() {
 
         return data;
     }
 
-    public void setData(JsonObject data) {
+    public void setData(JsonValue data) {
 
         this.data = data;
     }
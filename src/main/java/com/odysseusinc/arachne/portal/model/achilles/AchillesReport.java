@@ -32,9 +32,12 @@ import javax.persistence.Id;
 import javax.persistence.OneToMany;
 import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "achilles_reports")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "dictionaries.achilles_reports")
 public class AchillesReport {
     @Id
     @SequenceGenerator(name = "achilles_report_pk_sequence", sequenceName = "achilles_reports_id_seq", allocationSize = 1)
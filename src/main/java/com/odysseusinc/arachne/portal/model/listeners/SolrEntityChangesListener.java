@@ -0,0 +1,147 @@
+/*
+ *
+ * Copyright 2021 Odysseus Data Services, inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Company: Odysseus Data Services, Inc.
+ * Product Owner/Architecture: Gregory Klebanov
+ * Authors: Yaroslav Molodkov, Alexandr Cumarav, Vitaliy Kulakov
+ * Created: July 12, 2021
+ *
+ */
+
+package com.odysseusinc.arachne.portal.model.listeners;
+
+import com.odysseusinc.arachne.portal.model.solr.SolrCollection;
+import com.odysseusinc.arachne.portal.model.solr.SolrEntity;
+import java.sql.PreparedStatement;
+import java.util.AbstractMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes ids of created, updated and removed {@link SolrEntity} instances to search_index_changes
+ * in the same transaction, right before it is committed. The changes are applied to Solr by
+ * {@link com.odysseusinc.arachne.portal.jobs.SearchIndexesRefresher}.
+ * Native bulk updates bypass the listener and log their changes themselves,
+ * see {@link com.odysseusinc.arachne.portal.repository.SearchIndexChangeRepository#LOG_CHANGED}.
+ */
+@Component
+public class SolrEntityChangesListener implements PostInsertEventListener, PostUpdateEventListener,
+        PostDeleteEventListener {
+
+    private static final String INSERT_CHANGE = "INSERT INTO search_index_changes (collection, entity_id) VALUES (?, ?)";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final Map<SharedSessionContractImplementor, Set<Map.Entry<SolrCollection, Long>>> changes
+            = new ConcurrentHashMap<>();
+
+    public SolrEntityChangesListener(EntityManagerFactory entityManagerFactory) {
+
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @PostConstruct
+    public void register() {
+
+        // JPA callbacks are instantiated by Hibernate and have no access to the session, so a native listener is used
+        final EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+
+        record(event.getSession(), event.getEntity());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+
+        record(event.getSession(), event.getEntity());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+
+        record(event.getSession(), event.getEntity());
+    }
+
+    @Override
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+
+        return false;
+    }
+
+    private void record(EventSource session, Object entity) {
+
+        if (!(entity instanceof SolrEntity)) {
+            return;
+        }
+        final SolrEntity solrEntity = (SolrEntity) entity;
+        changes.computeIfAbsent(session, this::registerProcesses)
+                .add(new AbstractMap.SimpleImmutableEntry<>(solrEntity.getCollection(), solrEntity.getId()));
+    }
+
+    private Set<Map.Entry<SolrCollection, Long>> registerProcesses(SharedSessionContractImplementor session) {
+
+        // runs after the flush done on commit, so changes of dirty-checked entities are also caught
+        session.getActionQueue().registerProcess((BeforeTransactionCompletionProcess) this::write);
+        // the entry is dropped on rollback as well
+        session.getActionQueue().registerProcess(
+                (AfterTransactionCompletionProcess) (success, completed) -> changes.remove(completed));
+        return new LinkedHashSet<>();
+    }
+
+    private void write(SessionImplementor session) {
+
+        final Set<Map.Entry<SolrCollection, Long>> recorded = changes.remove(session);
+        if (recorded == null || recorded.isEmpty()) {
+            return;
+        }
+        session.doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_CHANGE)) {
+                for (final Map.Entry<SolrCollection, Long> change : recorded) {
+                    statement.setString(1, change.getKey().name());
+                    statement.setLong(2, change.getValue());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+    }
+}
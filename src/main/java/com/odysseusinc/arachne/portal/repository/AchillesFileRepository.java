@@ -37,4 +37,10 @@ public interface AchillesFileRepository extends CrudRepository<AchillesFile, Lon
     Optional<AchillesFile> findByCharacterizationAndFilePath(
             @Param("id") Long characterizationId,
             @Param("filepath") String filePath);
+
+    @Query(nativeQuery = true, value = "SELECT CAST(data AS VARCHAR) FROM achilles_files "
+            + "WHERE characterization_id = :id and file_path = :filepath")
+    Optional<String> findDataByCharacterizationAndFilePath(
+            @Param("id") Long characterizationId,
+            @Param("filepath") String filePath);
 }
@@ -22,17 +22,26 @@
 
 package com.odysseusinc.arachne.portal.repository;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
 import com.odysseusinc.arachne.portal.model.achilles.AchillesReport;
 
 import java.util.List;
 import java.util.Optional;
 
+import javax.persistence.QueryHint;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 
 public interface AchillesReportRepository extends CrudRepository<AchillesReport, Long> {
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     Optional<AchillesReport> findByLabel(String label);
 
     List<AchillesReport> findAllByOrderByNameAsc();
 
     List<AchillesReport> findAllByOrderBySortOrderAsc();
+
+    @Query("SELECT DISTINCT r FROM AchillesReport r LEFT JOIN FETCH r.matchers ORDER BY r.sortOrder")
+    List<AchillesReport> findAllWithMatchersOrderBySortOrderAsc();
 }
@@ -29,6 +29,7 @@ import com.odysseusinc.arachne.portal.model.Analysis;
 import com.odysseusinc.arachne.portal.model.Study;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.NoRepositoryBean;
 import org.springframework.data.repository.query.Param;
@@ -53,4 +54,6 @@ public interface BaseAnalysisRepository<T extends Analysis> extends EntityGraphJ
     List<T> findByStudyIdOrderByOrd(Long studyId, EntityGraph entityGraph);
 
     List<T> findByType(CommonAnalysisType type, EntityGraph entityGraph);
+
+    List<T> findByIdGreaterThanOrderByIdAsc(Long lastId, Pageable pageable);
 }
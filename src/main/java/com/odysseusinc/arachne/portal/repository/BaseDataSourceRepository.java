@@ -24,6 +24,7 @@ package com.odysseusinc.arachne.portal.repository;
 
 import com.cosium.spring.data.jpa.entity.graph.repository.EntityGraphJpaRepository;
 import com.odysseusinc.arachne.portal.model.IDataSource;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
@@ -68,6 +69,29 @@ public interface BaseDataSourceRepository<T extends IDataSource> extends EntityG
                     "AND ds.deleted IS NULL AND ds.published = TRUE AND :withManual")
     List<T> getAllNotDeletedAndIsNotVirtualAndPublishedTrueFromAllTenants(@Param("withManual") boolean withManual);
 
+    @Query(
+            nativeQuery = true,
+            value = "SELECT * " +
+                    "FROM data_sources_data ds " +
+                    "JOIN datanodes dn ON dn.id = ds.data_node_id " +
+                    "WHERE dn.is_virtual = FALSE " +
+                    "AND ds.deleted IS NULL AND ds.published = TRUE AND :withManual " +
+                    "AND ds.id > :lastId ORDER BY ds.id LIMIT :limit")
+    List<T> getAllNotDeletedAndIsNotVirtualAndPublishedTrueFromAllTenantsAfter(@Param("withManual") boolean withManual,
+                                                                               @Param("lastId") Long lastId,
+                                                                               @Param("limit") int limit);
+
+    @Query(
+            nativeQuery = true,
+            value = "SELECT * " +
+                    "FROM data_sources_data ds " +
+                    "JOIN datanodes dn ON dn.id = ds.data_node_id " +
+                    "WHERE dn.is_virtual = FALSE " +
+                    "AND ds.deleted IS NULL AND ds.published = TRUE AND :withManual " +
+                    "AND ds.id IN :ids")
+    List<T> getAllNotDeletedAndIsNotVirtualAndPublishedTrueFromAllTenantsByIdIn(@Param("withManual") boolean withManual,
+                                                                                @Param("ids") Collection<Long> ids);
+
     @Transactional
     int deleteByIdAndDeletedIsNull(Long id);
 
@@ -81,16 +105,20 @@ public interface BaseDataSourceRepository<T extends IDataSource> extends EntityG
 
     @Modifying
     @Transactional
-    @Query(nativeQuery = true, value = "UPDATE tenants_data_sources "
+    @Query(nativeQuery = true, value = "WITH changed AS (UPDATE tenants_data_sources "
             + " SET deleted_at = CURRENT_TIMESTAMP "
-            + " WHERE data_source_id = :dataSourceId")
+            + " WHERE data_source_id = :dataSourceId "
+            + " RETURNING CAST('DATA_SOURCES' AS VARCHAR) AS collection, data_source_id AS entity_id)"
+            + SearchIndexChangeRepository.LOG_CHANGED)
     void makeLinksWithTenantsDeleted(@Param("dataSourceId") Long dataSourceId);
 
     @Modifying
     @Transactional
-    @Query(nativeQuery = true, value = "UPDATE tenants_data_sources "
+    @Query(nativeQuery = true, value = "WITH changed AS (UPDATE tenants_data_sources "
             + " SET deleted_at = NULL "
-            + " WHERE data_source_id = :dataSourceId")
+            + " WHERE data_source_id = :dataSourceId "
+            + " RETURNING CAST('DATA_SOURCES' AS VARCHAR) AS collection, data_source_id AS entity_id)"
+            + SearchIndexChangeRepository.LOG_CHANGED)
     void makeLinksWithTenantsNotDeleted(@Param("dataSourceId") Long dataSourceId);
 
     List<T> findByNameAndIdNot(String name, Long id);
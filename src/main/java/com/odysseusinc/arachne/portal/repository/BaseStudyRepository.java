@@ -103,4 +103,8 @@ public interface BaseStudyRepository<T extends Study> extends EntityGraphJpaRepo
 
     @Query(nativeQuery = true, value = "SELECT id, title, start_date, end_date, description, created, updated, status_id, type_id, privacy, tenant_id, kind FROM studies_data st")
     List<T> findAllInAllTenant();
+
+    @Query(nativeQuery = true, value = "SELECT id, title, start_date, end_date, description, created, updated, status_id, type_id, privacy, tenant_id, kind FROM studies_data st"
+            + " WHERE st.id > :lastId ORDER BY st.id LIMIT :limit")
+    List<T> findAllInAllTenantAfter(@Param("lastId") Long lastId, @Param("limit") int limit);
 }
\ No newline at end of file
@@ -25,6 +25,7 @@ package com.odysseusinc.arachne.portal.repository;
 import com.cosium.spring.data.jpa.entity.graph.domain.EntityGraph;
 import com.cosium.spring.data.jpa.entity.graph.repository.EntityGraphJpaRepository;
 import com.odysseusinc.arachne.portal.model.IUser;
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -81,6 +82,12 @@ public interface BaseUserRepository<U extends IUser> extends EntityGraphJpaRepos
     @Query(nativeQuery = true, value = "SELECT * FROM users_data u WHERE enabled = TRUE")
     List<U> findAllEnabledFromAllTenants();
 
+    @Query(nativeQuery = true, value = "SELECT * FROM users_data u WHERE enabled = TRUE AND u.id > :lastId ORDER BY u.id LIMIT :limit")
+    List<U> findEnabledFromAllTenantsAfter(@Param("lastId") Long lastId, @Param("limit") int limit);
+
+    @Query(nativeQuery = true, value = "SELECT * FROM users_data u WHERE enabled = TRUE AND u.id IN :ids")
+    List<U> findEnabledFromAllTenantsByIdIn(@Param("ids") Collection<Long> ids);
+
     List<U> findAllByUsernameInAndEnabledTrue(List<String> userNames);
 
     @Query(nativeQuery = true, value = "SELECT DISTINCT u.* FROM users u "
@@ -93,10 +100,12 @@ public interface BaseUserRepository<U extends IUser> extends EntityGraphJpaRepos
     List<U> listApprovedByDatasource(@Param("datasourceId") Long datasourceId);
 
     @Modifying
-    @Query(nativeQuery = true, value ="UPDATE studies_users su " +
+    @Query(nativeQuery = true, value = "WITH changed AS (UPDATE studies_users su " +
             "SET status = 'DELETED' " +
             "WHERE su.study_id IN (SELECT id FROM studies_data WHERE tenant_id = :tenantId) AND " +
-            "su.user_id = :userId")
+            "su.user_id = :userId " +
+            "RETURNING CAST('STUDIES' AS VARCHAR) AS collection, su.study_id AS entity_id)" +
+            SearchIndexChangeRepository.LOG_CHANGED)
     void setLinksBetweenStudiesAndUsersDeleted(@Param("tenantId") Long tenantId, @Param("userId") Long userId);
 
     @Modifying
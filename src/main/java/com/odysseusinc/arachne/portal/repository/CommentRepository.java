@@ -24,17 +24,36 @@ package com.odysseusinc.arachne.portal.repository;
 
 import com.odysseusinc.arachne.portal.model.Comment;
 import com.odysseusinc.arachne.portal.model.CommentTopic;
+import com.odysseusinc.arachne.portal.model.IUser;
 import java.util.List;
 import java.util.Set;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
 public interface CommentRepository extends PagingAndSortingRepository<Comment, Long> {
 
-    List<Comment> getAllByTopicIdAndParentIsNull(Long topicId);
+    /**
+     * Whole comment tree of the topic with authors and their roles, as pairs of a comment and its parent id.
+     * A comment is repeated once per role of its author.
+     */
+    @Query("SELECT c, c.parent.id FROM Comment c "
+            + "JOIN FETCH c.author a LEFT JOIN FETCH a.roles LEFT JOIN FETCH a.activeTenant "
+            + "WHERE c.topic.id = :topicId ORDER BY c.id")
+    List<Object[]> findThreadByTopicId(@Param("topicId") Long topicId);
 
+    /**
+     * Authors of the topic comments with their tenants. Fetched apart from the roles,
+     * as joining both collections repeats every comment per role and tenant.
+     */
+    @Query("SELECT DISTINCT a FROM Comment c JOIN c.author a LEFT JOIN FETCH a.tenants WHERE c.topic.id = :topicId")
+    List<IUser> findThreadAuthorsWithTenants(@Param("topicId") Long topicId);
+
+    @EntityGraph(attributePaths = "author")
     Page<Comment> getAllByTopicIn(Set<CommentTopic> topics, Pageable pageable);
 
     @Transactional
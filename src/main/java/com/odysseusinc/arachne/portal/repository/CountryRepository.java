@@ -22,9 +22,13 @@
 
 package com.odysseusinc.arachne.portal.repository;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
 import com.odysseusinc.arachne.portal.model.Country;
 import java.util.List;
+import javax.persistence.QueryHint;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
 
@@ -33,6 +37,7 @@ import org.springframework.data.repository.query.Param;
  */
 public interface CountryRepository extends CrudRepository<Country, Long> {
 
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     @Query(nativeQuery = true,
             value = "(select * from countries  where lower(name) like :suggestRequest "
                     + " limit :limit) "
@@ -44,10 +49,12 @@ public interface CountryRepository extends CrudRepository<Country, Long> {
             @Param("includeId") Long includeId);
 
 
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     @Query(nativeQuery = true,
             value = "select * from countries where alfa2=:code")
     List<Country> findByCode(
             @Param("code") String code);
 
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     Country findByIsoCode(String isoCode);
 }
@@ -24,9 +24,13 @@ package com.odysseusinc.arachne.portal.repository;
 
 import com.odysseusinc.arachne.portal.model.DataNode;
 import com.odysseusinc.arachne.portal.model.DataNodeUser;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface DataNodeUserRepository extends JpaRepository<DataNodeUser, Long> {
 
@@ -35,4 +39,9 @@ public interface DataNodeUserRepository extends JpaRepository<DataNodeUser, Long
     Optional<DataNodeUser> findByDataNodeAndUserId(DataNode dataNode, Long userId);
 
     Optional<DataNodeUser> findByDataNodeAndUser_Username(DataNode dataNode, String username);
+
+    @Query("SELECT ds.id FROM RawDataSource ds JOIN ds.dataNode dn JOIN dn.dataNodeUsers dnu "
+            + "WHERE ds.id IN (:dataSourceIds) AND dnu.user.id = :userId AND dnu.user.enabled = true")
+    Set<Long> findDataSourceIdsOwnedByUser(@Param("userId") Long userId,
+                                           @Param("dataSourceIds") Collection<Long> dataSourceIds);
 }
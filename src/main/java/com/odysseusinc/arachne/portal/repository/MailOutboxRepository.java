@@ -0,0 +1,49 @@
+/*
+ *
+ * Copyright 2021 Odysseus Data Services, inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Company: Odysseus Data Services, Inc.
+ * Product Owner/Architecture: Gregory Klebanov
+ * Authors: Yaroslav Molodkov, Alexandr Cumarav, Vitaliy Kulakov
+ * Created: October 25, 2021
+ *
+ */
+
+package com.odysseusinc.arachne.portal.repository;
+
+import com.odysseusinc.arachne.portal.model.MailOutboxEntry;
+import com.odysseusinc.arachne.portal.model.MailOutboxStatus;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+public interface MailOutboxRepository extends CrudRepository<MailOutboxEntry, Long> {
+
+    /**
+     * Locks due entries until the end of the transaction, entries locked by other senders are skipped.
+     */
+    @Query(nativeQuery = true, value = "SELECT * FROM mail_outbox "
+            + "WHERE status = 'PENDING' AND next_attempt_at <= now() "
+            + "ORDER BY next_attempt_at, id LIMIT :limit FOR UPDATE SKIP LOCKED")
+    List<MailOutboxEntry> lockDue(@Param("limit") int limit);
+
+    @Modifying
+    @Query("DELETE FROM MailOutboxEntry e WHERE e.status IN :statuses AND e.createdAt < :before")
+    int deleteByStatusInCreatedBefore(@Param("statuses") Collection<MailOutboxStatus> statuses,
+                                      @Param("before") Date before);
+}
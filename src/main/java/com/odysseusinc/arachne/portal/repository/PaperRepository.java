@@ -23,8 +23,10 @@
 package com.odysseusinc.arachne.portal.repository;
 
 import com.odysseusinc.arachne.portal.model.Paper;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
@@ -35,4 +37,8 @@ public interface PaperRepository<T extends Paper> extends JpaRepository<T, Long>
     List<T> findByStudyIdIn(List<Long> studyIds);
 
     void deleteByIdIn(List<Long> ids);
+
+    List<T> findByIdGreaterThanOrderByIdAsc(Long lastId, Pageable pageable);
+
+    List<T> findByIdIn(Collection<Long> ids);
 }
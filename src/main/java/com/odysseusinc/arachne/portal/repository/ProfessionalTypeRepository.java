@@ -22,10 +22,14 @@
 
 package com.odysseusinc.arachne.portal.repository;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
 import com.odysseusinc.arachne.portal.model.ProfessionalType;
 import java.util.List;
+import javax.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 
 /**
@@ -35,4 +39,8 @@ public interface ProfessionalTypeRepository extends CrudRepository<ProfessionalT
     List<ProfessionalType> findByName(String testProfessionalTypeName);
 
     Page<ProfessionalType> findAll(Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    @Override
+    Iterable<ProfessionalType> findAll();
 }
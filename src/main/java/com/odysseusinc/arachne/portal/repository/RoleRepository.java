@@ -22,15 +22,20 @@
 
 package com.odysseusinc.arachne.portal.repository;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
 import com.odysseusinc.arachne.portal.model.Role;
 import java.util.List;
+import javax.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
 
 public interface RoleRepository<R extends Role> extends CrudRepository<R, Long> {
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     List<R> findByName(String name);
 
     @Query(
@@ -40,4 +45,8 @@ public interface RoleRepository<R extends Role> extends CrudRepository<R, Long>
     List<R> findByUser(@Param("id") Long id);
 
     Page<R> findAll(Pageable pageRequest);
+
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    @Override
+    Iterable<R> findAll();
 }
@@ -0,0 +1,68 @@
+/*
+ *
+ * Copyright 2021 Odysseus Data Services, inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Company: Odysseus Data Services, Inc.
+ * Product Owner/Architecture: Gregory Klebanov
+ * Authors: Yaroslav Molodkov, Alexandr Cumarav, Vitaliy Kulakov
+ * Created: July 12, 2021
+ *
+ */
+
+package com.odysseusinc.arachne.portal.repository;
+
+import com.odysseusinc.arachne.portal.model.SearchIndexChange;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface SearchIndexChangeRepository extends JpaRepository<SearchIndexChange, Long> {
+
+    /**
+     * Native bulk updates are not seen by {@link com.odysseusinc.arachne.portal.model.listeners.SolrEntityChangesListener},
+     * so an update of rows which are a part of Solr documents is written as "WITH changed AS (... RETURNING
+     * 'COLLECTION' AS collection, id AS entity_id)" followed by this statement, which logs the changes in the same
+     * statement. The update count is then the number of distinct changed entities.
+     */
+    String LOG_CHANGED = " INSERT INTO search_index_changes (collection, entity_id) "
+            + " SELECT DISTINCT collection, entity_id FROM changed";
+
+    /**
+     * Entries of transactions older than the oldest one still running, in the order of the transactions.
+     * Such transactions are over, and any entry committed later belongs to a newer transaction,
+     * so it always comes after the entries already read, even if it got a lower id.
+     */
+    @Query(nativeQuery = true, value = "SELECT * FROM search_index_changes c "
+            + "WHERE c.collection = :collection AND (c.tx_id, c.id) > (:lastTxId, :lastId) "
+            + "AND c.tx_id < txid_snapshot_xmin(txid_current_snapshot()) "
+            + "ORDER BY c.tx_id, c.id LIMIT :limit")
+    List<SearchIndexChange> findCommittedAfter(@Param("collection") String collection,
+                                               @Param("lastTxId") Long lastTxId,
+                                               @Param("lastId") Long lastId,
+                                               @Param("limit") int limit);
+
+    /**
+     * Id of the oldest transaction still running, entries of it and of newer transactions are not read yet.
+     */
+    @Query(nativeQuery = true, value = "SELECT txid_snapshot_xmin(txid_current_snapshot())")
+    Long findOldestRunningTxId();
+
+    @Modifying
+    @Transactional
+    @Query(nativeQuery = true, value = "DELETE FROM search_index_changes WHERE (tx_id, id) <= (:txId, :id)")
+    int deleteUpTo(@Param("txId") Long txId, @Param("id") Long id);
+}
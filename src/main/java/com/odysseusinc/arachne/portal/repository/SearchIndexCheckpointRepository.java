@@ -0,0 +1,30 @@
+/*
+ *
+ * Copyright 2021 Odysseus Data Services, inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Company: Odysseus Data Services, Inc.
+ * Product Owner/Architecture: Gregory Klebanov
+ * Authors: Yaroslav Molodkov, Alexandr Cumarav, Vitaliy Kulakov
+ * Created: July 05, 2021
+ *
+ */
+
+package com.odysseusinc.arachne.portal.repository;
+
+import com.odysseusinc.arachne.portal.model.SearchIndexCheckpoint;
+import com.odysseusinc.arachne.portal.model.solr.SolrCollection;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface SearchIndexCheckpointRepository extends JpaRepository<SearchIndexCheckpoint, SolrCollection> {
+}
@@ -22,17 +22,25 @@
 
 package com.odysseusinc.arachne.portal.repository;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
 import com.odysseusinc.arachne.portal.model.Skill;
 import java.util.List;
+import javax.persistence.QueryHint;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 public interface SkillRepository<S extends Skill> extends JpaRepository<S, Long> {
 
     List<S> findByName(String name);
 
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    @Override
+    List<S> findAll();
+
     @Query(nativeQuery = true,
             value = "SELECT * FROM skills  WHERE lower(name) SIMILAR TO :suggestRequest LIMIT :limit")
     List<S> suggest(@Param("suggestRequest") String suggestRequest, @Param("limit") Integer limit);
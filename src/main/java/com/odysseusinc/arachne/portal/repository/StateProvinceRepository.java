@@ -22,14 +22,19 @@
 
 package com.odysseusinc.arachne.portal.repository;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
 import com.odysseusinc.arachne.portal.model.StateProvince;
 import java.util.List;
+import javax.persistence.QueryHint;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.data.repository.query.Param;
 
 public interface StateProvinceRepository extends CrudRepository<StateProvince, Long> {
 
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     @Query(nativeQuery = true,
             value = "(select * from states_provinces  "
                     + "where country_id=:country_id and "
@@ -42,5 +47,6 @@ public interface StateProvinceRepository extends CrudRepository<StateProvince, L
             @Param("limit") Integer limit,
             @Param("includeId") Long includeId);
 
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     StateProvince findByIsoCode(String isoCode);
 }
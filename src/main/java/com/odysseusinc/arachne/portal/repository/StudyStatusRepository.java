@@ -22,13 +22,23 @@
 
 package com.odysseusinc.arachne.portal.repository;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
 import com.odysseusinc.arachne.portal.model.StudyStatus;
 import com.odysseusinc.arachne.portal.model.statemachine.StateRepository;
+import java.util.List;
+import javax.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 /**
  * Created by AKrutov on 18.10.2016.
  */
 public interface StudyStatusRepository extends JpaRepository<StudyStatus, Long>, StateRepository<StudyStatus> {
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     StudyStatus findByName(String name);
+
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    @Override
+    List<StudyStatus> findAll();
 }
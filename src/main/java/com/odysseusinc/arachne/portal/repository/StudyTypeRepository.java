@@ -22,16 +22,25 @@
 
 package com.odysseusinc.arachne.portal.repository;
 
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+
 import com.odysseusinc.arachne.portal.model.StudyType;
 import java.util.List;
+import javax.persistence.QueryHint;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 
 /**
  * Created by AKrutov on 18.10.2016.
  */
 public interface StudyTypeRepository extends CrudRepository<StudyType, Long> {
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
     StudyType findByName(String name);
 
+    @QueryHints(@QueryHint(name = HINT_CACHEABLE, value = "true"))
+    @Override
+    Iterable<StudyType> findAll();
+
     List<StudyType> findAll(Pageable pageRequest);
 }
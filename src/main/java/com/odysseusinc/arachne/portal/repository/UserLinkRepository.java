@@ -26,10 +26,13 @@ import com.cosium.spring.data.jpa.entity.graph.repository.EntityGraphJpaReposito
 import com.odysseusinc.arachne.portal.model.IUser;
 import com.odysseusinc.arachne.portal.model.User;
 import com.odysseusinc.arachne.portal.model.UserLink;
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.repository.CrudRepository;
 
 public interface UserLinkRepository<UL extends UserLink> extends EntityGraphJpaRepository<UL, Long> {
 
     List<UL> findByUserId(Long userId);
+
+    List<UL> findByUserIdIn(Collection<Long> userIds);
 }
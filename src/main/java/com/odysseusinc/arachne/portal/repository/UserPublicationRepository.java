@@ -24,9 +24,12 @@ package com.odysseusinc.arachne.portal.repository;
 
 import com.cosium.spring.data.jpa.entity.graph.repository.EntityGraphJpaRepository;
 import com.odysseusinc.arachne.portal.model.UserPublication;
+import java.util.Collection;
 import java.util.List;
 
 public interface UserPublicationRepository<UP extends UserPublication> extends EntityGraphJpaRepository<UP, Long> {
 
     List<UP> findByUserId(Long userId);
+
+    List<UP> findByUserIdIn(Collection<Long> userIds);
 }
@@ -27,6 +27,7 @@ import com.odysseusinc.arachne.portal.model.ParticipantStatus;
 import com.odysseusinc.arachne.portal.model.Study;
 import com.odysseusinc.arachne.portal.model.User;
 import com.odysseusinc.arachne.portal.model.UserStudyExtended;
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
@@ -38,6 +39,8 @@ public interface UserStudyExtendedRepository extends CrudRepository<UserStudyExt
 
     List<UserStudyExtended> findByUserIdAndStudyIdAndStatusIn(Long userId, Long studyId, List<ParticipantStatus> pending);
 
+    List<UserStudyExtended> findByUserIdAndStudyIdInAndStatusIn(Long userId, Collection<Long> studyIds, List<ParticipantStatus> statuses);
+
     @Query(nativeQuery = true, value = "SELECT * FROM  users_studies_extended WHERE study_id = :studyId "
             + "ORDER BY"
             + "  CASE WHEN (status != 'DELETED')"
@@ -56,7 +56,7 @@ public interface UserStudyRepository extends CrudRepository<UserStudy, Long>, Jp
 
     @Modifying
     @Transactional
-    @Query(value = " DELETE FROM studies_users "
+    @Query(value = "WITH changed AS (DELETE FROM studies_users "
             + " WHERE studies_users.study_id = :studyId AND studies_users.user_id = :userId AND NOT "
             + " (SELECT count(*) > 0 AS tracked "
             + "  FROM studies "
@@ -80,7 +80,9 @@ public interface UserStudyRepository extends CrudRepository<UserStudy, Long>, Jp
             + "             OR submissions.author_id = :userId "
             + "             OR submission_files.author_id = :userId "
             + "             OR comments.author_id = :userId "
-            + "             OR user_id = :userId));",
+            + "             OR user_id = :userId)) "
+            + " RETURNING CAST('STUDIES' AS VARCHAR) AS collection, study_id AS entity_id)"
+            + SearchIndexChangeRepository.LOG_CHANGED,
             nativeQuery = true)
     int hardRemoveIfNotTracked(@Param("studyId") Long studyId, @Param("userId") Long id);
 }
\ No newline at end of file
@@ -22,21 +22,20 @@
 
 package com.odysseusinc.arachne.portal.repository.hibernate;
 
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
-
+import com.odysseusinc.arachne.portal.model.JsonValue;
 import java.io.Serializable;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Types;
-
 import org.hibernate.HibernateException;
-import org.hibernate.engine.spi.SessionImplementor;
 import org.hibernate.engine.spi.SharedSessionContractImplementor;
-import org.hibernate.type.SerializationException;
 import org.hibernate.usertype.UserType;
 
+/**
+ * Maps jsonb columns to immutable {@link JsonValue}s. The text is neither parsed on load nor copied,
+ * and a value is dirty only when another instance is set, so flushes do not compare the documents.
+ */
 public class JsonbType implements UserType {
     @Override
     public int[] sqlTypes() {
@@ -47,39 +46,25 @@ public class JsonbType implements UserType {
     @Override
     public Class returnedClass() {
 
-        return JsonObject.class;
+        return JsonValue.class;
     }
 
     @Override
     public boolean equals(Object x, Object y) throws HibernateException {
 
-        if (x == y) {
-            return true;
-        }
-        if (x == null || y == null) {
-            return false;
-        }
-        return x.equals(y);
+        return x == y;
     }
 
     @Override
     public int hashCode(Object o) throws HibernateException {
 
-        if (o == null) {
-            return 0;
-        }
-        return o.hashCode();
+        return System.identityHashCode(o);
     }
 
     @Override
     public Object nullSafeGet(ResultSet resultSet, String[] strings, SharedSessionContractImplementor sharedSessionContractImplementor, Object o) throws HibernateException, SQLException {
-        final String json = resultSet.getString(strings[0]);
-        if (json == null) {
-            return null;
-        }
 
-        final JsonParser jsonParser = new JsonParser();
-        return jsonParser.parse(json);
+        return JsonValue.of(resultSet.getString(strings[0]));
     }
 
     @Override
@@ -96,41 +81,30 @@ public class JsonbType implements UserType {
     @Override
     public Object deepCopy(Object value) throws HibernateException {
 
-        if (value == null) {
-            return null;
-        }
-        final JsonParser jsonParser = new JsonParser();
-        return jsonParser.parse(value.toString());
+        return value;
     }
 
     @Override
     public boolean isMutable() {
 
-        return true;
+        return false;
     }
 
     @Override
     public Serializable disassemble(Object value) throws HibernateException {
 
-        final Object deepCopy = deepCopy(value);
-
-        if (!(deepCopy instanceof Serializable)) {
-            throw new SerializationException(
-                    String.format("deepCopy of %s is not serializable", value), null);
-        }
-
-        return (Serializable) deepCopy;
+        return (Serializable) value;
     }
 
     @Override
     public Object assemble(Serializable cached, final Object owner) throws HibernateException {
 
-        return deepCopy(cached);
+        return cached;
     }
 
     @Override
     public Object replace(Object original, final Object target, final Object owner) throws HibernateException {
 
-        return deepCopy(original);
+        return original;
     }
 }
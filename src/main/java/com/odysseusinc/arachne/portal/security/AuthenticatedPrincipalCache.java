@@ -0,0 +1,127 @@
+/*
+ *
+ * Copyright 2021 Odysseus Data Services, inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Company: Odysseus Data Services, Inc.
+ * Product Owner/Architecture: Gregory Klebanov
+ * Authors: Yaroslav Molodkov, Alexandr Cumarav, Vitaliy Kulakov
+ * Created: August 30, 2021
+ *
+ */
+
+package com.odysseusinc.arachne.portal.security;
+
+import com.google.common.cache.CacheStats;
+import com.odysseusinc.arachne.portal.model.IUser;
+import com.odysseusinc.arachne.portal.model.listeners.EntityChangeListener;
+import com.odysseusinc.arachne.portal.model.security.ArachneUser;
+import com.odysseusinc.arachne.portal.util.EvictingCache;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps principals of authenticated users for a short time, so that parallel requests of one page
+ * do not load the same user again. The token itself is still validated on every request.
+ * A user is evicted when its row or its roles are changed through Hibernate, e.g. when it is disabled,
+ * gets other roles or switches the active tenant, and once more after the commit.
+ * Changes made by other nodes are picked up after the TTL.
+ */
+@Component
+public class AuthenticatedPrincipalCache extends EntityChangeListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AuthenticatedPrincipalCache.class);
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final EvictingCache<String, ArachneUser> principals;
+
+    public AuthenticatedPrincipalCache(EntityManagerFactory entityManagerFactory,
+                                       @Value("${arachne.principalCache.ttlSeconds:30}") long ttlSeconds,
+                                       @Value("${arachne.principalCache.maxSize:10000}") long maxSize) {
+
+        this.entityManagerFactory = entityManagerFactory;
+        this.principals = new EvictingCache<>("Principal", maxSize, ttlSeconds, TimeUnit.SECONDS);
+    }
+
+    @PostConstruct
+    public void init() {
+
+        register(entityManagerFactory);
+    }
+
+    /**
+     * Returns a copy of the cached principal, so callers never share one instance.
+     * E.g. a user which is not found or disabled is not cached, the exception of the loader is thrown as is.
+     */
+    public ArachneUser get(String username, Function<String, UserDetails> loader) {
+
+        return copy(principals.get(username, () -> (ArachneUser) loader.apply(username)));
+    }
+
+    /**
+     * Evicts the user at once and again after the transaction completes, so that a principal loaded
+     * by a concurrent request from the not yet committed state is not kept.
+     */
+    public void evict(IUser user) {
+
+        final Long id = user.getId();
+        if (user.getUsername() != null) {
+            principals.evict(user.getUsername());
+        }
+        if (user.getEmail() != null) {
+            principals.evict(user.getEmail());
+        }
+        if (id != null) {
+            // entries cached under a previous username or e-mail
+            principals.evictIf(principal -> id.equals(principal.getId()));
+        }
+    }
+
+    public void evictAll() {
+
+        principals.evictAll();
+    }
+
+    public CacheStats getStats() {
+
+        return principals.getStats();
+    }
+
+    @Scheduled(fixedDelayString = "${arachne.principalCache.statsIntervalMs:300000}")
+    public void reportStats() {
+
+        principals.logStats(LOGGER);
+    }
+
+    @Override
+    protected void onChange(Object entity) {
+
+        if (entity instanceof IUser) {
+            evict((IUser) entity);
+        }
+    }
+
+    private static ArachneUser copy(ArachneUser user) {
+
+        return new ArachneUser(user.getId(), user.getActiveTenantId(), user.getUsername(), user.getPassword(),
+                user.getEmail(), user.getLastPasswordReset(), user.getAuthorities());
+    }
+}
@@ -22,8 +22,6 @@
 
 package com.odysseusinc.arachne.portal.security;
 
-import com.odysseusinc.arachne.portal.model.DataNode;
-import com.odysseusinc.arachne.portal.service.BaseDataNodeService;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -44,11 +42,11 @@ public class AuthenticationSystemTokenFilter extends GenericFilterBean {
     @Value("${arachne.systemToken.header}")
     private String tokenHeader;
 
-    private final BaseDataNodeService<DataNode> baseDataNodeService;
+    private final DataNodeTokenCache dataNodeTokenCache;
 
-    public AuthenticationSystemTokenFilter(BaseDataNodeService baseDataNodeService) {
+    public AuthenticationSystemTokenFilter(DataNodeTokenCache dataNodeTokenCache) {
 
-        this.baseDataNodeService = baseDataNodeService;
+        this.dataNodeTokenCache = dataNodeTokenCache;
     }
 
     @Override
@@ -58,7 +56,7 @@ public class AuthenticationSystemTokenFilter extends GenericFilterBean {
         HttpServletRequest request = (HttpServletRequest) servletRequest;
         String token = request.getHeader(tokenHeader);
         if (token != null) {
-            DataNode dataNode = baseDataNodeService.findByToken(token)
+            DataNodeIdentity dataNode = dataNodeTokenCache.findByToken(token)
                     .orElseThrow(() -> new BadCredentialsException("dataNode not found"));
             if (SecurityContextHolder.getContext().getAuthentication() == null) {
                 GrantedAuthority dataNodeAuthority = new SimpleGrantedAuthority("ROLE_" + Roles.ROLE_DATA_NODE);
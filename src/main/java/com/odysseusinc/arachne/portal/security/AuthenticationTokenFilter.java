@@ -62,6 +62,8 @@ public class AuthenticationTokenFilter extends GenericFilterBean {
     private UserDetailsService userDetailsService;
     @Autowired
     private Authenticator authenticator;
+    @Autowired
+    private AuthenticatedPrincipalCache principalCache;
 
 
     @Override
@@ -96,7 +98,7 @@ public class AuthenticationTokenFilter extends GenericFilterBean {
 
     private void putUserInSecurityContext(HttpServletRequest httpRequest, String username) {
 
-        UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+        UserDetails userDetails = principalCache.get(username, userDetailsService::loadUserByUsername);
         UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
         authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(httpRequest));
         SecurityContextHolder.getContext().setAuthentication(authentication);
@@ -22,7 +22,6 @@
 
 package com.odysseusinc.arachne.portal.security;
 
-import com.odysseusinc.arachne.portal.model.DataNode;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
@@ -33,7 +32,7 @@ public class DataNodeAuthenticationProvider implements AuthenticationProvider {
 
         String token = (String) authentication.getCredentials();
         if (token != null && authentication instanceof DataNodeAuthenticationToken) {
-            DataNode dataNode = (DataNode) authentication.getPrincipal();
+            DataNodeIdentity dataNode = (DataNodeIdentity) authentication.getPrincipal();
             if (dataNode != null && token.equals(dataNode.getToken())) {
                 return authentication;
             }
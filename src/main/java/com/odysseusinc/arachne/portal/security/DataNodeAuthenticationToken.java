@@ -22,7 +22,6 @@
 
 package com.odysseusinc.arachne.portal.security;
 
-import com.odysseusinc.arachne.portal.model.DataNode;
 import java.util.Collection;
 import org.springframework.security.authentication.AbstractAuthenticationToken;
 import org.springframework.security.core.GrantedAuthority;
@@ -30,9 +29,9 @@ import org.springframework.security.core.GrantedAuthority;
 public class DataNodeAuthenticationToken extends AbstractAuthenticationToken {
 
     private String token;
-    private DataNode dataNode;
+    private DataNodeIdentity dataNode;
 
-    public DataNodeAuthenticationToken(String token, DataNode dataNode, Collection<? extends GrantedAuthority> authorities) {
+    public DataNodeAuthenticationToken(String token, DataNodeIdentity dataNode, Collection<? extends GrantedAuthority> authorities) {
 
         super(authorities);
         this.token = token;
@@ -46,7 +45,7 @@ public class DataNodeAuthenticationToken extends AbstractAuthenticationToken {
     }
 
     @Override
-    public Object getPrincipal() {
+    public DataNodeIdentity getPrincipal() {
 
         return dataNode;
     }
@@ -0,0 +1,81 @@
+/*
+ *
+ * Copyright 2021 Odysseus Data Services, inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Company: Odysseus Data Services, Inc.
+ * Product Owner/Architecture: Gregory Klebanov
+ * Authors: Yaroslav Molodkov, Alexandr Cumarav, Vitaliy Kulakov
+ * Created: November 09, 2021
+ *
+ */
+
+package com.odysseusinc.arachne.portal.security;
+
+import com.odysseusinc.arachne.portal.model.DataNode;
+import com.odysseusinc.arachne.portal.model.DataSource;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable snapshot of what identifies an authenticated DataNode: its id, system token and data sources.
+ * Safe to share between requests, unlike the entity it was taken from.
+ */
+public final class DataNodeIdentity {
+
+    private final Long id;
+    private final String token;
+    private final Set<Long> dataSourceIds;
+
+    public DataNodeIdentity(Long id, String token, Set<Long> dataSourceIds) {
+
+        this.id = id;
+        this.token = token;
+        this.dataSourceIds = Collections.unmodifiableSet(dataSourceIds);
+    }
+
+    public static DataNodeIdentity of(DataNode dataNode) {
+
+        final Set<DataSource> dataSources = dataNode.getDataSources();
+        final Set<Long> dataSourceIds = dataSources == null
+                ? Collections.emptySet()
+                : dataSources.stream().map(DataSource::getId).filter(Objects::nonNull).collect(Collectors.toSet());
+        return new DataNodeIdentity(dataNode.getId(), dataNode.getToken(), dataSourceIds);
+    }
+
+    /**
+     * Whether the principal is the identity of the given DataNode, for use in method security expressions.
+     */
+    public static boolean matches(Object principal, DataNode dataNode) {
+
+        return principal instanceof DataNodeIdentity && dataNode != null
+                && Objects.equals(((DataNodeIdentity) principal).getId(), dataNode.getId());
+    }
+
+    public Long getId() {
+
+        return id;
+    }
+
+    public String getToken() {
+
+        return token;
+    }
+
+    public Set<Long> getDataSourceIds() {
+
+        return dataSourceIds;
+    }
+}
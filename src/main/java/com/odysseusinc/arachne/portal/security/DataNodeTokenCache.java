@@ -0,0 +1,144 @@
+/*
+ *
+ * Copyright 2021 Odysseus Data Services, inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Company: Odysseus Data Services, Inc.
+ * Product Owner/Architecture: Gregory Klebanov
+ * Authors: Yaroslav Molodkov, Alexandr Cumarav, Vitaliy Kulakov
+ * Created: September 06, 2021
+ *
+ */
+
+package com.odysseusinc.arachne.portal.security;
+
+import com.google.common.cache.CacheStats;
+import com.odysseusinc.arachne.portal.model.DataNode;
+import com.odysseusinc.arachne.portal.model.IDataSource;
+import com.odysseusinc.arachne.portal.model.listeners.EntityChangeListener;
+import com.odysseusinc.arachne.portal.service.BaseDataNodeService;
+import com.odysseusinc.arachne.portal.util.EvictingCache;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Resolves DataNodes by their system tokens. An immutable {@link DataNodeIdentity} is cached, so a hit
+ * does not query anything. Unknown tokens are remembered for a shorter time, so that
+ * a node with a revoked token cannot cause a query per request.
+ * A node is evicted when it or one of its data sources is changed through Hibernate, e.g. when its token
+ * is regenerated or the node is deleted, and once more after the commit.
+ * Changes made by other portal instances are picked up after the TTL.
+ */
+@Component
+public class DataNodeTokenCache extends EntityChangeListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DataNodeTokenCache.class);
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final BaseDataNodeService<DataNode> baseDataNodeService;
+    private final EvictingCache<String, DataNodeIdentity> identities;
+    private final EvictingCache<String, Boolean> unknownTokens;
+
+    public DataNodeTokenCache(EntityManagerFactory entityManagerFactory,
+                              BaseDataNodeService baseDataNodeService,
+                              @Value("${arachne.systemToken.cache.ttlSeconds:60}") long ttlSeconds,
+                              @Value("${arachne.systemToken.cache.unknownTtlSeconds:10}") long unknownTtlSeconds,
+                              @Value("${arachne.systemToken.cache.maxSize:10000}") long maxSize) {
+
+        this.entityManagerFactory = entityManagerFactory;
+        this.baseDataNodeService = baseDataNodeService;
+        this.identities = new EvictingCache<>("DataNode token", maxSize, ttlSeconds, TimeUnit.SECONDS);
+        this.unknownTokens = new EvictingCache<>("Unknown DataNode token", maxSize, unknownTtlSeconds,
+                TimeUnit.SECONDS);
+    }
+
+    @PostConstruct
+    public void init() {
+
+        register(entityManagerFactory);
+    }
+
+    /**
+     * Returns the identity of the DataNode owning the token.
+     */
+    public Optional<DataNodeIdentity> findByToken(String token) {
+
+        if (unknownTokens.getIfPresent(token) != null) {
+            return Optional.empty();
+        }
+        final DataNodeIdentity cached = identities.getIfPresent(token);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        final Optional<DataNodeIdentity> identity = baseDataNodeService.findByToken(token).map(DataNodeIdentity::of);
+        if (identity.isPresent()) {
+            identities.put(token, identity.get());
+        } else {
+            unknownTokens.put(token, Boolean.TRUE);
+        }
+        return identity;
+    }
+
+    /**
+     * Evicts the node at once and again after the transaction completes, so that a token resolved
+     * by a concurrent request from the not yet committed state is not kept.
+     */
+    public void evict(Long dataNodeId) {
+
+        identities.evictIf(identity -> Objects.equals(identity.getId(), dataNodeId));
+    }
+
+    public void evictAll() {
+
+        identities.evictAll();
+        unknownTokens.evictAll();
+    }
+
+    public CacheStats getStats() {
+
+        return identities.getStats();
+    }
+
+    @Scheduled(fixedDelayString = "${arachne.systemToken.cache.statsIntervalMs:300000}")
+    public void reportStats() {
+
+        identities.logStats(LOGGER);
+        unknownTokens.logStats(LOGGER);
+    }
+
+    @Override
+    protected void onChange(Object entity) {
+
+        if (entity instanceof DataNode) {
+            final DataNode dataNode = (DataNode) entity;
+            evict(dataNode.getId());
+            // the new token may have been rejected before the node was saved
+            if (dataNode.getToken() != null) {
+                unknownTokens.evict(dataNode.getToken());
+            }
+        } else if (entity instanceof IDataSource) {
+            final DataNode dataNode = ((IDataSource) entity).getDataNode();
+            if (dataNode != null) {
+                evict(dataNode.getId());
+            }
+        }
+    }
+}
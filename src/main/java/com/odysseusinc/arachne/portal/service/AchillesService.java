@@ -47,7 +47,14 @@ public interface AchillesService<DS extends IDataSource> {
 
     List<AchillesReport> getReports(DS dataSource);
 
+    List<AchillesReport> getReports();
+
     Optional<AchillesFile> getAchillesFile(Long characterizationId, String filePath);
 
+    /**
+     * Returns the JSON text of the file as it is stored, without parsing it.
+     */
+    Optional<String> getAchillesFileData(Long characterizationId, String filePath);
+
     Long getLatestCharacterizationId(DS dataSource) throws NotExistException;
 }
@@ -37,7 +37,9 @@ import com.odysseusinc.arachne.portal.model.SubmissionInsight;
 import com.odysseusinc.arachne.portal.model.User;
 import com.odysseusinc.arachne.portal.model.security.ArachneUser;
 import com.odysseusinc.arachne.portal.security.ArachnePermission;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 public interface BaseArachneSecureService<P extends Paper, DS extends IDataSource> {
@@ -66,4 +68,20 @@ public interface BaseArachneSecureService<P extends Paper, DS extends IDataSourc
     boolean wasDataSourceApproved(Analysis analysis, Long dataSourceId);
 
     List<ParticipantRole> getRolesByOrganization(ArachneUser user, Organization organization);
+
+    /**
+     * Same as {@link #getRolesByStudy(ArachneUser, Study)} for every study, resolved in a constant number of queries.
+     * Keyed by study id.
+     */
+    Map<Long, List<ParticipantRole>> getRolesByStudies(ArachneUser user, Collection<? extends Study> studies);
+
+    /**
+     * Same as {@link #getRolesByAnalysis(ArachneUser, Analysis)} for every analysis, keyed by analysis id.
+     */
+    Map<Long, List<ParticipantRole>> getRolesByAnalyses(ArachneUser user, Collection<? extends Analysis> analyses);
+
+    /**
+     * Same as {@link #getRolesBySubmission(ArachneUser, Submission)} for every submission, keyed by submission id.
+     */
+    Map<Long, List<ParticipantRole>> getRolesBySubmissions(ArachneUser user, Collection<? extends Submission> submissions);
 }
@@ -61,6 +61,8 @@ public interface BaseDataNodeService<DN extends DataNode> {
 
     Optional<DN> findByToken(String token);
 
+    DN getReference(Long id);
+
     DN getBySid(String uuid) throws NotExistException;
 
     CommonHealthStatus getHealthStatus(DataNode dataNode);
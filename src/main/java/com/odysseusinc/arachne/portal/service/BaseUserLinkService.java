@@ -26,6 +26,7 @@ import com.odysseusinc.arachne.portal.model.IUser;
 import com.odysseusinc.arachne.portal.model.Skill;
 import com.odysseusinc.arachne.portal.model.User;
 import com.odysseusinc.arachne.portal.model.UserLink;
+import java.util.Collection;
 import java.util.List;
 
 public interface BaseUserLinkService<UL extends UserLink> extends CRUDLService<UL> {
@@ -33,4 +34,6 @@ public interface BaseUserLinkService<UL extends UserLink> extends CRUDLService<U
     List<UL> findByUserId(Long userId);
 
     List<UL> findAll();
+
+    List<UL> findByUserIdIn(Collection<Long> userIds);
 }
\ No newline at end of file
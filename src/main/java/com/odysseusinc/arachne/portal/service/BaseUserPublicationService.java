@@ -25,6 +25,7 @@ package com.odysseusinc.arachne.portal.service;
 import com.odysseusinc.arachne.portal.model.IUser;
 import com.odysseusinc.arachne.portal.model.Skill;
 import com.odysseusinc.arachne.portal.model.UserPublication;
+import java.util.Collection;
 import java.util.List;
 
 public interface BaseUserPublicationService<UP extends UserPublication> extends CRUDLService<UP> {
@@ -32,4 +33,6 @@ public interface BaseUserPublicationService<UP extends UserPublication> extends
     List<UP> findByUserId(Long userId);
 
     List<UP> findAll();
+
+    List<UP> findByUserIdIn(Collection<Long> userIds);
 }
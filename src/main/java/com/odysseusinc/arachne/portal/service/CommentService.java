@@ -22,6 +22,8 @@
 
 package com.odysseusinc.arachne.portal.service;
 
+import com.odysseusinc.arachne.portal.api.v1.dto.CommentDTO;
+import com.odysseusinc.arachne.portal.api.v1.dto.CommentTopicDTO;
 import com.odysseusinc.arachne.portal.exception.NotExistException;
 import com.odysseusinc.arachne.portal.model.Comment;
 import com.odysseusinc.arachne.portal.model.CommentTopic;
@@ -30,7 +32,12 @@ import java.util.Set;
 import org.springframework.data.domain.Sort;
 
 public interface CommentService {
-    CommentTopic getTopic(Long id) throws NotExistException;
+
+    /**
+     * Root comments of the topic with their answers nested in {@link CommentDTO#getComments()}
+     * and linked by {@link CommentDTO#getParentId()}. The returned thread is shared and must not be modified.
+     */
+    CommentTopicDTO getTopicThread(Long id) throws NotExistException;
 
     Set<CommentTopic> list(Set<CommentTopic> topics, Integer size, Sort sort);
 
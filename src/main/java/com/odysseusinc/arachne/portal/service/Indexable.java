@@ -24,8 +24,26 @@ package com.odysseusinc.arachne.portal.service;
 import org.apache.solr.client.solrj.SolrServerException;
 
 import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
 
 public interface Indexable {
 
     void indexAllBySolr() throws IOException, IllegalAccessException, SolrServerException, NoSuchFieldException;
+
+    /**
+     * Indexes the next page of entities ordered by id, starting after the given id.
+     *
+     * @param lastId id of the last entity indexed before, 0 to start from the beginning
+     * @param limit  max number of entities to index
+     * @return ids of the indexed entities in ascending order, empty if there were no more entities
+     */
+    List<Long> indexBySolrAfter(Long lastId, int limit);
+
+    /**
+     * Indexes the given entities if they still exist and should be searchable.
+     *
+     * @return ids of the indexed entities, the rest of the given ids has to be removed from the index
+     */
+    List<Long> indexBySolrByIds(Collection<Long> ids);
 }
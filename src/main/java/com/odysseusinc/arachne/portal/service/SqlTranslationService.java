@@ -0,0 +1,36 @@
+/*
+ *
+ * Copyright 2021 Odysseus Data Services, inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Company: Odysseus Data Services, Inc.
+ * Product Owner/Architecture: Gregory Klebanov
+ * Authors: Yaroslav Molodkov, Alexandr Cumarav, Vitaliy Kulakov
+ * Created: August 23, 2021
+ *
+ */
+
+package com.odysseusinc.arachne.portal.service;
+
+import com.odysseusinc.arachne.commons.types.DBMSType;
+import java.util.Map;
+
+public interface SqlTranslationService {
+
+    /**
+     * Renders the OHDSI SQL statement and translates it to every supported dialect.
+     *
+     * @return translated statements in the order of {@link DBMSType#values()}
+     */
+    Map<DBMSType, String> translateToAllDialects(String statement);
+}
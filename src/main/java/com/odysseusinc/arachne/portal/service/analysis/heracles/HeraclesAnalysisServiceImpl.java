@@ -7,7 +7,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 import static com.odysseusinc.arachne.portal.util.ResourcesUtils.loadResource;
 
@@ -18,10 +21,13 @@ public class HeraclesAnalysisServiceImpl implements HeraclesAnalysisService {
     private static final String HERACLES_NEW_QUERIES = "/r/run_heracles_analysis.r";
     private static final String RESULTS_QUERIES = "/org/ohdsi/cohortresults_pack.zip";
     private final List<HeraclesRenderer> renderers;
+    private final Map<String, byte[]> resources = new HashMap<>();
 
     public HeraclesAnalysisServiceImpl(List<HeraclesRenderer> renderers) {
 
         this.renderers = renderers;
+        Stream.of(RESULTS_QUERIES, HERACLES_NEW_QUERIES, CREATE_HERACLES_TABLES)
+                .forEach(resourcePath -> resources.put(resourcePath, loadResource(resourcePath)));
     }
 
 
@@ -44,7 +50,7 @@ public class HeraclesAnalysisServiceImpl implements HeraclesAnalysisService {
     private void attachResourceFile(List<MultipartFile> files, String resourcePath, String contentType) {
 
         final String resultsName = FilenameUtils.getName(resourcePath);
-        final MockMultipartFile cohortResults = new MockMultipartFile(resultsName, resultsName, contentType, loadResource(resourcePath));
+        final MockMultipartFile cohortResults = new MockMultipartFile(resultsName, resultsName, contentType, resources.get(resourcePath));
         files.add(cohortResults);
     }
 
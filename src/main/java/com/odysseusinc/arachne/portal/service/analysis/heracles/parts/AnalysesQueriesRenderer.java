@@ -8,17 +8,20 @@ import org.apache.commons.lang3.StringUtils;
 import org.ohdsi.sql.SqlRender;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 import static com.odysseusinc.arachne.portal.service.analysis.heracles.HeraclesConstants.CDM_VERSION;
 import static com.odysseusinc.arachne.portal.service.analysis.heracles.HeraclesConstants.COHORT_PERIOD_ONLY;
 import static com.odysseusinc.arachne.portal.service.analysis.heracles.HeraclesConstants.INCLUDE_COST_CONCEPTS_DEFAULT;
 import static com.odysseusinc.arachne.portal.service.analysis.heracles.HeraclesConstants.INCLUDE_CURRENCY_DEFAULT;
-import static com.odysseusinc.arachne.portal.util.ResourcesUtils.loadStringResource;
 
 
 @Component
@@ -45,10 +48,13 @@ public class AnalysesQueriesRenderer implements HeraclesRenderer {
     };
     private final Logger log = LoggerFactory.getLogger(AnalysesQueriesRenderer.class);
     private final HeraclesAnalysesLoader heraclesAnalysesLoader;
+    private final TaskExecutor executor;
 
-    public AnalysesQueriesRenderer(HeraclesAnalysesLoader heraclesAnalysesLoader) {
+    public AnalysesQueriesRenderer(HeraclesAnalysesLoader heraclesAnalysesLoader,
+                                   @Qualifier("heraclesRenderingExecutor") TaskExecutor executor) {
 
         this.heraclesAnalysesLoader = heraclesAnalysesLoader;
+        this.executor = executor;
     }
 
 
@@ -56,22 +62,27 @@ public class AnalysesQueriesRenderer implements HeraclesRenderer {
     public String render(HeraclesAnalysisKind analysisSpec) {
 
         final Map<Integer, HeraclesAnalysesLoader.HeraclesAnalysis> allAnalyses = heraclesAnalysesLoader.readHeraclesAnalyses();
-        final Map<Integer, Set<HeraclesAnalysesLoader.HeraclesAnalysisParameter>> allParams = heraclesAnalysesLoader.readAnalysesParams(allAnalyses);
+        final Map<Integer, Set<HeraclesAnalysesLoader.HeraclesAnalysisParameter>> allParams = heraclesAnalysesLoader.readAnalysesParams();
 
 
-        StringBuilder analysesQueries = new StringBuilder();
+        // analyses are rendered independently, the results are joined in the requested order
+        List<CompletableFuture<String>> renderedQueries = new ArrayList<>();
         for (int analysisId : analysisSpec.getAnalysesIds()) {
 
             HeraclesAnalysesLoader.HeraclesAnalysis analysis = allAnalyses.get(analysisId);
             if (analysis != null) {
-                String analysisTemplate = renderAnalysisQuery(analysisSpec, analysis, allParams.get(analysisId));
-                analysesQueries.append(analysisTemplate);
-                analysesQueries.append("\n");
+                renderedQueries.add(CompletableFuture.supplyAsync(
+                        () -> renderAnalysisQuery(analysisSpec, analysis, allParams.get(analysisId)), executor));
             } else {
                 log.warn("Cannot find analysis definition for the analysis Id: {}", analysisId);
             }
         }
 
+        StringBuilder analysesQueries = new StringBuilder();
+        for (CompletableFuture<String> renderedQuery : renderedQueries) {
+            analysesQueries.append(renderedQuery.join());
+            analysesQueries.append("\n");
+        }
         return analysesQueries.toString();
     }
 
@@ -108,7 +119,7 @@ public class AnalysesQueriesRenderer implements HeraclesRenderer {
             paramValues.add(analysisParam.getValue());
         }
 
-        String template = loadStringResource(ANALYSES_QUERY_PREFIX + analysis.getFilename());
+        String template = heraclesAnalysesLoader.getAnalysisTemplate(analysis);
 
         return SqlRender.renderSql(template, toArray(paramNames), toArray(paramValues));
     }
@@ -15,11 +15,11 @@ public class FinalizeAnalysesRenderer implements HeraclesRenderer {
     public static final String FINALIZE_HERACLES_ANALYSES_SQL = "/org/ohdsi/cohortanalysis/sql/finalizeHeraclesAnalyses.sql";
 
     private static final String[] parameters = new String[]{"refreshStats", "runHERACLESHeel", "smallcellcount"};
+    private final String template = loadStringResource(FINALIZE_HERACLES_ANALYSES_SQL);
 
     @Override
     public String render(HeraclesAnalysisKind analysisSpec) {
 
-        final String template = loadStringResource(FINALIZE_HERACLES_ANALYSES_SQL);
         return SqlRender.renderSql(template, parameters, new String[]{
                 Boolean.toString(analysisSpec.getRefreshStats()),
                 Boolean.toString(analysisSpec.getRunAhillesHeel()),
@@ -8,8 +8,15 @@ public interface HeraclesAnalysesLoader {
 
     Map<Integer, HeraclesAnalysis> readHeraclesAnalyses();
 
+    /**
+     * Parameters of the analyses returned by {@link #readHeraclesAnalyses()}.
+     */
+    Map<Integer, Set<HeraclesAnalysisParameter>> readAnalysesParams();
+
     Map<Integer, Set<HeraclesAnalysisParameter>> readAnalysesParams(Map<Integer, HeraclesAnalysis> heraclesAnalysisMap);
 
+    String getAnalysisTemplate(HeraclesAnalysis analysis);
+
     class HeraclesAnalysis {
         private final Integer id;
         private final String name;
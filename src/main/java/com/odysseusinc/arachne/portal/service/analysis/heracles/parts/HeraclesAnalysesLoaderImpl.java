@@ -4,9 +4,12 @@ import com.odysseusinc.arachne.portal.exception.ArachneSystemRuntimeException;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -32,10 +35,59 @@ public class HeraclesAnalysesLoaderImpl implements HeraclesAnalysesLoader {
     private static final String COL_PARAM_NAME = "paramName";
     private static final String COL_PARAM_VALUE = "paramValue";
 
+    private final Logger log = LoggerFactory.getLogger(HeraclesAnalysesLoaderImpl.class);
+
+    // the catalogs and templates are classpath resources, so they are parsed once and shared
+    private final Map<Integer, HeraclesAnalysis> analyses;
+    private final Map<Integer, Set<HeraclesAnalysisParameter>> analysesParams;
+    private final Map<String, String> templates;
+
+    public HeraclesAnalysesLoaderImpl() {
+
+        this.analyses = Collections.unmodifiableMap(parseHeraclesAnalyses());
+        this.analysesParams = Collections.unmodifiableMap(parseAnalysesParams(analyses));
+        final Map<String, String> templateMap = new HashMap<>();
+        analyses.values().forEach(analysis -> templateMap.computeIfAbsent(analysis.getFilename(), this::loadTemplate));
+        this.templates = Collections.unmodifiableMap(templateMap);
+    }
 
     @Override
     public Map<Integer, HeraclesAnalysis> readHeraclesAnalyses() {
 
+        return analyses;
+    }
+
+    @Override
+    public Map<Integer, Set<HeraclesAnalysisParameter>> readAnalysesParams() {
+
+        return analysesParams;
+    }
+
+    @Override
+    public Map<Integer, Set<HeraclesAnalysisParameter>> readAnalysesParams(Map<Integer, HeraclesAnalysis> heraclesAnalysisMap) {
+
+        return parseAnalysesParams(heraclesAnalysisMap);
+    }
+
+    @Override
+    public String getAnalysisTemplate(HeraclesAnalysis analysis) {
+
+        final String template = templates.get(analysis.getFilename());
+        return template != null ? template : loadStringResource(AnalysesQueriesRenderer.ANALYSES_QUERY_PREFIX + analysis.getFilename());
+    }
+
+    private String loadTemplate(String filename) {
+
+        try {
+            return loadStringResource(AnalysesQueriesRenderer.ANALYSES_QUERY_PREFIX + filename);
+        } catch (ArachneSystemRuntimeException ex) {
+            log.warn("Cannot load Heracles analysis template {}", filename);
+            return null;
+        }
+    }
+
+    private Map<Integer, HeraclesAnalysis> parseHeraclesAnalyses() {
+
         return parseCSV(HERACLES_ANALYSES, record -> new HeraclesAnalysis(
                 Integer.parseInt(record.get(COL_ANALYSIS_ID)),
                 record.get(COL_ANALYSIS_NAME),
@@ -46,8 +98,7 @@ public class HeraclesAnalysesLoaderImpl implements HeraclesAnalysesLoader {
                 .collect(Collectors.toMap(HeraclesAnalysesLoader.HeraclesAnalysis::getId, analysis -> analysis));
     }
 
-    @Override
-    public Map<Integer, Set<HeraclesAnalysisParameter>> readAnalysesParams(Map<Integer, HeraclesAnalysis> heraclesAnalysisMap) {
+    private Map<Integer, Set<HeraclesAnalysisParameter>> parseAnalysesParams(Map<Integer, HeraclesAnalysis> heraclesAnalysisMap) {
 
         Map<Integer, Set<HeraclesAnalysisParameter>> analysesParamsMap = new HashMap<>();
         parseCSV(HERACLES_ANALYSES_PARAMS, record -> new HeraclesAnalysisParameter(Integer.parseInt(record.get(COL_ANALYSIS_ID)),
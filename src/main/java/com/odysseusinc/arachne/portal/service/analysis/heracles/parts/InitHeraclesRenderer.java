@@ -15,11 +15,11 @@ public class InitHeraclesRenderer implements HeraclesRenderer {
 
     private static final String INIT_ANALYSES_SQL = "/org/ohdsi/cohortanalysis/sql/initHeraclesAnalyses.sql";
     private static final String[] parameters = new String[]{"list_of_analysis_ids", "periods"};
+    private final String template = loadStringResource(INIT_ANALYSES_SQL);
 
     @Override
     public String render(HeraclesAnalysisKind analysisSpec) {
 
-        final String template = loadStringResource(INIT_ANALYSES_SQL);
         final String listOfAnalyses = join(analysisSpec.getAnalysesIds(), ',');
         return SqlRender.renderSql(template, parameters, new String[]{listOfAnalyses, analysisSpec.getPeriods()});
     }
@@ -29,6 +29,8 @@ public class SelectResultsQueryRenderer implements HeraclesRenderer {
     private static final String[] keywords = new String[]{"analysisId"};
     private final Logger log = LoggerFactory.getLogger(AnalysesQueriesRenderer.class);
     private final HeraclesAnalysesLoader heraclesAnalysesLoader;
+    private final String selectResultFragment = loadStringResource(SELECT_RESULT_STATEMENT);
+    private final String selectDistResultFragment = loadStringResource(SELECT_DIST_RESULT_STATEMENT);
 
     public SelectResultsQueryRenderer(HeraclesAnalysesLoader heraclesAnalysesLoader) {
 
@@ -49,9 +51,6 @@ public class SelectResultsQueryRenderer implements HeraclesRenderer {
 
     public String render(HeraclesAnalysisKind analysisSpec) {
 
-        final String select_result_fragment = loadStringResource(SELECT_RESULT_STATEMENT);
-        final String select_dist_result_fragment = loadStringResource(SELECT_DIST_RESULT_STATEMENT);
-
         final Map<Integer, HeraclesAnalysesLoader.HeraclesAnalysis> allAnalyses = heraclesAnalysesLoader.readHeraclesAnalyses();
         List<String> resultsQueries = new ArrayList<>();
         List<String> distResultsQueries = new ArrayList<>();
@@ -61,10 +60,10 @@ public class SelectResultsQueryRenderer implements HeraclesRenderer {
             if (analysis != null) {
                 final String[] paramValues = {String.valueOf(analysisId)};
                 if (analysis.hasResults()) {
-                    resultsQueries.add(SqlRender.renderSql(select_result_fragment, keywords, paramValues));
+                    resultsQueries.add(SqlRender.renderSql(selectResultFragment, keywords, paramValues));
                 }
                 if (analysis.hasDistResults()) {
-                    distResultsQueries.add(SqlRender.renderSql(select_dist_result_fragment, keywords, paramValues));
+                    distResultsQueries.add(SqlRender.renderSql(selectDistResultFragment, keywords, paramValues));
                 }
 
             } else {
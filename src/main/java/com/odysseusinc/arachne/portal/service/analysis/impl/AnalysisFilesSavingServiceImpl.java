@@ -4,7 +4,6 @@ import static com.odysseusinc.arachne.commons.utils.CommonFileUtils.ANALYSIS_INF
 import static com.odysseusinc.arachne.commons.utils.CommonFileUtils.OHDSI_JSON_EXT;
 import static com.odysseusinc.arachne.commons.utils.CommonFileUtils.OHDSI_SQL_EXT;
 import static com.odysseusinc.arachne.portal.service.analysis.impl.AnalysisUtils.throwAccessDeniedExceptionIfLocked;
-import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
 
 import com.google.common.collect.ImmutableMap;
 import com.odysseusinc.arachne.commons.api.v1.dto.CommonAnalysisType;
@@ -12,6 +11,7 @@ import com.odysseusinc.arachne.commons.types.DBMSType;
 import com.odysseusinc.arachne.commons.utils.AnalysisArchiveUtils;
 import com.odysseusinc.arachne.commons.utils.CommonFileUtils;
 import com.odysseusinc.arachne.portal.api.v1.dto.UploadFileDTO;
+import com.odysseusinc.arachne.portal.component.ZipArchiveFactory;
 import com.odysseusinc.arachne.portal.exception.AlreadyExistException;
 import com.odysseusinc.arachne.portal.exception.ArachneSystemRuntimeException;
 import com.odysseusinc.arachne.portal.exception.IORuntimeException;
@@ -21,18 +21,20 @@ import com.odysseusinc.arachne.portal.model.AnalysisFile;
 import com.odysseusinc.arachne.portal.model.DataReference;
 import com.odysseusinc.arachne.portal.model.IUser;
 import com.odysseusinc.arachne.portal.repository.AnalysisFileRepository;
+import com.odysseusinc.arachne.portal.service.SqlTranslationService;
 import com.odysseusinc.arachne.portal.service.analysis.AnalysisFilesSavingService;
 import com.odysseusinc.arachne.portal.service.impl.AnalysisPreprocessorService;
 import com.odysseusinc.arachne.portal.service.impl.antivirus.events.AntivirusJob;
 import com.odysseusinc.arachne.portal.service.impl.antivirus.events.AntivirusJobEvent;
 import com.odysseusinc.arachne.portal.service.impl.antivirus.events.AntivirusJobFileType;
 import com.odysseusinc.arachne.portal.util.AnalysisHelper;
-import com.odysseusinc.arachne.portal.util.ZipUtil;
+import com.odysseusinc.arachne.portal.util.FileUtils;
+import com.odysseusinc.arachne.portal.util.ZipArchiveBuilder;
 
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
@@ -43,28 +45,26 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.function.BiPredicate;
 import java.util.stream.Collectors;
-import java.util.zip.ZipOutputStream;
 
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.jetbrains.annotations.NotNull;
-import org.ohdsi.sql.SqlRender;
-import org.ohdsi.sql.SqlTranslate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -82,14 +82,19 @@ public class AnalysisFilesSavingServiceImpl<A extends Analysis> implements Analy
     private final AnalysisPreprocessorService preprocessorService;
     private final ApplicationEventPublisher eventPublisher;
     private final RestTemplate restTemplate;
+    private final SqlTranslationService sqlTranslationService;
+    private final ZipArchiveFactory zipArchiveFactory;
 
-    public AnalysisFilesSavingServiceImpl(AnalysisFileRepository analysisFileRepository, AnalysisHelper analysisHelper, AnalysisPreprocessorService preprocessorService, ApplicationEventPublisher eventPublisher, RestTemplate restTemplate) {
+    public AnalysisFilesSavingServiceImpl(AnalysisFileRepository analysisFileRepository, AnalysisHelper analysisHelper, AnalysisPreprocessorService preprocessorService, ApplicationEventPublisher eventPublisher, RestTemplate restTemplate,
+                                          SqlTranslationService sqlTranslationService, ZipArchiveFactory zipArchiveFactory) {
 
         this.analysisFileRepository = analysisFileRepository;
         this.analysisHelper = analysisHelper;
         this.preprocessorService = preprocessorService;
         this.eventPublisher = eventPublisher;
         this.restTemplate = restTemplate;
+        this.sqlTranslationService = sqlTranslationService;
+        this.zipArchiveFactory = zipArchiveFactory;
     }
 
     @Override
@@ -157,18 +162,27 @@ public class AnalysisFilesSavingServiceImpl<A extends Analysis> implements Analy
     public AnalysisFile saveFile(MultipartFile multipartFile, IUser user, A analysis, String label,
                                  Boolean isExecutable, DataReference dataReference) throws AlreadyExistException {
 
+        return saveFile(multipartFile, multipartFile.getOriginalFilename(), user, analysis, label, isExecutable, dataReference);
+    }
+
+    private AnalysisFile saveFile(InputStreamSource content, String originalFilename, IUser user, A analysis, String label,
+                                  Boolean isExecutable, DataReference dataReference) throws AlreadyExistException {
+
         ensureLabelIsUnique(analysis.getId(), label);
-        String originalFilename = multipartFile.getOriginalFilename();
         String fileNameLowerCase = UUID.randomUUID().toString();
         try {
 
             Path analysisPath = analysisHelper.getAnalysisPath(analysis);
             Path targetPath = Paths.get(analysisPath.toString(), fileNameLowerCase);
-            Files.copy(multipartFile.getInputStream(), targetPath, REPLACE_EXISTING);
+            final String checksum;
+            try (InputStream in = content.getInputStream()) {
+                checksum = FileUtils.copyWithMD5(in, targetPath);
+            }
             final String contentType = CommonFileUtils.getContentType(originalFilename, targetPath.toString());
 
             AnalysisFile analysisFile = buildNewAnalysisFileEntry(user, analysis, label, isExecutable, originalFilename, fileNameLowerCase, contentType);
             analysisFile.setDataReference(dataReference);
+            analysisFile.setChecksum(checksum);
 
             AnalysisFile saved = analysisFileRepository.save(analysisFile);
             analysis.getFiles().add(saved);
@@ -233,10 +247,11 @@ public class AnalysisFilesSavingServiceImpl<A extends Analysis> implements Analy
                 final String contentType = response.getHeaders().getContentType().toString();
                 Path pathToAnalysis = analysisHelper.getAnalysisPath(analysis);
                 Path targetPath = Paths.get(pathToAnalysis.toString(), fileNameLowerCase);
-                Files.copy(new ByteArrayInputStream(response.getBody()), targetPath, REPLACE_EXISTING);
+                final String checksum = FileUtils.copyWithMD5(new ByteArrayInputStream(response.getBody()), targetPath);
 
                 AnalysisFile analysisFile = buildNewAnalysisFileEntry(user, analysis, label, isExecutable, originalFileName, fileNameLowerCase, contentType);
                 analysisFile.setEntryPoint(originalFileName);
+                analysisFile.setChecksum(checksum);
 
                 return analysisFileRepository.save(analysisFile);
             }
@@ -262,11 +277,17 @@ public class AnalysisFilesSavingServiceImpl<A extends Analysis> implements Analy
                 .filter(file -> !StringUtils.equals(ANALYSIS_INFO_FILE_DESCRIPTION, file.getName()))
                 .collect(Collectors.toList());
 
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        try (ZipOutputStream zos = new ZipOutputStream(out)) {
-            generateFilesForEachDialectAndAddToZip(zos, genericSqlFile);
-            ZipUtil.addZipEntries(zos, filesForArchive);
+        Path archiveFile = null;
+        try {
+            archiveFile = Files.createTempFile("cohort-analysis", ".zip");
+            try (ZipArchiveBuilder archive = zipArchiveFactory.newArchive(Files.newOutputStream(archiveFile))) {
+                generateFilesForEachDialectAndAddToZip(archive, genericSqlFile);
+                for (MultipartFile file : filesForArchive) {
+                    archive.addEntry(file.getName(), file);
+                }
+            }
         } catch (IOException e) {
+            deleteQuietly(archiveFile);
             log.error("Failed to create zip file for {} analysis", analysis.getId(), e);
             throw new ArachneSystemRuntimeException(e);
         }
@@ -275,12 +296,25 @@ public class AnalysisFilesSavingServiceImpl<A extends Analysis> implements Analy
                 CommonAnalysisType.COHORT,
                 getAnalysisName(genericSqlFile)
         );
-        MultipartFile sqlArchive = new MockMultipartFile(fileName, fileName, "application/zip", out.toByteArray());
+        final Path sqlArchive = archiveFile;
         try {
-            saveFile(sqlArchive, user, analysis, fileName, false, dataReference);
+            saveFile(() -> Files.newInputStream(sqlArchive), fileName, user, analysis, fileName, false, dataReference);
         } catch (Exception e) {
             log.error("Failed to save zip file for {} analysis", analysis.getId(), e);
             throw new ArachneSystemRuntimeException(e);
+        } finally {
+            deleteQuietly(sqlArchive);
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Failed to delete temporary file {}", file, e);
+            }
         }
     }
 
@@ -304,17 +338,16 @@ public class AnalysisFilesSavingServiceImpl<A extends Analysis> implements Analy
         return null;
     }
 
-    private void generateFilesForEachDialectAndAddToZip(ZipOutputStream zos, MultipartFile file) throws IOException {
+    private void generateFilesForEachDialectAndAddToZip(ZipArchiveBuilder archive, MultipartFile file) throws IOException {
 
         String statement = IOUtils.toString(file.getInputStream(), StandardCharsets.UTF_8);
-        String renderedSql = SqlRender.renderSql(statement, null, null);
         String baseName = FilenameUtils.getBaseName(file.getOriginalFilename());
         String extension = FilenameUtils.getExtension(file.getOriginalFilename());
 
-        for (DBMSType dialect : DBMSType.values()) {
-            String sql = SqlTranslate.translateSql(renderedSql, dialect.getOhdsiDB());
-            String fileName = String.format("%s.%s.%s", baseName, dialect.getLabel().replace(" ", "-"), extension);
-            ZipUtil.addZipEntry(zos, fileName, new ByteArrayInputStream(sql.getBytes(StandardCharsets.UTF_8)));
+        for (Map.Entry<DBMSType, String> translation : sqlTranslationService.translateToAllDialects(statement).entrySet()) {
+            String fileName = String.format("%s.%s.%s", baseName, translation.getKey().getLabel().replace(" ", "-"), extension);
+            byte[] sql = translation.getValue().getBytes(StandardCharsets.UTF_8);
+            archive.addEntry(fileName, () -> new ByteArrayInputStream(sql));
         }
     }
 
@@ -23,6 +23,7 @@
 package com.odysseusinc.arachne.portal.service.analysis.impl;
 
 import com.odysseusinc.arachne.portal.api.v1.dto.UploadFileDTO;
+import com.odysseusinc.arachne.portal.component.ZipArchiveFactory;
 import com.odysseusinc.arachne.portal.exception.AlreadyExistException;
 import com.odysseusinc.arachne.portal.exception.NotExistException;
 import com.odysseusinc.arachne.portal.exception.NotUniqueException;
@@ -104,7 +105,8 @@ public class AnalysisServiceImpl extends BaseAnalysisServiceImpl<Analysis, Study
                                ToPdfConverter docToPdfConverter,
                                ApplicationEventPublisher eventPublisher,
                                AnalysisFilesSavingService analysisFilesSavingService,
-                               SolrService solrService) {
+                               SolrService solrService,
+                               ZipArchiveFactory zipArchiveFactory) {
 
         super(conversionService,
                 analysisRepository,
@@ -125,7 +127,8 @@ public class AnalysisServiceImpl extends BaseAnalysisServiceImpl<Analysis, Study
                 fileService,
                 docToPdfConverter,
                 eventPublisher,
-                solrService);
+                solrService,
+                zipArchiveFactory);
 
         this.analysisFilesSavingService = analysisFilesSavingService;
     }
@@ -30,6 +30,7 @@ import com.odysseusinc.arachne.commons.api.v1.dto.CommonAnalysisType;
 import com.odysseusinc.arachne.commons.utils.CommonFileUtils;
 import com.odysseusinc.arachne.portal.api.v1.dto.ApproveDTO;
 import com.odysseusinc.arachne.portal.api.v1.dto.FileDTO;
+import com.odysseusinc.arachne.portal.component.ZipArchiveFactory;
 import com.odysseusinc.arachne.portal.config.WebSecurityConfig;
 import com.odysseusinc.arachne.portal.exception.AlreadyExistException;
 import com.odysseusinc.arachne.portal.exception.NotExistException;
@@ -81,7 +82,7 @@ import com.odysseusinc.arachne.portal.util.AnalysisHelper;
 import com.odysseusinc.arachne.portal.util.EntityUtils;
 import com.odysseusinc.arachne.portal.util.FileUtils;
 import com.odysseusinc.arachne.portal.util.LegacyAnalysisHelper;
-import com.odysseusinc.arachne.portal.util.ZipUtil;
+import com.odysseusinc.arachne.portal.util.ZipArchiveBuilder;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.solr.client.solrj.SolrServerException;
 import org.slf4j.Logger;
@@ -91,6 +92,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.event.EventListener;
 import org.springframework.core.convert.support.GenericConversionService;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.security.access.prepost.PostAuthorize;
@@ -110,14 +112,17 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
-import java.util.zip.ZipOutputStream;
 
 import static com.odysseusinc.arachne.portal.model.SubmissionStatus.EXECUTED;
 import static com.odysseusinc.arachne.portal.model.SubmissionStatus.EXECUTED_PUBLISHED;
@@ -126,7 +131,6 @@ import static com.odysseusinc.arachne.portal.model.SubmissionStatus.FAILED;
 import static com.odysseusinc.arachne.portal.model.SubmissionStatus.FAILED_PUBLISHED;
 import static com.odysseusinc.arachne.portal.model.SubmissionStatus.FAILED_REJECTED;
 import static com.odysseusinc.arachne.portal.service.analysis.impl.AnalysisUtils.throwAccessDeniedExceptionIfLocked;
-import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
 
 public abstract class BaseAnalysisServiceImpl<
         A extends Analysis,
@@ -170,6 +174,7 @@ public abstract class BaseAnalysisServiceImpl<
     protected final StudyFileService fileService;
     protected final ApplicationEventPublisher eventPublisher;
     protected final BaseSolrService<SF> solrService;
+    protected final ZipArchiveFactory zipArchiveFactory;
 
     public BaseAnalysisServiceImpl(final GenericConversionService conversionService,
                                    final BaseAnalysisRepository<A> analysisRepository,
@@ -191,7 +196,8 @@ public abstract class BaseAnalysisServiceImpl<
                                    final StudyFileService fileService,
                                    final ToPdfConverter docToPdfConverter,
                                    final ApplicationEventPublisher eventPublisher,
-                                   final BaseSolrService solrService
+                                   final BaseSolrService solrService,
+                                   final ZipArchiveFactory zipArchiveFactory
     ) {
 
         this.docToPdfConverter = docToPdfConverter;
@@ -215,6 +221,7 @@ public abstract class BaseAnalysisServiceImpl<
         this.fileService = fileService;
         this.eventPublisher = eventPublisher;
         this.solrService = solrService;
+        this.zipArchiveFactory = zipArchiveFactory;
     }
 
     @Override
@@ -498,7 +505,9 @@ public abstract class BaseAnalysisServiceImpl<
                     Files.createDirectories(analysisFolder);
                 }
                 Path targetPath = analysisFolder.resolve(uuid);
-                Files.copy(file.getInputStream(), targetPath, REPLACE_EXISTING);
+                try (InputStream in = file.getInputStream()) {
+                    analysisFile.setChecksum(FileUtils.copyWithMD5(in, targetPath));
+                }
                 String contentType = CommonFileUtils.getContentType(file.getOriginalFilename(), targetPath.toString());
                 analysisFile.setContentType(contentType);
             }
@@ -551,7 +560,7 @@ public abstract class BaseAnalysisServiceImpl<
             Path targetPath = analysisFolder.resolve(analysisFile.getUuid());
             byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
             try (final InputStream stream = new ByteArrayInputStream(bytes)) {
-                Files.copy(stream, targetPath, REPLACE_EXISTING);
+                analysisFile.setChecksum(FileUtils.copyWithMD5(stream, targetPath));
             }
             analysisFile.setUpdated(new Date());
             analysisFile.setEntryPoint(analysisFile.getEntryPoint());
@@ -684,11 +693,11 @@ public abstract class BaseAnalysisServiceImpl<
 
         Analysis analysis = analysisRepository.getOne(analysisId);
         Path storeFilesPath = analysisHelper.getAnalysisFolder(analysis);
-        try (ZipOutputStream zos = new ZipOutputStream(os)) {
+        try (ZipArchiveBuilder archive = zipArchiveFactory.newArchive(os)) {
             for (AnalysisFile analysisFile : analysis.getFiles()) {
                 String realName = analysisFile.getName();
                 Path file = storeFilesPath.resolve(analysisFile.getUuid());
-                ZipUtil.addZipEntry(zos, realName, file);
+                archive.addEntry(realName, file);
             }
         }
     }
@@ -756,6 +765,36 @@ public abstract class BaseAnalysisServiceImpl<
         solrService.indexBySolr(analyses);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> indexBySolrAfter(final Long lastId, final int limit) {
+
+        return indexAnalysesBySolr(analysisRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, limit)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> indexBySolrByIds(final Collection<Long> ids) {
+
+        return indexAnalysesBySolr(analysisRepository.findByIdIn(new ArrayList<>(ids)));
+    }
+
+    private List<Long> indexAnalysesBySolr(final List<A> analyses) {
+
+        if (analyses.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final Set<Long> studyIds = analyses.stream().map(a -> a.getStudy().getId()).collect(Collectors.toSet());
+        final Map<Long, Study> map = studyService.findByIdsInAnyTenant(studyIds)
+                .stream()
+                .collect(Collectors.toMap(Study::getId, Function.identity()));
+        for (final A analysis : analyses) {
+            analysis.setStudy(map.get(analysis.getStudy().getId()));
+        }
+        solrService.indexBySolr(analyses);
+        return analyses.stream().map(A::getId).collect(Collectors.toList());
+    }
+
     @Override
     public void indexBySolr(final A analysis)
             throws IllegalAccessException, IOException, SolrServerException, NotExistException, NoSuchFieldException {
@@ -22,36 +22,38 @@
 
 package com.odysseusinc.arachne.portal.service.impl;
 
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
 import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import com.odysseusinc.arachne.portal.model.DataNode;
 import com.odysseusinc.arachne.portal.model.IDataSource;
-import com.odysseusinc.arachne.portal.model.achilles.AchillesFile;
 import com.odysseusinc.arachne.portal.model.achilles.Characterization;
 import com.odysseusinc.arachne.portal.repository.AchillesFileRepository;
 import com.odysseusinc.arachne.portal.repository.CharacterizationRepository;
 import com.odysseusinc.arachne.portal.service.AchillesImportService;
 import java.io.File;
+import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
 import java.sql.Timestamp;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
-import java.util.List;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 import javax.persistence.EntityManager;
-import javax.persistence.FlushModeType;
-import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.CountingInputStream;
+import org.apache.commons.io.input.TeeInputStream;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -61,12 +63,14 @@ public class AchillesImportServiceImpl implements AchillesImportService {
 
     private static final String IMPORT_ACHILLES_RESULT_LOG =
             "{} import Achilles result for Data Source with id='{}', name='{}', Data Node with id='{}' name='{}'";
+    private static final String IMPORT_ACHILLES_STATS_LOG =
+            "Imported {} Achilles files ({} bytes) for Data Source with id='{}' in {} ms, {} files/s, {} KB/s";
+    private static final String COPY_ACHILLES_FILES =
+            "COPY achilles_files (characterization_id, file_path, data) FROM STDIN";
+    private static final int COPY_BUFFER_SIZE = 65536;
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AchillesImportServiceImpl.class);
 
-    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size}")
-    private int batchSize = 1000;
-
     protected final EntityManager entityManager;
     protected final CharacterizationRepository characterizationRepository;
     protected final AchillesFileRepository achillesFileRepository;
@@ -96,49 +100,141 @@ public class AchillesImportServiceImpl implements AchillesImportService {
         LOGGER.info(IMPORT_ACHILLES_RESULT_LOG, "Started", dataSourceId, dataSourceName, dataNodeId, dataNodeName);
         Timestamp now = new Timestamp(new Date().getTime());
         characterization.setDate(now);
-        Path tempDir = Files.createTempDirectory("achilles_");
-        entityManager.setFlushMode(FlushModeType.COMMIT);
+        final Characterization result = characterizationRepository.save(characterization);
+        // the row has to exist before the files referencing it are copied on the same connection
+        entityManager.flush();
+        final long started = System.currentTimeMillis();
+        final CopyStats stats;
+        try (ZipFile zipFile = new ZipFile(archivedData)) {
+            stats = copyFiles(zipFile, result.getId());
+        } catch (SQLException ex) {
+            throw new IOException("Cannot import Achilles results for Data Source with id=" + dataSourceId, ex);
+        }
+        final long elapsed = Math.max(System.currentTimeMillis() - started, 1L);
+        LOGGER.info(IMPORT_ACHILLES_STATS_LOG, stats.rows, stats.bytes, dataSourceId, elapsed,
+                stats.rows * 1000 / elapsed, stats.bytes / elapsed * 1000 / 1024);
+        LOGGER.info(IMPORT_ACHILLES_RESULT_LOG, "Finished", dataSourceId, dataSourceName, dataNodeId, dataNodeName);
+    }
+
+    /**
+     * Streams every entry of the archive into achilles_files by a single COPY on the transaction connection.
+     * Entries are checked to be JSON objects while they are streamed, without building the JSON trees.
+     */
+    private CopyStats copyFiles(ZipFile zipFile, Long characterizationId) throws SQLException, IOException {
+
+        final Connection connection = entityManager.unwrap(SessionImplementor.class).connection();
+        final PGCopyOutputStream copy = new PGCopyOutputStream(connection.unwrap(PGConnection.class),
+                COPY_ACHILLES_FILES, COPY_BUFFER_SIZE);
+        final OutputStream escaped = new CopyTextEscapingOutputStream(copy);
+        final byte[] rowPrefix = (characterizationId + "\t").getBytes(StandardCharsets.UTF_8);
+        long bytes = 0;
         try {
-            final Characterization result = characterizationRepository.save(characterization);
-            JsonParser parser = new JsonParser();
-            List<AchillesFile> files = new ArrayList<>(batchSize);
-            ZipFile zipFile = new ZipFile(archivedData);
-            for(ZipEntry entry :  Collections.list(zipFile.entries())){
-                String name = entry.getName();
-                if (!entry.isDirectory()) {
-                    try(final InputStream in = zipFile.getInputStream(entry)) {
-                        try(JsonReader reader = new JsonReader(new InputStreamReader(in))){
-                            JsonObject jsonObject = parser.parse(reader).getAsJsonObject();
-                            AchillesFile achillesFile = new AchillesFile();
-                            achillesFile.setData(jsonObject);
-                            achillesFile.setFilePath(name);
-                            achillesFile.setCharacterization(result);
-                            files.add(achillesFile);
-                            if (files.size() == batchSize) {
-                                flush(files);
-                                files = new ArrayList<>(batchSize);
-                            }
-                        }
-                    }
+            for (ZipEntry entry : Collections.list(zipFile.entries())) {
+                if (entry.isDirectory()) {
+                    continue;
                 }
+                final String name = entry.getName();
+                copy.write(rowPrefix);
+                escaped.write(name.getBytes(StandardCharsets.UTF_8));
+                copy.write('\t');
+                try (CountingInputStream in = new CountingInputStream(zipFile.getInputStream(entry))) {
+                    final InputStream tee = new TeeInputStream(in, escaped, false);
+                    validateJsonObject(tee, name);
+                    // the reader may stop before trailing whitespace, the rest is copied as is
+                    IOUtils.skip(tee, Long.MAX_VALUE);
+                    bytes += in.getByteCount();
+                }
+                copy.write('\n');
             }
-            flush(files);
-            LOGGER.info(IMPORT_ACHILLES_RESULT_LOG, "Finished", dataSourceId, dataSourceName, dataNodeId, dataNodeName);
+            final long rows = copy.endCopy();
+            return new CopyStats(rows, bytes);
         } finally {
-            FileUtils.deleteQuietly(tempDir.toFile());
+            if (copy.isActive()) {
+                copy.cancelCopy();
+            }
+        }
+    }
+
+    private void validateJsonObject(InputStream in, String name) throws IOException {
+
+        final JsonReader reader = new JsonReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            throw new IOException("Achilles file " + name + " does not contain a JSON object");
+        }
+        reader.skipValue();
+        if (reader.peek() != JsonToken.END_DOCUMENT) {
+            throw new IOException("Achilles file " + name + " contains data after the JSON object");
+        }
+    }
+
+    private static class CopyStats {
+
+        private final long rows;
+        private final long bytes;
+
+        CopyStats(long rows, long bytes) {
+
+            this.rows = rows;
+            this.bytes = bytes;
         }
     }
 
-    private void flush(List<AchillesFile> achillesFiles) {
+    /**
+     * Escapes bytes for the text format of COPY. Multi-byte UTF-8 sequences never contain ASCII bytes,
+     * so the escaping can be done byte by byte.
+     */
+    static class CopyTextEscapingOutputStream extends FilterOutputStream {
+
+        CopyTextEscapingOutputStream(OutputStream out) {
 
-        for(AchillesFile file : achillesFiles) {
-            if (file.getId() == null) {
-                entityManager.persist(file);
-            } else {
-                entityManager.merge(file);
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+
+            switch (b) {
+                case '\\':
+                    out.write('\\');
+                    out.write('\\');
+                    break;
+                case '\n':
+                    out.write('\\');
+                    out.write('n');
+                    break;
+                case '\r':
+                    out.write('\\');
+                    out.write('r');
+                    break;
+                case '\t':
+                    out.write('\\');
+                    out.write('t');
+                    break;
+                default:
+                    out.write(b);
             }
         }
-        entityManager.flush();
-        entityManager.clear();
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+
+            int start = off;
+            final int end = off + len;
+            for (int i = off; i < end; i++) {
+                final byte c = b[i];
+                if (c == '\\' || c == '\n' || c == '\r' || c == '\t') {
+                    out.write(b, start, i - start);
+                    write(c);
+                    start = i + 1;
+                }
+            }
+            out.write(b, start, end - start);
+        }
+
+        @Override
+        public void close() {
+
+            // the underlying COPY stream is finished explicitly
+        }
     }
 }
@@ -0,0 +1,179 @@
+/*
+ *
+ * Copyright 2021 Odysseus Data Services, inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Company: Odysseus Data Services, Inc.
+ * Product Owner/Architecture: Gregory Klebanov
+ * Authors: Yaroslav Molodkov, Alexandr Cumarav, Vitaliy Kulakov
+ * Created: July 19, 2021
+ *
+ */
+
+package com.odysseusinc.arachne.portal.service.impl;
+
+import com.odysseusinc.arachne.portal.model.achilles.AchillesReport;
+import com.odysseusinc.arachne.portal.model.achilles.AchillesReportMatcher;
+import com.odysseusinc.arachne.portal.repository.AchillesReportRepository;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+/**
+ * Immutable in-memory snapshot of Achilles reports and their file matchers.
+ * Reports are changed by migrations only, so the snapshot is loaded once and reloaded on demand.
+ * Exact paths are resolved by a hash lookup, patterns are grouped by their literal directory,
+ * so only the few patterns of the file's directory are evaluated.
+ */
+@Component
+public class AchillesReportIndex {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AchillesReportIndex.class);
+    private static final AntPathMatcher MATCHER = new AntPathMatcher();
+
+    private final AchillesReportRepository achillesReportRepository;
+    private volatile Snapshot snapshot;
+
+    public AchillesReportIndex(AchillesReportRepository achillesReportRepository) {
+
+        this.achillesReportRepository = achillesReportRepository;
+    }
+
+    /**
+     * @return all reports ordered by sort order
+     */
+    public List<AchillesReport> getReports() {
+
+        return getSnapshot().reports;
+    }
+
+    /**
+     * @return reports having a matcher for the file path, ordered by sort order
+     */
+    public List<AchillesReport> getReports(String filePath) {
+
+        return getSnapshot().resolve(filePath);
+    }
+
+    @EventListener(classes = ContextRefreshedEvent.class)
+    public void refresh() {
+
+        final List<AchillesReport> reports = achillesReportRepository.findAllWithMatchersOrderBySortOrderAsc();
+        snapshot = new Snapshot(reports);
+        LOGGER.info("Loaded {} Achilles reports", reports.size());
+    }
+
+    private Snapshot getSnapshot() {
+
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    refresh();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    private static class Snapshot {
+
+        private final List<AchillesReport> reports;
+        private final Map<String, BitSet> exact = new HashMap<>();
+        private final Map<String, List<PatternEntry>> byDirectory = new HashMap<>();
+        private final List<PatternEntry> other = new ArrayList<>();
+
+        Snapshot(List<AchillesReport> reports) {
+
+            this.reports = Collections.unmodifiableList(new ArrayList<>(reports));
+            for (int i = 0; i < this.reports.size(); i++) {
+                final List<AchillesReportMatcher> matchers = this.reports.get(i).getMatchers();
+                if (matchers == null) {
+                    continue;
+                }
+                for (final AchillesReportMatcher matcher : matchers) {
+                    add(matcher.getPattern(), i);
+                }
+            }
+        }
+
+        private void add(String pattern, int reportIndex) {
+
+            if (!MATCHER.isPattern(pattern)) {
+                exact.computeIfAbsent(pattern, p -> new BitSet()).set(reportIndex);
+                return;
+            }
+            final String directory = directoryOf(pattern);
+            final PatternEntry entry = new PatternEntry(pattern, reportIndex);
+            if (MATCHER.isPattern(directory)) {
+                other.add(entry);
+            } else {
+                // wildcards of the file name part never match a path separator
+                byDirectory.computeIfAbsent(directory, d -> new ArrayList<>()).add(entry);
+            }
+        }
+
+        List<AchillesReport> resolve(String filePath) {
+
+            final BitSet matched = new BitSet();
+            final BitSet exactMatch = exact.get(filePath);
+            if (exactMatch != null) {
+                matched.or(exactMatch);
+            }
+            match(byDirectory.getOrDefault(directoryOf(filePath), Collections.emptyList()), filePath, matched);
+            match(other, filePath, matched);
+            final List<AchillesReport> result = new ArrayList<>(matched.cardinality());
+            for (int i = matched.nextSetBit(0); i >= 0; i = matched.nextSetBit(i + 1)) {
+                result.add(reports.get(i));
+            }
+            return result;
+        }
+
+        private static void match(List<PatternEntry> entries, String filePath, BitSet matched) {
+
+            for (final PatternEntry entry : entries) {
+                if (!matched.get(entry.reportIndex) && MATCHER.match(entry.pattern, filePath)) {
+                    matched.set(entry.reportIndex);
+                }
+            }
+        }
+
+        private static String directoryOf(String path) {
+
+            final int separator = path.lastIndexOf(AntPathMatcher.DEFAULT_PATH_SEPARATOR);
+            return separator < 0 ? "" : path.substring(0, separator);
+        }
+    }
+
+    private static class PatternEntry {
+
+        private final String pattern;
+        private final int reportIndex;
+
+        PatternEntry(String pattern, int reportIndex) {
+
+            this.pattern = pattern;
+            this.reportIndex = reportIndex;
+        }
+    }
+}
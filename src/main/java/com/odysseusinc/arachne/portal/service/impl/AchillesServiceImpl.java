@@ -44,9 +44,9 @@ import org.springframework.transaction.annotation.Transactional;
 @Transactional
 public class AchillesServiceImpl extends BaseAchillesService<IDataSource, Study, StudySearch, StudyViewItem> implements AchillesService<IDataSource> {
 
-    public AchillesServiceImpl(CharacterizationRepository characterizationRepository, AchillesFileRepository achillesFileRepository, AchillesReportRepository achillesReportRepository, AchillesImportService achillesHelperService) {
+    public AchillesServiceImpl(CharacterizationRepository characterizationRepository, AchillesFileRepository achillesFileRepository, AchillesReportRepository achillesReportRepository, AchillesImportService achillesHelperService, AchillesReportIndex achillesReportIndex) {
 
-        super(characterizationRepository, achillesFileRepository, achillesReportRepository, achillesHelperService);
+        super(characterizationRepository, achillesFileRepository, achillesReportRepository, achillesHelperService, achillesReportIndex);
     }
 
     @Override
@@ -37,6 +37,8 @@ import com.odysseusinc.arachne.portal.repository.UserStudyExtendedRepository;
 import com.odysseusinc.arachne.portal.repository.UserStudyGroupedRepository;
 import com.odysseusinc.arachne.portal.repository.submission.SubmissionRepository;
 import com.odysseusinc.arachne.portal.service.ArachneSecureService;
+import java.util.Collection;
+import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
@@ -78,4 +80,10 @@ public class ArachneSecureServiceImpl extends BaseArachneSecureServiceImpl<Paper
 
         return studyRepository.findByIdInAnyTenant(studyId);
     }
+
+    @Override
+    public List<Study> getStudiesByIdsInAnyTenant(final Collection<Long> studyIds) {
+
+        return studyRepository.findByIdsInAnyTenant(studyIds);
+    }
 }
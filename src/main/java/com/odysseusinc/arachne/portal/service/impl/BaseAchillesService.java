@@ -41,7 +41,6 @@ import java.nio.file.Files;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.access.method.P;
@@ -55,17 +54,19 @@ public abstract class BaseAchillesService<DS extends IDataSource, S extends Stud
     protected final AchillesFileRepository achillesFileRepository;
     protected final AchillesReportRepository achillesReportRepository;
     protected final AchillesImportService achillesHelperService;
+    protected final AchillesReportIndex achillesReportIndex;
 
-    public BaseAchillesService(CharacterizationRepository characterizationRepository, AchillesFileRepository achillesFileRepository, AchillesReportRepository achillesReportRepository, AchillesImportService achillesHelperService) {
+    public BaseAchillesService(CharacterizationRepository characterizationRepository, AchillesFileRepository achillesFileRepository, AchillesReportRepository achillesReportRepository, AchillesImportService achillesHelperService, AchillesReportIndex achillesReportIndex) {
 
         this.characterizationRepository = characterizationRepository;
         this.achillesFileRepository = achillesFileRepository;
         this.achillesReportRepository = achillesReportRepository;
         this.achillesHelperService = achillesHelperService;
+        this.achillesReportIndex = achillesReportIndex;
     }
 
     @Override
-    @PreAuthorize("#ds.dataNode == authentication.principal or " +
+    @PreAuthorize("T(com.odysseusinc.arachne.portal.security.DataNodeIdentity).matches(authentication.principal, #ds.dataNode) or " +
             "hasPermission(#ds, T(com.odysseusinc.arachne.portal.security.ArachnePermission).UPLOAD_ACHILLES_REPORTS)")
     public void createCharacterization(@P("ds") DS dataSource, MultipartFile data) throws IOException {
 
@@ -96,9 +97,7 @@ public abstract class BaseAchillesService<DS extends IDataSource, S extends Stud
     @Override
     public List<AchillesReport> getReports(AchillesFile file) {
 
-        return achillesReportRepository.findAllByOrderBySortOrderAsc().stream().filter(report ->
-                report.getMatchers().stream().anyMatch(m -> m.match(file))
-        ).collect(Collectors.toList());
+        return achillesReportIndex.getReports(file.getFilePath());
     }
 
     @Override
@@ -106,7 +105,13 @@ public abstract class BaseAchillesService<DS extends IDataSource, S extends Stud
     public List<AchillesReport> getReports(DS dataSource) {
 
         Objects.requireNonNull(dataSource);
-        return achillesReportRepository.findAllByOrderBySortOrderAsc();
+        return getReports();
+    }
+
+    @Override
+    public List<AchillesReport> getReports() {
+
+        return achillesReportIndex.getReports();
     }
 
     @Override
@@ -116,6 +121,13 @@ public abstract class BaseAchillesService<DS extends IDataSource, S extends Stud
         return achillesFileRepository.findByCharacterizationAndFilePath(characterizationId, filePath);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<String> getAchillesFileData(Long characterizationId, String filePath) {
+
+        return achillesFileRepository.findDataByCharacterizationAndFilePath(characterizationId, filePath);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Long getLatestCharacterizationId(DS dataSource) throws NotExistException {
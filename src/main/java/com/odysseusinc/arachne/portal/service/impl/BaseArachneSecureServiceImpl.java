@@ -58,14 +58,20 @@ import com.odysseusinc.arachne.portal.service.BaseRoleService;
 import com.odysseusinc.arachne.portal.util.DataNodeUtils;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.apache.commons.lang3.ObjectUtils;
+import org.hibernate.Hibernate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -75,6 +81,8 @@ import org.springframework.transaction.annotation.Transactional;
 public abstract class BaseArachneSecureServiceImpl<P extends Paper, DS extends IDataSource> implements com.odysseusinc.arachne.portal.service.BaseArachneSecureService<P, DS> {
 
     protected static final Logger LOGGER = LoggerFactory.getLogger(com.odysseusinc.arachne.portal.service.BaseArachneSecureService.class);
+    private static final List<ParticipantStatus> PARTICIPANT_STATUSES
+            = Arrays.asList(ParticipantStatus.APPROVED, ParticipantStatus.PENDING);
 
     @Value("${portal.organizations.enableCreateByNonAdmin}")
     private Boolean canUserCreateOrganization;
@@ -172,6 +180,8 @@ public abstract class BaseArachneSecureServiceImpl<P extends Paper, DS extends I
     
     public abstract Study getStudyByIdInAnyTenant(Long studyId);
 
+    public abstract List<Study> getStudiesByIdsInAnyTenant(Collection<Long> studyIds);
+
     @Override
     public List<ParticipantRole> getRolesBySubmission(ArachneUser user, Submission submission) {
 
@@ -300,17 +310,130 @@ public abstract class BaseArachneSecureServiceImpl<P extends Paper, DS extends I
         return permissions;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, List<ParticipantRole>> getRolesByStudies(ArachneUser user, Collection<? extends Study> studies) {
+
+        final Map<Long, Study> studyById = new HashMap<>();
+        final Set<Long> notLoadedIds = new HashSet<>();
+        for (final Study study : studies) {
+            if (study == null || study.getId() == null) {
+                continue;
+            }
+            if (Hibernate.isInitialized(study) && ObjectUtils.allNotNull(study.getTenant(), study.getPrivacy())) {
+                studyById.put(study.getId(), study);
+            } else {
+                notLoadedIds.add(study.getId());
+            }
+        }
+        if (!notLoadedIds.isEmpty()) {
+            getStudiesByIdsInAnyTenant(notLoadedIds).forEach(study -> studyById.put(study.getId(), study));
+        }
+
+        final Map<Long, List<ParticipantRole>> result = new HashMap<>();
+        final List<Long> activeTenantStudyIds = new ArrayList<>();
+        studyById.forEach((id, study) -> {
+            final List<ParticipantRole> participantRoles = new LinkedList<>();
+            if (Objects.equals(study.getTenant().getId(), user.getActiveTenantId())) {
+                if (!study.getPrivacy()) {
+                    participantRoles.add(ParticipantRole.STUDY_READER);
+                }
+                activeTenantStudyIds.add(id);
+            }
+            result.put(id, participantRoles);
+        });
+        if (!activeTenantStudyIds.isEmpty()) {
+            userStudyExtendedRepository.findByUserIdAndStudyIdInAndStatusIn(user.getId(), activeTenantStudyIds, PARTICIPANT_STATUSES)
+                    .forEach(userStudy -> result.get(userStudy.getStudy().getId()).add(toParticipantRole(userStudy)));
+        }
+        return result;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, List<ParticipantRole>> getRolesByAnalyses(ArachneUser user, Collection<? extends Analysis> analyses) {
+
+        final List<Analysis> withStudy = analyses.stream()
+                .filter(analysis -> analysis != null && analysis.getId() != null && analysis.getStudy() != null)
+                .collect(Collectors.toList());
+        if (withStudy.isEmpty()) {
+            return new HashMap<>();
+        }
+        // the same as ensureAnalysisStudyCanBeRetrieved, but for all analyses at once
+        final Set<Long> studyIds = withStudy.stream().map(analysis -> analysis.getStudy().getId()).collect(Collectors.toSet());
+        final Map<Long, Study> studies = getStudiesByIdsInAnyTenant(studyIds).stream()
+                .collect(Collectors.toMap(Study::getId, Function.identity()));
+        final Map<Long, List<ParticipantRole>> studyRoles = getRolesByStudies(user, studies.values());
+
+        final Map<Long, List<ParticipantRole>> result = new HashMap<>();
+        for (final Analysis analysis : withStudy) {
+            final Study study = studies.get(analysis.getStudy().getId());
+            if (study == null) {
+                continue;
+            }
+            analysis.setStudy(study);
+            final List<ParticipantRole> participantRoles = new LinkedList<>(studyRoles.getOrDefault(study.getId(), Collections.emptyList()));
+            if (Objects.nonNull(analysis.getAuthor()) && Objects.equals(analysis.getAuthor().getId(), user.getId())) {
+                participantRoles.add(ParticipantRole.ANALYSIS_OWNER);
+            }
+            result.put(analysis.getId(), participantRoles);
+        }
+        return result;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, List<ParticipantRole>> getRolesBySubmissions(ArachneUser user, Collection<? extends Submission> submissions) {
+
+        final List<Submission> resolvable = submissions.stream()
+                .filter(submission -> submission != null && submission.getId() != null
+                        && submission.getSubmissionGroup() != null && submission.getDataSource() != null)
+                .collect(Collectors.toList());
+        if (resolvable.isEmpty()) {
+            return new HashMap<>();
+        }
+        final Map<Long, Analysis> analyses = new HashMap<>();
+        final Set<Long> dataSourceIds = new HashSet<>();
+        for (final Submission submission : resolvable) {
+            final Analysis analysis = submission.getSubmissionGroup().getAnalysis();
+            analyses.putIfAbsent(analysis.getId(), analysis);
+            dataSourceIds.add(submission.getDataSource().getId());
+        }
+        final Map<Long, List<ParticipantRole>> analysisRoles = getRolesByAnalyses(user, analyses.values());
+        final Set<Long> ownedDataSourceIds = dataNodeUserRepository.findDataSourceIdsOwnedByUser(user.getId(), dataSourceIds);
+
+        final Map<Long, List<ParticipantRole>> result = new HashMap<>();
+        for (final Submission submission : resolvable) {
+            final List<ParticipantRole> roles = analysisRoles.get(submission.getSubmissionGroup().getAnalysis().getId());
+            if (roles == null) {
+                continue;
+            }
+            final List<ParticipantRole> participantRoles = new LinkedList<>(roles);
+            if (!ownedDataSourceIds.contains(submission.getDataSource().getId())) {
+                // see getRolesBySubmission
+                participantRoles.removeIf(ParticipantRole.DATA_SET_OWNER::equals);
+            }
+            result.put(submission.getId(), participantRoles);
+        }
+        return result;
+    }
+
     public List<ParticipantRole> getParticipantRoles(final Long userId, final Study study) {
 
         List<UserStudyExtended> userStudyList = userStudyExtendedRepository.findByUserIdAndStudyIdAndStatusIn(
                 userId,
                 study.getId(),
-                Arrays.asList(ParticipantStatus.APPROVED, ParticipantStatus.PENDING)
+                PARTICIPANT_STATUSES
         );
         return userStudyList.stream()
-                .map(userStudy -> userStudy.getStatus().equals(ParticipantStatus.APPROVED)
-                        ? ParticipantRole.valueOf(userStudy.getRole().name())
-                        : ParticipantRole.STUDY_PENDING_CONTRIBUTOR)
+                .map(BaseArachneSecureServiceImpl::toParticipantRole)
                 .collect(Collectors.toList());
     }
+
+    private static ParticipantRole toParticipantRole(UserStudyExtended userStudy) {
+
+        return userStudy.getStatus().equals(ParticipantStatus.APPROVED)
+                ? ParticipantRole.valueOf(userStudy.getRole().name())
+                : ParticipantRole.STUDY_PENDING_CONTRIBUTOR;
+    }
 }
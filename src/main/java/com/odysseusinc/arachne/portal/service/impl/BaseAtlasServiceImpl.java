@@ -43,21 +43,21 @@ public class BaseAtlasServiceImpl<T extends IAtlas> implements BaseAtlasService<
      * @return Atlas instance.
      */
     @Override
-    @PostAuthorize("(returnObject != null && returnObject.dataNode == authentication.principal) || hasRole('ROLE_ADMIN')")
+    @PostAuthorize("(returnObject != null && T(com.odysseusinc.arachne.portal.security.DataNodeIdentity).matches(authentication.principal, returnObject.dataNode)) || hasRole('ROLE_ADMIN')")
     public T findByIdInAnyTenant(Long id) {
 
         return baseRawAtlasRepository.getOne(id);
     }
 
     @Override
-    @PreAuthorize("@dataNodeRepository.getOne(#dataNodeId) == authentication.principal || hasRole('ROLE_ADMIN')")
+    @PreAuthorize("T(com.odysseusinc.arachne.portal.security.DataNodeIdentity).matches(authentication.principal, @dataNodeRepository.getOne(#dataNodeId)) || hasRole('ROLE_ADMIN')")
     public T findByNameAndNodeInAnyTenant(String name, Long dataNodeId) {
 
         return baseRawAtlasRepository.findByNameAndDataNodeId(name, dataNodeId);
     }
 
     @Override
-    @PreAuthorize("@rawAtlasRepository.getOne(#id)?.dataNode == authentication.principal")
+    @PreAuthorize("T(com.odysseusinc.arachne.portal.security.DataNodeIdentity).matches(authentication.principal, @rawAtlasRepository.getOne(#id)?.dataNode)")
     public T update(Long id, T atlas) {
 
         T existing = findByIdInAnyTenant(id);
@@ -81,7 +81,7 @@ public class BaseAtlasServiceImpl<T extends IAtlas> implements BaseAtlasService<
     }
 
     @Override
-    @PreAuthorize("@rawAtlasRepository.getOne(#id)?.dataNode == authentication.principal")
+    @PreAuthorize("T(com.odysseusinc.arachne.portal.security.DataNodeIdentity).matches(authentication.principal, @rawAtlasRepository.getOne(#id)?.dataNode)")
     public void delete(Long id) {
 
         baseRawAtlasRepository.deleteById(id);
@@ -244,7 +244,7 @@ public abstract class BaseDataNodeServiceImpl<DN extends DataNode, DS extends ID
 
     @Transactional
     @Override
-    @PreAuthorize("#dataNode == authentication.principal")
+    @PreAuthorize("T(com.odysseusinc.arachne.portal.security.DataNodeIdentity).matches(authentication.principal, #dataNode)")
     public void relinkAllUsersToDataNode(DN dataNode, Set<DataNodeUser> dataNodeUsers) throws NotExistException {
 
         LOGGER.info(RELINKING_ALL_USERS_LOG, dataNode.getId());
@@ -273,6 +273,12 @@ public abstract class BaseDataNodeServiceImpl<DN extends DataNode, DS extends ID
         return dataNodeRepository.findByToken(token, EntityUtils.fromAttributePaths("dataSources"));
     }
 
+    @Override
+    public DN getReference(Long id) {
+
+        return dataNodeRepository.getOne(id);
+    }
+
     @Override
     public CommonHealthStatus getHealthStatus(DataNode dataNode) {
 
@@ -26,6 +26,7 @@ import com.odysseusinc.arachne.commons.api.v1.dto.CommonDataSourceAccessType;
 import com.odysseusinc.arachne.commons.api.v1.dto.CommonModelType;
 import com.odysseusinc.arachne.portal.api.v1.dto.PageDTO;
 import com.odysseusinc.arachne.portal.api.v1.dto.SearchDataCatalogDTO;
+import com.odysseusinc.arachne.portal.component.ParticipantRoleCache;
 import com.odysseusinc.arachne.portal.config.WebSecurityConfig;
 import com.odysseusinc.arachne.portal.config.tenancy.TenantContext;
 import com.odysseusinc.arachne.portal.exception.FieldException;
@@ -51,12 +52,14 @@ import com.odysseusinc.arachne.portal.service.BaseUserService;
 import com.odysseusinc.arachne.portal.service.TenantService;
 import com.odysseusinc.arachne.portal.service.impl.solr.FieldList;
 import com.odysseusinc.arachne.portal.service.impl.solr.SearchResult;
+import com.odysseusinc.arachne.portal.service.impl.solr.SolrFacetCache;
 import com.odysseusinc.arachne.portal.service.impl.solr.SolrField;
 import com.odysseusinc.arachne.portal.service.mail.ArachneMailSender;
 import com.odysseusinc.arachne.portal.service.mail.NewDataSourceMailMessage;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
@@ -104,6 +107,8 @@ public abstract class BaseDataSourceServiceImpl<
     protected final ArachneMailSender arachneMailSender;
     protected EntityManager entityManager;
     protected StudyDataSourceLinkRepository studyDataSourceLinkRepository;
+    protected final SolrFacetCache solrFacetCache;
+    protected final ParticipantRoleCache participantRoleCache;
 
     public BaseDataSourceServiceImpl(BaseSolrService<SF> solrService,
                                      BaseDataSourceRepository<DS> dataSourceRepository,
@@ -113,7 +118,9 @@ public abstract class BaseDataSourceServiceImpl<
                                      BaseUserService<IUser, Skill> userService,
                                      ArachneMailSender arachneMailSender,
                                      EntityManager entityManager,
-                                     StudyDataSourceLinkRepository studyDataSourceLinkRepository) {
+                                     StudyDataSourceLinkRepository studyDataSourceLinkRepository,
+                                     SolrFacetCache solrFacetCache,
+                                     ParticipantRoleCache participantRoleCache) {
 
         this.solrService = solrService;
         this.dataSourceRepository = dataSourceRepository;
@@ -124,6 +131,8 @@ public abstract class BaseDataSourceServiceImpl<
         this.arachneMailSender = arachneMailSender;
         this.entityManager = entityManager;
         this.studyDataSourceLinkRepository = studyDataSourceLinkRepository;
+        this.solrFacetCache = solrFacetCache;
+        this.participantRoleCache = participantRoleCache;
     }
 
     protected void beforeCreate(final DS dataSource, final boolean virtual) {
@@ -460,17 +469,20 @@ public abstract class BaseDataSourceServiceImpl<
     public void makeLinksWithStudiesDeleted(final Long tenantId, final Long dataSourceId) {
 
         studyDataSourceLinkRepository.setLinksBetweenStudiesAndDsDeleted(tenantId, dataSourceId);
+        participantRoleCache.evict();
     }
 
     protected void makeLinksWithTenantsDeleted(Long dataSourceId) {
 
         dataSourceRepository.makeLinksWithTenantsDeleted(dataSourceId);
+        participantRoleCache.evict();
     }
 
     @Override
     public void makeLinksWithTenantsNotDeleted(Long dataSourceId) {
 
         dataSourceRepository.makeLinksWithTenantsNotDeleted(dataSourceId);
+        participantRoleCache.evict();
     }
 
     public FieldList<SF> getSolrFields() {
@@ -514,6 +526,31 @@ public abstract class BaseDataSourceServiceImpl<
         solrService.putDocuments(SolrCollection.DATA_SOURCES.getName(), values);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> indexBySolrAfter(final Long lastId, final int limit) {
+
+        return indexDataSourcesBySolr(
+                dataSourceRepository.getAllNotDeletedAndIsNotVirtualAndPublishedTrueFromAllTenantsAfter(true, lastId, limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> indexBySolrByIds(final Collection<Long> ids) {
+
+        return indexDataSourcesBySolr(
+                dataSourceRepository.getAllNotDeletedAndIsNotVirtualAndPublishedTrueFromAllTenantsByIdIn(true, ids));
+    }
+
+    private List<Long> indexDataSourcesBySolr(final List<DS> dataSources) {
+
+        if (dataSources.isEmpty()) {
+            return Collections.emptyList();
+        }
+        indexBySolr(dataSources);
+        return dataSources.stream().map(DS::getId).collect(Collectors.toList());
+    }
+
     @Override
     public void indexBySolr(List<DS> dataSources) {
 
@@ -531,12 +568,14 @@ public abstract class BaseDataSourceServiceImpl<
     private Map<String, List<String>> getExcludedOptions(IUser user) throws NoSuchFieldException,
             IOException, SolrServerException {
 
-        SolrQuery solrQuery = conversionService.convert(new SearchDataCatalogDTO(true), SolrQuery.class);
-        solrQuery = addFilterQuery(solrQuery, user);
+        final SolrQuery solrQuery = addFilterQuery(
+                conversionService.convert(new SearchDataCatalogDTO(true), SolrQuery.class), user);
 
-        QueryResponse solrResponse = solrSearch(solrQuery);
-        SearchResult<Long> searchResult = new SearchResult<>(solrQuery, solrResponse, Collections.<Long>emptyList());
-        return searchResult.excludedOptions();
+        return solrFacetCache.getExcludedOptions(SolrCollection.DATA_SOURCES.getName(), solrQuery, () -> {
+            QueryResponse solrResponse = solrSearch(solrQuery);
+            SearchResult<Long> searchResult = new SearchResult<>(solrQuery, solrResponse, Collections.<Long>emptyList());
+            return searchResult.excludedOptions();
+        });
     }
 
     @Override
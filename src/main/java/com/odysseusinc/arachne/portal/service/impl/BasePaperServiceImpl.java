@@ -64,6 +64,8 @@ import com.odysseusinc.arachne.portal.service.impl.antivirus.events.AntivirusJob
 import com.odysseusinc.arachne.portal.service.impl.antivirus.events.AntivirusJobResponse;
 
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Map;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -100,6 +102,7 @@ import java.security.Principal;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Stream;
 
@@ -478,6 +481,36 @@ public abstract class BasePaperServiceImpl<
         solrService.indexBySolr(papers);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> indexBySolrAfter(final Long lastId, final int limit) {
+
+        return indexPapersBySolr(paperRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, limit)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> indexBySolrByIds(final Collection<Long> ids) {
+
+        return indexPapersBySolr(paperRepository.findByIdIn(ids));
+    }
+
+    private List<Long> indexPapersBySolr(final List<P> papers) {
+
+        if (papers.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final Set<Long> studyIds = papers.stream().map(p -> p.getStudy().getId()).collect(Collectors.toSet());
+        final Map<Long, Study> map = studyService.findByIdsInAnyTenant(studyIds)
+                .stream()
+                .collect(Collectors.toMap(Study::getId, Function.identity()));
+        for (final P paper : papers) {
+            paper.setStudy(map.get(paper.getStudy().getId()));
+        }
+        solrService.indexBySolr(papers);
+        return papers.stream().map(P::getId).collect(Collectors.toList());
+    }
+
     @Override
     public void indexBySolr(final P paper) {
 
@@ -37,7 +37,7 @@ import com.odysseusinc.arachne.portal.service.BreadcrumbService;
 import com.odysseusinc.arachne.portal.service.impl.breadcrumb.Breadcrumb;
 import com.odysseusinc.arachne.portal.service.impl.solr.FieldList;
 import com.odysseusinc.arachne.portal.service.impl.solr.SolrField;
-import com.odysseusinc.arachne.portal.util.EntityUtils;
+import com.odysseusinc.arachne.portal.service.impl.solr.SolrIndexingQueue;
 import java.io.IOException;
 import java.lang.reflect.Field;
 import java.util.Arrays;
@@ -48,17 +48,16 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.solr.client.solrj.SolrClient;
 import org.apache.solr.client.solrj.SolrQuery;
 import org.apache.solr.client.solrj.SolrServerException;
 import org.apache.solr.client.solrj.response.QueryResponse;
-import org.apache.solr.client.solrj.response.UpdateResponse;
 import org.apache.solr.common.SolrInputDocument;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.core.convert.ConversionService;
 
@@ -66,12 +65,12 @@ public abstract class BaseSolrServiceImpl<T extends SolrField> implements BaseSo
 
     private static final String QUERY_FIELD_PREFIX = "query_";
 
-    @Value("${arachne.solrBatchSize}")
-    private int solrBatchSize;
-    
     @Autowired
     private SolrClient solrClient;
 
+    @Autowired
+    private SolrIndexingQueue indexingQueue;
+
     @Autowired
     private BreadcrumbService breadcrumbService;
 
@@ -80,6 +79,11 @@ public abstract class BaseSolrServiceImpl<T extends SolrField> implements BaseSo
 
     private ObjectMapper objectMapper = new ObjectMapper();
 
+    // Solr metadata of entity classes doesn't change at runtime, so it is collected once per class
+    private final Map<Class<?>, FieldList<T>> fieldsByClass = new ConcurrentHashMap<>();
+
+    private final Map<Class<? extends SolrFieldExtractor>, SolrFieldExtractor> extractorInstances = new ConcurrentHashMap<>();
+
     public T getSolrField(final Field field) {
 
         T solrField = null;
@@ -105,7 +109,7 @@ public abstract class BaseSolrServiceImpl<T extends SolrField> implements BaseSo
         solrField.setDataType(solrFieldAnno.clazz());
         final Class<? extends SolrFieldExtractor>[] extractors = solrFieldAnno.extractor();
         if (extractors.length > 0) {
-            solrField.setExtractor(BeanUtils.instantiate(extractors[0]));
+            solrField.setExtractor(extractorInstances.computeIfAbsent(extractors[0], BeanUtils::instantiateClass));
         }
         return solrField;
     }
@@ -114,6 +118,18 @@ public abstract class BaseSolrServiceImpl<T extends SolrField> implements BaseSo
 
     public FieldList<T> getFieldsOfClass(final Class<?> entity) {
 
+        final FieldList<T> result = new FieldList<>();
+        result.addAll(getCachedFieldsOfClass(entity));
+        return result;
+    }
+
+    private FieldList<T> getCachedFieldsOfClass(final Class<?> entity) {
+
+        return fieldsByClass.computeIfAbsent(entity, this::collectFieldsOfClass);
+    }
+
+    private FieldList<T> collectFieldsOfClass(final Class<?> entity) {
+
         final FieldList<T> result = new FieldList<>();
         final List<Field> fields = getDeclaredFields(entity);
 
@@ -169,22 +185,8 @@ public abstract class BaseSolrServiceImpl<T extends SolrField> implements BaseSo
     public Map<T, Object> getValuesByEntity(final SolrEntity entity)  {
 
         final Map<T, Object> values = new HashMap<>();
-        final FieldList<T> fieldList = getFieldsOfClass(entity.getClass());
-        for (final T solrField : fieldList) {
-            final Object fieldValue;
-            final Field field = solrField.getField();
-            final SolrFieldExtractor extractor = solrField.getExtractor();
-            
-            if (extractor != null) {
-                fieldValue = extractor.extract(entity);
-            } else if (field != null) {
-                field.setAccessible(true);
-                fieldValue = getFieldValue(entity, field);
-            } else {
-                throw new NullPointerException("FieldValue cannot be null");
-            }
-            
-            values.put(solrField, fieldValue);
+        for (final T solrField : getCachedFieldsOfClass(entity.getClass())) {
+            values.put(solrField, solrField.getValue(entity));
         }
 
         if (entity.getId() != null) {
@@ -199,15 +201,6 @@ public abstract class BaseSolrServiceImpl<T extends SolrField> implements BaseSo
         return values;
     }
 
-    private Object getFieldValue(final Object entity, final Field field) {
-        
-        try {
-            return field.get(entity);
-        } catch (final IllegalAccessException e) {
-            throw new RuntimeException(e);
-        }
-    }
-
     private void addBreadcrumbsIfNeeded(final Object entity, final Map<T, Object> values) {
 
         if (entity instanceof Breadcrumb) {
@@ -234,19 +227,7 @@ public abstract class BaseSolrServiceImpl<T extends SolrField> implements BaseSo
             final Map<T, Object> values
     ) {
 
-        try {
-            final SolrInputDocument document = createSolrDocument(collection, id, values);
-
-            final UpdateResponse updateResponse = solrClient.add(collection, document);
-            final UpdateResponse commitResponse = solrClient.commit(collection);
-
-            if (commitResponse.getStatus() != 0 || updateResponse.getStatus() != 0) {
-                throw new SolrServerException("Cannot index by Solr");
-            }    
-        } catch( IOException | SolrServerException e) {
-            throw new SolrException(e);
-        }
-        
+        indexingQueue.add(collection, createSolrDocument(collection, id, values));
     }
     
     @Override
@@ -255,22 +236,7 @@ public abstract class BaseSolrServiceImpl<T extends SolrField> implements BaseSo
             final List<Map<T, Object>> valuesList
     ) {
 
-        EntityUtils.splitAndApplyBatchFunction(sublist -> {
-            try {
-                final List<SolrInputDocument> documents = sublist.stream()
-                        .map(v -> createSolrDocument(collection, v))
-                        .collect(Collectors.toList());
-
-                final UpdateResponse updateResponse = solrClient.add(collection, documents);
-                final UpdateResponse commitResponse = solrClient.commit(collection);
-
-                if (commitResponse.getStatus() != 0 || updateResponse.getStatus() != 0) {
-                    throw new SolrServerException("Cannot index by Solr");
-                }
-            } catch( IOException | SolrServerException e) {
-                throw new SolrException(e);
-            }
-        }, valuesList, solrBatchSize);
+        valuesList.forEach(values -> indexingQueue.add(collection, createSolrDocument(collection, values)));
     }
         
     
@@ -392,12 +358,7 @@ public abstract class BaseSolrServiceImpl<T extends SolrField> implements BaseSo
     @Override
     public void deleteByQuery(final String collection, final String query) {
 
-        try {
-            solrClient.deleteByQuery(collection, query);
-            solrClient.commit(collection);
-        } catch (IOException | SolrServerException e) {
-            throw new SolrException(e);
-        }
+        indexingQueue.deleteByQuery(collection, query);
     }
 
     @Override
@@ -438,7 +399,7 @@ public abstract class BaseSolrServiceImpl<T extends SolrField> implements BaseSo
     @Override
     public void delete(final SolrCollection collection, final String id) {
         
-        deleteByQuery(collection.getName(), "id:" + id);
+        indexingQueue.deleteById(collection.getName(), id);
     }
 
     @Override
@@ -32,6 +32,7 @@ import static java.util.Collections.singletonList;
 import com.cosium.spring.data.jpa.entity.graph.domain.EntityGraph;
 import com.odysseusinc.arachne.commons.api.v1.dto.CommonHealthStatus;
 import com.odysseusinc.arachne.commons.utils.CommonFileUtils;
+import com.odysseusinc.arachne.portal.component.ParticipantRoleCache;
 import com.odysseusinc.arachne.portal.config.WebSecurityConfig;
 import com.odysseusinc.arachne.portal.exception.AlreadyExistException;
 import com.odysseusinc.arachne.portal.exception.FieldException;
@@ -104,6 +105,8 @@ import java.net.URL;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
@@ -192,6 +195,7 @@ public abstract class BaseStudyServiceImpl<
     private final Map<String, String[]> studySortPaths = new HashMap<>();
     protected final ApplicationEventPublisher eventPublisher;
     private final BaseSolrService<SF> solrService;
+    private final ParticipantRoleCache participantRoleCache;
 
     public BaseStudyService<T, DS, SS, SU> proxy;
 
@@ -220,7 +224,8 @@ public abstract class BaseStudyServiceImpl<
                                 final StudyStateMachine studyStateMachine,
                                 final AddDataSourceStrategyFactory<DS> addDataSourceStrategyFactory,
                                 final ApplicationEventPublisher eventPublisher,
-                                final BaseSolrService<SF> solrService) {
+                                final BaseSolrService<SF> solrService,
+                                final ParticipantRoleCache participantRoleCache) {
 
         this.javaMailSender = javaMailSender;
         this.userStudyExtendedRepository = userStudyExtendedRepository;
@@ -247,6 +252,7 @@ public abstract class BaseStudyServiceImpl<
         this.addDataSourceStrategyFactory = addDataSourceStrategyFactory;
         this.eventPublisher = eventPublisher;
         this.solrService = solrService;
+        this.participantRoleCache = participantRoleCache;
     }
 
     public abstract Class<T> getType();
@@ -588,6 +594,8 @@ public abstract class BaseStudyServiceImpl<
         checkLastLeadInvestigator(studyLink, study);
         if (userStudyRepository.hardRemoveIfNotTracked(id, participantId) == 0) {
             userStudyRepository.delete(studyLink);
+        } else {
+            participantRoleCache.evict();
         }
     }
 
@@ -1030,6 +1038,29 @@ public abstract class BaseStudyServiceImpl<
         solrService.indexBySolr(studies);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> indexBySolrAfter(final Long lastId, final int limit) {
+
+        return indexStudiesBySolr(studyRepository.findAllInAllTenantAfter(lastId, limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> indexBySolrByIds(final Collection<Long> ids) {
+
+        return indexStudiesBySolr(studyRepository.findByIdsInAnyTenant(ids));
+    }
+
+    private List<Long> indexStudiesBySolr(final List<T> studies) {
+
+        if (studies.isEmpty()) {
+            return Collections.emptyList();
+        }
+        solrService.indexBySolr(studies);
+        return studies.stream().map(T::getId).collect(Collectors.toList());
+    }
+
     @Override
     public List<T> findWithPapersInAnyTenant() {
 
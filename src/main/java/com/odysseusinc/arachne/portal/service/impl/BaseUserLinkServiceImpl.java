@@ -25,6 +25,7 @@ package com.odysseusinc.arachne.portal.service.impl;
 import com.odysseusinc.arachne.portal.model.UserLink;
 import com.odysseusinc.arachne.portal.repository.UserLinkRepository;
 import com.odysseusinc.arachne.portal.service.BaseUserLinkService;
+import java.util.Collection;
 import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.repository.CrudRepository;
@@ -51,4 +52,10 @@ public abstract class BaseUserLinkServiceImpl<UL extends UserLink> extends CRUDL
 
         return userLinkRepository.findAll();
     }
+
+    @Override
+    public List<UL> findByUserIdIn(Collection<Long> userIds) {
+
+        return userLinkRepository.findByUserIdIn(userIds);
+    }
 }
@@ -25,6 +25,7 @@ package com.odysseusinc.arachne.portal.service.impl;
 import com.odysseusinc.arachne.portal.model.UserPublication;
 import com.odysseusinc.arachne.portal.repository.UserPublicationRepository;
 import com.odysseusinc.arachne.portal.service.BaseUserPublicationService;
+import java.util.Collection;
 import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.repository.CrudRepository;
@@ -51,4 +52,10 @@ public abstract class BaseUserPublicationServiceImpl<UP extends UserPublication>
 
         return userPublicationRepository.findAll();
     }
+
+    @Override
+    public List<UP> findByUserIdIn(Collection<Long> userIds) {
+
+        return userPublicationRepository.findByUserIdIn(userIds);
+    }
 }
@@ -31,6 +31,7 @@ import com.google.common.collect.Sets;
 import com.odysseusinc.arachne.commons.utils.CommonFileUtils;
 import com.odysseusinc.arachne.commons.utils.UserIdUtils;
 import com.odysseusinc.arachne.portal.api.v1.dto.SearchExpertListDTO;
+import com.odysseusinc.arachne.portal.component.ParticipantRoleCache;
 import com.odysseusinc.arachne.portal.config.WebSecurityConfig;
 import com.odysseusinc.arachne.portal.exception.ArachneSystemRuntimeException;
 import com.odysseusinc.arachne.portal.exception.NotEmptyException;
@@ -81,6 +82,7 @@ import com.odysseusinc.arachne.portal.service.TenantService;
 import com.odysseusinc.arachne.portal.service.UserRegistrantService;
 import com.odysseusinc.arachne.portal.service.impl.solr.FieldList;
 import com.odysseusinc.arachne.portal.service.impl.solr.SearchResult;
+import com.odysseusinc.arachne.portal.service.impl.solr.SolrFacetCache;
 import com.odysseusinc.arachne.portal.service.impl.solr.SolrField;
 import com.odysseusinc.arachne.portal.service.mail.ArachneMailSender;
 import com.odysseusinc.arachne.portal.service.mail.NewUserMailMessage;
@@ -127,6 +129,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Paths;
 import java.security.Principal;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
@@ -172,6 +175,8 @@ public abstract class BaseUserServiceImpl<
     private final BaseUserPublicationService<UserPublication> userPublicationService;
     private final RoleRepository roleRepository;
     private final BaseSolrService<SF> solrService;
+    private final SolrFacetCache solrFacetCache;
+    private final ParticipantRoleCache participantRoleCache;
     private final GenericConversionService conversionService;
     private final AnalysisUnlockRequestRepository analysisUnlockRequestRepository;
     private final ArachneMailSender arachneMailSender;
@@ -213,7 +218,9 @@ public abstract class BaseUserServiceImpl<
                                BaseUserLinkService<UserLink> userLinkService,
                                TenantService tenantService,
                                AuthenticationHelperService authenticationHelperService,
-                               BaseRawUserRepository<U> rawUserRepository) {
+                               BaseRawUserRepository<U> rawUserRepository,
+                               SolrFacetCache solrFacetCache,
+                               ParticipantRoleCache participantRoleCache) {
 
         this.stateProvinceRepository = stateProvinceRepository;
         this.messageSource = messageSource;
@@ -236,6 +243,8 @@ public abstract class BaseUserServiceImpl<
         this.tenantService = tenantService;
         this.rawUserRepository = rawUserRepository;
         this.authenticationHelperService = authenticationHelperService;
+        this.solrFacetCache = solrFacetCache;
+        this.participantRoleCache = participantRoleCache;
     }
 
     @Override
@@ -1039,6 +1048,38 @@ public abstract class BaseUserServiceImpl<
         solrService.indexBySolr(userList);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> indexBySolrAfter(final Long lastId, final int limit) {
+
+        return indexUsersBySolr(userRepository.findEnabledFromAllTenantsAfter(lastId, limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> indexBySolrByIds(final Collection<Long> ids) {
+
+        return indexUsersBySolr(userRepository.findEnabledFromAllTenantsByIdIn(ids));
+    }
+
+    private List<Long> indexUsersBySolr(final List<U> users) {
+
+        if (users.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final Set<Long> userIds = users.stream().map(U::getId).collect(Collectors.toSet());
+        final Map<Long, List<UserLink>> userIdToLinksMap = userLinkService.findByUserIdIn(userIds).stream()
+                .collect(Collectors.groupingBy(v -> v.getUser().getId()));
+        final Map<Long, List<UserPublication>> userIdToPublicationsMap = userPublicationService.findByUserIdIn(userIds).stream()
+                .collect(Collectors.groupingBy(v -> v.getUser().getId()));
+        for (final U user : users) {
+            user.setLinks(userIdToLinksMap.get(user.getId()));
+            user.setPublications(userIdToPublicationsMap.get(user.getId()));
+        }
+        solrService.indexBySolr(users);
+        return users.stream().map(U::getId).collect(Collectors.toList());
+    }
+
     protected QueryResponse solrSearch(SolrQuery solrQuery) throws NoSuchFieldException, IOException, SolrServerException {
 
         return solrService.search(
@@ -1074,9 +1115,11 @@ public abstract class BaseUserServiceImpl<
 
         SolrQuery solrQuery = conversionService.convert(new SearchExpertListDTO(true), SolrQuery.class);
 
-        QueryResponse solrResponse = solrSearch(solrQuery);
-        SearchResult<Long> searchResult = new SearchResult<>(solrQuery, solrResponse, Collections.<Long>emptyList());
-        return searchResult.excludedOptions();
+        return solrFacetCache.getExcludedOptions(SolrCollection.USERS.getName(), solrQuery, () -> {
+            QueryResponse solrResponse = solrSearch(solrQuery);
+            SearchResult<Long> searchResult = new SearchResult<>(solrQuery, solrResponse, Collections.<Long>emptyList());
+            return searchResult.excludedOptions();
+        });
     }
 
     @Override
@@ -1249,6 +1292,7 @@ public abstract class BaseUserServiceImpl<
     public void makeLinksWithStudiesDeleted(final Long tenantId, final Long userId) {
 
         userRepository.setLinksBetweenStudiesAndUsersDeleted(tenantId, userId);
+        participantRoleCache.evict();
     }
 
     @Override
@@ -1261,12 +1305,14 @@ public abstract class BaseUserServiceImpl<
     public void makeLinksWithPapersDeleted(final Long tenantId, final Long userId) {
 
         userRepository.setLinksBetweenPapersAndUsersDeleted(tenantId, userId);
+        participantRoleCache.evict();
     }
 
     @Override
     public void revertBackUserToPapers(final Long tenantId, final Long userId) {
 
         userRepository.revertBackUserToPapers(tenantId, userId);
+        participantRoleCache.evict();
     }
 
     @Override
@@ -22,20 +22,27 @@
 
 package com.odysseusinc.arachne.portal.service.impl;
 
+import com.odysseusinc.arachne.portal.api.v1.dto.CommentDTO;
+import com.odysseusinc.arachne.portal.api.v1.dto.CommentTopicDTO;
 import com.odysseusinc.arachne.portal.exception.NotExistException;
 import com.odysseusinc.arachne.portal.model.Comment;
 import com.odysseusinc.arachne.portal.model.CommentTopic;
 import com.odysseusinc.arachne.portal.repository.CommentRepository;
 import com.odysseusinc.arachne.portal.repository.CommentTopicRepository;
 import com.odysseusinc.arachne.portal.service.CommentService;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
-import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.core.convert.support.GenericConversionService;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -53,28 +60,62 @@ public class CommentServiceImpl implements CommentService {
 
     private final CommentTopicRepository commentTopicRepository;
     private final CommentRepository commentRepository;
+    private final CommentThreadCache commentThreadCache;
+    private final GenericConversionService conversionService;
 
     @Autowired
     public CommentServiceImpl(CommentTopicRepository commentTopicRepository,
-                              CommentRepository commentRepository) {
+                              CommentRepository commentRepository,
+                              CommentThreadCache commentThreadCache,
+                              GenericConversionService conversionService) {
 
         this.commentTopicRepository = commentTopicRepository;
         this.commentRepository = commentRepository;
+        this.commentThreadCache = commentThreadCache;
+        this.conversionService = conversionService;
     }
 
-//    @Cacheable("comments") broken code here
     @Override
-    public CommentTopic getTopic(Long id) throws NotExistException {
+    @Transactional(readOnly = true)
+    public CommentTopicDTO getTopicThread(Long id) throws NotExistException {
 
-        final CommentTopic commentTopic = commentTopicRepository.getOne(id);
-        if (commentTopic == null) {
+        if (!commentTopicRepository.existsById(id)) {
             final String message = String.format(TOPIC_NOT_EXIST_EXCEPTION, id);
             throw new NotExistException(message, CommentTopic.class);
         }
-        final List<Comment> comments = commentRepository.getAllByTopicIdAndParentIsNull(id);
-        comments.forEach(c -> Hibernate.initialize(c.getAuthor().getRoles()));
-        commentTopic.setComments(comments);
-        return commentTopic;
+        return commentThreadCache.get(id, () -> loadThread(id));
+    }
+
+    private CommentTopicDTO loadThread(Long topicId) {
+
+        final Map<Long, CommentDTO> comments = new LinkedHashMap<>();
+        final Map<Long, Long> parentIds = new HashMap<>();
+        final List<Object[]> rows = commentRepository.findThreadByTopicId(topicId);
+        // initializes the tenants of the authors loaded above
+        commentRepository.findThreadAuthorsWithTenants(topicId);
+        for (final Object[] row : rows) {
+            final Comment comment = (Comment) row[0];
+            if (!comments.containsKey(comment.getId())) {
+                comments.put(comment.getId(), conversionService.convert(comment, CommentDTO.class));
+                parentIds.put(comment.getId(), (Long) row[1]);
+            }
+        }
+        final List<CommentDTO> roots = new ArrayList<>();
+        comments.forEach((id, comment) -> {
+            final Long parentId = parentIds.get(id);
+            final CommentDTO parent = parentId == null ? null : comments.get(parentId);
+            if (parent == null) {
+                roots.add(comment);
+            } else {
+                comment.setParentId(parentId);
+                parent.getComments().add(comment);
+            }
+        });
+        comments.values().forEach(comment -> comment.setComments(Collections.unmodifiableList(comment.getComments())));
+        final CommentTopicDTO topic = new CommentTopicDTO();
+        topic.setId(topicId);
+        topic.setComments(Collections.unmodifiableList(roots));
+        return topic;
     }
 
     @Override
@@ -83,23 +124,23 @@ public class CommentServiceImpl implements CommentService {
         Pageable pageable = PageRequest.of(0, size, sort);
         final Page<Comment> page = commentRepository.getAllByTopicIn(topics, pageable);
         final List<Comment> comments = page.getContent();
-        comments.forEach(comment -> connectToTopic(topics, comment));
+        final Map<Long, CommentTopic> topicsById = topics.stream()
+                .collect(Collectors.toMap(CommentTopic::getId, Function.identity(), (t1, t2) -> t1));
+        comments.forEach(comment -> connectToTopic(topicsById, comment));
         return comments.stream()
                 .map(Comment::getTopic)
                 .collect(Collectors.toCollection(LinkedHashSet::new));
     }
 
-    private void connectToTopic(Set<CommentTopic> topics, Comment comment) {
+    private void connectToTopic(Map<Long, CommentTopic> topics, Comment comment) {
 
         comment.setParent(null);
-        final Long id = comment.getTopic().getId();
-        topics.stream()
-                .filter(commentTopic -> id.equals(commentTopic.getId()))
-                .findFirst()
-                .ifPresent(commentTopic -> commentTopic.getComments().add(comment));
+        final CommentTopic commentTopic = topics.get(comment.getTopic().getId());
+        if (commentTopic != null) {
+            commentTopic.getComments().add(comment);
+        }
     }
 
-    @CacheEvict(cacheNames = "comments", allEntries = true)
     @Override
     @PreAuthorize("hasPermission(#topicId, 'CommentTopic', "
             + "T(com.odysseusinc.arachne.portal.security.ArachnePermission).EDIT_INSIGHT)")
@@ -113,10 +154,10 @@ public class CommentServiceImpl implements CommentService {
             final Comment parent = commentRepository.findById(parentId).orElse(null);
             comment.setParent(parent);
         }
+        commentThreadCache.evict(topicId);
         return commentRepository.save(comment);
     }
 
-    @CacheEvict(cacheNames = "comments", allEntries = true)
     @Override
     public void deleteComment(Long topicId, Long commentId) throws NotExistException {
 
@@ -125,17 +166,22 @@ public class CommentServiceImpl implements CommentService {
             final String message = String.format(COMMENT_NOT_EXIST_EXCEPTION, topicId, commentId);
             throw new NotExistException(message, CommentTopic.class);
         }
+        commentThreadCache.evict(topicId);
     }
 
     @Override
     public void deleteComments(List<Comment> comments) {
 
         commentRepository.deleteAll(comments);
+        commentThreadCache.evict(comments.stream()
+                .map(comment -> comment.getTopic().getId())
+                .collect(Collectors.toSet()));
     }
 
     @Override
     public void deleteTopic(CommentTopic topic) {
 
         commentTopicRepository.delete(topic);
+        commentThreadCache.evict(topic.getId());
     }
 }
@@ -0,0 +1,105 @@
+/*
+ *
+ * Copyright 2021 Odysseus Data Services, inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Company: Odysseus Data Services, Inc.
+ * Product Owner/Architecture: Gregory Klebanov
+ * Authors: Yaroslav Molodkov, Alexandr Cumarav, Vitaliy Kulakov
+ * Created: October 04, 2021
+ *
+ */
+
+package com.odysseusinc.arachne.portal.service.impl;
+
+import com.odysseusinc.arachne.portal.api.v1.dto.CommentDTO;
+import com.odysseusinc.arachne.portal.api.v1.dto.CommentTopicDTO;
+import com.odysseusinc.arachne.portal.model.IUser;
+import com.odysseusinc.arachne.portal.model.listeners.EntityChangeListener;
+import com.odysseusinc.arachne.portal.util.EvictingCache;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps assembled comment threads per topic. Entries are shared between requests and must not be modified.
+ * A change of a topic evicts only that topic, once more after the commit, so that a thread loaded
+ * by a concurrent request before the commit is not kept. A change of a user, e.g. a new name, roles or
+ * tenants, evicts the threads with comments of that user in the same way.
+ */
+@Component
+public class CommentThreadCache extends EntityChangeListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final EvictingCache<Long, CommentTopicDTO> threads;
+
+    public CommentThreadCache(EntityManagerFactory entityManagerFactory,
+                              @Value("${arachne.comments.cache.ttlMinutes:60}") long ttlMinutes,
+                              @Value("${arachne.comments.cache.maxSize:1000}") long maxSize) {
+
+        this.entityManagerFactory = entityManagerFactory;
+        this.threads = new EvictingCache<>("Comment thread", maxSize, ttlMinutes, TimeUnit.MINUTES);
+    }
+
+    @PostConstruct
+    public void init() {
+
+        register(entityManagerFactory);
+    }
+
+    public CommentTopicDTO get(Long topicId, Supplier<CommentTopicDTO> loader) {
+
+        return threads.get(topicId, loader::get);
+    }
+
+    public void evict(Long topicId) {
+
+        threads.evict(topicId);
+    }
+
+    public void evict(Collection<Long> topicIds) {
+
+        topicIds.forEach(this::evict);
+    }
+
+    /**
+     * Evicts the threads with comments of the user, at once and again after the transaction completes.
+     */
+    public void evictAuthor(IUser user) {
+
+        final String uuid = user.getUuid();
+        if (uuid != null) {
+            threads.evictIf(topic -> hasAuthor(topic.getComments(), uuid));
+        }
+    }
+
+    @Override
+    protected void onChange(Object entity) {
+
+        if (entity instanceof IUser) {
+            evictAuthor((IUser) entity);
+        }
+    }
+
+    private boolean hasAuthor(List<CommentDTO> comments, String uuid) {
+
+        return comments.stream()
+                .anyMatch(comment -> (comment.getAuthor() != null && uuid.equals(comment.getAuthor().getId()))
+                        || hasAuthor(comment.getComments(), uuid));
+    }
+}
@@ -22,6 +22,7 @@
 
 package com.odysseusinc.arachne.portal.service.impl;
 
+import com.odysseusinc.arachne.portal.component.ParticipantRoleCache;
 import com.odysseusinc.arachne.portal.model.DataSource;
 import com.odysseusinc.arachne.portal.model.IDataSource;
 import com.odysseusinc.arachne.portal.repository.BaseDataSourceRepository;
@@ -31,6 +32,7 @@ import com.odysseusinc.arachne.portal.service.DataSourceService;
 import com.odysseusinc.arachne.portal.service.SolrService;
 import com.odysseusinc.arachne.portal.service.TenantService;
 import com.odysseusinc.arachne.portal.service.UserService;
+import com.odysseusinc.arachne.portal.service.impl.solr.SolrFacetCache;
 import com.odysseusinc.arachne.portal.service.impl.solr.SolrField;
 import com.odysseusinc.arachne.portal.service.mail.ArachneMailSender;
 import org.springframework.core.convert.support.GenericConversionService;
@@ -52,9 +54,12 @@ public class DataSourceServiceImpl extends BaseDataSourceServiceImpl<IDataSource
                                  UserService userService,
                                  ArachneMailSender arachneMailSender,
                                  EntityManager entityManager,
-                                 StudyDataSourceLinkRepository studyDataSourceLinkRepository) {
+                                 StudyDataSourceLinkRepository studyDataSourceLinkRepository,
+                                 SolrFacetCache solrFacetCache,
+                                 ParticipantRoleCache participantRoleCache) {
 
-        super(solrService, dataSourceRepository, conversionService, tenantService, rawDataSourceRepository, userService, arachneMailSender, entityManager, studyDataSourceLinkRepository);
+        super(solrService, dataSourceRepository, conversionService, tenantService, rawDataSourceRepository, userService, arachneMailSender, entityManager, studyDataSourceLinkRepository, solrFacetCache,
+                participantRoleCache);
     }
 
     @Override
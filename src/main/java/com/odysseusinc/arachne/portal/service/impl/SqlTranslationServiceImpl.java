@@ -0,0 +1,106 @@
+/*
+ *
+ * Copyright 2021 Odysseus Data Services, inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Company: Odysseus Data Services, Inc.
+ * Product Owner/Architecture: Gregory Klebanov
+ * Authors: Yaroslav Molodkov, Alexandr Cumarav, Vitaliy Kulakov
+ * Created: August 23, 2021
+ *
+ */
+
+package com.odysseusinc.arachne.portal.service.impl;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.odysseusinc.arachne.commons.types.DBMSType;
+import com.odysseusinc.arachne.portal.config.properties.SqlTranslationProperties;
+import com.odysseusinc.arachne.portal.exception.ArachneSystemRuntimeException;
+import com.odysseusinc.arachne.portal.service.SqlTranslationService;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import org.ohdsi.sql.SqlRender;
+import org.ohdsi.sql.SqlTranslate;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Translates statements to the dialects in parallel on a bounded pool.
+ * Translations are cached by the digest of the source statement and the dialect,
+ * so importing the same cohort definition again does not translate it again.
+ */
+@Service
+public class SqlTranslationServiceImpl implements SqlTranslationService {
+
+    private final TaskExecutor executor;
+    private final Cache<String, String> translations;
+
+    public SqlTranslationServiceImpl(@Qualifier("sqlTranslationExecutor") TaskExecutor executor,
+                                     SqlTranslationProperties properties) {
+
+        this.executor = executor;
+        this.translations = CacheBuilder.newBuilder()
+                .maximumWeight(properties.getCacheMaxChars())
+                .<String, String>weigher((key, sql) -> sql.length())
+                .expireAfterAccess(properties.getCacheExpireMinutes(), TimeUnit.MINUTES)
+                .build();
+    }
+
+    @Override
+    public Map<DBMSType, String> translateToAllDialects(String statement) {
+
+        final String digest = DigestUtils.md5DigestAsHex(statement.getBytes(StandardCharsets.UTF_8));
+        final Map<DBMSType, String> result = new EnumMap<>(DBMSType.class);
+        final List<DBMSType> missing = new ArrayList<>();
+        for (DBMSType dialect : DBMSType.values()) {
+            final String cached = translations.getIfPresent(cacheKey(digest, dialect));
+            if (cached != null) {
+                result.put(dialect, cached);
+            } else {
+                missing.add(dialect);
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        final String renderedSql = SqlRender.renderSql(statement, null, null);
+        final Map<DBMSType, CompletableFuture<String>> futures = new EnumMap<>(DBMSType.class);
+        missing.forEach(dialect -> futures.put(dialect,
+                CompletableFuture.supplyAsync(() -> SqlTranslate.translateSql(renderedSql, dialect.getOhdsiDB()), executor)));
+        try {
+            futures.forEach((dialect, future) -> {
+                final String sql = future.join();
+                translations.put(cacheKey(digest, dialect), sql);
+                result.put(dialect, sql);
+            });
+        } catch (CompletionException e) {
+            throw new ArachneSystemRuntimeException("Failed to translate sql", e.getCause());
+        }
+        return result;
+    }
+
+    private static String cacheKey(String digest, DBMSType dialect) {
+
+        return digest + ":" + dialect.name();
+    }
+}
@@ -25,6 +25,7 @@ package com.odysseusinc.arachne.portal.service.impl;
 import static java.util.Collections.singletonList;
 
 import com.odysseusinc.arachne.commons.utils.CommonFileUtils;
+import com.odysseusinc.arachne.portal.component.ZipArchiveFactory;
 import com.odysseusinc.arachne.portal.exception.IORuntimeException;
 import com.odysseusinc.arachne.portal.model.AbstractPaperFile;
 import com.odysseusinc.arachne.portal.model.AbstractStudyFile;
@@ -47,10 +48,9 @@ import java.nio.file.StandardCopyOption;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Stream;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipOutputStream;
 
 import com.odysseusinc.arachne.portal.util.FileUtils;
+import com.odysseusinc.arachne.portal.util.ZipArchiveBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -76,11 +76,14 @@ public class StudyFileServiceImpl implements StudyFileService {
     private String fileStorePath;
 
     private final RestTemplate restTemplate;
+    private final ZipArchiveFactory zipArchiveFactory;
 
     @Autowired
-    public StudyFileServiceImpl(@Qualifier("restTemplate") RestTemplate restTemplate) {
+    public StudyFileServiceImpl(@Qualifier("restTemplate") RestTemplate restTemplate,
+                                ZipArchiveFactory zipArchiveFactory) {
 
         this.restTemplate = restTemplate;
+        this.zipArchiveFactory = zipArchiveFactory;
     }
 
     @Override
@@ -168,17 +171,11 @@ public class StudyFileServiceImpl implements StudyFileService {
     @Override
     public void archiveFiles(OutputStream os, Path filePath, List<? extends AbstractStudyFile> files) throws IOException {
 
-        ZipOutputStream zos = new ZipOutputStream(os);
-        for (AbstractStudyFile studyFile : files) {
-            ZipEntry entry = new ZipEntry(studyFile.getRealName());
-            Path file = filePath.resolve(studyFile.getUuid());
-            entry.setSize(file.toFile().length());
-            zos.putNextEntry(entry);
-            zos.write(Files.readAllBytes(file));
-            zos.closeEntry();
+        try (ZipArchiveBuilder archive = zipArchiveFactory.newArchive(os)) {
+            for (AbstractStudyFile studyFile : files) {
+                archive.addEntry(studyFile.getRealName(), filePath.resolve(studyFile.getUuid()));
+            }
         }
-        zos.flush();
-        zos.close();
     }
 
     public Path getStudyFilePath(AbstractStudyFile studyFile) {
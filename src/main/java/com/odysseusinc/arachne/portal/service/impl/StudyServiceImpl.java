@@ -22,6 +22,7 @@
 
 package com.odysseusinc.arachne.portal.service.impl;
 
+import com.odysseusinc.arachne.portal.component.ParticipantRoleCache;
 import com.odysseusinc.arachne.portal.exception.AlreadyExistException;
 import com.odysseusinc.arachne.portal.exception.FieldException;
 import com.odysseusinc.arachne.portal.exception.NotExistException;
@@ -112,7 +113,8 @@ public class StudyServiceImpl extends BaseStudyServiceImpl<
                             final StudyStateMachine studyStateMachine,
                             final AddDataSourceStrategyFactory addDataSourceStrategyFactory,
                             final ApplicationEventPublisher eventPublisher,
-                            final SolrService solrService) {
+                            final SolrService solrService,
+                            final ParticipantRoleCache participantRoleCache) {
 
         super(userStudyExtendedRepository,
                 fileService,
@@ -139,7 +141,8 @@ public class StudyServiceImpl extends BaseStudyServiceImpl<
                 studyStateMachine,
                 addDataSourceStrategyFactory,
                 eventPublisher,
-                solrService);
+                solrService,
+                participantRoleCache);
     }
 
     @Override
@@ -22,6 +22,7 @@
 
 package com.odysseusinc.arachne.portal.service.impl;
 
+import com.odysseusinc.arachne.portal.component.ParticipantRoleCache;
 import com.odysseusinc.arachne.portal.model.IUser;
 import com.odysseusinc.arachne.portal.model.Skill;
 import com.odysseusinc.arachne.portal.repository.AnalysisUnlockRequestRepository;
@@ -42,6 +43,7 @@ import com.odysseusinc.arachne.portal.service.AuthenticationHelperService;
 import com.odysseusinc.arachne.portal.service.UserPublicationService;
 import com.odysseusinc.arachne.portal.service.UserRegistrantService;
 import com.odysseusinc.arachne.portal.service.UserService;
+import com.odysseusinc.arachne.portal.service.impl.solr.SolrFacetCache;
 import com.odysseusinc.arachne.portal.service.impl.solr.SolrField;
 import com.odysseusinc.arachne.portal.service.mail.ArachneMailSender;
 import org.springframework.context.MessageSource;
@@ -74,7 +76,9 @@ public class UserServiceImpl extends BaseUserServiceImpl<IUser, Skill, SolrField
                            UserLinkService userLinkService,
                            TenantService tenantService,
                            AuthenticationHelperService originUserService,
-                           BaseRawUserRepository rawUserRepository) {
+                           BaseRawUserRepository rawUserRepository,
+                           SolrFacetCache solrFacetCache,
+                           ParticipantRoleCache participantRoleCache) {
 
         super(stateProvinceRepository,
                 messageSource,
@@ -96,7 +100,9 @@ public class UserServiceImpl extends BaseUserServiceImpl<IUser, Skill, SolrField
                 userLinkService,
                 tenantService,
                 originUserService,
-                rawUserRepository
+                rawUserRepository,
+                solrFacetCache,
+                participantRoleCache
                 );
     }
 
@@ -22,14 +22,15 @@
 
 package com.odysseusinc.arachne.portal.service.impl.solr;
 
+import static com.odysseusinc.arachne.portal.api.v1.dto.converters.SearchDTOToSolrQuery.getFacetName;
+
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
-import java.util.stream.Collectors;
 import org.apache.solr.client.solrj.SolrQuery;
-import org.apache.solr.client.solrj.response.FacetField;
 import org.apache.solr.client.solrj.response.QueryResponse;
+import org.apache.solr.common.util.NamedList;
 
 public class SearchResult<T> {
 
@@ -85,19 +86,32 @@ public class SearchResult<T> {
         this.excludedOptions = excludedOptions;
     }
 
+    /**
+     * Options of the JSON facets which have no documents in the result, e.g. present only in other tenants.
+     */
+    @SuppressWarnings("unchecked")
     public Map<String, List<String>> excludedOptions() {
 
         Map<String, List<String>> excludedOptions = new HashMap<>();
-        Optional<List<FacetField>> facetFields = Optional.ofNullable(this.getSolrResponse().getFacetFields());
-        facetFields.ifPresent(fields -> {
-            fields.forEach(e -> {
-                List<String> emptyValues = e.getValues().stream()
-                        .filter(v -> v.getCount() == 0)
-                        .map(FacetField.Count::getName)
-                        .collect(Collectors.toList());
-                excludedOptions.put(e.getName(), emptyValues);
-            });
-        });
+        Object facets = this.getSolrResponse().getResponse().get("facets");
+        if (facets instanceof NamedList) {
+            for (Map.Entry<String, Object> facet : (NamedList<Object>) facets) {
+                if (!(facet.getValue() instanceof NamedList)) {
+                    continue;
+                }
+                List<NamedList<Object>> buckets = (List<NamedList<Object>>) ((NamedList<Object>) facet.getValue()).get("buckets");
+                if (buckets == null) {
+                    continue;
+                }
+                List<String> emptyValues = new ArrayList<>();
+                for (NamedList<Object> bucket : buckets) {
+                    if (((Number) bucket.get("count")).longValue() == 0) {
+                        emptyValues.add(bucket.get("val").toString());
+                    }
+                }
+                excludedOptions.put(getFacetName(facet.getKey()), emptyValues);
+            }
+        }
         return excludedOptions;
     }
 }
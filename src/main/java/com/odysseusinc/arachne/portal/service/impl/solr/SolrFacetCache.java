@@ -0,0 +1,91 @@
+/*
+ *
+ * Copyright 2021 Odysseus Data Services, inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Company: Odysseus Data Services, Inc.
+ * Product Owner/Architecture: Gregory Klebanov
+ * Authors: Yaroslav Molodkov, Alexandr Cumarav, Vitaliy Kulakov
+ * Created: September 20, 2021
+ *
+ */
+
+package com.odysseusinc.arachne.portal.service.impl.solr;
+
+import com.odysseusinc.arachne.portal.config.tenancy.TenantContext;
+import com.odysseusinc.arachne.portal.util.EvictingCache;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the facet options which are not available in a tenant, computed by the unfiltered "full facets" query.
+ * They change only with the index, so an entry is used until an update of its collection becomes visible to searches.
+ */
+@Component
+public class SolrFacetCache {
+
+    private final SolrIndexingQueue indexingQueue;
+    private final EvictingCache<String, Entry> excludedOptions;
+
+    public SolrFacetCache(SolrIndexingQueue indexingQueue,
+                          @Value("${solr.facetCache.ttlMinutes:10}") long ttlMinutes,
+                          @Value("${solr.facetCache.maxSize:1000}") long maxSize) {
+
+        this.indexingQueue = indexingQueue;
+        this.excludedOptions = new EvictingCache<>("Solr facet", maxSize, ttlMinutes, TimeUnit.MINUTES);
+    }
+
+    public Map<String, List<String>> getExcludedOptions(String collection, SolrQuery fullFacetsQuery, Loader loader)
+            throws IOException, SolrServerException, NoSuchFieldException {
+
+        final String key = TenantContext.getCurrentTenant() + ":" + collection + ":" + fullFacetsQuery.toQueryString();
+        final Entry cached = excludedOptions.getIfPresent(key);
+        if (cached != null && cached.computedAt > indexingQueue.getChangesVisibleAt(collection)) {
+            return cached.options;
+        }
+        final long computedAt = System.currentTimeMillis();
+        final Map<String, List<String>> options = Collections.unmodifiableMap(loader.load());
+        excludedOptions.put(key, new Entry(computedAt, options));
+        return options;
+    }
+
+    public void evictAll() {
+
+        excludedOptions.evictAll();
+    }
+
+    @FunctionalInterface
+    public interface Loader {
+
+        Map<String, List<String>> load() throws IOException, SolrServerException, NoSuchFieldException;
+    }
+
+    private static class Entry {
+
+        private final long computedAt;
+        private final Map<String, List<String>> options;
+
+        private Entry(long computedAt, Map<String, List<String>> options) {
+
+            this.computedAt = computedAt;
+            this.options = options;
+        }
+    }
+}
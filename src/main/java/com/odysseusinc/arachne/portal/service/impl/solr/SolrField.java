@@ -25,6 +25,9 @@ package com.odysseusinc.arachne.portal.service.impl.solr;
 import static com.odysseusinc.arachne.portal.service.impl.BaseSolrServiceImpl.MULTI_METADATA_PREFIX;
 
 import com.odysseusinc.arachne.portal.api.v1.dto.converters.SolrFieldExtractor;
+import com.odysseusinc.arachne.portal.model.solr.SolrEntity;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Field;
 import java.util.List;
 import java.util.Objects;
@@ -44,6 +47,7 @@ public class SolrField {
     private Class dataType;
 
     private Field field;
+    private MethodHandle getter;
     private SolrFieldExtractor extractor = null;
 
     private Boolean isSearchable = Boolean.TRUE;
@@ -185,6 +189,33 @@ public class SolrField {
     public void setField(final Field field) {
 
         this.field = field;
+        this.getter = null;
+        if (field != null) {
+            field.setAccessible(true);
+            try {
+                this.getter = MethodHandles.lookup().unreflectGetter(field);
+            } catch (final IllegalAccessException e) {
+                throw new SolrException("Cannot access field " + field.getName(), e);
+            }
+        }
+    }
+
+    /**
+     * Reads the value of the field from the entity, with the extractor if there is one.
+     */
+    public Object getValue(final SolrEntity entity) {
+
+        if (extractor != null) {
+            return extractor.extract(entity);
+        }
+        if (getter == null) {
+            throw new NullPointerException("FieldValue cannot be null");
+        }
+        try {
+            return getter.invoke(entity);
+        } catch (final Throwable e) {
+            throw new SolrException("Cannot read field " + field.getName(), e);
+        }
     }
 
     public SolrFieldExtractor getExtractor() {
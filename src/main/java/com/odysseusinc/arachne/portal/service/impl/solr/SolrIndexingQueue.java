@@ -0,0 +1,402 @@
+/*
+ *
+ * Copyright 2021 Odysseus Data Services, inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Company: Odysseus Data Services, Inc.
+ * Product Owner/Architecture: Gregory Klebanov
+ * Authors: Yaroslav Molodkov, Alexandr Cumarav, Vitaliy Kulakov
+ * Created: July 05, 2021
+ *
+ */
+
+package com.odysseusinc.arachne.portal.service.impl.solr;
+
+import com.odysseusinc.arachne.portal.config.properties.SolrIndexingProperties;
+import com.odysseusinc.arachne.portal.model.solr.SolrEntity;
+import com.odysseusinc.arachne.portal.service.BaseSolrService;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.response.UpdateResponse;
+import org.apache.solr.common.SolrInputDocument;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Collects Solr updates and sends them in batches from a background worker.
+ * Updates of the same document are coalesced, so only the latest state is sent.
+ * Changes become visible by commitWithin instead of explicit hard commits.
+ */
+@Component
+public class SolrIndexingQueue {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SolrIndexingQueue.class);
+    private static final String DELETE_ALL_QUERY = "*:*";
+
+    private final SolrClient solrClient;
+    private final SolrIndexingProperties properties;
+    private final int batchSize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final Condition drained = lock.newCondition();
+    private final LinkedHashMap<String, SolrUpdate> pending = new LinkedHashMap<>();
+    private final Map<String, Long> lastSent = new ConcurrentHashMap<>();
+    private final Map<String, Long> dropped = new ConcurrentHashMap<>();
+    private int inFlight = 0;
+    private boolean flushRequested = false;
+
+    private volatile boolean running = false;
+    private Thread worker;
+
+    public SolrIndexingQueue(SolrClient solrClient,
+                             SolrIndexingProperties properties,
+                             @Value("${arachne.solrBatchSize}") int batchSize) {
+
+        this.solrClient = solrClient;
+        this.properties = properties;
+        this.batchSize = batchSize;
+    }
+
+    @PostConstruct
+    public void start() {
+
+        if (!properties.isAsync()) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::processQueue, "solr-indexing");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+
+        if (!running) {
+            return;
+        }
+        LOGGER.info("Flushing {} pending Solr updates before shutdown", size());
+        lock.lock();
+        try {
+            running = false;
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        worker.join(properties.getShutdownTimeoutMs());
+        if (worker.isAlive()) {
+            LOGGER.warn("Solr indexing worker did not finish in {} ms, {} updates are lost",
+                    properties.getShutdownTimeoutMs(), size());
+        }
+    }
+
+    public void add(String collection, SolrInputDocument document) {
+
+        // the same id as the one Solr composes from the entity id and the type
+        final String id = document.getFieldValue(BaseSolrService.ID) + SolrEntity.ID_DELIMITER + collection;
+        enqueue(SolrUpdate.add(collection, id, document));
+    }
+
+    public void add(String collection, Collection<SolrInputDocument> documents) {
+
+        documents.forEach(document -> add(collection, document));
+    }
+
+    /**
+     * @param id the Solr id of the document, see {@link SolrEntity#getSolrId()}
+     */
+    public void deleteById(String collection, String id) {
+
+        enqueue(SolrUpdate.deleteById(collection, id));
+    }
+
+    public void deleteByQuery(String collection, String query) {
+
+        enqueue(SolrUpdate.deleteByQuery(collection, query));
+    }
+
+    /**
+     * Blocks until all updates queued so far have been sent to Solr.
+     */
+    public void flush() throws InterruptedException {
+
+        lock.lock();
+        try {
+            while (running && (!pending.isEmpty() || inFlight > 0)) {
+                flushRequested = true;
+                notEmpty.signalAll();
+                drained.await();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Number of updates of the collection dropped after all attempts failed, since the start.
+     * Callers compare it before and after {@link #flush()} to find out whether their updates reached Solr.
+     */
+    public long getDroppedCount(String collection) {
+
+        return dropped.getOrDefault(collection, 0L);
+    }
+
+    /**
+     * Time by which the latest update sent to the collection is visible to searches.
+     */
+    public long getChangesVisibleAt(String collection) {
+
+        return lastSent.getOrDefault(collection, 0L) + properties.getCommitWithinMs();
+    }
+
+    public int size() {
+
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void enqueue(SolrUpdate update) {
+
+        if (!running) {
+            try {
+                send(update.collection, update.type, Collections.singletonList(update));
+            } catch (IOException | SolrServerException e) {
+                throw new SolrException("Cannot update Solr collection " + update.collection, e);
+            }
+            return;
+        }
+        lock.lock();
+        try {
+            long nanos = TimeUnit.MILLISECONDS.toNanos(properties.getOfferTimeoutMs());
+            while (running && !pending.containsKey(update.key) && pending.size() >= properties.getQueueCapacity()) {
+                if (nanos <= 0) {
+                    throw new SolrException("Solr indexing queue is full, update of " + update.key + " is rejected");
+                }
+                nanos = notFull.awaitNanos(nanos);
+            }
+            if (update.type == UpdateType.DELETE_BY_QUERY && DELETE_ALL_QUERY.equals(update.query)) {
+                // everything queued earlier for the collection would be wiped out anyway
+                pending.values().removeIf(u -> u.collection.equals(update.collection));
+            }
+            // re-insert to keep the latest update after any delete queued in between
+            pending.remove(update.key);
+            pending.put(update.key, update);
+            notEmpty.signal();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SolrException("Interrupted while queueing Solr update", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void processQueue() {
+
+        List<SolrUpdate> batch;
+        while (!(batch = takeBatch()).isEmpty()) {
+            try {
+                sendBatch(batch);
+            } finally {
+                lock.lock();
+                try {
+                    inFlight = 0;
+                    if (pending.isEmpty()) {
+                        flushRequested = false;
+                        drained.signalAll();
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+        lock.lock();
+        try {
+            drained.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private List<SolrUpdate> takeBatch() {
+
+        lock.lock();
+        try {
+            while (running && pending.isEmpty()) {
+                notEmpty.await();
+            }
+            // let a burst of updates accumulate into one request
+            long nanos = TimeUnit.MILLISECONDS.toNanos(properties.getFlushIntervalMs());
+            while (running && !flushRequested && pending.size() < batchSize && nanos > 0) {
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            final List<SolrUpdate> batch = new ArrayList<>(Math.min(batchSize, pending.size()));
+            final Iterator<SolrUpdate> iterator = pending.values().iterator();
+            while (iterator.hasNext() && batch.size() < batchSize) {
+                batch.add(iterator.next());
+                iterator.remove();
+            }
+            inFlight = batch.size();
+            notFull.signalAll();
+            return batch;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+            return new ArrayList<>();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void sendBatch(List<SolrUpdate> batch) {
+
+        // consecutive updates of the same kind go to Solr in a single request, order is preserved
+        List<SolrUpdate> group = new ArrayList<>();
+        for (final SolrUpdate update : batch) {
+            if (!group.isEmpty()) {
+                final SolrUpdate head = group.get(0);
+                if (head.type != update.type || !head.collection.equals(update.collection)
+                        || update.type == UpdateType.DELETE_BY_QUERY) {
+                    sendWithRetry(head.collection, head.type, group);
+                    group = new ArrayList<>();
+                }
+            }
+            group.add(update);
+        }
+        if (!group.isEmpty()) {
+            sendWithRetry(group.get(0).collection, group.get(0).type, group);
+        }
+    }
+
+    private void sendWithRetry(String collection, UpdateType type, List<SolrUpdate> updates) {
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                send(collection, type, updates);
+                return;
+            } catch (IOException | SolrServerException | RuntimeException e) {
+                if (attempt >= properties.getMaxAttempts()) {
+                    LOGGER.error("Cannot apply {} {} updates to Solr collection {}, dropping them",
+                            updates.size(), type, collection, e);
+                    dropped.merge(collection, (long) updates.size(), Long::sum);
+                    return;
+                }
+                LOGGER.warn("Attempt {} to update Solr collection {} failed: {}", attempt, collection, e.getMessage());
+                try {
+                    Thread.sleep(properties.getFlushIntervalMs() * attempt);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    dropped.merge(collection, (long) updates.size(), Long::sum);
+                    return;
+                }
+            }
+        }
+    }
+
+    private void send(String collection, UpdateType type, List<SolrUpdate> updates)
+            throws IOException, SolrServerException {
+
+        final int commitWithin = properties.getCommitWithinMs();
+        final UpdateResponse response;
+        try {
+            switch (type) {
+                case ADD:
+                    final List<SolrInputDocument> documents = new ArrayList<>(updates.size());
+                    updates.forEach(u -> documents.add(u.document));
+                    response = solrClient.add(collection, documents, commitWithin);
+                    break;
+                case DELETE_BY_ID:
+                    final List<String> ids = new ArrayList<>(updates.size());
+                    updates.forEach(u -> ids.add(u.id));
+                    response = solrClient.deleteById(collection, ids, commitWithin);
+                    break;
+                default:
+                    response = solrClient.deleteByQuery(collection, updates.get(0).query, commitWithin);
+            }
+        } finally {
+            // a failed request may still have been applied partially
+            lastSent.put(collection, System.currentTimeMillis());
+        }
+        if (response.getStatus() != 0) {
+            throw new SolrServerException("Cannot index by Solr, status: " + response.getStatus());
+        }
+    }
+
+    private enum UpdateType {
+        ADD, DELETE_BY_ID, DELETE_BY_QUERY
+    }
+
+    private static class SolrUpdate {
+
+        private final UpdateType type;
+        private final String collection;
+        private final String id;
+        private final String key;
+        private final SolrInputDocument document;
+        private final String query;
+
+        private SolrUpdate(UpdateType type, String collection, String id, SolrInputDocument document, String query) {
+
+            this.type = type;
+            this.collection = Objects.requireNonNull(collection);
+            this.id = id;
+            // adds and deletes of one document share the key, so only the latest of them is sent
+            this.key = id != null ? key(collection, id) : key(collection, "?" + query);
+            this.document = document;
+            this.query = query;
+        }
+
+        private static String key(String collection, String id) {
+
+            return collection + "/" + id;
+        }
+
+        static SolrUpdate add(String collection, String id, SolrInputDocument document) {
+
+            return new SolrUpdate(UpdateType.ADD, collection, id, document, null);
+        }
+
+        static SolrUpdate deleteById(String collection, String id) {
+
+            return new SolrUpdate(UpdateType.DELETE_BY_ID, collection, id, null, null);
+        }
+
+        static SolrUpdate deleteByQuery(String collection, String query) {
+
+            return new SolrUpdate(UpdateType.DELETE_BY_QUERY, collection, null, null, query);
+        }
+    }
+}
@@ -22,23 +22,26 @@
 
 package com.odysseusinc.arachne.portal.service.mail;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.odysseusinc.arachne.portal.model.MailOutboxEntry;
+import com.odysseusinc.arachne.portal.model.MailOutboxStatus;
 import net.htmlparser.jericho.Source;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.thymeleaf.TemplateEngine;
 import org.thymeleaf.context.Context;
 
-import javax.mail.internet.MimeMessage;
-import java.io.File;
-import java.net.URL;
+import java.util.Date;
 import java.util.Map;
 
+/**
+ * Renders e-mails in the calling thread and queues them into the outbox after the commit of the calling transaction,
+ * {@link MailOutboxSender} delivers them. Failures are logged and never reach the caller.
+ */
 @Service
 public class ArachneMailSenderImpl implements ArachneMailSender {
     private static final Logger LOG = LoggerFactory.getLogger(ArachneMailSenderImpl.class);
@@ -50,10 +53,8 @@ public class ArachneMailSenderImpl implements ArachneMailSender {
     @Autowired
     private TemplateEngine templateEngine;
 
-    private JavaMailSender mailSender;
-
-    @Value("${arachne.mail.notifier}")
-    private String from;
+    private final MailOutboxDispatcher mailOutboxDispatcher;
+    private final Cache<String, Boolean> textTemplates = CacheBuilder.newBuilder().maximumSize(100).build();
 
     @Value("${arachne.mail.signature}")
     private String signature;
@@ -62,15 +63,15 @@ public class ArachneMailSenderImpl implements ArachneMailSender {
     private String appTitle;
 
     @Autowired
-    public ArachneMailSenderImpl(JavaMailSender mailSender) {
+    public ArachneMailSenderImpl(MailOutboxDispatcher mailOutboxDispatcher) {
 
-        this.mailSender = mailSender;
+        this.mailOutboxDispatcher = mailOutboxDispatcher;
     }
 
-    @Async
     @Override
     public void asyncSend(ArachneMailMessage mailMessage) {
 
+        // queueing is cheap, the delivery itself happens in the outbox senders
         send(mailMessage);
     }
 
@@ -86,29 +87,38 @@ public class ArachneMailSenderImpl implements ArachneMailSender {
     @Override
     public void send(ArachneMailMessage mailMessage) {
 
+        final MailOutboxEntry entry;
         try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper;
-            helper = new MimeMessageHelper(message, true);
-            helper.setSubject(mailMessage.getSubject().replaceAll("\\$\\{app-title\\}", appTitle));
-            helper.setFrom(from, mailMessage.getFromPersonal().replaceAll("\\$\\{app-title\\}", appTitle));
-            helper.setTo(mailMessage.getUser().getEmail());
-            URL templateUrl = this.getClass().getResource(PATH_TO_TEMPLATES + mailMessage.getTemplate() + NAME + EXTENSION);
-            String htmlString = buildContent(mailMessage.getTemplate(), mailMessage.getParameters());
-            if (templateUrl != null) {
-                File textTemplate = new File(templateUrl.getPath());
-                if (!textTemplate.isDirectory()) {
-                    helper.setText(buildContent(mailMessage.getTemplate() + NAME, mailMessage.getParameters()), htmlString);
-                }
+            final String template = mailMessage.getTemplate();
+            final String htmlString = buildContent(template, mailMessage.getParameters());
+            final String textString;
+            if (hasTextTemplate(template)) {
+                textString = buildContent(template + NAME, mailMessage.getParameters());
             } else {
-                Source source = new Source(htmlString);
-                String textString = source.getRenderer().toString();
-                helper.setText(textString, htmlString);
+                textString = new Source(htmlString).getRenderer().toString();
             }
-            mailSender.send(message);
-
+            final Date now = new Date();
+            entry = new MailOutboxEntry();
+            entry.setRecipient(mailMessage.getUser().getEmail());
+            entry.setFromPersonal(mailMessage.getFromPersonal().replaceAll("\\$\\{app-title\\}", appTitle));
+            entry.setSubject(mailMessage.getSubject().replaceAll("\\$\\{app-title\\}", appTitle));
+            entry.setHtmlBody(htmlString);
+            entry.setTextBody(textString);
+            entry.setStatus(MailOutboxStatus.PENDING);
+            entry.setAttempts(0);
+            entry.setCreatedAt(now);
+            entry.setNextAttemptAt(now);
         } catch (Exception e) {
             LOG.error(e.getMessage(), e);
+            return;
         }
+        // a failure to store the e-mail fails the transaction of the caller, so that the e-mail is not lost silently
+        mailOutboxDispatcher.queue(entry);
+    }
+
+    private boolean hasTextTemplate(String template) throws Exception {
+
+        return textTemplates.get(template,
+                () -> getClass().getResource(PATH_TO_TEMPLATES + template + NAME + EXTENSION) != null);
     }
 }
@@ -0,0 +1,120 @@
+/*
+ *
+ * Copyright 2021 Odysseus Data Services, inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Company: Odysseus Data Services, Inc.
+ * Product Owner/Architecture: Gregory Klebanov
+ * Authors: Yaroslav Molodkov, Alexandr Cumarav, Vitaliy Kulakov
+ * Created: October 25, 2021
+ *
+ */
+
+package com.odysseusinc.arachne.portal.service.mail;
+
+import com.odysseusinc.arachne.portal.config.properties.MailOutboxProperties;
+import com.odysseusinc.arachne.portal.model.MailOutboxEntry;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Runs outbox senders on the mail outbox pool. A sender keeps taking batches while the outbox is full,
+ * and starts one more sender for every full batch, up to the pool size.
+ */
+@Component
+public class MailOutboxDispatcher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MailOutboxDispatcher.class);
+
+    private final MailOutboxSender mailOutboxSender;
+    private final MailOutboxStore mailOutboxStore;
+    private final ThreadPoolTaskExecutor executor;
+    private final MailOutboxProperties properties;
+    private final AtomicInteger activeSenders = new AtomicInteger();
+
+    public MailOutboxDispatcher(MailOutboxSender mailOutboxSender,
+                                MailOutboxStore mailOutboxStore,
+                                @Qualifier("mailOutboxExecutor") ThreadPoolTaskExecutor executor,
+                                MailOutboxProperties properties) {
+
+        this.mailOutboxSender = mailOutboxSender;
+        this.mailOutboxStore = mailOutboxStore;
+        this.executor = executor;
+        this.properties = properties;
+    }
+
+    /**
+     * Stores the e-mail in the current transaction, so that it is sent once that transaction commits
+     * and never for a rolled back one. Senders are woken up after the commit; if that does not happen,
+     * the outbox poll picks the e-mail up.
+     */
+    public void queue(MailOutboxEntry entry) {
+
+        mailOutboxStore.queue(entry);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+
+                    wakeUp();
+                }
+            });
+        } else {
+            wakeUp();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${mail.outbox.pollIntervalMs:5000}")
+    public void wakeUp() {
+
+        final int active = activeSenders.get();
+        if (active < executor.getCorePoolSize() && activeSenders.compareAndSet(active, active + 1)) {
+            try {
+                executor.execute(this::sendWhileFull);
+            } catch (TaskRejectedException e) {
+                // the outbox is polled again anyway, so a sender which does not fit is simply not started
+                activeSenders.decrementAndGet();
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${mail.outbox.purgeIntervalMs:3600000}")
+    public void purge() {
+
+        final int purged = mailOutboxSender.purge();
+        if (purged > 0) {
+            LOGGER.info("Removed {} sent and failed e-mails from the outbox", purged);
+        }
+    }
+
+    private void sendWhileFull() {
+
+        try {
+            while (mailOutboxSender.sendDueBatch() >= properties.getBatchSize()) {
+                wakeUp();
+            }
+        } catch (RuntimeException e) {
+            LOGGER.error("Cannot send e-mails from the outbox", e);
+        } finally {
+            activeSenders.decrementAndGet();
+        }
+    }
+}
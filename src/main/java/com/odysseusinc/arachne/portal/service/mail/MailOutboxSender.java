@@ -0,0 +1,195 @@
+/*
+ *
+ * Copyright 2021 Odysseus Data Services, inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Company: Odysseus Data Services, Inc.
+ * Product Owner/Architecture: Gregory Klebanov
+ * Authors: Yaroslav Molodkov, Alexandr Cumarav, Vitaliy Kulakov
+ * Created: October 25, 2021
+ *
+ */
+
+package com.odysseusinc.arachne.portal.service.mail;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.odysseusinc.arachne.portal.config.properties.MailOutboxProperties;
+import com.odysseusinc.arachne.portal.model.MailOutboxEntry;
+import com.odysseusinc.arachne.portal.model.MailOutboxStatus;
+import java.io.UnsupportedEncodingException;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.mail.MessagingException;
+import javax.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Service;
+
+/**
+ * Delivers due e-mails of the outbox in batches, every batch goes through a single SMTP connection.
+ * Failed e-mails are retried with an exponential backoff, e-mails over the per-recipient limit are postponed.
+ * The outbox rows are claimed and updated in short transactions, no transaction is open while talking to SMTP.
+ * Bodies of sent and given up e-mails are removed, they may contain links such as password reset ones.
+ */
+@Service
+public class MailOutboxSender {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MailOutboxSender.class);
+
+    private final MailOutboxStore mailOutboxStore;
+    private final JavaMailSender mailSender;
+    private final MailOutboxProperties properties;
+    private final String from;
+    private final Cache<String, AtomicInteger> recipientCounters;
+
+    public MailOutboxSender(MailOutboxStore mailOutboxStore,
+                            JavaMailSender mailSender,
+                            MailOutboxProperties properties,
+                            @Value("${arachne.mail.notifier}") String from) {
+
+        this.mailOutboxStore = mailOutboxStore;
+        this.mailSender = mailSender;
+        this.properties = properties;
+        this.from = from;
+        // counters are created with the first e-mail of a window and dropped when the window ends
+        this.recipientCounters = CacheBuilder.newBuilder()
+                .expireAfterWrite(properties.getRecipientWindowMs(), TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    /**
+     * @return number of due e-mails taken from the outbox, less than the batch size when no more are due
+     */
+    public int sendDueBatch() {
+
+        final List<MailOutboxEntry> due = mailOutboxStore.claimDue(properties.getBatchSize(),
+                properties.getClaimTimeoutMs());
+        if (due.isEmpty()) {
+            return 0;
+        }
+        final Date now = new Date();
+        final Map<MimeMessage, MailOutboxEntry> messages = new LinkedHashMap<>();
+        for (final MailOutboxEntry entry : due) {
+            if (!acquireRecipientSlot(entry.getRecipient())) {
+                entry.setNextAttemptAt(new Date(now.getTime() + properties.getRecipientWindowMs()));
+                continue;
+            }
+            try {
+                messages.put(toMimeMessage(entry), entry);
+            } catch (MessagingException | UnsupportedEncodingException e) {
+                fail(entry, e, now);
+            }
+        }
+        if (!messages.isEmpty()) {
+            deliver(messages, now);
+        }
+        mailOutboxStore.complete(due);
+        return due.size();
+    }
+
+    public int purge() {
+
+        final Date before = new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(properties.getRetentionDays()));
+        return mailOutboxStore.purge(before);
+    }
+
+    private void deliver(Map<MimeMessage, MailOutboxEntry> messages, Date now) {
+
+        Map<Object, Exception> failed = Collections.emptyMap();
+        try {
+            mailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            // lists the messages which were not accepted, empty when only closing the connection failed
+            failed = e.getFailedMessages();
+        } catch (MailException e) {
+            failed = new HashMap<>();
+            for (final MimeMessage message : messages.keySet()) {
+                failed.put(message, e);
+            }
+        }
+        for (final Map.Entry<MimeMessage, MailOutboxEntry> message : messages.entrySet()) {
+            final MailOutboxEntry entry = message.getValue();
+            final Exception error = failed.get(message.getKey());
+            if (error == null) {
+                entry.setAttempts(entry.getAttempts() + 1);
+                entry.setStatus(MailOutboxStatus.SENT);
+                entry.setSentAt(now);
+                entry.setLastError(null);
+                removeBody(entry);
+            } else {
+                fail(entry, error, now);
+            }
+        }
+        LOGGER.debug("Sent {} of {} e-mails", messages.size() - failed.size(), messages.size());
+    }
+
+    private void fail(MailOutboxEntry entry, Exception error, Date now) {
+
+        final int attempts = entry.getAttempts() + 1;
+        entry.setAttempts(attempts);
+        entry.setLastError(error.getMessage());
+        if (attempts >= properties.getMaxAttempts()) {
+            entry.setStatus(MailOutboxStatus.FAILED);
+            removeBody(entry);
+            LOGGER.error("Cannot send e-mail {} to {}, giving up after {} attempts",
+                    entry.getId(), entry.getRecipient(), attempts, error);
+            return;
+        }
+        final long backoff = Math.min(properties.getInitialBackoffMs() << Math.min(attempts - 1, 30),
+                properties.getMaxBackoffMs());
+        entry.setNextAttemptAt(new Date(now.getTime() + backoff));
+        LOGGER.warn("Attempt {} to send e-mail {} to {} failed, retrying in {} ms: {}",
+                attempts, entry.getId(), entry.getRecipient(), backoff, error.getMessage());
+    }
+
+    private void removeBody(MailOutboxEntry entry) {
+
+        entry.setHtmlBody("");
+        entry.setTextBody("");
+    }
+
+    private boolean acquireRecipientSlot(String recipient) {
+
+        try {
+            return recipientCounters.get(recipient.toLowerCase(Locale.ROOT), AtomicInteger::new)
+                    .incrementAndGet() <= properties.getRecipientLimit();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private MimeMessage toMimeMessage(MailOutboxEntry entry) throws MessagingException, UnsupportedEncodingException {
+
+        final MimeMessage message = mailSender.createMimeMessage();
+        final MimeMessageHelper helper = new MimeMessageHelper(message, true);
+        helper.setSubject(entry.getSubject());
+        helper.setFrom(from, entry.getFromPersonal());
+        helper.setTo(entry.getRecipient());
+        helper.setText(entry.getTextBody(), entry.getHtmlBody());
+        return message;
+    }
+}
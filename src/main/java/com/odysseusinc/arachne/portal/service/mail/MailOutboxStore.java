@@ -0,0 +1,83 @@
+/*
+ *
+ * Copyright 2021 Odysseus Data Services, inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Company: Odysseus Data Services, Inc.
+ * Product Owner/Architecture: Gregory Klebanov
+ * Authors: Yaroslav Molodkov, Alexandr Cumarav, Vitaliy Kulakov
+ * Created: November 09, 2021
+ *
+ */
+
+package com.odysseusinc.arachne.portal.service.mail;
+
+import com.odysseusinc.arachne.portal.model.MailOutboxEntry;
+import com.odysseusinc.arachne.portal.model.MailOutboxStatus;
+import com.odysseusinc.arachne.portal.repository.MailOutboxRepository;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Transactions around the outbox table. E-mails are queued within the transactions of the callers,
+ * while the SMTP delivery holds outbox rows or a connection no longer than a single statement batch.
+ */
+@Service
+public class MailOutboxStore {
+
+    private final MailOutboxRepository mailOutboxRepository;
+
+    public MailOutboxStore(MailOutboxRepository mailOutboxRepository) {
+
+        this.mailOutboxRepository = mailOutboxRepository;
+    }
+
+    /**
+     * Stores the e-mail in the transaction of the caller, which commits or rolls it back together with its changes.
+     */
+    @Transactional
+    public MailOutboxEntry queue(MailOutboxEntry entry) {
+
+        return mailOutboxRepository.save(entry);
+    }
+
+    /**
+     * Takes due e-mails and postpones them by the claim timeout, so that other senders skip them
+     * while they are delivered. An e-mail of a sender which died is taken again once the timeout is over.
+     */
+    @Transactional
+    public List<MailOutboxEntry> claimDue(int limit, long claimTimeoutMs) {
+
+        final List<MailOutboxEntry> due = mailOutboxRepository.lockDue(limit);
+        final Date claimedUntil = new Date(System.currentTimeMillis() + claimTimeoutMs);
+        due.forEach(entry -> entry.setNextAttemptAt(claimedUntil));
+        return due;
+    }
+
+    @Transactional
+    public void complete(Collection<MailOutboxEntry> entries) {
+
+        mailOutboxRepository.saveAll(entries);
+    }
+
+    @Transactional
+    public int purge(Date createdBefore) {
+
+        return mailOutboxRepository.deleteByStatusInCreatedBefore(
+                Arrays.asList(MailOutboxStatus.SENT, MailOutboxStatus.FAILED), createdBefore);
+    }
+}
@@ -27,10 +27,13 @@ import com.odysseusinc.arachne.commons.api.v1.dto.CommonEntityDTO;
 import com.odysseusinc.arachne.commons.api.v1.dto.CommonListEntityRequest;
 import com.odysseusinc.arachne.portal.model.DataNode;
 import java.util.List;
-import javax.jms.JMSException;
+import java.util.concurrent.CompletableFuture;
 
 public interface BaseDataNodeMessageService<DN extends DataNode> {
-    <T extends CommonEntityDTO> List<T> getDataList(DN dataNode, CommonAnalysisType analysisType) throws JMSException;
+    <T extends CommonEntityDTO> CompletableFuture<List<T>> getDataList(DN dataNode, CommonAnalysisType analysisType);
 
-    CommonListEntityRequest getListRequest(DN dataNode) throws JMSException;
+    /**
+     * Returns pending list requests of the DataNode, waiting up to waitMs for new ones when there are none.
+     */
+    CompletableFuture<CommonListEntityRequest> getListRequest(DN dataNode, long waitMs);
 }
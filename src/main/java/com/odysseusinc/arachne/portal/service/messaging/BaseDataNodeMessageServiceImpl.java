@@ -27,8 +27,6 @@ import static com.odysseusinc.arachne.commons.service.messaging.MessagingUtils.g
 import com.odysseusinc.arachne.commons.api.v1.dto.CommonAnalysisType;
 import com.odysseusinc.arachne.commons.api.v1.dto.CommonEntityDTO;
 import com.odysseusinc.arachne.commons.api.v1.dto.CommonListEntityRequest;
-import com.odysseusinc.arachne.commons.service.messaging.ConsumerTemplate;
-import com.odysseusinc.arachne.commons.service.messaging.ProducerConsumerTemplate;
 import com.odysseusinc.arachne.portal.model.DataNode;
 import com.odysseusinc.arachne.commons.api.v1.dto.CommonEntityRequestObject;
 import com.odysseusinc.arachne.portal.model.IAtlas;
@@ -36,85 +34,65 @@ import com.odysseusinc.arachne.portal.service.AtlasService;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import javax.jms.JMSException;
 import javax.jms.ObjectMessage;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.jms.core.JmsTemplate;
-import org.springframework.jms.support.destination.DestinationResolver;
+import org.springframework.jms.support.JmsUtils;
 import org.springframework.security.access.prepost.PreAuthorize;
 
 public abstract class BaseDataNodeMessageServiceImpl<DN extends DataNode> implements BaseDataNodeMessageService<DN> {
 
-    private final JmsTemplate jmsTemplate;
-    private final DestinationResolver destinationResolver;
+    private final DataNodeMessageExchange messageExchange;
     private final AtlasService atlasService;
 
     @Value("${datanode.messaging.importTimeout}")
     private Long messagingTimeout;
 
-    public BaseDataNodeMessageServiceImpl(JmsTemplate jmsTemplate, AtlasService atlasService) {
+    public BaseDataNodeMessageServiceImpl(DataNodeMessageExchange messageExchange, AtlasService atlasService) {
 
-        this.jmsTemplate = jmsTemplate;
-        this.destinationResolver = jmsTemplate.getDestinationResolver();
+        this.messageExchange = messageExchange;
         this.atlasService = atlasService;
     }
 
     @Override
     @PreAuthorize("hasPermission(#dataNode, "
             + "T(com.odysseusinc.arachne.portal.security.ArachnePermission).IMPORT_FROM_DATANODE)")
-    public <T extends CommonEntityDTO> List<T> getDataList(DN dataNode, CommonAnalysisType analysisType) throws JMSException {
-
-        Long waitForResponse = messagingTimeout;
-        Long messageLifeTime = messagingTimeout;
+    public <T extends CommonEntityDTO> CompletableFuture<List<T>> getDataList(DN dataNode, CommonAnalysisType analysisType) {
 
         // Get all Atlases available in user's tenant
         List<IAtlas> atlasList = atlasService.findAll().stream()
                 .filter(a -> a.getVersion() != null)
                 .collect(Collectors.toList());
         String baseQueue = MessagingUtils.EntitiesList.getBaseQueue(dataNode);
+        Map<Long, IAtlas> atlasMap = atlasList.stream().collect(Collectors.toMap(IAtlas::getId, a -> a));
 
-        ProducerConsumerTemplate exchangeTpl = new ProducerConsumerTemplate(
-                destinationResolver,
-                new CommonEntityRequestObject(atlasList.stream().map(IAtlas::getId).collect(Collectors.toList()), analysisType),
+        CompletableFuture<List<T>> response = messageExchange.sendAndReceive(
                 baseQueue,
-                waitForResponse,
-                messageLifeTime
-        );
-
-        ObjectMessage responseMessage = jmsTemplate.execute(
-                exchangeTpl,
-                true
+                new CommonEntityRequestObject(atlasList.stream().map(IAtlas::getId).collect(Collectors.toList()), analysisType),
+                messagingTimeout
         );
-
-        List<T> entityList = (List<T>) responseMessage.getObject();
-        Map<Long, IAtlas> atlasMap = atlasList.stream().collect(Collectors.toMap(IAtlas::getId, a -> a));
-        entityList.forEach(e -> e.setName(atlasMap.get(e.getOriginId()).getName() + ": " + e.getName()));
-
-        return entityList;
+        return response.thenApply(entityList -> {
+            entityList.forEach(e -> e.setName(atlasMap.get(e.getOriginId()).getName() + ": " + e.getName()));
+            return entityList;
+        });
     }
 
     @Override
-    public CommonListEntityRequest getListRequest(DN dataNode) throws JMSException {
-
-        Map<String, CommonEntityRequestObject> requestMap = new LinkedHashMap<>();
+    public CompletableFuture<CommonListEntityRequest> getListRequest(DN dataNode, long waitMs) {
 
         String requestQueue = getRequestQueueName(MessagingUtils.EntitiesList.getBaseQueue(dataNode));
-
-        ConsumerTemplate consumerTpl = new ConsumerTemplate(
-                destinationResolver,
-                requestQueue,
-                // Give some time for case when new connection to a broker is established
-                1000L
-        );
-
-        while (true) {
-            ObjectMessage requestMessage = jmsTemplate.execute(consumerTpl, true);
-            if (requestMessage == null) {
-                break;
+        return messageExchange.awaitAll(requestQueue, waitMs).thenApply(requestMessages -> {
+            Map<String, CommonEntityRequestObject> requestMap = new LinkedHashMap<>();
+            try {
+                for (ObjectMessage requestMessage : requestMessages) {
+                    requestMap.put(requestMessage.getJMSCorrelationID(), (CommonEntityRequestObject) requestMessage.getObject());
+                }
+            } catch (JMSException ex) {
+                throw JmsUtils.convertJmsAccessException(ex);
             }
-            requestMap.put(requestMessage.getJMSCorrelationID(), (CommonEntityRequestObject) requestMessage.getObject());
-        }
-        return new CommonListEntityRequest(requestMap);
+            return new CommonListEntityRequest(requestMap);
+        });
     }
 }
@@ -0,0 +1,467 @@
+/*
+ *
+ * Copyright 2021 Odysseus Data Services, inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Company: Odysseus Data Services, Inc.
+ * Product Owner/Architecture: Gregory Klebanov
+ * Authors: Yaroslav Molodkov, Alexandr Cumarav, Vitaliy Kulakov
+ * Created: August 02, 2021
+ *
+ */
+
+package com.odysseusinc.arachne.portal.service.messaging;
+
+import static com.odysseusinc.arachne.commons.service.messaging.MessagingUtils.getRequestQueueName;
+import static com.odysseusinc.arachne.commons.service.messaging.MessagingUtils.getResponseQueueName;
+
+import com.google.common.io.BaseEncoding;
+import com.odysseusinc.arachne.portal.exception.ServiceNotAvailableException;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.Destination;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageListener;
+import javax.jms.MessageProducer;
+import javax.jms.ObjectMessage;
+import javax.jms.Session;
+import javax.jms.TemporaryQueue;
+import javax.jms.TextMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jms.JmsException;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.listener.DefaultMessageListenerContainer;
+import org.springframework.jms.support.JmsUtils;
+import org.springframework.jms.support.destination.DestinationResolver;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Request/reply exchange with DataNodes which does not hold a thread while the reply is awaited.
+ * Every portal instance receives replies on a temporary queue, which the broker removes together with
+ * the connection of the instance. Requests carry a correlation id prefixed with the name of that queue,
+ * DataNode replies posted to any instance are routed by that prefix to the requesting one,
+ * where shared consumers complete the pending futures. The correlation id is signed for the DataNode
+ * the request is sent to, so a DataNode cannot direct replies to any other destination.
+ * The reply queue survives broker reconnects only with the failover transport.
+ * <p>
+ * DataNodes may long-poll their request queues: a poll which finds nothing is parked without a thread
+ * until a request is sent to the queue by any portal instance, which is announced through a shared topic.
+ */
+@Component
+public class DataNodeMessageExchange {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DataNodeMessageExchange.class);
+    private static final int REPLY_CONSUMERS = 4;
+    private static final char CORRELATION_ID_DELIMITER = '_';
+    private static final char SIGNATURE_DELIMITER = '.';
+    private static final String SIGNATURE_ALGORITHM = "HmacSHA256";
+    // the next messages of a drained queue are expected to be prefetched already
+    private static final long DRAIN_RECEIVE_TIMEOUT = 100L;
+    // a long poll checks the queue briefly before it is parked
+    private static final long POLL_RECEIVE_TIMEOUT = 200L;
+    // a plain poll gives some time for the case when a new connection to a broker is established
+    private static final long FIRST_RECEIVE_TIMEOUT = 1000L;
+    private static final String REQUEST_SIGNAL_TOPIC = "datanode-request-signals";
+    private static final String INSTANCE_PROPERTY = "instanceId";
+
+    private final JmsTemplate jmsTemplate;
+    private final ConnectionFactory connectionFactory;
+    private final DestinationResolver destinationResolver;
+    private final String instanceId = UUID.randomUUID().toString().replace("-", "");
+    private final Map<String, CompletableFuture<Serializable>> pending = new ConcurrentHashMap<>();
+    private final ScheduledThreadPoolExecutor timeouts;
+    private final Map<String, Set<ParkedPoll>> parkedPolls = new ConcurrentHashMap<>();
+    private final Map<String, Long> lastRequestSignals = new ConcurrentHashMap<>();
+    private final AtomicLong signalSequence = new AtomicLong();
+    private Connection replyConnection;
+    private volatile TemporaryQueue replyQueue;
+    private DefaultMessageListenerContainer signalListener;
+    private ExecutorService pollDelivery;
+
+    @Value("${datanode.messaging.importTimeout}")
+    private Long messagingTimeout;
+    @Value("${datanode.messaging.longPoll.maxWaitMs:30000}")
+    private long maxPollWaitMs;
+    @Value("${datanode.messaging.longPoll.deliveryThreads:4}")
+    private int pollDeliveryThreads;
+    // shared by all portal instances, each of them accepts the correlation ids issued by the others
+    @Value("${arachne.token.secret}")
+    private String correlationSecret;
+
+    public DataNodeMessageExchange(JmsTemplate jmsTemplate, ConnectionFactory connectionFactory) {
+
+        this.jmsTemplate = jmsTemplate;
+        this.connectionFactory = connectionFactory;
+        this.destinationResolver = jmsTemplate.getDestinationResolver();
+        this.timeouts = new ScheduledThreadPoolExecutor(1, new CustomizableThreadFactory("datanode-reply-timeout-"));
+        this.timeouts.setRemoveOnCancelPolicy(true);
+    }
+
+    @PostConstruct
+    public void init() throws JMSException {
+
+        startReplyConsumers();
+
+        pollDelivery = Executors.newFixedThreadPool(pollDeliveryThreads,
+                new CustomizableThreadFactory("datanode-poll-delivery-"));
+        signalListener = new DefaultMessageListenerContainer();
+        signalListener.setConnectionFactory(connectionFactory);
+        signalListener.setPubSubDomain(true);
+        signalListener.setDestinationName(REQUEST_SIGNAL_TOPIC);
+        signalListener.setMessageListener((MessageListener) this::onRequestSignal);
+        signalListener.afterPropertiesSet();
+        signalListener.start();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+
+        JmsUtils.closeConnection(replyConnection, true);
+        signalListener.shutdown();
+        timeouts.shutdownNow();
+        pollDelivery.shutdownNow();
+        pending.values().forEach(future -> future.completeExceptionally(
+                new ServiceNotAvailableException("Portal is shutting down")));
+        parkedPolls.values().forEach(polls -> polls.forEach(poll -> poll.complete(Collections.emptyList())));
+    }
+
+    /**
+     * Sends the request to the request queue of the DataNode base queue.
+     * The future is completed by the reply, or exceptionally with {@link ServiceNotAvailableException}
+     * when there is no reply within the timeout.
+     */
+    @SuppressWarnings("unchecked")
+    public <R> CompletableFuture<R> sendAndReceive(String baseQueue, Serializable request, long timeoutMs) {
+
+        final String replyQueueName = getReplyQueueName();
+        final String nonce = UUID.randomUUID().toString();
+        final String correlationId = replyQueueName + CORRELATION_ID_DELIMITER + nonce
+                + SIGNATURE_DELIMITER + sign(replyQueueName, nonce, baseQueue);
+        final CompletableFuture<Serializable> future = new CompletableFuture<>();
+        pending.put(correlationId, future);
+        final ScheduledFuture<?> timeout = timeouts.schedule(() -> future.completeExceptionally(
+                new ServiceNotAvailableException(String.format("No response to %s in %d ms", baseQueue, timeoutMs))),
+                timeoutMs, TimeUnit.MILLISECONDS);
+        future.whenComplete((reply, ex) -> {
+            pending.remove(correlationId);
+            timeout.cancel(false);
+        });
+
+        try {
+            jmsTemplate.execute(session -> {
+                final ObjectMessage message = session.createObjectMessage(request);
+                message.setJMSCorrelationID(correlationId);
+                message.setJMSReplyTo(replyQueue);
+                final Destination requestQueue = destinationResolver.resolveDestinationName(
+                        session, getRequestQueueName(baseQueue), false);
+                final MessageProducer producer = session.createProducer(requestQueue);
+                try {
+                    // a request which was not picked up in time is not needed anymore
+                    producer.setTimeToLive(timeoutMs);
+                    producer.send(message);
+                } finally {
+                    producer.close();
+                }
+                return null;
+            }, true);
+            announceRequest(getRequestQueueName(baseQueue));
+        } catch (JmsException ex) {
+            future.completeExceptionally(ex);
+        }
+        return (CompletableFuture<R>) (CompletableFuture<?>) future;
+    }
+
+    /**
+     * Sends the reply to the portal instance which is waiting for it. A reply to an instance which is gone is dropped,
+     * as well as a reply with a correlation id which was not issued for a request to the DataNode base queue.
+     * Requests sent before the exchange was introduced are still awaited on the DataNode response queue.
+     */
+    public void reply(String baseQueue, String correlationId, Serializable response) {
+
+        // temporary queue names may contain the delimiter, the random part does not
+        final int delimiter = correlationId.lastIndexOf(CORRELATION_ID_DELIMITER);
+        if (delimiter <= 0) {
+            sendReply(getResponseQueueName(baseQueue), correlationId, response);
+            return;
+        }
+        final String replyQueueName = correlationId.substring(0, delimiter);
+        if (!isIssuedFor(baseQueue, replyQueueName, correlationId.substring(delimiter + 1))) {
+            LOGGER.warn("Dropping reply {} from {}, the correlation id was not issued for it", correlationId, baseQueue);
+            return;
+        }
+        try {
+            sendReply(replyQueueName, correlationId, response);
+        } catch (JmsException ex) {
+            // the temporary queue is removed when the requesting instance disconnects, nobody waits for the reply then
+            LOGGER.warn("Dropping reply {}, the requesting instance is not reachable: {}", correlationId, ex.getMessage());
+        }
+    }
+
+    private boolean isIssuedFor(String baseQueue, String replyQueueName, String signedNonce) {
+
+        final int delimiter = signedNonce.lastIndexOf(SIGNATURE_DELIMITER);
+        if (delimiter <= 0) {
+            return false;
+        }
+        final String expected = sign(replyQueueName, signedNonce.substring(0, delimiter), baseQueue);
+        return MessageDigest.isEqual(expected.getBytes(StandardCharsets.US_ASCII),
+                signedNonce.substring(delimiter + 1).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private String sign(String replyQueueName, String nonce, String baseQueue) {
+
+        try {
+            final Mac mac = Mac.getInstance(SIGNATURE_ALGORITHM);
+            mac.init(new SecretKeySpec(correlationSecret.getBytes(StandardCharsets.UTF_8), SIGNATURE_ALGORITHM));
+            final String signed = String.join("\n", replyQueueName, nonce, baseQueue);
+            return BaseEncoding.base16().lowerCase().encode(mac.doFinal(signed.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("Cannot sign DataNode correlation id", ex);
+        }
+    }
+
+    private void sendReply(String replyQueue, String correlationId, Serializable response) {
+
+        jmsTemplate.execute(session -> {
+            final ObjectMessage message = session.createObjectMessage(response);
+            message.setJMSCorrelationID(correlationId);
+            final MessageProducer producer = session.createProducer(
+                    destinationResolver.resolveDestinationName(session, replyQueue, false));
+            try {
+                // nobody waits for a reply longer than that, e.g. when the requesting instance was restarted
+                producer.setTimeToLive(messagingTimeout);
+                producer.send(message);
+            } finally {
+                producer.close();
+            }
+            return null;
+        }, true);
+    }
+
+    /**
+     * Takes all messages currently available in the queue using a single consumer.
+     */
+    public List<ObjectMessage> receiveAll(String queue, long firstReceiveTimeoutMs) {
+
+        return jmsTemplate.execute(session -> {
+            final List<ObjectMessage> messages = new ArrayList<>();
+            final MessageConsumer consumer = session.createConsumer(
+                    destinationResolver.resolveDestinationName(session, queue, false));
+            try {
+                Message message = consumer.receive(firstReceiveTimeoutMs);
+                while (message != null) {
+                    messages.add((ObjectMessage) message);
+                    message = consumer.receive(DRAIN_RECEIVE_TIMEOUT);
+                }
+            } finally {
+                consumer.close();
+            }
+            return messages;
+        }, true);
+    }
+
+    /**
+     * Takes all messages available in the queue, or waits up to waitMs for the next request sent to it
+     * without holding a thread. The future is completed with an empty list when nothing arrives in time.
+     * With no waitMs the queue is only checked, as DataNodes which do not long-poll expect.
+     */
+    public CompletableFuture<List<ObjectMessage>> awaitAll(String queue, long waitMs) {
+
+        final long signalStamp = signalSequence.get();
+        final List<ObjectMessage> available = receiveAll(queue, waitMs > 0 ? POLL_RECEIVE_TIMEOUT : FIRST_RECEIVE_TIMEOUT);
+        if (!available.isEmpty() || waitMs <= 0) {
+            return CompletableFuture.completedFuture(available);
+        }
+        final ParkedPoll poll = new ParkedPoll();
+        parkedPolls.compute(queue, (key, polls) -> {
+            final Set<ParkedPoll> result = polls == null ? new HashSet<>() : polls;
+            result.add(poll);
+            return result;
+        });
+        poll.timeout = timeouts.schedule(() -> poll.complete(Collections.emptyList()),
+                Math.min(waitMs, maxPollWaitMs), TimeUnit.MILLISECONDS);
+        poll.future.whenComplete((messages, ex) -> {
+            poll.timeout.cancel(false);
+            parkedPolls.computeIfPresent(queue, (key, polls) -> {
+                polls.remove(poll);
+                return polls.isEmpty() ? null : polls;
+            });
+        });
+        // a request sent while the queue was being checked
+        final Long lastSignal = lastRequestSignals.get(queue);
+        if (lastSignal != null && lastSignal > signalStamp) {
+            wakeUp(queue);
+        }
+        return poll.future;
+    }
+
+    public long getMaxPollWaitMs() {
+
+        return maxPollWaitMs;
+    }
+
+    private void announceRequest(String requestQueue) {
+
+        signalRequest(requestQueue);
+        try {
+            jmsTemplate.execute(session -> {
+                final TextMessage signal = session.createTextMessage(requestQueue);
+                signal.setStringProperty(INSTANCE_PROPERTY, instanceId);
+                final MessageProducer producer = session.createProducer(
+                        destinationResolver.resolveDestinationName(session, REQUEST_SIGNAL_TOPIC, true));
+                try {
+                    producer.setTimeToLive(maxPollWaitMs);
+                    producer.send(signal);
+                } finally {
+                    producer.close();
+                }
+                return null;
+            }, true);
+        } catch (JmsException ex) {
+            // polls parked at other instances get the request with their next poll
+            LOGGER.warn("Cannot announce request to {}: {}", requestQueue, ex.getMessage());
+        }
+    }
+
+    private void onRequestSignal(Message message) {
+
+        try {
+            if (!instanceId.equals(message.getStringProperty(INSTANCE_PROPERTY))) {
+                signalRequest(((TextMessage) message).getText());
+            }
+        } catch (JMSException ex) {
+            LOGGER.error("Cannot read DataNode request signal", ex);
+        }
+    }
+
+    private void signalRequest(String queue) {
+
+        lastRequestSignals.put(queue, signalSequence.incrementAndGet());
+        wakeUp(queue);
+    }
+
+    private void wakeUp(String queue) {
+
+        final Set<ParkedPoll> polls = parkedPolls.remove(queue);
+        if (polls == null) {
+            return;
+        }
+        for (final ParkedPoll poll : polls) {
+            pollDelivery.execute(() -> {
+                if (!poll.claim()) {
+                    return;
+                }
+                try {
+                    poll.future.complete(receiveAll(queue, DRAIN_RECEIVE_TIMEOUT));
+                } catch (RuntimeException ex) {
+                    poll.future.completeExceptionally(ex);
+                }
+            });
+        }
+    }
+
+    private void onReply(Message message) {
+
+        try {
+            final CompletableFuture<Serializable> future = pending.get(message.getJMSCorrelationID());
+            if (future == null) {
+                LOGGER.debug("Dropping reply {} nobody waits for", message.getJMSCorrelationID());
+                return;
+            }
+            try {
+                future.complete(((ObjectMessage) message).getObject());
+            } catch (JMSException | RuntimeException ex) {
+                future.completeExceptionally(ex);
+            }
+        } catch (JMSException ex) {
+            LOGGER.error("Cannot read DataNode reply", ex);
+        }
+    }
+
+    private void startReplyConsumers() throws JMSException {
+
+        final Connection connection = connectionFactory.createConnection();
+        try {
+            final Session firstSession = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            final TemporaryQueue queue = firstSession.createTemporaryQueue();
+            firstSession.createConsumer(queue).setMessageListener(this::onReply);
+            for (int i = 1; i < REPLY_CONSUMERS; i++) {
+                connection.createSession(false, Session.AUTO_ACKNOWLEDGE).createConsumer(queue).setMessageListener(this::onReply);
+            }
+            connection.start();
+            replyQueue = queue;
+            replyConnection = connection;
+        } catch (JMSException | RuntimeException ex) {
+            JmsUtils.closeConnection(connection);
+            throw ex;
+        }
+    }
+
+    private String getReplyQueueName() {
+
+        try {
+            return replyQueue.getQueueName();
+        } catch (JMSException ex) {
+            throw JmsUtils.convertJmsAccessException(ex);
+        }
+    }
+
+    private static class ParkedPoll {
+
+        private final CompletableFuture<List<ObjectMessage>> future = new CompletableFuture<>();
+        // either the delivery or the timeout completes the poll, messages are never taken for an expired one
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        private volatile ScheduledFuture<?> timeout;
+
+        boolean claim() {
+
+            return claimed.compareAndSet(false, true);
+        }
+
+        void complete(List<ObjectMessage> messages) {
+
+            if (claim()) {
+                future.complete(messages);
+            }
+        }
+    }
+}
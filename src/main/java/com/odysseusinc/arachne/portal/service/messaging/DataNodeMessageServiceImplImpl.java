@@ -24,14 +24,13 @@ package com.odysseusinc.arachne.portal.service.messaging;
 
 import com.odysseusinc.arachne.portal.model.DataNode;
 import com.odysseusinc.arachne.portal.service.AtlasService;
-import org.springframework.jms.core.JmsTemplate;
 import org.springframework.stereotype.Service;
 
 @Service
 public class DataNodeMessageServiceImplImpl extends BaseDataNodeMessageServiceImpl<DataNode> implements DataNodeMessageService {
 
-    public DataNodeMessageServiceImplImpl(JmsTemplate jmsTemplate, AtlasService atlasService) {
+    public DataNodeMessageServiceImplImpl(DataNodeMessageExchange messageExchange, AtlasService atlasService) {
 
-        super(jmsTemplate, atlasService);
+        super(messageExchange, atlasService);
     }
 }
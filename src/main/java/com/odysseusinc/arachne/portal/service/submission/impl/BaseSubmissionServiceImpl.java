@@ -36,10 +36,11 @@ import static com.odysseusinc.arachne.portal.service.impl.submission.SubmissionA
 import static com.odysseusinc.arachne.portal.util.DataNodeUtils.isDataNodeOwner;
 
 import com.cosium.spring.data.jpa.entity.graph.domain.EntityGraph;
-import com.odysseusinc.arachne.commons.utils.CommonFileUtils;
 import com.odysseusinc.arachne.commons.utils.UUIDGenerator;
 import com.odysseusinc.arachne.portal.api.v1.dto.ApproveDTO;
 import com.odysseusinc.arachne.portal.api.v1.dto.UpdateNotificationDTO;
+import com.odysseusinc.arachne.portal.component.SubmissionFileBlobStore;
+import com.odysseusinc.arachne.portal.component.ZipArchiveFactory;
 import com.odysseusinc.arachne.portal.config.WebSecurityConfig;
 import com.odysseusinc.arachne.portal.exception.NoExecutableFileException;
 import com.odysseusinc.arachne.portal.exception.NotExistException;
@@ -79,6 +80,7 @@ import com.odysseusinc.arachne.portal.util.DataNodeUtils;
 import com.odysseusinc.arachne.portal.util.EntityUtils;
 import com.odysseusinc.arachne.portal.util.LegacyAnalysisHelper;
 import com.odysseusinc.arachne.portal.util.SubmissionHelper;
+import com.odysseusinc.arachne.portal.util.ZipArchiveBuilder;
 import com.odysseusinc.arachne.portal.util.ZipUtil;
 import com.odysseusinc.arachne.storage.model.ArachneFileMeta;
 import com.odysseusinc.arachne.storage.model.QuerySpec;
@@ -88,7 +90,6 @@ import net.lingala.zip4j.ZipFile;
 import net.lingala.zip4j.model.FileHeader;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
-import org.apache.commons.lang3.tuple.Triple;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -102,16 +103,15 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
-import org.springframework.util.DigestUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import javax.persistence.EntityManager;
+import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.io.SequenceInputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -120,20 +120,20 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
-import java.util.HashSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.Queue;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
-import java.util.zip.ZipOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
-import static org.apache.commons.lang3.StringUtils.isNotBlank;
 
 public abstract class BaseSubmissionServiceImpl<
         T extends Submission,
@@ -164,6 +164,8 @@ public abstract class BaseSubmissionServiceImpl<
     protected final ContentStorageService contentStorageService;
     protected final UserService userService;
     protected final ContentStorageHelper contentStorageHelper;
+    protected final ZipArchiveFactory zipArchiveFactory;
+    protected final SubmissionFileBlobStore submissionFileBlobStore;
 
     @Value("${files.store.path}")
     private String fileStorePath;
@@ -184,7 +186,9 @@ public abstract class BaseSubmissionServiceImpl<
                                         SubmissionHelper submissionHelper,
                                         ContentStorageService contentStorageService,
                                         UserService userService,
-                                        ContentStorageHelper contentStorageHelper) {
+                                        ContentStorageHelper contentStorageHelper,
+                                        ZipArchiveFactory zipArchiveFactory,
+                                        SubmissionFileBlobStore submissionFileBlobStore) {
 
         this.submissionRepository = submissionRepository;
         this.dataSourceService = dataSourceService;
@@ -203,6 +207,8 @@ public abstract class BaseSubmissionServiceImpl<
         this.contentStorageService = contentStorageService;
         this.userService = userService;
         this.contentStorageHelper = contentStorageHelper;
+        this.zipArchiveFactory = zipArchiveFactory;
+        this.submissionFileBlobStore = submissionFileBlobStore;
     }
 
     @Override
@@ -392,9 +398,9 @@ public abstract class BaseSubmissionServiceImpl<
         if (Files.notExists(submissionGroupFolder)) {
             Files.createDirectories(submissionGroupFolder);
         }
+        Map<String, AnalysisFile> sources = new HashMap<>();
         for (AnalysisFile analysisFile : analysis.getFiles()) {
             SubmissionFile submissionFile = new SubmissionFile();
-            String storeFilesPath = fileStorePath + File.separator + "content";
             String uuid = UUID.randomUUID().toString();
 
             submissionFile.setSubmissionGroup(submissionGroup);
@@ -411,18 +417,21 @@ public abstract class BaseSubmissionServiceImpl<
             submissionFile.setAntivirusDescription(analysisFile.getAntivirusDescription());
             Boolean isExecutable = analysisFile.getExecutable();
             submissionFile.setExecutable(isExecutable != null && isExecutable);
+            sources.put(uuid, analysisFile);
+            files.add(submissionFile);
+        }
+        String storeFilesPath = fileStorePath + File.separator + "content";
+        for (SubmissionFile submissionFile : files) {
+            AnalysisFile analysisFile = sources.get(submissionFile.getUuid());
             Path analysisFileContent = Paths.get(storeFilesPath, analysis.getStudy().getId().toString(),
                     analysis.getId().toString(), analysisFile.getUuid());
-            Path submissionFileContent = submissionGroupFolder.resolve(uuid);
-            Path target = Files.copy(analysisFileContent, submissionFileContent, StandardCopyOption.REPLACE_EXISTING);
-            try (InputStream in = Files.newInputStream(target)) {
-                String checksum = DigestUtils.md5DigestAsHex(in);
-                submissionFile.setChecksum(checksum);
-            }
-            files.add(submissionFile);
+            Path submissionFileContent = submissionGroupFolder.resolve(submissionFile.getUuid());
+            String checksum = submissionFileBlobStore.link(analysisFileContent, analysisFile.getChecksum(), submissionFileContent);
+            submissionFile.setChecksum(checksum);
         }
         submissionFileRepository.saveAll(files);
-        submissionGroup.setChecksum(calculateMD5Hash(submissionGroupFolder, files));
+        submissionGroup.setChecksum(SubmissionFileBlobStore.groupChecksum(
+                files.stream().map(SubmissionFile::getChecksum).collect(Collectors.toList())));
         submissionGroupRepository.save(submissionGroup);
         return submissionGroup;
     }
@@ -551,57 +560,56 @@ public abstract class BaseSubmissionServiceImpl<
         UserDetails userDetails = (UserDetails) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
         IUser user = userService.getByUsername(userDetails.getUsername());
 
-        Path unzipDir = Files.createTempDirectory(String.format("submission_%d_results", submissionId));
+        Path stagingDir = Files.createTempDirectory(String.format("submission_%d_results", submissionId));
 
         try {
-            unzipWithNested(new ZipFile(compressedFile), unzipDir);
-            storeExtractedFiles(submission, unzipDir, user.getId());
+            final Map<String, FileSaveRequest> fileSaveRequests = new LinkedHashMap<>();
+            final ZipFile zipFile = new ZipFile(compressedFile);
+            for (final FileHeader fileHeader : zipFile.getFileHeaders()) {
+                if (!fileHeader.isDirectory()) {
+                    try (InputStream in = zipFile.getInputStream(fileHeader)) {
+                        stageResultEntry(fileHeader.getFileName(), in, stagingDir, fileSaveRequests);
+                    }
+                }
+            }
+            List<ResultFile> resultFiles = createResultFilesBatch(new ArrayList<>(fileSaveRequests.values()), submission, user.getId());
+            submissionResultFileRepository.saveAll(resultFiles);
         } finally {
-            FileUtils.deleteDirectory(unzipDir.toFile());
+            FileUtils.deleteDirectory(stagingDir.toFile());
         }
     }
 
-    private void unzipWithNested(final ZipFile zipFile, final Path unzipDir) throws IOException {
-        final Queue<Triple<Path, ZipFile, FileHeader>> queue = zipFile.getFileHeaders().stream()
-                .filter(fh -> !fh.isDirectory())
-                .map(fh -> Triple.of(unzipDir, zipFile, fh))
-                .collect(Collectors.toCollection(LinkedList::new));
-
-        final Set<File> filesToDelete = new HashSet<>();
-
-        while (!queue.isEmpty()) {
-            final Triple<Path, ZipFile, FileHeader> element = queue.poll();
-
-            final Path unzipPath = element.getLeft();
-            final ZipFile zip = element.getMiddle();
-            final FileHeader fileHeader = element.getRight();
-
-            final String relativeFilePath = fileHeader.getFileName();
-            final String relativePath = FilenameUtils.getPath(relativeFilePath);
-            if (isNotBlank(relativePath)) {
-                unzipPath.resolve(relativePath).toFile().mkdirs();
-            }
-            final File localFile = unzipPath.resolve(relativeFilePath).toFile();
-            FileUtils.copyInputStreamToFile(zip.getInputStream(fileHeader), localFile);
-
-            if (relativeFilePath.endsWith(".zip")) {
-                final ZipFile innerZipFile = new ZipFile(localFile);
-                if (innerZipFile.isValidZipFile()) {
-                    final String relativePathWithoutExtension = FilenameUtils.removeExtension(relativeFilePath);
-                    final Path zipFileNamedDir = unzipPath.resolve(relativePathWithoutExtension);
-                    queue.addAll(innerZipFile.getFileHeaders().stream()
-                            .filter(fh -> !fh.isDirectory())
-                            .map(fh -> Triple.of(zipFileNamedDir, innerZipFile, fh))
-                            .collect(Collectors.toCollection(LinkedList::new)));
-                    filesToDelete.add(localFile);
+    /**
+     * Nested archives are read straight from the enclosing stream, their entries are placed into
+     * a folder named after the archive. Only leaf files are written to the staging dir, once each.
+     */
+    private void stageResultEntry(String relativeFilePath, InputStream in, Path stagingDir,
+                                  Map<String, FileSaveRequest> fileSaveRequests) throws IOException {
+
+        InputStream content = in;
+        if (relativeFilePath.endsWith(".zip")) {
+            final BufferedInputStream buffered = new BufferedInputStream(in);
+            if (ZipUtil.isZipStream(buffered)) {
+                final String nestedDir = FilenameUtils.removeExtension(relativeFilePath) + "/";
+                final ZipInputStream nestedZip = new ZipInputStream(buffered);
+                ZipEntry entry;
+                while ((entry = nestedZip.getNextEntry()) != null) {
+                    if (!entry.isDirectory()) {
+                        stageResultEntry(nestedDir + entry.getName(), nestedZip, stagingDir, fileSaveRequests);
+                    }
                 }
+                return;
             }
+            content = buffered;
         }
-
-        // delete unzipped zip files
-        for (final File file: filesToDelete) {
-            FileUtils.deleteQuietly(file);
+        final Path stagedFile = stagingDir.resolve(relativeFilePath).normalize();
+        if (!stagedFile.startsWith(stagingDir)) {
+            throw new IOException("Archive entry is outside of the target folder: " + relativeFilePath);
         }
+        Files.createDirectories(stagedFile.getParent());
+        Files.copy(content, stagedFile, StandardCopyOption.REPLACE_EXISTING);
+        final String destinationPath = stagingDir.relativize(stagedFile).toString().replace('\\', '/');
+        fileSaveRequests.put(destinationPath, new FileSaveRequest(stagedFile.toFile(), destinationPath));
     }
 
     @Override
@@ -630,27 +638,12 @@ public abstract class BaseSubmissionServiceImpl<
         return resultFile;
     }
 
-    private void storeExtractedFiles(Submission submission, Path unzipDir, long uploadedBy) {
-
-        List<ResultFile> resultFiles = new ArrayList<>();
-        for(File extractedFile : CommonFileUtils.getFiles(unzipDir.toFile())){
-            String relativeFilepath = unzipDir.relativize(extractedFile.toPath()).toString().replace('\\', '/');
-            String destinationPath = contentStorageHelper.getResultFilesDir(submission, relativeFilepath);
-            ArachneFileMeta arachneFileMeta = contentStorageService.saveFile(extractedFile, destinationPath, uploadedBy);
-            ResultFile resultFile = new ResultFile();
-            resultFile.setSubmission(submission);
-            resultFile.setPath(arachneFileMeta.getPath());
-            resultFiles.add(resultFile);
-        }
-        submissionResultFileRepository.saveAll(resultFiles);
-    }
-
     @Override
     public void getSubmissionAllFiles(Long submissionGroupId, String archiveName, OutputStream os) throws IOException {
 
         SubmissionGroup submissionGroup = submissionGroupRepository.getOne(submissionGroupId);
         Path storeFilesPath = analysisHelper.getSubmissionGroupFolder(submissionGroup);
-        try (ZipOutputStream zos = new ZipOutputStream(os)) {
+        try (ZipArchiveBuilder archive = zipArchiveFactory.newArchive(os)) {
             for (SubmissionFile submissionFile : submissionGroup.getFiles()) {
                 String realName = submissionFile.getName();
                 Path file = storeFilesPath.resolve(submissionFile.getUuid());
@@ -658,7 +651,7 @@ public abstract class BaseSubmissionServiceImpl<
                     file = legacyAnalysisHelper.getOldSubmissionFile(submissionFile).orElseThrow(FileNotFoundException::new);
                 }
                 if (Files.exists(file)) {
-                    ZipUtil.addZipEntry(zos, realName, file);
+                    archive.addEntry(realName, file);
                 }
             }
         }
@@ -856,10 +849,10 @@ public abstract class BaseSubmissionServiceImpl<
         checkSubmissionPermission(user, submission);
 
         Path resultFilesPath = Paths.get(contentStorageHelper.getResultFilesDir(submission));
-        try (ZipOutputStream zos = new ZipOutputStream(os)) {
+        try (ZipArchiveBuilder archive = zipArchiveFactory.newArchive(os)) {
             for (ResultFile resultFile : submission.getResultFiles()) {
                 Path relativePath = resultFilesPath.relativize(Paths.get(resultFile.getPath()));
-                ZipUtil.addZipEntry(zos, relativePath.toString(), contentStorageService.getContentByFilepath(resultFile.getPath()));
+                archive.addEntry(relativePath.toString(), () -> contentStorageService.getContentByFilepath(resultFile.getPath()));
             }
         }
     }
@@ -893,20 +886,6 @@ public abstract class BaseSubmissionServiceImpl<
         }
     }
 
-    protected String calculateMD5Hash(Path folder, List<SubmissionFile> submissionFiles) throws IOException {
-
-        List<Path> files = submissionFiles.stream()
-                .map(submissionFile -> folder.resolve(submissionFile.getUuid()))
-                .sorted().collect(Collectors.toList());
-        List<InputStream> inputStreams = new ArrayList<>(files.size());
-        for (Path path : files) {
-            inputStreams.add(Files.newInputStream(path));
-        }
-        try (final SequenceInputStream in = new SequenceInputStream(Collections.enumeration(inputStreams))) {
-            return DigestUtils.md5DigestAsHex(in);
-        }
-    }
-
     @Override
     public List<SubmissionAction> getSubmissionActions(Submission submission) {
 
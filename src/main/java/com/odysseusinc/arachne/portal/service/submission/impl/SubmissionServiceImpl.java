@@ -23,6 +23,8 @@
 package com.odysseusinc.arachne.portal.service.submission.impl;
 
 import com.odysseusinc.arachne.portal.api.v1.dto.ApproveDTO;
+import com.odysseusinc.arachne.portal.component.SubmissionFileBlobStore;
+import com.odysseusinc.arachne.portal.component.ZipArchiveFactory;
 import com.odysseusinc.arachne.portal.exception.NoExecutableFileException;
 import com.odysseusinc.arachne.portal.exception.NotExistException;
 import com.odysseusinc.arachne.portal.exception.PermissionDeniedException;
@@ -88,7 +90,9 @@ public class SubmissionServiceImpl extends BaseSubmissionServiceImpl<Submission,
                                  final SubmissionHelper submissionHelper,
                                  final ContentStorageService contentStorageService,
                                  final UserService userService,
-                                 final ContentStorageHelper contentStorageHelper) {
+                                 final ContentStorageHelper contentStorageHelper,
+                                 final ZipArchiveFactory zipArchiveFactory,
+                                 final SubmissionFileBlobStore submissionFileBlobStore) {
 
         super(submissionRepository,
                 dataSourceService,
@@ -106,7 +110,9 @@ public class SubmissionServiceImpl extends BaseSubmissionServiceImpl<Submission,
                 submissionHelper,
                 contentStorageService,
                 userService,
-                contentStorageHelper);
+                contentStorageHelper,
+                zipArchiveFactory,
+                submissionFileBlobStore);
     }
 
     @Override
@@ -33,6 +33,7 @@ import com.odysseusinc.arachne.portal.model.IDataSource;
 import com.odysseusinc.arachne.portal.model.IUser;
 import com.odysseusinc.arachne.portal.model.Study;
 import com.odysseusinc.arachne.portal.security.DataNodeAuthenticationToken;
+import com.odysseusinc.arachne.portal.security.DataNodeIdentity;
 import com.odysseusinc.arachne.portal.security.Roles;
 import java.io.File;
 import java.io.IOException;
@@ -90,7 +91,7 @@ public abstract class BaseStudyHelper<DN extends DataNode, DS extends IDataSourc
         Collection<GrantedAuthority> authorities
                 = Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + Roles.ROLE_DATA_NODE));
         DataNodeAuthenticationToken dataNodeAuth
-                = new DataNodeAuthenticationToken(dataNode.getToken(), dataNode, authorities);
+                = new DataNodeAuthenticationToken(dataNode.getToken(), DataNodeIdentity.of(dataNode), authorities);
         SecurityContextHolder.getContext().setAuthentication(dataNodeAuth);
         return savedAuth;
     }
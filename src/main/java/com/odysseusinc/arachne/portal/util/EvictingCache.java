@@ -0,0 +1,140 @@
+/*
+ *
+ * Copyright 2021 Odysseus Data Services, inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Company: Odysseus Data Services, Inc.
+ * Product Owner/Architecture: Gregory Klebanov
+ * Authors: Yaroslav Molodkov, Alexandr Cumarav, Vitaliy Kulakov
+ * Created: November 09, 2021
+ *
+ */
+
+package com.odysseusinc.arachne.portal.util;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import org.slf4j.Logger;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Bounded in-memory cache of values loaded from the database, shared between requests.
+ * An eviction made within a transaction is repeated once the transaction completes, so that a value
+ * loaded by a concurrent request before the commit, i.e. still with the old state, is not kept until it expires.
+ */
+public class EvictingCache<K, V> {
+
+    private final String name;
+    private final Cache<K, V> cache;
+    private CacheStats reportedStats = new CacheStats(0, 0, 0, 0, 0, 0);
+
+    public EvictingCache(String name, long maxSize, long ttl, TimeUnit unit) {
+
+        this.name = name;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl, unit)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cached value or loads it. Exceptions of the loader are thrown as is and nothing is cached.
+     */
+    public V get(K key, Callable<? extends V> loader) {
+
+        try {
+            return cache.get(key, loader);
+        } catch (UncheckedExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw ex;
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    public V getIfPresent(K key) {
+
+        return cache.getIfPresent(key);
+    }
+
+    public void put(K key, V value) {
+
+        cache.put(key, value);
+    }
+
+    public void evict(K key) {
+
+        cache.invalidate(key);
+        afterTransaction(() -> cache.invalidate(key));
+    }
+
+    public void evictIf(Predicate<? super V> predicate) {
+
+        cache.asMap().values().removeIf(predicate);
+        afterTransaction(() -> cache.asMap().values().removeIf(predicate));
+    }
+
+    public void evictAll() {
+
+        cache.invalidateAll();
+        afterTransaction(cache::invalidateAll);
+    }
+
+    public long size() {
+
+        return cache.size();
+    }
+
+    public CacheStats getStats() {
+
+        return cache.stats();
+    }
+
+    /**
+     * Logs the statistics collected since the previous call, if the cache was used in between.
+     */
+    public synchronized void logStats(Logger logger) {
+
+        final CacheStats stats = cache.stats();
+        final CacheStats recent = stats.minus(reportedStats);
+        reportedStats = stats;
+        if (recent.requestCount() > 0) {
+            logger.info("{} cache: {} hits, {} misses, hit rate {}, {} evictions, {} entries",
+                    name, recent.hitCount(), recent.missCount(), String.format("%.2f", recent.hitRate()),
+                    recent.evictionCount(), cache.size());
+        }
+    }
+
+    private static void afterTransaction(Runnable action) {
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+
+                    action.run();
+                }
+            });
+        }
+    }
+}
@@ -23,9 +23,13 @@ package com.odysseusinc.arachne.portal.util;
 
 import com.odysseusinc.arachne.commons.utils.CommonFileUtils;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.StandardOpenOption;
 import java.util.stream.Stream;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.input.TeeInputStream;
 import org.springframework.security.crypto.codec.Base64;
+import org.springframework.util.DigestUtils;
 
 import java.io.IOException;
 import java.nio.file.Files;
@@ -55,6 +59,18 @@ public class FileUtils {
         return result;
     }
 
+    /**
+     * Replaces the target with the content of the stream and returns MD5 of the content computed on the way.
+     */
+    public static String copyWithMD5(InputStream in, Path target) throws IOException {
+
+        // the target is recreated rather than truncated, so hard links to the previous content stay intact
+        Files.deleteIfExists(target);
+        try (OutputStream out = Files.newOutputStream(target, StandardOpenOption.CREATE_NEW)) {
+            return DigestUtils.md5DigestAsHex(new TeeInputStream(in, out));
+        }
+    }
+
     public static boolean checkIfBase64EncodingNeeded(String contentType) {
 
         return Stream.of(CommonFileUtils.TYPE_IMAGE, CommonFileUtils.TYPE_PDF)
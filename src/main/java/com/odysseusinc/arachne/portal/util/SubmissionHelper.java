@@ -31,6 +31,7 @@ import com.google.gson.JsonPrimitive;
 import com.google.gson.stream.JsonReader;
 import com.odysseusinc.arachne.commons.api.v1.dto.CommonAnalysisType;
 import com.odysseusinc.arachne.commons.utils.cohortcharacterization.CohortCharacterizationDocType;
+import com.odysseusinc.arachne.portal.model.JsonValue;
 import com.odysseusinc.arachne.portal.model.Submission;
 import com.odysseusinc.arachne.portal.repository.SubmissionResultFileRepository;
 import com.odysseusinc.arachne.storage.model.ArachneFileMeta;
@@ -277,7 +278,7 @@ public class SubmissionHelper {
 
             final JsonObject resultInfo = new JsonObject();
             resultInfo.add(personCountColName, new JsonPrimitive(getPersonCount(submission)));
-            submission.setResultInfo(resultInfo);
+            submission.setResultInfo(JsonValue.of(resultInfo));
         }
     }
 
@@ -314,7 +315,7 @@ public class SubmissionHelper {
                 LOGGER.warn(CAN_NOT_BUILD_EXTEND_INFO_LOG, submission.getId());
                 LOGGER.warn("Error: ", e);
             }
-            submission.setResultInfo(resultInfo);
+            submission.setResultInfo(JsonValue.of(resultInfo));
         }
     }
 
@@ -438,7 +439,7 @@ public class SubmissionHelper {
                 LOGGER.warn(CAN_NOT_BUILD_EXTEND_INFO_LOG, submission.getId());
                 LOGGER.warn("Error: ", e);
             }
-            submission.setResultInfo(result);
+            submission.setResultInfo(JsonValue.of(result));
         }
 
         private ArachneFileMeta findAnalysisPackage(Submission submission) {
@@ -480,7 +481,7 @@ public class SubmissionHelper {
                 LOGGER.warn(CAN_NOT_BUILD_EXTEND_INFO_LOG, submission.getId());
                 LOGGER.warn("Error: ", e);
             }
-            submission.setResultInfo(resultInfo);
+            submission.setResultInfo(JsonValue.of(resultInfo));
         }
     }
 
@@ -503,7 +504,7 @@ public class SubmissionHelper {
                 LOGGER.warn(CAN_NOT_BUILD_EXTEND_INFO_LOG, submission.getId());
                 LOGGER.warn("Error: ", e);
             }
-            submission.setResultInfo(resultInfo);
+            submission.setResultInfo(JsonValue.of(resultInfo));
         }
     }
 
@@ -524,7 +525,7 @@ public class SubmissionHelper {
                     .count();
             JsonObject resultInfo = new JsonObject();
             resultInfo.add("reports", new JsonPrimitive(reportCount));
-            submission.setResultInfo(resultInfo);
+            submission.setResultInfo(JsonValue.of(resultInfo));
         }
     }
 
@@ -575,7 +576,7 @@ public class SubmissionHelper {
                 LOGGER.warn("Error: ", e);
             }
 
-            submission.setResultInfo(resultInfo);
+            submission.setResultInfo(JsonValue.of(resultInfo));
         }
 
         private Map<Integer, JsonArray> getPathwayResults(String path) throws IOException {
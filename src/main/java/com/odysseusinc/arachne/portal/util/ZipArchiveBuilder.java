@@ -0,0 +1,461 @@
+/*
+ *
+ * Copyright 2021 Odysseus Data Services, inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Company: Odysseus Data Services, Inc.
+ * Product Owner/Architecture: Gregory Klebanov
+ * Authors: Yaroslav Molodkov, Alexandr Cumarav, Vitaliy Kulakov
+ * Created: August 09, 2021
+ *
+ */
+
+package com.odysseusinc.arachne.portal.util;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.output.DeferredFileOutputStream;
+import org.springframework.core.io.InputStreamSource;
+
+/**
+ * Writes a ZIP archive entry by entry without holding entry content on heap.
+ * Content is copied in chunks through a reused buffer, files which are compressed already (archives, images, pdf)
+ * are written as stored deflate blocks instead of being compressed again.
+ * When an executor is given, entries are deflated in parallel into temporary buffers
+ * (spilled to disk when large) and written in the order they were added. Sources are always opened
+ * on the calling thread, which has the transaction and the security context, the executor only reads
+ * the opened streams.
+ * Archives over 4 GB or with more than 65535 entries are written in ZIP64 format.
+ */
+public class ZipArchiveBuilder implements Closeable {
+
+    static final long ZIP64_MAGIC = 0xFFFFFFFFL;
+    static final int ZIP64_MAGIC_COUNT = 0xFFFF;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int IN_MEMORY_THRESHOLD = 1024 * 1024;
+    private static final int LOC_SIGNATURE = 0x04034b50;
+    private static final int EXT_SIGNATURE = 0x08074b50;
+    private static final int CEN_SIGNATURE = 0x02014b50;
+    private static final int END_SIGNATURE = 0x06054b50;
+    private static final int ZIP64_END_SIGNATURE = 0x06064b50;
+    private static final int ZIP64_LOCATOR_SIGNATURE = 0x07064b50;
+    private static final short ZIP64_EXTRA_ID = 0x0001;
+    private static final int VERSION = 20;
+    private static final int VERSION_ZIP64 = 45;
+    private static final int FLAG_DATA_DESCRIPTOR = 0x0008;
+    private static final int FLAG_UTF8 = 0x0800;
+    private static final int METHOD_DEFLATED = 8;
+    private static final Set<String> COMPRESSED_EXTENSIONS = new HashSet<>(Arrays.asList(
+            "zip", "gz", "tgz", "bz2", "xz", "7z", "rar", "jar", "war",
+            "png", "jpg", "jpeg", "gif", "webp", "pdf", "docx", "xlsx", "pptx", "odt", "ods",
+            "mp3", "mp4", "avi", "mov", "rds", "rdata"
+    ));
+
+    private final OutputStream out;
+    private final Executor executor;
+    private final int parallelism;
+    private final Deque<CompletableFuture<PreparedEntry>> pending = new ArrayDeque<>();
+    private final List<CentralEntry> entries = new ArrayList<>();
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private final byte[] deflated = new byte[BUFFER_SIZE];
+    private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+    private final ByteBuffer header = ByteBuffer.allocate(128).order(ByteOrder.LITTLE_ENDIAN);
+    private final int dosTime;
+    private final int dosDate;
+    private long written = 0;
+    private boolean finished = false;
+
+    public ZipArchiveBuilder(OutputStream out) {
+
+        this(out, null, 1);
+    }
+
+    /**
+     * @param parallelism max number of entries being deflated at once, which also bounds the temporary space used
+     */
+    public ZipArchiveBuilder(OutputStream out, Executor executor, int parallelism) {
+
+        this.out = new BufferedOutputStream(out, BUFFER_SIZE);
+        this.executor = parallelism > 1 ? executor : null;
+        this.parallelism = parallelism;
+        final LocalDateTime now = LocalDateTime.now();
+        this.dosTime = (now.getHour() << 11) | (now.getMinute() << 5) | (now.getSecond() >> 1);
+        this.dosDate = ((now.getYear() - 1980) << 9) | (now.getMonthValue() << 5) | now.getDayOfMonth();
+    }
+
+    public static boolean isCompressed(String name) {
+
+        return COMPRESSED_EXTENSIONS.contains(FilenameUtils.getExtension(name).toLowerCase(Locale.ROOT));
+    }
+
+    public ZipArchiveBuilder addEntry(String name, Path file) throws IOException {
+
+        return addEntry(name, () -> Files.newInputStream(file));
+    }
+
+    /**
+     * The source is opened on the calling thread, at most parallelism sources are open at once.
+     */
+    public ZipArchiveBuilder addEntry(String name, InputStreamSource source) throws IOException {
+
+        if (finished) {
+            throw new IllegalStateException("Archive is finished already");
+        }
+        if (executor == null || isCompressed(name)) {
+            writePending(0);
+            try (InputStream in = source.getInputStream()) {
+                writeStreamed(name, in);
+            }
+        } else {
+            writePending(parallelism - 1);
+            final InputStream in = source.getInputStream();
+            try {
+                pending.add(CompletableFuture.supplyAsync(() -> prepare(name, in), executor));
+            } catch (RuntimeException ex) {
+                in.close();
+                throw ex;
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Writes all the entries and the central directory, the underlying stream is left open.
+     */
+    public void finish() throws IOException {
+
+        if (finished) {
+            return;
+        }
+        writePending(0);
+        finished = true;
+        final long centralDirectoryOffset = written;
+        for (final CentralEntry entry : entries) {
+            writeCentralEntry(entry);
+        }
+        writeEnd(centralDirectoryOffset, written - centralDirectoryOffset);
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+
+        try {
+            finish();
+        } finally {
+            finished = true;
+            // entries are not written after a failure, their temporary files have to be removed anyway
+            pending.forEach(future -> future.thenAccept(PreparedEntry::discard));
+            pending.clear();
+            deflater.end();
+            out.close();
+        }
+    }
+
+    private void writePending(int keep) throws IOException {
+
+        while (pending.size() > keep) {
+            final PreparedEntry entry;
+            try {
+                entry = pending.poll().join();
+            } catch (CompletionException ex) {
+                if (ex.getCause() instanceof UncheckedIOException) {
+                    throw ((UncheckedIOException) ex.getCause()).getCause();
+                }
+                if (ex.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) ex.getCause();
+                }
+                throw ex;
+            }
+            writePrepared(entry);
+        }
+    }
+
+    private void writeStreamed(String name, InputStream in) throws IOException {
+
+        final CentralEntry entry = new CentralEntry(name, METHOD_DEFLATED, FLAG_DATA_DESCRIPTOR, written);
+        writeLocalHeader(entry);
+
+        final CRC32 crc = new CRC32();
+        deflater.reset();
+        deflater.setLevel(isCompressed(name) ? Deflater.NO_COMPRESSION : Deflater.DEFAULT_COMPRESSION);
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            crc.update(buffer, 0, read);
+            deflater.setInput(buffer, 0, read);
+            while (!deflater.needsInput()) {
+                write(deflated, 0, deflater.deflate(deflated));
+            }
+        }
+        deflater.finish();
+        while (!deflater.finished()) {
+            write(deflated, 0, deflater.deflate(deflated));
+        }
+        entry.crc = crc.getValue();
+        entry.size = deflater.getBytesRead();
+        entry.compressedSize = deflater.getBytesWritten();
+
+        final boolean zip64 = entry.size >= ZIP64_MAGIC || entry.compressedSize >= ZIP64_MAGIC;
+        header.clear();
+        header.putInt(EXT_SIGNATURE).putInt((int) entry.crc);
+        if (zip64) {
+            header.putLong(entry.compressedSize).putLong(entry.size);
+        } else {
+            header.putInt((int) entry.compressedSize).putInt((int) entry.size);
+        }
+        writeHeader();
+        entries.add(entry);
+    }
+
+    private PreparedEntry prepare(String name, InputStream source) {
+
+        final Deflater entryDeflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        final DeferredFileOutputStream data = new DeferredFileOutputStream(IN_MEMORY_THRESHOLD, "zip-entry", ".tmp", null);
+        final PreparedEntry entry = new PreparedEntry(name, data);
+        try (InputStream in = source; OutputStream dataOut = data) {
+            final byte[] input = new byte[BUFFER_SIZE];
+            final byte[] output = new byte[BUFFER_SIZE];
+            final CRC32 crc = new CRC32();
+            int read;
+            while ((read = in.read(input)) != -1) {
+                crc.update(input, 0, read);
+                entryDeflater.setInput(input, 0, read);
+                while (!entryDeflater.needsInput()) {
+                    dataOut.write(output, 0, entryDeflater.deflate(output));
+                }
+            }
+            entryDeflater.finish();
+            while (!entryDeflater.finished()) {
+                dataOut.write(output, 0, entryDeflater.deflate(output));
+            }
+            entry.crc = crc.getValue();
+            entry.size = entryDeflater.getBytesRead();
+            entry.compressedSize = entryDeflater.getBytesWritten();
+            return entry;
+        } catch (IOException ex) {
+            entry.discard();
+            throw new UncheckedIOException(ex);
+        } finally {
+            entryDeflater.end();
+        }
+    }
+
+    private void writePrepared(PreparedEntry prepared) throws IOException {
+
+        try {
+            final CentralEntry entry = new CentralEntry(prepared.name, METHOD_DEFLATED, 0, written);
+            entry.crc = prepared.crc;
+            entry.size = prepared.size;
+            entry.compressedSize = prepared.compressedSize;
+            writeLocalHeader(entry);
+            if (prepared.data.isInMemory()) {
+                write(prepared.data.getData(), 0, (int) prepared.compressedSize);
+            } else {
+                try (InputStream in = Files.newInputStream(prepared.data.getFile().toPath())) {
+                    int read;
+                    while ((read = in.read(buffer)) != -1) {
+                        write(buffer, 0, read);
+                    }
+                }
+            }
+            entries.add(entry);
+        } finally {
+            prepared.discard();
+        }
+    }
+
+    private void writeLocalHeader(CentralEntry entry) throws IOException {
+
+        // sizes of a streamed entry are unknown yet, they follow the data in the descriptor
+        final boolean known = (entry.flags & FLAG_DATA_DESCRIPTOR) == 0;
+        final boolean zip64 = known && (entry.size >= ZIP64_MAGIC || entry.compressedSize >= ZIP64_MAGIC);
+        header.clear();
+        header.putInt(LOC_SIGNATURE)
+                .putShort((short) (zip64 ? VERSION_ZIP64 : VERSION))
+                .putShort((short) (entry.flags | FLAG_UTF8))
+                .putShort((short) entry.method)
+                .putShort((short) dosTime)
+                .putShort((short) dosDate)
+                .putInt(known ? (int) entry.crc : 0)
+                .putInt(known ? (int) (zip64 ? ZIP64_MAGIC : entry.compressedSize) : 0)
+                .putInt(known ? (int) (zip64 ? ZIP64_MAGIC : entry.size) : 0)
+                .putShort((short) entry.name.length)
+                .putShort((short) (zip64 ? 20 : 0));
+        writeHeader();
+        write(entry.name, 0, entry.name.length);
+        if (zip64) {
+            header.clear();
+            header.putShort(ZIP64_EXTRA_ID).putShort((short) 16).putLong(entry.size).putLong(entry.compressedSize);
+            writeHeader();
+        }
+    }
+
+    private void writeCentralEntry(CentralEntry entry) throws IOException {
+
+        final boolean zip64Size = entry.size >= ZIP64_MAGIC;
+        final boolean zip64CompressedSize = entry.compressedSize >= ZIP64_MAGIC;
+        final boolean zip64Offset = entry.offset >= ZIP64_MAGIC;
+        final int extraLength = (zip64Size ? 8 : 0) + (zip64CompressedSize ? 8 : 0) + (zip64Offset ? 8 : 0);
+        final boolean zip64 = extraLength > 0;
+        header.clear();
+        header.putInt(CEN_SIGNATURE)
+                .putShort((short) VERSION_ZIP64)
+                .putShort((short) (zip64 ? VERSION_ZIP64 : VERSION))
+                .putShort((short) (entry.flags | FLAG_UTF8))
+                .putShort((short) entry.method)
+                .putShort((short) dosTime)
+                .putShort((short) dosDate)
+                .putInt((int) entry.crc)
+                .putInt((int) (zip64CompressedSize ? ZIP64_MAGIC : entry.compressedSize))
+                .putInt((int) (zip64Size ? ZIP64_MAGIC : entry.size))
+                .putShort((short) entry.name.length)
+                .putShort((short) (zip64 ? extraLength + 4 : 0))
+                // comment length, disk number, internal and external attributes
+                .putShort((short) 0)
+                .putShort((short) 0)
+                .putShort((short) 0)
+                .putInt(0)
+                .putInt((int) (zip64Offset ? ZIP64_MAGIC : entry.offset));
+        writeHeader();
+        write(entry.name, 0, entry.name.length);
+        if (zip64) {
+            header.clear();
+            header.putShort(ZIP64_EXTRA_ID).putShort((short) extraLength);
+            if (zip64Size) {
+                header.putLong(entry.size);
+            }
+            if (zip64CompressedSize) {
+                header.putLong(entry.compressedSize);
+            }
+            if (zip64Offset) {
+                header.putLong(entry.offset);
+            }
+            writeHeader();
+        }
+    }
+
+    private void writeEnd(long offset, long length) throws IOException {
+
+        final int count = entries.size();
+        if (count >= ZIP64_MAGIC_COUNT || offset >= ZIP64_MAGIC || length >= ZIP64_MAGIC) {
+            final long zip64EndOffset = written;
+            header.clear();
+            header.putInt(ZIP64_END_SIGNATURE)
+                    .putLong(44L)
+                    .putShort((short) VERSION_ZIP64)
+                    .putShort((short) VERSION_ZIP64)
+                    .putInt(0)
+                    .putInt(0)
+                    .putLong(count)
+                    .putLong(count)
+                    .putLong(length)
+                    .putLong(offset);
+            header.putInt(ZIP64_LOCATOR_SIGNATURE)
+                    .putInt(0)
+                    .putLong(zip64EndOffset)
+                    .putInt(1);
+            writeHeader();
+        }
+        header.clear();
+        header.putInt(END_SIGNATURE)
+                .putShort((short) 0)
+                .putShort((short) 0)
+                .putShort((short) Math.min(count, ZIP64_MAGIC_COUNT))
+                .putShort((short) Math.min(count, ZIP64_MAGIC_COUNT))
+                .putInt((int) Math.min(length, ZIP64_MAGIC))
+                .putInt((int) Math.min(offset, ZIP64_MAGIC))
+                .putShort((short) 0);
+        writeHeader();
+    }
+
+    private void writeHeader() throws IOException {
+
+        write(header.array(), 0, header.position());
+    }
+
+    private void write(byte[] bytes, int offset, int length) throws IOException {
+
+        out.write(bytes, offset, length);
+        written += length;
+    }
+
+    private static class CentralEntry {
+
+        private final byte[] name;
+        private final int method;
+        private final int flags;
+        private final long offset;
+        private long crc;
+        private long size;
+        private long compressedSize;
+
+        CentralEntry(String name, int method, int flags, long offset) {
+
+            this.name = name.getBytes(StandardCharsets.UTF_8);
+            this.method = method;
+            this.flags = flags;
+            this.offset = offset;
+        }
+    }
+
+    private static class PreparedEntry {
+
+        private final String name;
+        private final DeferredFileOutputStream data;
+        private long crc;
+        private long size;
+        private long compressedSize;
+
+        PreparedEntry(String name, DeferredFileOutputStream data) {
+
+            this.name = name;
+            this.data = data;
+        }
+
+        void discard() {
+
+            if (!data.isInMemory() && data.getFile() != null) {
+                try {
+                    Files.deleteIfExists(data.getFile().toPath());
+                } catch (IOException ignored) {
+                    // temporary directory is cleaned up eventually
+                }
+            }
+        }
+    }
+}
@@ -24,6 +24,7 @@ package com.odysseusinc.arachne.portal.util;
 
 import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
 
+import java.io.BufferedInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.FileInputStream;
 import java.io.IOException;
@@ -68,16 +69,15 @@ public class ZipUtil {
 
     public static void addZipEntry(ZipOutputStream zos, String realName, Path file) throws IOException {
 
-        addZipEntry(zos, realName, Files.newInputStream(file));
+        try (InputStream data = Files.newInputStream(file)) {
+            addZipEntry(zos, realName, data);
+        }
     }
 
     public static void addZipEntry(ZipOutputStream zos, String realName, InputStream data) throws IOException {
 
-        byte[] bytes = IOUtils.toByteArray(data);
-        ZipEntry entry = new ZipEntry(realName);
-        entry.setSize(bytes.length);
-        zos.putNextEntry(entry);
-        zos.write(bytes);
+        zos.putNextEntry(new ZipEntry(realName));
+        IOUtils.copy(data, zos);
         zos.closeEntry();
     }
 
@@ -87,6 +87,22 @@ public class ZipUtil {
         }
     }
 
+    /**
+     * Checks the archive signature without consuming the stream, an empty archive is accepted too.
+     */
+    public static boolean isZipStream(BufferedInputStream in) throws IOException {
+
+        final byte[] signature = new byte[4];
+        in.mark(signature.length);
+        try {
+            final int read = IOUtils.read(in, signature);
+            return read == signature.length && signature[0] == 'P' && signature[1] == 'K'
+                    && ((signature[2] == 3 && signature[3] == 4) || (signature[2] == 5 && signature[3] == 6));
+        } finally {
+            in.reset();
+        }
+    }
+
     public static byte[] extractZipEntry(ZipInputStream zipInputStream, String fileName) throws IOException {
 
         ZipEntry zipEntry;
@@ -0,0 +1,8 @@
+CREATE TABLE IF NOT EXISTS search_index_checkpoints
+(
+    collection VARCHAR PRIMARY KEY,
+    last_id    BIGINT    NOT NULL DEFAULT 0,
+    indexed    BIGINT    NOT NULL DEFAULT 0,
+    completed  BOOLEAN   NOT NULL DEFAULT FALSE,
+    updated    TIMESTAMP NOT NULL DEFAULT now()
+);
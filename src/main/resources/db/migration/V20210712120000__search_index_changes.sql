@@ -0,0 +1,12 @@
+CREATE TABLE IF NOT EXISTS search_index_changes
+(
+    id         BIGSERIAL PRIMARY KEY,
+    collection VARCHAR   NOT NULL,
+    entity_id  BIGINT    NOT NULL,
+    -- time of the insert rather than of the transaction start, the changes are read in this order
+    created    TIMESTAMP NOT NULL DEFAULT clock_timestamp()
+);
+
+CREATE INDEX IF NOT EXISTS search_index_changes_collection_id_idx ON search_index_changes (collection, id);
+
+ALTER TABLE search_index_checkpoints ADD COLUMN IF NOT EXISTS change_id BIGINT NOT NULL DEFAULT 0;
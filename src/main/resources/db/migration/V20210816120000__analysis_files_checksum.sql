@@ -0,0 +1 @@
+ALTER TABLE analyses_files ADD COLUMN IF NOT EXISTS checksum CHAR(32);
@@ -0,0 +1,342 @@
+-- Study list rows per user, maintained by triggers instead of computing "public studies x users" on every request
+
+CREATE TABLE IF NOT EXISTS studies_users_listing
+(
+    id            BIGSERIAL PRIMARY KEY,
+    study_id      BIGINT NOT NULL REFERENCES studies_data (id) ON DELETE CASCADE,
+    user_id       BIGINT NOT NULL REFERENCES users_data (id) ON DELETE CASCADE,
+    roles         TEXT,
+    favourite     BOOLEAN,
+    first_lead_id BIGINT,
+    CONSTRAINT studies_users_listing_user_study_uk UNIQUE (user_id, study_id)
+);
+
+CREATE INDEX IF NOT EXISTS studies_users_listing_study_id_idx ON studies_users_listing (study_id);
+
+-- Rows of the study list restricted to a study and/or a user, NULL means any.
+-- Same rules as the former studies_view: a user sees studies where he participates (given the study has a lead)
+-- and public studies of the tenants he belongs to, if he is enabled and confirmed.
+CREATE OR REPLACE FUNCTION compute_studies_users_listing(p_study_id BIGINT, p_user_id BIGINT)
+    RETURNS TABLE
+            (
+                study_id      BIGINT,
+                user_id       BIGINT,
+                roles         TEXT,
+                favourite     BOOLEAN,
+                first_lead_id BIGINT
+            )
+    LANGUAGE sql
+    STABLE
+AS
+$$
+WITH leads AS (
+    SELECT DISTINCT ON (su.study_id) su.study_id,
+                                     su.user_id
+    FROM studies_users su
+    WHERE su.role = 'LEAD_INVESTIGATOR'
+      AND su.status = 'APPROVED'
+      AND (p_study_id IS NULL OR su.study_id = p_study_id)
+    ORDER BY su.study_id, su.id
+), memberships AS (
+    SELECT su.study_id,
+           su.user_id,
+           su.role :: VARCHAR AS role
+    FROM studies_users su
+    WHERE su.status NOT IN ('DECLINED', 'DELETED')
+      AND (p_study_id IS NULL OR su.study_id = p_study_id)
+      AND (p_user_id IS NULL OR su.user_id = p_user_id)
+    UNION ALL
+    SELECT sds.study_id,
+           dnu.user_id,
+           'DATA_SET_OWNER' :: VARCHAR AS role
+    FROM studies_data_sources sds
+             JOIN data_sources_data ds ON ds.id = sds.data_source_id
+             JOIN datanodes_users dnu ON dnu.datanode_id = ds.data_node_id
+    WHERE sds.status NOT IN ('DECLINED', 'DELETED')
+      AND (p_study_id IS NULL OR sds.study_id = p_study_id)
+      AND (p_user_id IS NULL OR dnu.user_id = p_user_id)
+), grouped AS (
+    SELECT m.study_id,
+           m.user_id,
+           STRING_AGG(DISTINCT m.role, ',') AS roles
+    FROM memberships m
+             JOIN leads l ON l.study_id = m.study_id
+    GROUP BY m.study_id, m.user_id
+), public_access AS (
+    SELECT s.id AS study_id,
+           u.id AS user_id
+    FROM studies_data s
+             JOIN tenant_dependent_users_view tu ON tu.tenant_id = s.tenant_id
+             JOIN users_data u ON u.id = tu.user_id
+    WHERE s.privacy IS FALSE
+      AND u.enabled IS TRUE
+      AND u.email_confirmed IS TRUE
+      AND (p_study_id IS NULL OR s.id = p_study_id)
+      AND (p_user_id IS NULL OR u.id = p_user_id)
+), visible AS (
+    SELECT g.study_id, g.user_id
+    FROM grouped g
+    UNION
+    SELECT p.study_id, p.user_id
+    FROM public_access p
+)
+SELECT v.study_id,
+       v.user_id,
+       g.roles,
+       CASE WHEN fs.user_id IS NOT NULL THEN TRUE END AS favourite,
+       l.user_id                                      AS first_lead_id
+FROM visible v
+         LEFT JOIN grouped g ON g.study_id = v.study_id AND g.user_id = v.user_id
+         LEFT JOIN leads l ON l.study_id = v.study_id
+         LEFT JOIN favourite_studies fs ON fs.study_id = v.study_id AND fs.user_id = v.user_id;
+$$;
+
+-- Brings the stored rows of a study and/or a user in line with compute_studies_users_listing.
+-- Unchanged rows are kept as is, so their ids are stable.
+CREATE OR REPLACE FUNCTION refresh_studies_users_listing(p_study_id BIGINT, p_user_id BIGINT)
+    RETURNS VOID
+    LANGUAGE sql
+AS
+$$
+WITH computed AS (
+    SELECT *
+    FROM compute_studies_users_listing(p_study_id, p_user_id)
+), removed AS (
+    DELETE
+    FROM studies_users_listing l
+    WHERE (p_study_id IS NULL OR l.study_id = p_study_id)
+      AND (p_user_id IS NULL OR l.user_id = p_user_id)
+      AND NOT EXISTS(SELECT 1 FROM computed c WHERE c.study_id = l.study_id AND c.user_id = l.user_id)
+)
+INSERT
+INTO studies_users_listing (study_id, user_id, roles, favourite, first_lead_id)
+SELECT c.study_id, c.user_id, c.roles, c.favourite, c.first_lead_id
+FROM computed c
+ON CONFLICT (user_id, study_id) DO UPDATE
+    SET roles         = EXCLUDED.roles,
+        favourite     = EXCLUDED.favourite,
+        first_lead_id = EXCLUDED.first_lead_id
+WHERE (studies_users_listing.roles, studies_users_listing.favourite, studies_users_listing.first_lead_id)
+          IS DISTINCT FROM (EXCLUDED.roles, EXCLUDED.favourite, EXCLUDED.first_lead_id);
+$$;
+
+-- Study privacy, tenant, participants and data sources
+
+CREATE OR REPLACE FUNCTION studies_users_listing_on_study_change()
+    RETURNS TRIGGER
+    LANGUAGE plpgsql
+AS
+$$
+BEGIN
+    IF (TG_TABLE_NAME = 'studies_data')
+    THEN
+        PERFORM refresh_studies_users_listing(NEW.id, NULL);
+        RETURN NULL;
+    END IF;
+    IF (TG_OP IN ('UPDATE', 'DELETE'))
+    THEN
+        PERFORM refresh_studies_users_listing(OLD.study_id, NULL);
+    END IF;
+    IF (TG_OP = 'INSERT')
+    THEN
+        PERFORM refresh_studies_users_listing(NEW.study_id, NULL);
+    ELSIF (TG_OP = 'UPDATE' AND NEW.study_id <> OLD.study_id)
+    THEN
+        PERFORM refresh_studies_users_listing(NEW.study_id, NULL);
+    END IF;
+    RETURN NULL;
+END;
+$$;
+
+DROP TRIGGER IF EXISTS studies_users_listing_on_study_change ON studies_data;
+
+CREATE TRIGGER studies_users_listing_on_study_change
+    AFTER INSERT OR UPDATE OF privacy, tenant_id
+    ON studies_data
+    FOR EACH ROW
+EXECUTE PROCEDURE studies_users_listing_on_study_change();
+
+DROP TRIGGER IF EXISTS studies_users_listing_on_participant_change ON studies_users;
+
+CREATE TRIGGER studies_users_listing_on_participant_change
+    AFTER INSERT OR UPDATE OF study_id, user_id, role, status OR DELETE
+    ON studies_users
+    FOR EACH ROW
+EXECUTE PROCEDURE studies_users_listing_on_study_change();
+
+DROP TRIGGER IF EXISTS studies_users_listing_on_data_source_change ON studies_data_sources;
+
+CREATE TRIGGER studies_users_listing_on_data_source_change
+    AFTER INSERT OR UPDATE OF study_id, data_source_id, status OR DELETE
+    ON studies_data_sources
+    FOR EACH ROW
+EXECUTE PROCEDURE studies_users_listing_on_study_change();
+
+-- User state, tenants and data node ownership
+
+CREATE OR REPLACE FUNCTION studies_users_listing_on_user_change()
+    RETURNS TRIGGER
+    LANGUAGE plpgsql
+AS
+$$
+BEGIN
+    IF (TG_TABLE_NAME = 'users_data')
+    THEN
+        PERFORM refresh_studies_users_listing(NULL, NEW.id);
+        RETURN NULL;
+    END IF;
+    IF (TG_OP IN ('UPDATE', 'DELETE'))
+    THEN
+        PERFORM refresh_studies_users_listing(NULL, OLD.user_id);
+    END IF;
+    IF (TG_OP = 'INSERT')
+    THEN
+        PERFORM refresh_studies_users_listing(NULL, NEW.user_id);
+    ELSIF (TG_OP = 'UPDATE' AND NEW.user_id <> OLD.user_id)
+    THEN
+        PERFORM refresh_studies_users_listing(NULL, NEW.user_id);
+    END IF;
+    RETURN NULL;
+END;
+$$;
+
+DROP TRIGGER IF EXISTS studies_users_listing_on_user_change ON users_data;
+
+CREATE TRIGGER studies_users_listing_on_user_change
+    AFTER INSERT OR UPDATE OF enabled, email_confirmed
+    ON users_data
+    FOR EACH ROW
+EXECUTE PROCEDURE studies_users_listing_on_user_change();
+
+DROP TRIGGER IF EXISTS studies_users_listing_on_tenant_change ON tenants_users;
+
+CREATE TRIGGER studies_users_listing_on_tenant_change
+    AFTER INSERT OR UPDATE OR DELETE
+    ON tenants_users
+    FOR EACH ROW
+EXECUTE PROCEDURE studies_users_listing_on_user_change();
+
+DROP TRIGGER IF EXISTS studies_users_listing_on_datanode_user_change ON datanodes_users;
+
+CREATE TRIGGER studies_users_listing_on_datanode_user_change
+    AFTER INSERT OR UPDATE OR DELETE
+    ON datanodes_users
+    FOR EACH ROW
+EXECUTE PROCEDURE studies_users_listing_on_user_change();
+
+-- Data sources moved to another node or tenant change ownership and tenants of the node users
+
+CREATE OR REPLACE FUNCTION studies_users_listing_on_data_source_owner_change()
+    RETURNS TRIGGER
+    LANGUAGE plpgsql
+AS
+$$
+DECLARE
+    old_data_source_id BIGINT;
+    new_data_source_id BIGINT;
+    owner_id           BIGINT;
+BEGIN
+    IF (TG_OP IN ('UPDATE', 'DELETE'))
+    THEN
+        old_data_source_id := OLD.data_source_id;
+    END IF;
+    IF (TG_OP IN ('INSERT', 'UPDATE'))
+    THEN
+        new_data_source_id := NEW.data_source_id;
+    END IF;
+    FOR owner_id IN
+        SELECT DISTINCT dnu.user_id
+        FROM data_sources_data ds
+                 JOIN datanodes_users dnu ON dnu.datanode_id = ds.data_node_id
+        WHERE ds.id IN (old_data_source_id, new_data_source_id)
+        LOOP
+            PERFORM refresh_studies_users_listing(NULL, owner_id);
+        END LOOP;
+    RETURN NULL;
+END;
+$$;
+
+DROP TRIGGER IF EXISTS studies_users_listing_on_tenant_data_source_change ON tenants_data_sources;
+
+CREATE TRIGGER studies_users_listing_on_tenant_data_source_change
+    AFTER INSERT OR UPDATE OR DELETE
+    ON tenants_data_sources
+    FOR EACH ROW
+EXECUTE PROCEDURE studies_users_listing_on_data_source_owner_change();
+
+CREATE OR REPLACE FUNCTION studies_users_listing_on_data_source_node_change()
+    RETURNS TRIGGER
+    LANGUAGE plpgsql
+AS
+$$
+DECLARE
+    owner_id BIGINT;
+BEGIN
+    FOR owner_id IN
+        SELECT DISTINCT dnu.user_id
+        FROM datanodes_users dnu
+        WHERE dnu.datanode_id IN (OLD.data_node_id, NEW.data_node_id)
+        LOOP
+            PERFORM refresh_studies_users_listing(NULL, owner_id);
+        END LOOP;
+    RETURN NULL;
+END;
+$$;
+
+DROP TRIGGER IF EXISTS studies_users_listing_on_data_source_node_change ON data_sources_data;
+
+CREATE TRIGGER studies_users_listing_on_data_source_node_change
+    AFTER UPDATE OF data_node_id
+    ON data_sources_data
+    FOR EACH ROW
+EXECUTE PROCEDURE studies_users_listing_on_data_source_node_change();
+
+-- Favourites only change the flag of a single row
+
+CREATE OR REPLACE FUNCTION studies_users_listing_on_favourite_change()
+    RETURNS TRIGGER
+    LANGUAGE plpgsql
+AS
+$$
+BEGIN
+    IF (TG_OP = 'DELETE')
+    THEN
+        UPDATE studies_users_listing
+        SET favourite = NULL
+        WHERE user_id = OLD.user_id
+          AND study_id = OLD.study_id;
+    ELSE
+        UPDATE studies_users_listing
+        SET favourite = TRUE
+        WHERE user_id = NEW.user_id
+          AND study_id = NEW.study_id;
+    END IF;
+    RETURN NULL;
+END;
+$$;
+
+DROP TRIGGER IF EXISTS studies_users_listing_on_favourite_change ON favourite_studies;
+
+CREATE TRIGGER studies_users_listing_on_favourite_change
+    AFTER INSERT OR DELETE
+    ON favourite_studies
+    FOR EACH ROW
+EXECUTE PROCEDURE studies_users_listing_on_favourite_change();
+
+TRUNCATE studies_users_listing;
+
+SELECT refresh_studies_users_listing(NULL, NULL);
+
+-- Keeps the columns of the former view, the tenant is still taken from the "studies" view
+
+DROP VIEW IF EXISTS studies_view;
+
+CREATE VIEW studies_view AS
+SELECT l.id,
+       l.study_id,
+       l.user_id,
+       l.favourite,
+       l.roles,
+       l.first_lead_id
+FROM studies_users_listing l
+         JOIN studies ts ON ts.id = l.study_id;
@@ -0,0 +1,19 @@
+-- Rendered e-mails waiting to be delivered, they survive restarts and failed deliveries are retried
+
+CREATE TABLE IF NOT EXISTS mail_outbox
+(
+    id              BIGSERIAL PRIMARY KEY,
+    recipient       VARCHAR   NOT NULL,
+    from_personal   VARCHAR,
+    subject         VARCHAR   NOT NULL,
+    html_body       TEXT      NOT NULL,
+    text_body       TEXT      NOT NULL,
+    status          VARCHAR   NOT NULL DEFAULT 'PENDING',
+    attempts        INTEGER   NOT NULL DEFAULT 0,
+    last_error      TEXT,
+    created_at      TIMESTAMP NOT NULL DEFAULT now(),
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT now(),
+    sent_at         TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS mail_outbox_pending_idx ON mail_outbox (next_attempt_at) WHERE status = 'PENDING';
@@ -0,0 +1,9 @@
+-- Entries are applied in the order of the transactions that wrote them, see SearchIndexChangeRepository.
+-- The existing entries are committed already, so they keep their order behind the current checkpoints.
+ALTER TABLE search_index_changes ADD COLUMN IF NOT EXISTS tx_id BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE search_index_changes ALTER COLUMN tx_id SET DEFAULT txid_current();
+
+DROP INDEX IF EXISTS search_index_changes_collection_id_idx;
+CREATE INDEX IF NOT EXISTS search_index_changes_collection_tx_id_idx ON search_index_changes (collection, tx_id, id);
+
+ALTER TABLE search_index_checkpoints ADD COLUMN IF NOT EXISTS change_tx_id BIGINT NOT NULL DEFAULT 0;
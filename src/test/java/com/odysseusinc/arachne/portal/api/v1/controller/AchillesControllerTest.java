@@ -28,6 +28,7 @@ import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -37,6 +38,7 @@ import com.github.springtestdbunit.annotation.DatabaseTearDown;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.google.gson.stream.JsonReader;
+import com.odysseusinc.arachne.portal.model.JsonValue;
 import com.odysseusinc.arachne.portal.model.achilles.AchillesFile;
 import com.odysseusinc.arachne.portal.repository.AchillesFileRepository;
 import org.assertj.core.util.Lists;
@@ -44,9 +46,11 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithUserDetails;
 import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.web.context.WebApplicationContext;
 
 import java.io.IOException;
@@ -154,10 +158,10 @@ public class AchillesControllerTest extends BaseControllerTest {
         Bootstrap bootstrap = new Bootstrap();
         AchillesFile observationFile = achillesFileRepository.findById(11L).orElse(null);
         assertThat(observationFile, is(notNullValue()));
-        observationFile.setData(bootstrap.observationJson());
+        observationFile.setData(JsonValue.of(bootstrap.observationJson()));
         AchillesFile dashboardFile = achillesFileRepository.findById(4L).get();
         assertThat(dashboardFile, is(notNullValue()));
-        dashboardFile.setData(bootstrap.dashboardJson());
+        dashboardFile.setData(JsonValue.of(bootstrap.dashboardJson()));
         achillesFileRepository.saveAll(Arrays.asList(observationFile, dashboardFile));
 
         mvc.perform(get(String.format(API_FILES, PUBLIC_DS, "dashboard.json"))
@@ -176,6 +180,48 @@ public class AchillesControllerTest extends BaseControllerTest {
 
     }
 
+    @Test
+    @WithUserDetails(value = "admin@odysseusinc.com")
+    @DatabaseSetup({
+            "/data/achilles/datanode.xml",
+            "/data/achilles/users.xml",
+            "/data/achilles/studies.xml",
+            "/data/achilles/datasources.xml",
+            "/data/achilles/reports.xml",
+            "/data/achilles/characterizations.xml",
+            "/data/achilles/permissions.xml",
+    })
+    public void getFileShouldBeRevalidatedByETag() throws Exception {
+
+        final AchillesFile dashboardFile = achillesFileRepository.findById(4L).get();
+        dashboardFile.setData(JsonValue.of(new Bootstrap().dashboardJson()));
+        achillesFileRepository.save(dashboardFile);
+        final String url = String.format(API_FILES, PUBLIC_DS, "dashboard.json");
+
+        final MvcResult result = mvc.perform(get(url)
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andExpect(jsonPath("$.result.SUMMARY.ATTRIBUTE_NAME[0]", is("Source name")))
+                .andReturn();
+        final String etag = result.getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag, is(notNullValue()));
+
+        mvc.perform(get(url)
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andExpect(content().string(""));
+
+        mvc.perform(get(url + "?char=1")
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .accept(MediaType.APPLICATION_JSON_UTF8))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, private"));
+    }
+
     class Bootstrap {
 
         JsonObject dashboardJson() {
@@ -0,0 +1,111 @@
+/*
+ *
+ * Copyright 2021 Odysseus Data Services, inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Company: Odysseus Data Services, Inc.
+ * Product Owner/Architecture: Gregory Klebanov
+ * Authors: Yaroslav Molodkov, Alexandr Cumarav, Vitaliy Kulakov
+ * Created: November 09, 2021
+ *
+ */
+
+package com.odysseusinc.arachne.portal.api.v1.dto.converters;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.odysseusinc.arachne.portal.api.v1.dto.SearchDTO;
+import com.odysseusinc.arachne.portal.service.SolrService;
+import com.odysseusinc.arachne.portal.service.impl.solr.FieldList;
+import com.odysseusinc.arachne.portal.service.impl.solr.SolrField;
+import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.common.params.CursorMarkParams;
+import org.apache.solr.common.params.FacetParams;
+import org.json.JSONObject;
+import org.junit.Test;
+
+public class SearchDTOToSolrQueryTest {
+
+    private final SearchDTOToSolrQuery converter = new SearchDTOToSolrQuery() {
+
+        @Override
+        protected FieldList<SolrField> getSolrFields() {
+
+            final FieldList<SolrField> fields = new FieldList<>();
+            fields.add(field("name", String.class));
+            fields.add(field("country", String.class));
+            fields.add(field("size", Integer.class));
+            fields.get(0).setFaceted(false);
+            return fields;
+        }
+    };
+
+    @Test
+    public void shouldReadPageFromCursor() {
+
+        final SearchDTO searchDTO = new SearchDTO();
+        searchDTO.setPage(5);
+        searchDTO.setPageSize(20);
+        searchDTO.setCursorMark("AoE/BTE=");
+        searchDTO.setSort("name");
+        searchDTO.setOrder("desc");
+
+        final SolrQuery query = converter.convert(searchDTO);
+
+        assertThat(query.getRows()).isEqualTo(20);
+        assertThat(query.getStart()).isNull();
+        assertThat(query.get(CursorMarkParams.CURSOR_MARK_PARAM)).isEqualTo("AoE/BTE=");
+        assertThat(query.getSorts()).containsExactly(
+                new SolrQuery.SortClause("name_txt_sortable", SolrQuery.ORDER.desc),
+                new SolrQuery.SortClause(SolrService.SYSTEM_ID, SolrQuery.ORDER.asc));
+    }
+
+    @Test
+    public void shouldSkipPreviousPagesWithoutCursor() {
+
+        final SearchDTO searchDTO = new SearchDTO();
+        searchDTO.setPage(5);
+        searchDTO.setPageSize(20);
+
+        final SolrQuery query = converter.convert(searchDTO);
+
+        assertThat(query.getStart()).isEqualTo(80);
+        assertThat(query.getRows()).isEqualTo(20);
+        assertThat(query.get(CursorMarkParams.CURSOR_MARK_PARAM)).isNull();
+        assertThat(query.getSorts()).isEmpty();
+    }
+
+    @Test
+    public void shouldRequestZeroCountBucketsForEveryFacet() throws Exception {
+
+        final SolrQuery query = converter.convert(new SearchDTO());
+
+        assertThat(query.getParams(FacetParams.FACET_FIELD)).isNull();
+        assertThat(query.getParams("json.facet")).hasSize(1);
+        final JSONObject jsonFacet = new JSONObject(query.get("json.facet"));
+        assertThat(jsonFacet.length()).isEqualTo(2);
+        for (String label : new String[]{"country_txt_facets", "size_i_facets"}) {
+            final JSONObject facet = jsonFacet.getJSONObject(label);
+            assertThat(facet.getInt("mincount")).isEqualTo(0);
+            assertThat(facet.getString("field")).isEqualTo(SearchDTOToSolrQuery.getFacetName(label));
+        }
+    }
+
+    private static SolrField field(String name, Class dataType) {
+
+        final SolrField field = new SolrField(name);
+        field.setDataType(dataType);
+        field.setFaceted(true);
+        return field;
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ *
+ * Copyright 2021 Odysseus Data Services, inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Company: Odysseus Data Services, Inc.
+ * Product Owner/Architecture: Gregory Klebanov
+ * Authors: Yaroslav Molodkov, Alexandr Cumarav, Vitaliy Kulakov
+ * Created: November 09, 2021
+ *
+ */
+
+package com.odysseusinc.arachne.portal.api.v1.dto.converters;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import com.odysseusinc.arachne.portal.api.v1.dto.FacetOptionList;
+import com.odysseusinc.arachne.portal.service.impl.solr.FieldList;
+import com.odysseusinc.arachne.portal.service.impl.solr.SearchResult;
+import com.odysseusinc.arachne.portal.service.impl.solr.SolrField;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.apache.solr.client.solrj.SolrQuery;
+import org.apache.solr.client.solrj.response.QueryResponse;
+import org.apache.solr.common.util.NamedList;
+import org.apache.solr.common.util.SimpleOrderedMap;
+import org.junit.Test;
+
+public class SearchResultToFacetedSearchResultDTOConverterTest {
+
+    private final SearchResultToFacetedSearchResultDTOConverter converter =
+            new SearchResultToFacetedSearchResultDTOConverter() {
+            };
+
+    @Test
+    public void shouldExcludeOptionsWithoutDocumentsInTenant() {
+
+        // unfiltered tenant query: "Spain" and 300 are only present in other tenants
+        final SearchResult<Object> fullFacets = searchResult(
+                facet("country_txt_facets", bucket("France", 3), bucket("Spain", 0)),
+                facet("size_i_facets", bucket(100L, 2), bucket(200L, 1), bucket(300L, 0)));
+        final Map<String, List<String>> excludedOptions = fullFacets.excludedOptions();
+
+        assertThat(excludedOptions).containsOnlyKeys("country_txt_facet", "size_i_facet");
+        assertThat(excludedOptions.get("country_txt_facet")).containsExactly("Spain");
+        assertThat(excludedOptions.get("size_i_facet")).containsExactly("300");
+
+        // filtered query: options of the tenant keep their zero counts, as facet.field with mincount 0 did
+        final SearchResult<Object> filtered = searchResult(
+                facet("country_txt_facets", bucket("France", 0), bucket("Spain", 0)),
+                facet("size_i_facets", bucket(100L, 1), bucket(200L, 0), bucket(300L, 0)));
+        filtered.setExcludedOptions(excludedOptions);
+
+        final Map<String, FacetOptionList> facets = converter.buildFacets(filtered, fields());
+
+        assertThat(facets).containsOnlyKeys("country", "size");
+        assertThat(facets.get("country")).containsOnly(entry("France", 0));
+        assertThat(facets.get("size")).containsOnly(entry("100", 1), entry("200", 0),
+                entry("min", 100L), entry("max", 200L));
+    }
+
+    private static FieldList<SolrField> fields() {
+
+        final FieldList<SolrField> fields = new FieldList<>();
+        final SolrField country = new SolrField("country");
+        country.setFaceted(true);
+        fields.add(country);
+        final SolrField size = new SolrField("size");
+        size.setDataType(Integer.class);
+        size.setFaceted(true);
+        fields.add(size);
+        return fields;
+    }
+
+    @SafeVarargs
+    private static SearchResult<Object> searchResult(Map.Entry<String, Object>... facets) {
+
+        final NamedList<Object> facetsList = new SimpleOrderedMap<>();
+        facetsList.add("count", 4);
+        for (Map.Entry<String, Object> facet : facets) {
+            facetsList.add(facet.getKey(), facet.getValue());
+        }
+        final NamedList<Object> response = new NamedList<>();
+        response.add("facets", facetsList);
+        return new SearchResult<>(new SolrQuery(), new QueryResponse(response, null), Collections.emptyList());
+    }
+
+    @SafeVarargs
+    private static Map.Entry<String, Object> facet(String label, NamedList<Object>... buckets) {
+
+        final List<NamedList<Object>> bucketList = new ArrayList<>();
+        Collections.addAll(bucketList, buckets);
+        final NamedList<Object> facet = new SimpleOrderedMap<>();
+        facet.add("buckets", bucketList);
+        return new AbstractMap.SimpleImmutableEntry<>(label, facet);
+    }
+
+    private static NamedList<Object> bucket(Object val, int count) {
+
+        final NamedList<Object> bucket = new SimpleOrderedMap<>();
+        bucket.add("val", val);
+        bucket.add("count", count);
+        return bucket;
+    }
+}
@@ -32,11 +32,23 @@ import com.odysseusinc.arachne.portal.SingleContextTest;
 import com.odysseusinc.arachne.portal.api.v1.controller.BaseControllerTest;
 import com.odysseusinc.arachne.portal.model.DataSource;
 import com.odysseusinc.arachne.portal.model.Paper;
+import com.odysseusinc.arachne.portal.model.ParticipantRole;
+import com.odysseusinc.arachne.portal.model.ParticipantStatus;
+import com.odysseusinc.arachne.portal.model.RawUser;
+import com.odysseusinc.arachne.portal.model.Study;
+import com.odysseusinc.arachne.portal.model.User;
+import com.odysseusinc.arachne.portal.model.UserStudy;
+import com.odysseusinc.arachne.portal.repository.UserStudyRepository;
 import com.odysseusinc.arachne.portal.security.ArachnePermission;
+import com.odysseusinc.arachne.portal.service.UserService;
+import java.util.Date;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.test.context.support.WithUserDetails;
@@ -46,6 +58,8 @@ import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.context.transaction.TransactionalTestExecutionListener;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 @RunWith(SpringRunner.class)
 @DatabaseTearDown(value = "/data/empty.xml", type = DatabaseOperation.DELETE_ALL)
@@ -55,6 +69,12 @@ public class ArachnePermissionEvaluatorTest extends SingleContextTest {
 
     @Autowired
     private ArachnePermissionEvaluator<Paper, DataSource> permissionEvaluator;
+    @Autowired
+    private UserStudyRepository userStudyRepository;
+    @Autowired
+    private UserService userService;
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Test
     @WithUserDetails(value = "admin@odysseusinc.com")
@@ -233,6 +253,35 @@ public class ArachnePermissionEvaluatorTest extends SingleContextTest {
         analysis.hasNoAccess("%s should not be able to delete analysis files" , ArachnePermission.DELETE_ANALYSIS_FILES);
     }
 
+    @Test
+    @WithUserDetails(value = "user@mail.com")
+    @DatabaseSetup({"/data/study/study-before-updating.xml"})
+    public void participantRoleChangesShouldBeSeenWithinRequest() {
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        try {
+            AccessHelper study = new AccessHelper("Study");
+            study.hasNoAccess("%s should not have permission to edit study before joining", ArachnePermission.EDIT_STUDY);
+
+            // not flushed, the cached roles must not hide it
+            UserStudy link = new UserStudy();
+            link.setStudy(entityManager.getReference(Study.class, 1L));
+            link.setUser(entityManager.getReference(RawUser.class, 2L));
+            link.setCreatedBy(entityManager.getReference(User.class, 1L));
+            link.setRole(ParticipantRole.LEAD_INVESTIGATOR);
+            link.setStatus(ParticipantStatus.APPROVED);
+            link.setCreated(new Date());
+            userStudyRepository.save(link);
+            study.hasAccess("%s should have permission to edit study after joining", ArachnePermission.EDIT_STUDY);
+
+            // a native update, not seen by Hibernate listeners
+            userService.makeLinksWithStudiesDeleted(1L, 2L);
+            study.hasNoAccess("%s should not have permission to edit study after leaving", ArachnePermission.EDIT_STUDY);
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
     private void checkPermission(String desc, ArachnePermission permission, String domain, boolean expectedResult) {
 
         checkPermission(desc, permission, 1L, domain, expectedResult);
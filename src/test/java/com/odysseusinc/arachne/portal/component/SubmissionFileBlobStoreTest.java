@@ -0,0 +1,161 @@
+/*
+ *
+ * Copyright 2021 Odysseus Data Services, inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Company: Odysseus Data Services, Inc.
+ * Product Owner/Architecture: Gregory Klebanov
+ * Authors: Yaroslav Molodkov, Alexandr Cumarav, Vitaliy Kulakov
+ * Created: November 09, 2021
+ *
+ */
+
+package com.odysseusinc.arachne.portal.component;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.util.DigestUtils;
+
+public class SubmissionFileBlobStoreTest {
+
+    private static final byte[] CONTENT = "select * from person".getBytes(StandardCharsets.UTF_8);
+    private static final String CONTENT_MD5 = DigestUtils.md5DigestAsHex(CONTENT);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path store;
+    private Path groups;
+
+    @Before
+    public void setUp() throws IOException {
+
+        store = folder.newFolder("store").toPath();
+        groups = folder.newFolder("groups").toPath();
+    }
+
+    @Test
+    public void shouldShareOneBlobBetweenSubmissions() throws IOException {
+
+        final SubmissionFileBlobStore blobStore = new SubmissionFileBlobStore(store.toString(), 0);
+        final Path source = write("analysis.sql", CONTENT);
+
+        assertEquals(CONTENT_MD5, blobStore.link(source, CONTENT_MD5, groups.resolve("first")));
+        assertEquals(CONTENT_MD5, blobStore.link(source, CONTENT_MD5, groups.resolve("second")));
+
+        final Path blob = blob(CONTENT_MD5);
+        assertArrayEquals(CONTENT, Files.readAllBytes(groups.resolve("first")));
+        assertArrayEquals(CONTENT, Files.readAllBytes(groups.resolve("second")));
+        assertEquals(3, Files.getAttribute(blob, "unix:nlink"));
+    }
+
+    @Test
+    public void shouldLinkByRecordedDigestWithoutReadingSource() throws IOException {
+
+        final SubmissionFileBlobStore blobStore = new SubmissionFileBlobStore(store.toString(), 0);
+        final Path source = write("analysis.sql", CONTENT);
+        blobStore.link(source, CONTENT_MD5, groups.resolve("first"));
+        Files.delete(source);
+
+        assertEquals(CONTENT_MD5, blobStore.link(source, CONTENT_MD5, groups.resolve("second")));
+
+        assertArrayEquals(CONTENT, Files.readAllBytes(groups.resolve("second")));
+    }
+
+    @Test
+    public void shouldHashSourceWithoutRecordedDigest() throws IOException {
+
+        final SubmissionFileBlobStore blobStore = new SubmissionFileBlobStore(store.toString(), 0);
+
+        assertEquals(CONTENT_MD5, blobStore.link(write("analysis.sql", CONTENT), null, groups.resolve("first")));
+
+        assertTrue(Files.exists(blob(CONTENT_MD5)));
+    }
+
+    @Test
+    public void shouldDeriveGroupChecksumFromSortedFileChecksums() {
+
+        final String other = DigestUtils.md5DigestAsHex("print('done')".getBytes(StandardCharsets.UTF_8));
+        final String sorted = CONTENT_MD5.compareTo(other) < 0 ? CONTENT_MD5 + other : other + CONTENT_MD5;
+
+        assertEquals(DigestUtils.md5DigestAsHex(sorted.getBytes(StandardCharsets.US_ASCII)),
+                SubmissionFileBlobStore.groupChecksum(Arrays.asList(CONTENT_MD5, other)));
+        assertEquals(SubmissionFileBlobStore.groupChecksum(Arrays.asList(CONTENT_MD5, other)),
+                SubmissionFileBlobStore.groupChecksum(Arrays.asList(other, CONTENT_MD5)));
+    }
+
+    @Test
+    public void shouldCollectOnlyUnreferencedBlobs() throws IOException {
+
+        final SubmissionFileBlobStore blobStore = new SubmissionFileBlobStore(store.toString(), 0);
+        final byte[] other = "print('done')".getBytes(StandardCharsets.UTF_8);
+        blobStore.link(write("a.sql", CONTENT), null, groups.resolve("a"));
+        final String otherChecksum = blobStore.link(write("b.r", other), null, groups.resolve("b"));
+        Files.delete(groups.resolve("b"));
+
+        blobStore.collectGarbage();
+
+        assertTrue(Files.exists(blob(CONTENT_MD5)));
+        assertFalse(Files.exists(blob(otherChecksum)));
+        assertArrayEquals(CONTENT, Files.readAllBytes(groups.resolve("a")));
+    }
+
+    @Test
+    public void shouldKeepFreshBlobs() throws IOException {
+
+        final SubmissionFileBlobStore blobStore = new SubmissionFileBlobStore(store.toString(), 60000);
+        blobStore.link(write("a.sql", CONTENT), null, groups.resolve("a"));
+        Files.delete(groups.resolve("a"));
+
+        blobStore.collectGarbage();
+
+        assertTrue(Files.exists(blob(CONTENT_MD5)));
+    }
+
+    @Test
+    public void shouldRecreateCollectedBlob() throws IOException {
+
+        final SubmissionFileBlobStore blobStore = new SubmissionFileBlobStore(store.toString(), 0);
+        final Path source = write("a.sql", CONTENT);
+        blobStore.link(source, null, groups.resolve("a"));
+        Files.delete(groups.resolve("a"));
+        blobStore.collectGarbage();
+
+        blobStore.link(source, CONTENT_MD5, groups.resolve("b"));
+
+        assertArrayEquals(CONTENT, Files.readAllBytes(groups.resolve("b")));
+        assertEquals(2, Files.getAttribute(blob(CONTENT_MD5), "unix:nlink"));
+    }
+
+    private Path write(String name, byte[] content) throws IOException {
+
+        return Files.write(folder.getRoot().toPath().resolve(name), content);
+    }
+
+    private Path blob(String checksum) {
+
+        return store.resolve("blobs").resolve(checksum.substring(0, 2)).resolve(checksum);
+    }
+}
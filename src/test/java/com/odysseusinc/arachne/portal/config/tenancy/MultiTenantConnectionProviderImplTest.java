@@ -0,0 +1,127 @@
+/*
+ *
+ * Copyright 2021 Odysseus Data Services, inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Company: Odysseus Data Services, Inc.
+ * Product Owner/Architecture: Gregory Klebanov
+ * Authors: Yaroslav Molodkov, Alexandr Cumarav, Vitaliy Kulakov
+ * Created: November 09, 2021
+ *
+ */
+
+package com.odysseusinc.arachne.portal.config.tenancy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.odysseusinc.arachne.portal.SingleContextTest;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import javax.sql.DataSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+/**
+ * Runs the provider over a single physical connection taken from the pool, as every checkout would get it back.
+ */
+@RunWith(SpringRunner.class)
+public class MultiTenantConnectionProviderImplTest extends SingleContextTest {
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource dataSource;
+
+    private Connection physical;
+    private MultiTenantConnectionProviderImpl provider;
+
+    @Before
+    public void setUp() throws SQLException {
+
+        physical = dataSource.getConnection();
+        // the pool may hand out a connection which already has a tenant from an earlier checkout
+        try (Statement statement = physical.createStatement()) {
+            statement.execute("SELECT set_config('app.tenant_id', '', false)");
+        }
+        provider = new MultiTenantConnectionProviderImpl(new SingleConnectionDataSource(physical, true));
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+
+        TenantContext.setCurrentTenant(1L);
+        physical.setAutoCommit(true);
+        physical.close();
+    }
+
+    @Test
+    public void shouldSetTenantOnceAndResetItForAnyConnection() throws SQLException {
+
+        TenantContext.setCurrentTenant(1L);
+        assertThat(checkOutTenant()).isEqualTo("1");
+        assertThat(checkOutTenant()).isEqualTo("1");
+        assertThat(provider.getTenantSwitchCount()).isEqualTo(1);
+        assertThat(provider.getSkippedSwitchCount()).isEqualTo(1);
+
+        TenantContext.setCurrentTenant(2L);
+        assertThat(checkOutTenant()).isEqualTo("2");
+
+        final Connection connection = provider.getAnyConnection();
+        try {
+            assertThat(currentTenant(connection)).isEqualTo("-1");
+        } finally {
+            provider.releaseAnyConnection(connection);
+        }
+        assertThat(provider.getTenantSwitchCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void shouldSetTenantAgainAfterRolledBackTransaction() throws SQLException {
+
+        TenantContext.setCurrentTenant(1L);
+        physical.setAutoCommit(false);
+        assertThat(checkOutTenant()).isEqualTo("1");
+        physical.rollback();
+        physical.setAutoCommit(true);
+
+        assertThat(checkOutTenant()).isEqualTo("1");
+        assertThat(provider.getTenantSwitchCount()).isEqualTo(2);
+        assertThat(provider.getSkippedSwitchCount()).isZero();
+    }
+
+    private String checkOutTenant() throws SQLException {
+
+        final Connection connection = provider.getConnection(String.valueOf(TenantContext.getCurrentTenant()));
+        try {
+            return currentTenant(connection);
+        } finally {
+            provider.releaseConnection(String.valueOf(TenantContext.getCurrentTenant()), connection);
+        }
+    }
+
+    private static String currentTenant(Connection connection) throws SQLException {
+
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT current_setting('app.tenant_id', true)")) {
+            resultSet.next();
+            return resultSet.getString(1);
+        }
+    }
+}
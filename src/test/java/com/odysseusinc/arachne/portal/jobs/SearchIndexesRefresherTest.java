@@ -0,0 +1,170 @@
+/*
+ *
+ * Copyright 2021 Odysseus Data Services, inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Company: Odysseus Data Services, Inc.
+ * Product Owner/Architecture: Gregory Klebanov
+ * Authors: Yaroslav Molodkov, Alexandr Cumarav, Vitaliy Kulakov
+ * Created: November 08, 2021
+ *
+ */
+
+package com.odysseusinc.arachne.portal.jobs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.odysseusinc.arachne.portal.api.v1.dto.SearchIndexRebuildStatusDTO;
+import com.odysseusinc.arachne.portal.config.properties.SolrIndexingProperties;
+import com.odysseusinc.arachne.portal.model.AbstractUserStudyListItem;
+import com.odysseusinc.arachne.portal.model.Analysis;
+import com.odysseusinc.arachne.portal.model.IDataSource;
+import com.odysseusinc.arachne.portal.model.IUser;
+import com.odysseusinc.arachne.portal.model.Paper;
+import com.odysseusinc.arachne.portal.model.SearchIndexChange;
+import com.odysseusinc.arachne.portal.model.SearchIndexCheckpoint;
+import com.odysseusinc.arachne.portal.model.SearchIndexRebuildState;
+import com.odysseusinc.arachne.portal.model.Skill;
+import com.odysseusinc.arachne.portal.model.Study;
+import com.odysseusinc.arachne.portal.model.search.PaperSearch;
+import com.odysseusinc.arachne.portal.model.search.StudySearch;
+import com.odysseusinc.arachne.portal.model.solr.SolrCollection;
+import com.odysseusinc.arachne.portal.repository.SearchIndexChangeRepository;
+import com.odysseusinc.arachne.portal.repository.SearchIndexCheckpointRepository;
+import com.odysseusinc.arachne.portal.service.BaseDataSourceService;
+import com.odysseusinc.arachne.portal.service.BasePaperService;
+import com.odysseusinc.arachne.portal.service.BaseSolrService;
+import com.odysseusinc.arachne.portal.service.BaseStudyService;
+import com.odysseusinc.arachne.portal.service.BaseUserService;
+import com.odysseusinc.arachne.portal.service.analysis.BaseAnalysisService;
+import com.odysseusinc.arachne.portal.service.impl.solr.SolrIndexingQueue;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.AdditionalAnswers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.core.task.SyncTaskExecutor;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SearchIndexesRefresherTest {
+
+    private static final String USERS = SolrCollection.USERS.getName();
+
+    @Mock
+    private BaseDataSourceService<IDataSource> dataSourceService;
+    @Mock
+    private BaseUserService<IUser, Skill> userService;
+    @Mock
+    private BaseStudyService<Study, IDataSource, StudySearch, AbstractUserStudyListItem> studyService;
+    @Mock
+    private BaseAnalysisService<Analysis> analysisService;
+    @Mock
+    private BasePaperService<Paper, PaperSearch, Study, IDataSource, StudySearch, AbstractUserStudyListItem> paperService;
+    @Mock
+    private BaseSolrService<?> solrService;
+    @Mock
+    private SolrIndexingQueue indexingQueue;
+    @Mock
+    private SearchIndexCheckpointRepository checkpointRepository;
+    @Mock
+    private SearchIndexChangeRepository changeRepository;
+
+    private SearchIndexesRefresher<IDataSource, IUser, Study, StudySearch, AbstractUserStudyListItem, Analysis, Paper,
+            PaperSearch> refresher;
+
+    @Before
+    public void setUp() {
+
+        refresher = new SearchIndexesRefresher<>(dataSourceService, userService, studyService, analysisService,
+                paperService, solrService, indexingQueue, checkpointRepository, changeRepository,
+                new SyncTaskExecutor(), new SolrIndexingProperties());
+    }
+
+    @Test
+    public void rebuildShouldNotAdvanceCheckpointPastDroppedPage() throws Exception {
+
+        when(checkpointRepository.save(any())).then(AdditionalAnswers.returnsFirstArg());
+        when(changeRepository.findOldestRunningTxId()).thenReturn(100L);
+        when(userService.indexBySolrAfter(eq(0L), anyInt())).thenReturn(Arrays.asList(1L, 2L));
+        when(userService.indexBySolrAfter(eq(2L), anyInt())).thenReturn(Collections.singletonList(3L));
+        // the updates of the second page are dropped by the queue
+        when(indexingQueue.getDroppedCount(USERS)).thenReturn(0L, 0L, 1L);
+
+        refresher.rebuild(SolrCollection.USERS).join();
+
+        final SearchIndexCheckpoint checkpoint = lastSavedCheckpoint();
+        assertThat(checkpoint.getLastId()).isEqualTo(2L);
+        assertThat(checkpoint.getIndexed()).isEqualTo(2L);
+        assertThat(checkpoint.getCompleted()).isFalse();
+        assertThat(refresher.getStatus())
+                .extracting(SearchIndexRebuildStatusDTO::getState)
+                .containsExactly(SearchIndexRebuildState.FAILED);
+    }
+
+    @Test
+    public void rebuildShouldCompleteWhenAllPagesAreIndexed() throws Exception {
+
+        when(checkpointRepository.save(any())).then(AdditionalAnswers.returnsFirstArg());
+        when(changeRepository.findOldestRunningTxId()).thenReturn(100L);
+        when(userService.indexBySolrAfter(eq(0L), anyInt())).thenReturn(Arrays.asList(1L, 2L));
+        when(userService.indexBySolrAfter(eq(2L), anyInt())).thenReturn(Collections.emptyList());
+
+        refresher.rebuild(SolrCollection.USERS).join();
+
+        final SearchIndexCheckpoint checkpoint = lastSavedCheckpoint();
+        assertThat(checkpoint.getLastId()).isEqualTo(2L);
+        assertThat(checkpoint.getCompleted()).isTrue();
+    }
+
+    @Test
+    public void applyChangesShouldKeepCheckpointWhenUpdatesAreDropped() {
+
+        final SearchIndexCheckpoint checkpoint = new SearchIndexCheckpoint(SolrCollection.USERS);
+        checkpoint.setCompleted(true);
+        checkpoint.setChangeTxId(100L);
+        checkpoint.setChangeId(10L);
+        when(checkpointRepository.findById(SolrCollection.USERS)).thenReturn(Optional.of(checkpoint));
+        final SearchIndexChange change = new SearchIndexChange();
+        change.setTxId(101L);
+        change.setId(11L);
+        change.setCollection(SolrCollection.USERS);
+        change.setEntityId(5L);
+        when(changeRepository.findCommittedAfter(eq(SolrCollection.USERS.name()), eq(100L), eq(10L), anyInt()))
+                .thenReturn(Collections.singletonList(change));
+        when(userService.indexBySolrByIds(any())).thenReturn(Collections.singletonList(5L));
+        when(indexingQueue.getDroppedCount(USERS)).thenReturn(0L, 1L);
+
+        refresher.applyChanges();
+
+        assertThat(checkpoint.getChangeTxId()).isEqualTo(100L);
+        assertThat(checkpoint.getChangeId()).isEqualTo(10L);
+    }
+
+    private SearchIndexCheckpoint lastSavedCheckpoint() {
+
+        final ArgumentCaptor<SearchIndexCheckpoint> captor = ArgumentCaptor.forClass(SearchIndexCheckpoint.class);
+        verify(checkpointRepository, atLeastOnce()).save(captor.capture());
+        return captor.getValue();
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ *
+ * Copyright 2021 Odysseus Data Services, inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Company: Odysseus Data Services, Inc.
+ * Product Owner/Architecture: Gregory Klebanov
+ * Authors: Yaroslav Molodkov, Alexandr Cumarav, Vitaliy Kulakov
+ * Created: November 09, 2021
+ *
+ */
+
+package com.odysseusinc.arachne.portal.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.odysseusinc.arachne.portal.SingleContextTest;
+import com.odysseusinc.arachne.portal.model.Country;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit4.SpringRunner;
+
+/**
+ * Runs against the seeded countries with the second-level and query caches on, as in production.
+ */
+@RunWith(SpringRunner.class)
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true",
+        "arachne.hibernateCache.statistics=true"
+})
+public class DictionaryCacheTest extends SingleContextTest {
+
+    private static final String COUNTRIES_REGION = "dictionaries.countries";
+
+    @Autowired
+    private CountryRepository countryRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @Before
+    public void setUp() {
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    public void shouldReadCountryFromCacheInNextSession() {
+
+        final Country country = countryRepository.findByIsoCode("AD");
+
+        assertThat(countryRepository.findByIsoCode("AD").getId()).isEqualTo(country.getId());
+        assertThat(countryRepository.findById(country.getId())).isPresent();
+
+        assertThat(statistics.getQueryCacheHitCount()).isGreaterThan(0);
+        assertThat(statistics.getDomainDataRegionStatistics(COUNTRIES_REGION).getHitCount()).isGreaterThan(0);
+    }
+
+    @Test
+    public void shouldReadChangedCountryAfterUpdate() {
+
+        final Country country = countryRepository.findByIsoCode("AO");
+        final String name = country.getName();
+        try {
+            country.setName(name + " (renamed)");
+            countryRepository.save(country);
+
+            assertThat(countryRepository.findByIsoCode("AO").getName()).isEqualTo(name + " (renamed)");
+            assertThat(countryRepository.findById(country.getId()).get().getName()).isEqualTo(name + " (renamed)");
+        } finally {
+            country.setName(name);
+            countryRepository.save(country);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ *
+ * Copyright 2021 Odysseus Data Services, inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Company: Odysseus Data Services, Inc.
+ * Product Owner/Architecture: Gregory Klebanov
+ * Authors: Yaroslav Molodkov, Alexandr Cumarav, Vitaliy Kulakov
+ * Created: November 09, 2021
+ *
+ */
+
+package com.odysseusinc.arachne.portal.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.github.springtestdbunit.annotation.DatabaseOperation;
+import com.github.springtestdbunit.annotation.DatabaseTearDown;
+import com.odysseusinc.arachne.portal.SingleContextTest;
+import com.odysseusinc.arachne.portal.model.SearchIndexChange;
+import com.odysseusinc.arachne.portal.model.solr.SolrCollection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * The checkpoint of a collection must not get ahead of a change whose transaction is still running.
+ */
+@RunWith(SpringRunner.class)
+@DatabaseTearDown(value = "/data/empty.xml", type = DatabaseOperation.DELETE_ALL)
+public class SearchIndexChangeRepositoryTest extends SingleContextTest {
+
+    private static final String USERS = SolrCollection.USERS.name();
+    private static final int LIMIT = 100;
+
+    @Autowired
+    private SearchIndexChangeRepository changeRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @Before
+    public void setUp() {
+
+        changeRepository.deleteAll();
+    }
+
+    @After
+    public void tearDown() {
+
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void changeCommittedAfterCheckpointMovedShouldBeRead() throws Exception {
+
+        logChange(1L);
+        final SearchIndexChange applied = single(changeRepository.findCommittedAfter(USERS, 0L, 0L, LIMIT));
+        assertThat(applied.getEntityId()).isEqualTo(1L);
+
+        final CountDownLatch logged = new CountDownLatch(1);
+        final CountDownLatch commit = new CountDownLatch(1);
+        final Future<?> slowTransaction = executor.submit(() -> transactionTemplate.execute(status -> {
+            logChange(2L);
+            logged.countDown();
+            try {
+                commit.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        }));
+        assertThat(logged.await(10, TimeUnit.SECONDS)).isTrue();
+        // committed first, but with a higher id than the change of the running transaction
+        logChange(3L);
+
+        assertThat(changeRepository.findCommittedAfter(USERS, applied.getTxId(), applied.getId(), LIMIT)).isEmpty();
+
+        commit.countDown();
+        slowTransaction.get(10, TimeUnit.SECONDS);
+
+        assertThat(changeRepository.findCommittedAfter(USERS, applied.getTxId(), applied.getId(), LIMIT))
+                .extracting(SearchIndexChange::getEntityId)
+                .containsExactly(2L, 3L);
+    }
+
+    @Test
+    public void rebuildStartShouldCoverOnlyFinishedTransactions() {
+
+        logChange(1L);
+        final Long changeTxId = changeRepository.findOldestRunningTxId();
+        logChange(2L);
+
+        assertThat(changeRepository.findCommittedAfter(USERS, changeTxId, 0L, LIMIT))
+                .extracting(SearchIndexChange::getEntityId)
+                .containsExactly(2L);
+    }
+
+    @Test
+    public void deleteUpToShouldKeepChangesAfterCheckpoint() {
+
+        logChange(1L);
+        logChange(2L);
+        final SearchIndexChange first = changeRepository.findCommittedAfter(USERS, 0L, 0L, LIMIT).get(0);
+
+        assertThat(changeRepository.deleteUpTo(first.getTxId(), first.getId())).isEqualTo(1);
+
+        assertThat(changeRepository.findAll())
+                .extracting(SearchIndexChange::getEntityId)
+                .containsExactly(2L);
+    }
+
+    private void logChange(Long entityId) {
+
+        transactionTemplate.execute(status -> entityManager
+                .createNativeQuery("INSERT INTO search_index_changes (collection, entity_id) VALUES (:collection, :id)")
+                .setParameter("collection", USERS)
+                .setParameter("id", entityId)
+                .executeUpdate());
+    }
+
+    private static SearchIndexChange single(List<SearchIndexChange> changes) {
+
+        assertThat(changes).hasSize(1);
+        return changes.get(0);
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ *
+ * Copyright 2021 Odysseus Data Services, inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Company: Odysseus Data Services, Inc.
+ * Product Owner/Architecture: Gregory Klebanov
+ * Authors: Yaroslav Molodkov, Alexandr Cumarav, Vitaliy Kulakov
+ * Created: November 08, 2021
+ *
+ */
+
+package com.odysseusinc.arachne.portal.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.github.springtestdbunit.annotation.DatabaseOperation;
+import com.github.springtestdbunit.annotation.DatabaseSetup;
+import com.github.springtestdbunit.annotation.DatabaseTearDown;
+import com.odysseusinc.arachne.portal.SingleContextTest;
+import com.odysseusinc.arachne.portal.model.SearchIndexChange;
+import com.odysseusinc.arachne.portal.model.solr.SolrCollection;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Native bulk updates of rows which are a part of Solr documents must log the changed entities.
+ */
+@RunWith(SpringRunner.class)
+@DatabaseTearDown(value = "/data/empty.xml", type = DatabaseOperation.DELETE_ALL)
+public class SearchIndexChangesLoggingTest extends SingleContextTest {
+
+    @Autowired
+    private SearchIndexChangeRepository changeRepository;
+    @Autowired
+    private DataSourceRepository dataSourceRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private UserStudyRepository userStudyRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Before
+    public void setUp() {
+
+        changeRepository.deleteAll();
+    }
+
+    @Test
+    @DatabaseSetup("/data/users.xml")
+    @DatabaseSetup("/data/published-datanode-with-datasources.xml")
+    public void unlinkingDataSourceFromTenantsShouldBeLogged() {
+
+        dataSourceRepository.makeLinksWithTenantsDeleted(1L);
+
+        assertThat(changeRepository.findAll())
+                .extracting(SearchIndexChange::getCollection, SearchIndexChange::getEntityId)
+                .containsExactly(tuple(SolrCollection.DATA_SOURCES, 1L));
+    }
+
+    @Test
+    @DatabaseSetup("/data/users.xml")
+    @DatabaseSetup("/data/study-with-contributor.xml")
+    public void removingUserFromTenantStudiesShouldBeLogged() {
+
+        transactionTemplate.execute(status -> {
+            userRepository.setLinksBetweenStudiesAndUsersDeleted(1L, 4L);
+            return null;
+        });
+
+        assertThat(changeRepository.findAll())
+                .extracting(SearchIndexChange::getCollection, SearchIndexChange::getEntityId)
+                .containsExactly(tuple(SolrCollection.STUDIES, 1L));
+    }
+
+    @Test
+    @DatabaseSetup("/data/users.xml")
+    @DatabaseSetup("/data/study-with-contributor.xml")
+    public void hardRemovalOfParticipantShouldBeLoggedAndCounted() {
+
+        assertThat(userStudyRepository.hardRemoveIfNotTracked(1L, 4L)).isEqualTo(1);
+
+        assertThat(changeRepository.findAll())
+                .extracting(SearchIndexChange::getCollection, SearchIndexChange::getEntityId)
+                .containsExactly(tuple(SolrCollection.STUDIES, 1L));
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ *
+ * Copyright 2021 Odysseus Data Services, inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Company: Odysseus Data Services, Inc.
+ * Product Owner/Architecture: Gregory Klebanov
+ * Authors: Yaroslav Molodkov, Alexandr Cumarav, Vitaliy Kulakov
+ * Created: November 09, 2021
+ *
+ */
+
+package com.odysseusinc.arachne.portal.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.github.springtestdbunit.annotation.DatabaseOperation;
+import com.github.springtestdbunit.annotation.DatabaseSetup;
+import com.github.springtestdbunit.annotation.DatabaseSetups;
+import com.github.springtestdbunit.annotation.DatabaseTearDown;
+import com.odysseusinc.arachne.portal.SingleContextTest;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.test.context.TestExecutionListeners;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.context.transaction.TransactionalTestExecutionListener;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * The study list maintained in studies_users_listing must give the rows the former studies_view computed.
+ */
+@RunWith(SpringRunner.class)
+@DatabaseSetups({
+        @DatabaseSetup("/data/users.xml"),
+        @DatabaseSetup("/data/study-with-contributor.xml")
+})
+@DatabaseTearDown(value = "/data/empty.xml", type = DatabaseOperation.DELETE_ALL)
+@TestExecutionListeners({TransactionalTestExecutionListener.class})
+@Transactional
+public class StudiesViewTest extends SingleContextTest {
+
+    // studies_view as defined before the listing table was introduced
+    private static final String FORMER_VIEW_QUERY = "WITH study_x_user AS ("
+            + "  SELECT s.id AS study_id, u.id AS user_id FROM studies s, users u"
+            + "  WHERE u.enabled IS TRUE AND u.email_confirmed IS TRUE AND s.privacy IS FALSE"
+            + "), favourites AS ("
+            + "  SELECT study_id, user_id, TRUE AS favourite FROM favourite_studies"
+            + "), all_studies AS ("
+            + "  SELECT su.study_id, su.user_id FROM study_x_user su"
+            + "  UNION"
+            + "  SELECT usll.study_id, usll.user_id FROM users_studies_grouped usll"
+            + ") "
+            + "SELECT s.study_id, s.user_id, fv.favourite, usll.roles, leads.user_id AS first_lead_id "
+            + "FROM all_studies s"
+            + "  JOIN studies ts ON ts.id = s.study_id"
+            + "  LEFT JOIN users_studies_grouped usll ON s.study_id = usll.study_id AND s.user_id = usll.user_id"
+            + "  LEFT JOIN studies_leads leads ON leads.study_id = s.study_id AND leads.row_number = 1"
+            + "  LEFT JOIN favourites fv ON s.user_id = fv.user_id AND s.study_id = fv.study_id";
+    private static final String VIEW_QUERY = "SELECT study_id, user_id, favourite, roles, first_lead_id FROM studies_view";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    public void listingShouldMatchFormerViewForPublicStudies() {
+
+        final List<String> rows = rows(VIEW_QUERY);
+
+        assertThat(rows).isNotEmpty();
+        assertThat(rows).containsExactlyInAnyOrderElementsOf(rows(FORMER_VIEW_QUERY));
+    }
+
+    @Test
+    public void listingShouldMatchFormerViewAfterChanges() {
+
+        execute("UPDATE studies_data SET privacy = TRUE WHERE id IN (2, 3)");
+        execute("UPDATE users_data SET enabled = FALSE WHERE id = 3");
+        execute("UPDATE studies_users SET status = 'DECLINED' WHERE id = 4");
+        execute("INSERT INTO studies_users (id, study_id, user_id, role, status, created, created_by)"
+                + " VALUES (5, 2, 4, 'CONTRIBUTOR', 'APPROVED', now(), 2)");
+        execute("INSERT INTO favourite_studies (user_id, study_id) VALUES (2, 1), (4, 2)");
+
+        final List<String> rows = rows(VIEW_QUERY);
+
+        assertThat(rows).isNotEmpty();
+        assertThat(rows).containsExactlyInAnyOrderElementsOf(rows(FORMER_VIEW_QUERY));
+
+        execute("DELETE FROM favourite_studies WHERE user_id = 2");
+        execute("UPDATE studies_data SET privacy = FALSE WHERE id = 3");
+
+        assertThat(rows(VIEW_QUERY)).containsExactlyInAnyOrderElementsOf(rows(FORMER_VIEW_QUERY));
+    }
+
+    private void execute(String sql) {
+
+        entityManager.createNativeQuery(sql).executeUpdate();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> rows(String query) {
+
+        final List<Object[]> result = entityManager.createNativeQuery(query).getResultList();
+        return result.stream()
+                .map(row -> String.format("study=%s user=%s favourite=%s roles=%s lead=%s",
+                        row[0], row[1], row[2], sortedRoles((String) row[3]), row[4]))
+                .collect(Collectors.toList());
+    }
+
+    // the former view aggregated roles in no particular order
+    private static String sortedRoles(String roles) {
+
+        return Objects.isNull(roles) ? null : Arrays.stream(roles.split(",")).sorted().collect(Collectors.joining(","));
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ *
+ * Copyright 2021 Odysseus Data Services, inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Company: Odysseus Data Services, Inc.
+ * Product Owner/Architecture: Gregory Klebanov
+ * Authors: Yaroslav Molodkov, Alexandr Cumarav, Vitaliy Kulakov
+ * Created: November 09, 2021
+ *
+ */
+
+package com.odysseusinc.arachne.portal.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+import com.odysseusinc.arachne.portal.model.IUser;
+import com.odysseusinc.arachne.portal.model.security.ArachneUser;
+import java.util.Collections;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AuthenticatedPrincipalCacheTest {
+
+    private static final long USER_ID = 1L;
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+    @Mock
+    private IUser user;
+    @Mock
+    private PostUpdateEvent updateEvent;
+
+    private AuthenticatedPrincipalCache cache;
+
+    @Before
+    public void setUp() {
+
+        cache = new AuthenticatedPrincipalCache(entityManagerFactory, 30, 100);
+    }
+
+    @After
+    public void tearDown() {
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void shouldRejectNextRequestOnceDisablingIsCommitted() {
+
+        cache.get("jdoe", this::enabled);
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.onPostUpdate(userUpdated("jdoe"));
+        // a concurrent request still sees the user enabled until the commit
+        assertThat(cache.get("jdoe", this::enabled).getId()).isEqualTo(USER_ID);
+        commit();
+
+        assertThatThrownBy(() -> cache.get("jdoe", this::disabled)).isInstanceOf(DisabledException.class);
+    }
+
+    @Test
+    public void shouldEvictPrincipalCachedUnderPreviousUsername() {
+
+        cache.get("jdoe", this::enabled);
+
+        cache.onPostUpdate(userUpdated("john.doe"));
+
+        assertThatThrownBy(() -> cache.get("jdoe", this::disabled)).isInstanceOf(DisabledException.class);
+    }
+
+    @Test
+    public void shouldReturnCopies() {
+
+        final ArachneUser first = cache.get("jdoe", this::enabled);
+        final ArachneUser second = cache.get("jdoe", this::disabled);
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getUsername()).isEqualTo(first.getUsername());
+        assertThat(cache.getStats().hitCount()).isEqualTo(1);
+    }
+
+    private PostUpdateEvent userUpdated(String username) {
+
+        when(user.getId()).thenReturn(USER_ID);
+        when(user.getUsername()).thenReturn(username);
+        when(updateEvent.getEntity()).thenReturn(user);
+        return updateEvent;
+    }
+
+    private ArachneUser enabled(String username) {
+
+        return new ArachneUser(USER_ID, 1L, username, "password", username + "@example.com", null, Collections.emptyList());
+    }
+
+    private ArachneUser disabled(String username) {
+
+        throw new DisabledException("User is disabled");
+    }
+
+    private static void commit() {
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+}
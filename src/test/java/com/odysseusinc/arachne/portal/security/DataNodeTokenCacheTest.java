@@ -0,0 +1,161 @@
+/*
+ *
+ * Copyright 2021 Odysseus Data Services, inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Company: Odysseus Data Services, Inc.
+ * Product Owner/Architecture: Gregory Klebanov
+ * Authors: Yaroslav Molodkov, Alexandr Cumarav, Vitaliy Kulakov
+ * Created: November 09, 2021
+ *
+ */
+
+package com.odysseusinc.arachne.portal.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import com.odysseusinc.arachne.portal.model.DataNode;
+import com.odysseusinc.arachne.portal.model.DataSource;
+import com.odysseusinc.arachne.portal.service.BaseDataNodeService;
+import java.util.Collections;
+import java.util.Optional;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@RunWith(MockitoJUnitRunner.class)
+public class DataNodeTokenCacheTest {
+
+    private static final long DATA_NODE_ID = 7L;
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+    @Mock
+    private BaseDataNodeService<DataNode> dataNodeService;
+    @Mock
+    private PostUpdateEvent updateEvent;
+
+    private DataNodeTokenCache cache;
+
+    @Before
+    public void setUp() {
+
+        cache = new DataNodeTokenCache(entityManagerFactory, dataNodeService, 60, 10, 100);
+    }
+
+    @After
+    public void tearDown() {
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void shouldServeHitsWithoutQuery() {
+
+        final DataNode dataNode = dataNode("token");
+        dataNode.setDataSources(Collections.singleton(dataSource(11L, dataNode)));
+        when(dataNodeService.findByToken("token")).thenReturn(Optional.of(dataNode));
+
+        final DataNodeIdentity first = cache.findByToken("token").get();
+        final DataNodeIdentity second = cache.findByToken("token").get();
+        final DataNodeIdentity third = cache.findByToken("token").get();
+
+        assertThat(first.getId()).isEqualTo(DATA_NODE_ID);
+        assertThat(first.getToken()).isEqualTo("token");
+        assertThat(first.getDataSourceIds()).containsExactly(11L);
+        assertThat(second).isSameAs(first).isSameAs(third);
+        verify(dataNodeService, times(1)).findByToken("token");
+        verifyNoMoreInteractions(dataNodeService);
+        assertThat(cache.getStats().hitCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldRejectReplacedToken() {
+
+        when(dataNodeService.findByToken("old")).thenReturn(Optional.of(dataNode("old")), Optional.empty());
+        cache.findByToken("old");
+
+        when(updateEvent.getEntity()).thenReturn(dataNode("new"));
+        cache.onPostUpdate(updateEvent);
+
+        assertThat(cache.findByToken("old")).isEmpty();
+        verify(dataNodeService, times(2)).findByToken("old");
+    }
+
+    @Test
+    public void shouldReloadIdentityWhenDataSourceChanges() {
+
+        final DataNode dataNode = dataNode("token");
+        when(dataNodeService.findByToken("token")).thenReturn(Optional.of(dataNode));
+        cache.findByToken("token");
+
+        when(updateEvent.getEntity()).thenReturn(dataSource(11L, dataNode));
+        cache.onPostUpdate(updateEvent);
+        cache.findByToken("token");
+
+        verify(dataNodeService, times(2)).findByToken("token");
+    }
+
+    @Test
+    public void shouldAcceptNewTokenOnceItIsCommitted() {
+
+        when(dataNodeService.findByToken("new")).thenReturn(Optional.empty(), Optional.of(dataNode("new")));
+
+        TransactionSynchronizationManager.initSynchronization();
+        when(updateEvent.getEntity()).thenReturn(dataNode("new"));
+        cache.onPostUpdate(updateEvent);
+        // a concurrent request does not see the new token until the commit
+        assertThat(cache.findByToken("new")).isEmpty();
+        commit();
+
+        assertThat(cache.findByToken("new")).map(DataNodeIdentity::getId).contains(DATA_NODE_ID);
+    }
+
+    private static DataNode dataNode(String token) {
+
+        final DataNode dataNode = new DataNode();
+        dataNode.setId(DATA_NODE_ID);
+        dataNode.setToken(token);
+        return dataNode;
+    }
+
+    private static DataSource dataSource(Long id, DataNode dataNode) {
+
+        final DataSource dataSource = new DataSource();
+        dataSource.setId(id);
+        dataSource.setDataNode(dataNode);
+        return dataSource;
+    }
+
+    private static void commit() {
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+}
@@ -6,15 +6,17 @@ import com.odysseusinc.arachne.portal.service.analysis.heracles.HeraclesAnalysis
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.core.task.SyncTaskExecutor;
 
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static com.odysseusinc.arachne.portal.service.analysis.heracles.parts.HeraclesTestUtils.renameToSqlParameter;
+import static com.odysseusinc.arachne.portal.util.ResourcesUtils.loadStringResource;
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
 
 
@@ -25,7 +27,6 @@ public class AnalysesQueriesRendererTest {
     private HeraclesAnalysesLoader.HeraclesAnalysisParameter analysisParam;
     @Mock
     private HeraclesAnalysesLoader heraclesAnalysesLoader;
-    @InjectMocks
     private AnalysesQueriesRenderer analysesQueriesRenderer;
     private static int analysis_111_id = 111;
 
@@ -34,13 +35,16 @@ public class AnalysesQueriesRendererTest {
 
         analysis = new HeraclesAnalysesLoader.HeraclesAnalysis(analysis_111_id, "Number of persons by observation period start month", "111_112_numberOfPersosnByObservationPeriod.sql", true, false);
         analysisParam = new HeraclesAnalysesLoader.HeraclesAnalysisParameter(analysis_111_id, "fieldName", "observation_period_start_date");
+        analysesQueriesRenderer = new AnalysesQueriesRenderer(heraclesAnalysesLoader, new SyncTaskExecutor());
     }
 
     @Test
     public void itShouldRenderAnalysisAndSubstituteParameters() {
 
         when(heraclesAnalysesLoader.readHeraclesAnalyses()).thenReturn(ImmutableMap.of(analysis_111_id, analysis));
-        when(heraclesAnalysesLoader.readAnalysesParams(any())).thenReturn(ImmutableMap.of(analysis_111_id, ImmutableSet.of(analysisParam)));
+        when(heraclesAnalysesLoader.readAnalysesParams()).thenReturn(ImmutableMap.of(analysis_111_id, ImmutableSet.of(analysisParam)));
+        when(heraclesAnalysesLoader.getAnalysisTemplate(analysis))
+                .thenReturn(loadStringResource(AnalysesQueriesRenderer.ANALYSES_QUERY_PREFIX + analysis.getFilename()));
 
         final String fragment = analysesQueriesRenderer.render(HeraclesAnalysisKind.FULL);
 
@@ -48,4 +52,28 @@ public class AnalysesQueriesRendererTest {
         assertThat(fragment).doesNotContain(sqlParametersList);
         assertThat(fragment).contains("@results_schema", "@CDM_schema");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void itShouldKeepRequestedOrderWhenRenderingInParallel() {
+
+        final HeraclesAnalysesLoader.HeraclesAnalysis first = new HeraclesAnalysesLoader.HeraclesAnalysis(2, "first", "first.sql", true, false);
+        final HeraclesAnalysesLoader.HeraclesAnalysis second = new HeraclesAnalysesLoader.HeraclesAnalysis(1101, "second", "second.sql", true, false);
+        when(heraclesAnalysesLoader.readHeraclesAnalyses()).thenReturn(ImmutableMap.of(first.getId(), first, second.getId(), second));
+        when(heraclesAnalysesLoader.readAnalysesParams()).thenReturn(ImmutableMap.of(first.getId(), ImmutableSet.of(), second.getId(), ImmutableSet.of()));
+        when(heraclesAnalysesLoader.getAnalysisTemplate(first)).thenAnswer(invocation -> {
+            // finishes after the analysis requested later
+            Thread.sleep(200);
+            return "select @analysisId as first_analysis;";
+        });
+        when(heraclesAnalysesLoader.getAnalysisTemplate(second)).thenReturn("select @analysisId as second_analysis;");
+
+        final ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            final String fragment = new AnalysesQueriesRenderer(heraclesAnalysesLoader, pool::execute).render(HeraclesAnalysisKind.FULL);
+
+            assertThat(fragment).isEqualTo("select 2 as first_analysis;\nselect 1101 as second_analysis;\n");
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
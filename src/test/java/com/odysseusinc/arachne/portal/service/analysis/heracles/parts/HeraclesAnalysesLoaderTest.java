@@ -52,4 +52,13 @@ public class HeraclesAnalysesLoaderTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    public void shouldParseCatalogParamsOnce() {
+
+        final Map<Integer, Set<HeraclesAnalysesLoader.HeraclesAnalysisParameter>> analysesParams = heraclesAnalysesLoader.readAnalysesParams();
+
+        assertThat(heraclesAnalysesLoader.readAnalysesParams()).isSameAs(analysesParams);
+        assertThat(analysesParams).isEqualTo(heraclesAnalysesLoader.readAnalysesParams(heraclesAnalysesLoader.readHeraclesAnalyses()));
+    }
+
+}
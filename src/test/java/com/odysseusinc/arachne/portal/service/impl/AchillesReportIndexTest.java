@@ -0,0 +1,131 @@
+/*
+ *
+ * Copyright 2021 Odysseus Data Services, inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Company: Odysseus Data Services, Inc.
+ * Product Owner/Architecture: Gregory Klebanov
+ * Authors: Yaroslav Molodkov, Alexandr Cumarav, Vitaliy Kulakov
+ * Created: November 09, 2021
+ *
+ */
+
+package com.odysseusinc.arachne.portal.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.odysseusinc.arachne.portal.model.achilles.AchillesReport;
+import com.odysseusinc.arachne.portal.model.achilles.AchillesReportMatcher;
+import com.odysseusinc.arachne.portal.repository.AchillesReportRepository;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.util.AntPathMatcher;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AchillesReportIndexTest {
+
+    @Mock
+    private AchillesReportRepository achillesReportRepository;
+
+    private AchillesReportIndex index;
+    private List<AchillesReport> reports;
+
+    @Before
+    public void setUp() {
+
+        reports = Arrays.asList(
+                report(1L, "Dashboard", "dashboard.json"),
+                report(2L, "Achilles Heel", "achillesheel.json", "person.json"),
+                report(3L, "Conditions", "condition_treemap.json", "conditions/condition_*.json"),
+                report(4L, "Drug Exposures", "drugs/drug_*.json", "drugs/drug_1.json"),
+                report(5L, "Summaries", "**/summary.json"),
+                report(6L, "Unmatched"));
+        when(achillesReportRepository.findAllWithMatchersOrderBySortOrderAsc()).thenReturn(reports);
+        index = new AchillesReportIndex(achillesReportRepository);
+    }
+
+    @Test
+    public void shouldResolveAsMatchingEveryPattern() {
+
+        final List<String> paths = Arrays.asList("dashboard.json", "person.json", "conditions/condition_42.json",
+                "conditions/nested/condition_42.json", "condition_42.json", "drugs/drug_1.json", "drugs/drug_2.json",
+                "summary.json", "drugs/summary.json", "a/b/summary.json", "unknown.json");
+
+        for (final String path : paths) {
+            assertThat(names(index.getReports(path))).as(path).isEqualTo(names(matchEveryPattern(path)));
+        }
+    }
+
+    @Test
+    public void shouldResolveInSortOrder() {
+
+        assertThat(names(index.getReports("conditions/condition_1.json"))).containsExactly("Conditions");
+        assertThat(names(index.getReports("drugs/drug_1.json"))).containsExactly("Drug Exposures");
+        assertThat(names(index.getReports("x/summary.json"))).containsExactly("Summaries");
+        assertThat(index.getReports()).extracting(AchillesReport::getName)
+                .containsExactly("Dashboard", "Achilles Heel", "Conditions", "Drug Exposures", "Summaries", "Unmatched");
+    }
+
+    @Test
+    public void shouldLoadReportsOnceUntilRefreshed() {
+
+        index.getReports();
+        index.getReports("dashboard.json");
+        index.getReports("person.json");
+        verify(achillesReportRepository, times(1)).findAllWithMatchersOrderBySortOrderAsc();
+
+        index.refresh();
+        index.getReports("dashboard.json");
+        verify(achillesReportRepository, times(2)).findAllWithMatchersOrderBySortOrderAsc();
+    }
+
+    private List<AchillesReport> matchEveryPattern(String path) {
+
+        final AntPathMatcher matcher = new AntPathMatcher();
+        return reports.stream()
+                .filter(report -> report.getMatchers().stream().anyMatch(m -> matcher.match(m.getPattern(), path)))
+                .collect(Collectors.toList());
+    }
+
+    private static List<String> names(List<AchillesReport> reports) {
+
+        return reports.stream().map(AchillesReport::getName).collect(Collectors.toList());
+    }
+
+    private static AchillesReport report(Long id, String name, String... patterns) {
+
+        final AchillesReport report = new AchillesReport();
+        report.setId(id);
+        report.setName(name);
+        report.setLabel(name);
+        final List<AchillesReportMatcher> matchers = new ArrayList<>();
+        for (final String pattern : patterns) {
+            final AchillesReportMatcher matcher = new AchillesReportMatcher();
+            matcher.setReport(report);
+            matcher.setPattern(pattern);
+            matchers.add(matcher);
+        }
+        report.setMatchers(matchers);
+        return report;
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ *
+ * Copyright 2021 Odysseus Data Services, inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Company: Odysseus Data Services, Inc.
+ * Product Owner/Architecture: Gregory Klebanov
+ * Authors: Yaroslav Molodkov, Alexandr Cumarav, Vitaliy Kulakov
+ * Created: November 09, 2021
+ *
+ */
+
+package com.odysseusinc.arachne.portal.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.github.springtestdbunit.annotation.DatabaseOperation;
+import com.github.springtestdbunit.annotation.DatabaseSetup;
+import com.github.springtestdbunit.annotation.DatabaseSetups;
+import com.github.springtestdbunit.annotation.DatabaseTearDown;
+import com.odysseusinc.arachne.portal.SingleContextTest;
+import com.odysseusinc.arachne.portal.model.ParticipantRole;
+import com.odysseusinc.arachne.portal.model.Study;
+import com.odysseusinc.arachne.portal.model.security.ArachneUser;
+import com.odysseusinc.arachne.portal.service.ArachneSecureService;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.test.context.support.WithUserDetails;
+import org.springframework.test.context.TestExecutionListeners;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.context.transaction.TransactionalTestExecutionListener;
+import org.springframework.transaction.annotation.Transactional;
+
+@RunWith(SpringRunner.class)
+@DatabaseTearDown(value = "/data/empty.xml", type = DatabaseOperation.DELETE_ALL)
+@TestExecutionListeners({TransactionalTestExecutionListener.class})
+@Transactional
+public class ArachneSecureServiceImplTest extends SingleContextTest {
+
+    @Autowired
+    private ArachneSecureService secureService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Statistics statistics;
+    private boolean statisticsEnabled;
+
+    @Before
+    public void setUp() {
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statisticsEnabled = statistics.isStatisticsEnabled();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @After
+    public void tearDown() {
+
+        statistics.setStatisticsEnabled(statisticsEnabled);
+    }
+
+    @Test
+    @WithUserDetails("admin@odysseusinc.com")
+    @DatabaseSetups({
+            @DatabaseSetup("/data/users.xml"),
+            @DatabaseSetup("/data/study-with-contributor.xml")
+    })
+    public void rolesOfStudiesShouldBeResolvedWithTheSameStatementsForAnyNumberOfStudies() {
+
+        final ArachneUser user = (ArachneUser) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+
+        final Map<Long, List<ParticipantRole>> single = getRolesByStudies(user, 1L);
+        final long singleStatements = statistics.getPrepareStatementCount();
+        final Map<Long, List<ParticipantRole>> bulk = getRolesByStudies(user, 1L, 2L, 3L);
+        final long bulkStatements = statistics.getPrepareStatementCount();
+
+        assertThat(bulkStatements).isEqualTo(singleStatements);
+        assertThat(bulk).containsEntry(1L, single.get(1L));
+        assertThat(bulk.get(1L)).contains(ParticipantRole.LEAD_INVESTIGATOR);
+        for (final Long id : Arrays.asList(1L, 2L, 3L)) {
+            entityManager.clear();
+            assertThat(bulk.get(id)).containsExactlyInAnyOrderElementsOf(
+                    secureService.getRolesByStudy(user, entityManager.find(Study.class, id)));
+        }
+    }
+
+    private Map<Long, List<ParticipantRole>> getRolesByStudies(ArachneUser user, Long... ids) {
+
+        entityManager.clear();
+        final List<Study> studies = Arrays.stream(ids)
+                .map(id -> entityManager.getReference(Study.class, id))
+                .collect(Collectors.toList());
+        statistics.clear();
+        return Collections.unmodifiableMap(secureService.getRolesByStudies(user, studies));
+    }
+}
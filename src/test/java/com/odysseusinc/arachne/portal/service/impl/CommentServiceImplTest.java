@@ -0,0 +1,160 @@
+/*
+ *
+ * Copyright 2021 Odysseus Data Services, inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Company: Odysseus Data Services, Inc.
+ * Product Owner/Architecture: Gregory Klebanov
+ * Authors: Yaroslav Molodkov, Alexandr Cumarav, Vitaliy Kulakov
+ * Created: November 09, 2021
+ *
+ */
+
+package com.odysseusinc.arachne.portal.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.odysseusinc.arachne.portal.api.v1.dto.CommentDTO;
+import com.odysseusinc.arachne.portal.api.v1.dto.CommentTopicDTO;
+import com.odysseusinc.arachne.portal.api.v1.dto.UserInfoDTO;
+import com.odysseusinc.arachne.portal.model.Comment;
+import com.odysseusinc.arachne.portal.model.CommentTopic;
+import com.odysseusinc.arachne.portal.model.IUser;
+import com.odysseusinc.arachne.portal.repository.CommentRepository;
+import com.odysseusinc.arachne.portal.repository.CommentTopicRepository;
+import java.util.Arrays;
+import java.util.List;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.core.convert.support.GenericConversionService;
+
+@RunWith(MockitoJUnitRunner.class)
+public class CommentServiceImplTest {
+
+    private static final Long TOPIC_ID = 1L;
+    private static final Long OTHER_TOPIC_ID = 2L;
+
+    @Mock
+    private CommentTopicRepository commentTopicRepository;
+    @Mock
+    private CommentRepository commentRepository;
+    @Mock
+    private GenericConversionService conversionService;
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+    @Mock
+    private IUser author;
+    @Mock
+    private PostUpdateEvent updateEvent;
+
+    private CommentThreadCache commentThreadCache;
+    private CommentServiceImpl commentService;
+
+    @Before
+    public void setUp() {
+
+        commentThreadCache = new CommentThreadCache(entityManagerFactory, 60, 100);
+        commentService = new CommentServiceImpl(commentTopicRepository, commentRepository, commentThreadCache,
+                conversionService);
+        when(conversionService.convert(any(Comment.class), eq(CommentDTO.class))).thenAnswer(invocation -> {
+            final Comment comment = invocation.getArgument(0);
+            final CommentDTO commentDTO = new CommentDTO();
+            commentDTO.setId(comment.getId());
+            commentDTO.setAuthor(new UserInfoDTO(comment.getId() == 2L ? "answering-author" : "author"));
+            return commentDTO;
+        });
+    }
+
+    @Test
+    public void shouldNestAnswersUnderTheirParents() throws Exception {
+
+        // the answer is repeated once per role of its author
+        thread(TOPIC_ID, row(1L, null), row(2L, 1L), row(2L, 1L), row(3L, null), row(4L, 2L));
+
+        final CommentTopicDTO topic = commentService.getTopicThread(TOPIC_ID);
+
+        assertThat(topic.getId()).isEqualTo(TOPIC_ID);
+        final List<CommentDTO> roots = topic.getComments();
+        assertThat(roots).extracting(CommentDTO::getId).containsExactly(1L, 3L);
+        assertThat(roots).extracting(CommentDTO::getParentId).containsOnlyNulls();
+        final CommentDTO answer = roots.get(0).getComments().get(0);
+        assertThat(roots.get(0).getComments()).hasSize(1);
+        assertThat(answer.getId()).isEqualTo(2L);
+        assertThat(answer.getParentId()).isEqualTo(1L);
+        assertThat(answer.getComments()).extracting(CommentDTO::getId).containsExactly(4L);
+        assertThat(roots.get(1).getComments()).isEmpty();
+        verify(conversionService, times(4)).convert(any(Comment.class), eq(CommentDTO.class));
+        verify(commentRepository).findThreadAuthorsWithTenants(TOPIC_ID);
+    }
+
+    @Test
+    public void shouldLoadThreadOnceUntilTopicChanges() throws Exception {
+
+        thread(TOPIC_ID, row(1L, null));
+
+        final CommentTopicDTO first = commentService.getTopicThread(TOPIC_ID);
+        assertThat(commentService.getTopicThread(TOPIC_ID)).isSameAs(first);
+        verify(commentRepository, times(1)).findThreadByTopicId(TOPIC_ID);
+
+        commentService.deleteTopic(topic(TOPIC_ID));
+
+        assertThat(commentService.getTopicThread(TOPIC_ID)).isNotSameAs(first);
+        verify(commentRepository, times(2)).findThreadByTopicId(TOPIC_ID);
+    }
+
+    @Test
+    public void shouldEvictThreadsWithAnswersOfUpdatedUser() throws Exception {
+
+        thread(TOPIC_ID, row(1L, null), row(2L, 1L));
+        thread(OTHER_TOPIC_ID, row(3L, null));
+        final CommentTopicDTO topic = commentService.getTopicThread(TOPIC_ID);
+        final CommentTopicDTO otherTopic = commentService.getTopicThread(OTHER_TOPIC_ID);
+
+        when(author.getUuid()).thenReturn("answering-author");
+        when(updateEvent.getEntity()).thenReturn(author);
+        commentThreadCache.onPostUpdate(updateEvent);
+
+        assertThat(commentService.getTopicThread(TOPIC_ID)).isNotSameAs(topic);
+        assertThat(commentService.getTopicThread(OTHER_TOPIC_ID)).isSameAs(otherTopic);
+    }
+
+    private void thread(Long topicId, Object[]... rows) {
+
+        when(commentTopicRepository.existsById(topicId)).thenReturn(true);
+        when(commentRepository.findThreadByTopicId(topicId)).thenReturn(Arrays.asList(rows));
+    }
+
+    private static Object[] row(Long id, Long parentId) {
+
+        final Comment comment = new Comment();
+        comment.setId(id);
+        return new Object[]{comment, parentId};
+    }
+
+    private static CommentTopic topic(Long id) {
+
+        final CommentTopic topic = new CommentTopic();
+        topic.setId(id);
+        return topic;
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ *
+ * Copyright 2021 Odysseus Data Services, inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Company: Odysseus Data Services, Inc.
+ * Product Owner/Architecture: Gregory Klebanov
+ * Authors: Yaroslav Molodkov, Alexandr Cumarav, Vitaliy Kulakov
+ * Created: November 09, 2021
+ *
+ */
+
+package com.odysseusinc.arachne.portal.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.odysseusinc.arachne.portal.service.impl.AchillesImportServiceImpl.CopyTextEscapingOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import org.junit.Test;
+
+public class CopyTextEscapingOutputStreamTest {
+
+    @Test
+    public void shouldEscapeDelimitersOfCopyTextFormat() throws IOException {
+
+        assertThat(escape("{\"a\":\"tab\there\",\r\n\"b\":1}"))
+                .isEqualTo("{\"a\":\"tab\\there\",\\r\\n\"b\":1}");
+    }
+
+    @Test
+    public void shouldEscapeBackslashes() throws IOException {
+
+        // JSON escapes keep their backslash after COPY reads the value back
+        assertThat(escape("{\"path\":\"C:\\\\data\",\"quote\":\"\\\"\"}"))
+                .isEqualTo("{\"path\":\"C:\\\\\\\\data\",\"quote\":\"\\\\\"\"}");
+    }
+
+    @Test
+    public void shouldNotLetContentBeReadAsNull() throws IOException {
+
+        // \N is the NULL marker of the text format
+        assertThat(escape("\\N")).isEqualTo("\\\\N");
+        assertThat(escape("{\"value\":null}")).isEqualTo("{\"value\":null}");
+    }
+
+    @Test
+    public void shouldKeepMultiByteCharacters() throws IOException {
+
+        assertThat(escape("{\"name\":\"Zürich\tМосква\"}")).isEqualTo("{\"name\":\"Zürich\\tМосква\"}");
+    }
+
+    @Test
+    public void shouldEscapeSingleBytesAsArrays() throws IOException {
+
+        final String content = "a\\b\tc\nd\re";
+        final ByteArrayOutputStream target = new ByteArrayOutputStream();
+        try (OutputStream out = new CopyTextEscapingOutputStream(target)) {
+            for (byte b : content.getBytes(StandardCharsets.UTF_8)) {
+                out.write(b);
+            }
+        }
+
+        assertThat(target.toString(StandardCharsets.UTF_8.name())).isEqualTo(escape(content));
+    }
+
+    private static String escape(String content) throws IOException {
+
+        final ByteArrayOutputStream target = new ByteArrayOutputStream();
+        try (OutputStream out = new CopyTextEscapingOutputStream(target)) {
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return target.toString(StandardCharsets.UTF_8.name());
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ *
+ * Copyright 2021 Odysseus Data Services, inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Company: Odysseus Data Services, Inc.
+ * Product Owner/Architecture: Gregory Klebanov
+ * Authors: Yaroslav Molodkov, Alexandr Cumarav, Vitaliy Kulakov
+ * Created: November 09, 2021
+ *
+ */
+
+package com.odysseusinc.arachne.portal.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.odysseusinc.arachne.portal.api.v1.dto.converters.SolrFieldExtractor;
+import com.odysseusinc.arachne.portal.model.solr.SolrCollection;
+import com.odysseusinc.arachne.portal.model.solr.SolrEntity;
+import com.odysseusinc.arachne.portal.model.solr.SolrFieldAnno;
+import com.odysseusinc.arachne.portal.service.BaseSolrService;
+import com.odysseusinc.arachne.portal.service.impl.solr.FieldList;
+import com.odysseusinc.arachne.portal.service.impl.solr.SolrField;
+import java.lang.reflect.Field;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SolrServiceImplTest {
+
+    private SolrServiceImpl solrService;
+
+    @Before
+    public void setUp() {
+
+        solrService = spy(new SolrServiceImpl());
+    }
+
+    @Test
+    public void shouldCollectFieldsOfClassOnce() {
+
+        solrService.getValuesByEntity(new IndexedEntity(1L, "first", "owner1"));
+        solrService.getValuesByEntity(new IndexedEntity(2L, "second", "owner2"));
+        solrService.getFieldsOfClass(IndexedEntity.class);
+
+        verify(solrService, times(IndexedEntity.class.getDeclaredFields().length)).getSolrField(any(Field.class));
+    }
+
+    @Test
+    public void shouldReadValuesOfEachEntity() {
+
+        solrService.getValuesByEntity(new IndexedEntity(1L, "first", "owner1"));
+        final Map<String, Object> values = byName(solrService.getValuesByEntity(new IndexedEntity(2L, "second", "owner2")));
+
+        assertThat(values)
+                .containsEntry("title", "second")
+                .containsEntry("owner", "OWNER2")
+                .containsEntry(BaseSolrService.ID, 2L);
+    }
+
+    @Test
+    public void shouldReturnFieldsOfClassWhichCallersMayExtend() {
+
+        final FieldList<SolrField> fields = solrService.getFieldsOfClass(IndexedEntity.class);
+        final int size = fields.size();
+        fields.add(new SolrField("extra"));
+
+        assertThat(solrService.getFieldsOfClass(IndexedEntity.class)).hasSize(size).isNotSameAs(fields);
+    }
+
+    private static Map<String, Object> byName(Map<SolrField, Object> values) {
+
+        return values.entrySet().stream().collect(Collectors.toMap(e -> e.getKey().getName(), Map.Entry::getValue));
+    }
+
+    public static class OwnerExtractor implements SolrFieldExtractor<IndexedEntity> {
+
+        @Override
+        public Object extract(IndexedEntity domain) {
+
+            return domain.owner.toUpperCase();
+        }
+    }
+
+    private static class IndexedEntity implements SolrEntity {
+
+        private final Long id;
+        @SolrFieldAnno(query = true)
+        private final String title;
+        @SolrFieldAnno(name = "owner", extractor = OwnerExtractor.class)
+        private final String owner;
+
+        private IndexedEntity(Long id, String title, String owner) {
+
+            this.id = id;
+            this.title = title;
+            this.owner = owner;
+        }
+
+        @Override
+        public Long getId() {
+
+            return id;
+        }
+
+        @Override
+        public SolrCollection getCollection() {
+
+            return SolrCollection.USERS;
+        }
+    }
+}
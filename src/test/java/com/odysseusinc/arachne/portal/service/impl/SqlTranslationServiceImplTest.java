@@ -0,0 +1,108 @@
+/*
+ *
+ * Copyright 2021 Odysseus Data Services, inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Company: Odysseus Data Services, Inc.
+ * Product Owner/Architecture: Gregory Klebanov
+ * Authors: Yaroslav Molodkov, Alexandr Cumarav, Vitaliy Kulakov
+ * Created: November 09, 2021
+ *
+ */
+
+package com.odysseusinc.arachne.portal.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.odysseusinc.arachne.commons.types.DBMSType;
+import com.odysseusinc.arachne.portal.config.properties.SqlTranslationProperties;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.ohdsi.sql.SqlRender;
+import org.ohdsi.sql.SqlTranslate;
+
+public class SqlTranslationServiceImplTest {
+
+    private static final String STATEMENT = "SELECT TOP 10 person_id FROM person;";
+
+    private ExecutorService pool;
+    private AtomicInteger submitted;
+    private Set<String> threads;
+    private SqlTranslationServiceImpl translationService;
+
+    @Before
+    public void setUp() {
+
+        pool = Executors.newFixedThreadPool(4);
+        submitted = new AtomicInteger();
+        threads = ConcurrentHashMap.newKeySet();
+        translationService = new SqlTranslationServiceImpl(task -> {
+            submitted.incrementAndGet();
+            pool.execute(() -> {
+                threads.add(Thread.currentThread().getName());
+                task.run();
+            });
+        }, new SqlTranslationProperties());
+    }
+
+    @After
+    public void tearDown() {
+
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void shouldTranslateToEveryDialectOnExecutor() {
+
+        final Map<DBMSType, String> translated = translationService.translateToAllDialects(STATEMENT);
+
+        final String rendered = SqlRender.renderSql(STATEMENT, null, null);
+        assertThat(translated).containsOnlyKeys(DBMSType.values());
+        for (DBMSType dialect : DBMSType.values()) {
+            assertThat(translated.get(dialect)).isEqualTo(SqlTranslate.translateSql(rendered, dialect.getOhdsiDB()));
+        }
+        assertThat(submitted.get()).isEqualTo(DBMSType.values().length);
+        assertThat(threads).doesNotContain(Thread.currentThread().getName());
+    }
+
+    @Test
+    public void shouldServeSameStatementFromCache() {
+
+        final Map<DBMSType, String> first = translationService.translateToAllDialects(STATEMENT);
+        submitted.set(0);
+
+        final Map<DBMSType, String> second = translationService.translateToAllDialects(STATEMENT);
+
+        assertThat(second).isEqualTo(first);
+        assertThat(submitted.get()).isZero();
+    }
+
+    @Test
+    public void shouldTranslateChangedStatementAgain() {
+
+        translationService.translateToAllDialects(STATEMENT);
+        submitted.set(0);
+
+        final Map<DBMSType, String> translated = translationService.translateToAllDialects(STATEMENT.replace("10", "20"));
+
+        assertThat(submitted.get()).isEqualTo(DBMSType.values().length);
+        assertThat(translated.get(DBMSType.POSTGRESQL)).contains("20");
+    }
+}
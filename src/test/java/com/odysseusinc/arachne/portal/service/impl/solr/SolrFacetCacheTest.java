@@ -0,0 +1,105 @@
+/*
+ *
+ * Copyright 2021 Odysseus Data Services, inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Company: Odysseus Data Services, Inc.
+ * Product Owner/Architecture: Gregory Klebanov
+ * Authors: Yaroslav Molodkov, Alexandr Cumarav, Vitaliy Kulakov
+ * Created: November 09, 2021
+ *
+ */
+
+package com.odysseusinc.arachne.portal.service.impl.solr;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import com.odysseusinc.arachne.portal.config.tenancy.TenantContext;
+import com.odysseusinc.arachne.portal.model.solr.SolrCollection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.solr.client.solrj.SolrQuery;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SolrFacetCacheTest {
+
+    private static final String USERS = SolrCollection.USERS.getName();
+
+    @Mock
+    private SolrIndexingQueue indexingQueue;
+
+    private SolrFacetCache cache;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Before
+    public void setUp() {
+
+        cache = new SolrFacetCache(indexingQueue, 10, 100);
+        TenantContext.setCurrentTenant(1L);
+    }
+
+    @After
+    public void tearDown() {
+
+        TenantContext.setCurrentTenant(null);
+    }
+
+    @Test
+    public void shouldReuseOptionsUntilIndexChanges() throws Exception {
+
+        final SolrQuery query = new SolrQuery("*:*");
+        when(indexingQueue.getChangesVisibleAt(USERS)).thenReturn(0L);
+
+        assertThat(cache.getExcludedOptions(USERS, query, this::load)).containsEntry("country", list(1));
+        assertThat(cache.getExcludedOptions(USERS, query, this::load)).containsEntry("country", list(1));
+        assertThat(loads.get()).isEqualTo(1);
+
+        when(indexingQueue.getChangesVisibleAt(USERS)).thenReturn(Long.MAX_VALUE);
+
+        assertThat(cache.getExcludedOptions(USERS, query, this::load)).containsEntry("country", list(2));
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldKeepOptionsPerTenant() throws Exception {
+
+        final SolrQuery query = new SolrQuery("*:*");
+        when(indexingQueue.getChangesVisibleAt(USERS)).thenReturn(0L);
+
+        cache.getExcludedOptions(USERS, query, this::load);
+        TenantContext.setCurrentTenant(2L);
+        cache.getExcludedOptions(USERS, query, this::load);
+        cache.getExcludedOptions(USERS, query, this::load);
+
+        assertThat(loads.get()).isEqualTo(2);
+    }
+
+    private Map<String, List<String>> load() {
+
+        return Collections.singletonMap("country", list(loads.incrementAndGet()));
+    }
+
+    private static List<String> list(int load) {
+
+        return Collections.singletonList("option" + load);
+    }
+}
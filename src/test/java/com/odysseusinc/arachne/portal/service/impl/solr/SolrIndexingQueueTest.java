@@ -0,0 +1,223 @@
+/*
+ *
+ * Copyright 2021 Odysseus Data Services, inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Company: Odysseus Data Services, Inc.
+ * Product Owner/Architecture: Gregory Klebanov
+ * Authors: Yaroslav Molodkov, Alexandr Cumarav, Vitaliy Kulakov
+ * Created: November 09, 2021
+ *
+ */
+
+package com.odysseusinc.arachne.portal.service.impl.solr;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.odysseusinc.arachne.portal.config.properties.SolrIndexingProperties;
+import com.odysseusinc.arachne.portal.model.solr.SolrCollection;
+import com.odysseusinc.arachne.portal.service.BaseSolrService;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import org.apache.solr.client.solrj.SolrClient;
+import org.apache.solr.client.solrj.SolrServerException;
+import org.apache.solr.client.solrj.response.UpdateResponse;
+import org.apache.solr.common.SolrInputDocument;
+import org.apache.solr.common.util.NamedList;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SolrIndexingQueueTest {
+
+    private static final String USERS = SolrCollection.USERS.getName();
+    private static final int COMMIT_WITHIN_MS = 1000;
+
+    @Mock
+    private SolrClient solrClient;
+    @Captor
+    private ArgumentCaptor<Collection<SolrInputDocument>> documents;
+
+    private SolrIndexingProperties properties;
+    private SolrIndexingQueue queue;
+
+    @Before
+    public void setUp() {
+
+        properties = new SolrIndexingProperties();
+        properties.setFlushIntervalMs(100L);
+        properties.setCommitWithinMs(COMMIT_WITHIN_MS);
+        properties.setMaxAttempts(2);
+        properties.setShutdownTimeoutMs(5000L);
+        queue = new SolrIndexingQueue(solrClient, properties, 100);
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+
+        queue.shutdown();
+    }
+
+    @Test
+    public void shouldSendOnlyLatestStateOfDocumentInOneRequest() throws Exception {
+
+        when(solrClient.add(anyString(), anyCollection(), anyInt())).thenReturn(ok());
+        queue.start();
+
+        queue.add(USERS, document(1L, "first"));
+        queue.add(USERS, document(2L, "second"));
+        queue.add(USERS, document(1L, "updated"));
+        queue.flush();
+
+        verify(solrClient).add(eq(USERS), documents.capture(), eq(COMMIT_WITHIN_MS));
+        assertThat(documents.getValue()).extracting(d -> d.getFieldValue("name"))
+                .containsExactly("second", "updated");
+        assertThat(queue.size()).isZero();
+    }
+
+    @Test
+    public void shouldKeepOrderOfAddsAndDeletes() throws Exception {
+
+        when(solrClient.add(anyString(), anyCollection(), anyInt())).thenReturn(ok());
+        when(solrClient.deleteById(anyString(), anyList(), anyInt())).thenReturn(ok());
+        queue.start();
+
+        queue.add(USERS, document(1L, "first"));
+        queue.deleteById(USERS, "2-" + USERS);
+        queue.add(USERS, document(3L, "third"));
+        queue.flush();
+
+        final InOrder order = inOrder(solrClient);
+        order.verify(solrClient).add(eq(USERS), documents.capture(), eq(COMMIT_WITHIN_MS));
+        order.verify(solrClient).deleteById(USERS, Collections.singletonList("2-" + USERS), COMMIT_WITHIN_MS);
+        order.verify(solrClient).add(eq(USERS), documents.capture(), eq(COMMIT_WITHIN_MS));
+        assertThat(documents.getAllValues()).extracting(Collection::size).containsExactly(1, 1);
+    }
+
+    @Test
+    public void shouldSendOnlyAddWhenDocumentIsAddedAgainAfterDelete() throws Exception {
+
+        when(solrClient.add(anyString(), anyCollection(), anyInt())).thenReturn(ok());
+        queue.start();
+
+        queue.add(USERS, document(1L, "first"));
+        queue.deleteById(USERS, "1-" + USERS);
+        queue.add(USERS, document(1L, "restored"));
+        queue.flush();
+
+        verify(solrClient).add(eq(USERS), documents.capture(), eq(COMMIT_WITHIN_MS));
+        assertThat(documents.getValue()).extracting(d -> d.getFieldValue("name")).containsExactly("restored");
+        verify(solrClient, never()).deleteById(anyString(), anyList(), anyInt());
+    }
+
+    @Test
+    public void shouldSendOnlyDeleteWhenAddedDocumentIsDeleted() throws Exception {
+
+        when(solrClient.deleteById(anyString(), anyList(), anyInt())).thenReturn(ok());
+        queue.start();
+
+        queue.add(USERS, document(1L, "first"));
+        queue.deleteById(USERS, "1-" + USERS);
+        queue.flush();
+
+        verify(solrClient).deleteById(USERS, Collections.singletonList("1-" + USERS), COMMIT_WITHIN_MS);
+        verify(solrClient, never()).add(anyString(), anyCollection(), anyInt());
+    }
+
+    @Test
+    public void shouldDiscardQueuedUpdatesOnDeleteAll() throws Exception {
+
+        when(solrClient.deleteByQuery(anyString(), anyString(), anyInt())).thenReturn(ok());
+        queue.start();
+
+        queue.add(USERS, document(1L, "first"));
+        queue.deleteByQuery(USERS, "*:*");
+        queue.flush();
+
+        verify(solrClient, never()).add(anyString(), anyCollection(), anyInt());
+        verify(solrClient).deleteByQuery(USERS, "*:*", COMMIT_WITHIN_MS);
+    }
+
+    @Test
+    public void shouldDropUpdatesAfterAllAttemptsFailed() throws Exception {
+
+        when(solrClient.add(anyString(), anyCollection(), anyInt())).thenThrow(new SolrServerException("down"));
+        queue.start();
+
+        queue.add(USERS, Arrays.asList(document(1L, "first"), document(2L, "second")));
+        queue.flush();
+
+        verify(solrClient, times(2)).add(eq(USERS), anyCollection(), eq(COMMIT_WITHIN_MS));
+        assertThat(queue.getDroppedCount(USERS)).isEqualTo(2);
+    }
+
+    @Test
+    public void shouldSendOnCallerThreadWhenNotAsync() throws Exception {
+
+        properties.setAsync(false);
+        when(solrClient.add(anyString(), anyCollection(), anyInt())).thenReturn(ok());
+        queue.start();
+        final long startedAt = System.currentTimeMillis();
+
+        queue.add(USERS, document(1L, "first"));
+
+        verify(solrClient).add(eq(USERS), documents.capture(), eq(COMMIT_WITHIN_MS));
+        assertThat(documents.getValue()).hasSize(1);
+        assertThat(queue.getChangesVisibleAt(USERS)).isGreaterThanOrEqualTo(startedAt + COMMIT_WITHIN_MS);
+    }
+
+    @Test
+    public void shouldThrowOnCallerThreadWhenNotAsync() throws Exception {
+
+        properties.setAsync(false);
+        when(solrClient.add(anyString(), anyCollection(), anyInt())).thenThrow(new IOException("down"));
+        queue.start();
+
+        assertThatThrownBy(() -> queue.add(USERS, document(1L, "first"))).isInstanceOf(SolrException.class);
+    }
+
+    private static SolrInputDocument document(Long id, String name) {
+
+        final SolrInputDocument document = new SolrInputDocument();
+        document.addField(BaseSolrService.ID, id);
+        document.addField("name", name);
+        return document;
+    }
+
+    private static UpdateResponse ok() {
+
+        final UpdateResponse response = new UpdateResponse();
+        response.setResponse(new NamedList<>());
+        return response;
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ *
+ * Copyright 2021 Odysseus Data Services, inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Company: Odysseus Data Services, Inc.
+ * Product Owner/Architecture: Gregory Klebanov
+ * Authors: Yaroslav Molodkov, Alexandr Cumarav, Vitaliy Kulakov
+ * Created: November 09, 2021
+ *
+ */
+
+package com.odysseusinc.arachne.portal.service.mail;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.odysseusinc.arachne.portal.config.properties.MailOutboxProperties;
+import com.odysseusinc.arachne.portal.model.MailOutboxEntry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@RunWith(MockitoJUnitRunner.class)
+public class MailOutboxDispatcherTest {
+
+    @Mock
+    private MailOutboxSender mailOutboxSender;
+    @Mock
+    private MailOutboxStore mailOutboxStore;
+    @Mock
+    private ThreadPoolTaskExecutor executor;
+
+    private MailOutboxDispatcher dispatcher;
+
+    @Before
+    public void setUp() {
+
+        final MailOutboxProperties properties = new MailOutboxProperties();
+        properties.setBatchSize(10);
+        dispatcher = new MailOutboxDispatcher(mailOutboxSender, mailOutboxStore, executor, properties);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @After
+    public void tearDown() {
+
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    public void shouldStoreInCallerTransactionAndSendAfterCommit() {
+
+        runSenders();
+        final MailOutboxEntry entry = new MailOutboxEntry();
+
+        dispatcher.queue(entry);
+
+        verify(mailOutboxStore).queue(entry);
+        verify(mailOutboxSender, never()).sendDueBatch();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        final InOrder order = inOrder(mailOutboxStore, mailOutboxSender);
+        order.verify(mailOutboxStore).queue(entry);
+        order.verify(mailOutboxSender).sendDueBatch();
+    }
+
+    @Test
+    public void shouldNotSendForRolledBackTransaction() {
+
+        dispatcher.queue(new MailOutboxEntry());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(synchronization ->
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        verify(executor, never()).execute(any(Runnable.class));
+    }
+
+    @Test
+    public void shouldSendStoredEntriesOnPoll() {
+
+        runSenders();
+
+        // e-mails stored by an instance which stopped before its senders were woken up
+        dispatcher.wakeUp();
+
+        verify(mailOutboxSender).sendDueBatch();
+    }
+
+    private void runSenders() {
+
+        when(executor.getCorePoolSize()).thenReturn(1);
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(executor).execute(any(Runnable.class));
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ *
+ * Copyright 2021 Odysseus Data Services, inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Company: Odysseus Data Services, Inc.
+ * Product Owner/Architecture: Gregory Klebanov
+ * Authors: Yaroslav Molodkov, Alexandr Cumarav, Vitaliy Kulakov
+ * Created: November 09, 2021
+ *
+ */
+
+package com.odysseusinc.arachne.portal.service.mail;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.odysseusinc.arachne.portal.config.properties.MailOutboxProperties;
+import com.odysseusinc.arachne.portal.model.MailOutboxEntry;
+import com.odysseusinc.arachne.portal.model.MailOutboxStatus;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.mail.MessagingException;
+import javax.mail.SendFailedException;
+import javax.mail.Session;
+import javax.mail.internet.MimeMessage;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+
+@RunWith(MockitoJUnitRunner.class)
+public class MailOutboxSenderTest {
+
+    private static final long INITIAL_BACKOFF_MS = 1000L;
+    private static final long MAX_BACKOFF_MS = 5000L;
+    private static final long RECIPIENT_WINDOW_MS = 60000L;
+
+    @Mock
+    private MailOutboxStore mailOutboxStore;
+    @Mock
+    private JavaMailSender mailSender;
+
+    private MailOutboxSender sender;
+
+    @Before
+    public void setUp() {
+
+        final MailOutboxProperties properties = new MailOutboxProperties();
+        properties.setMaxAttempts(5);
+        properties.setInitialBackoffMs(INITIAL_BACKOFF_MS);
+        properties.setMaxBackoffMs(MAX_BACKOFF_MS);
+        properties.setRecipientLimit(2);
+        properties.setRecipientWindowMs(RECIPIENT_WINDOW_MS);
+        sender = new MailOutboxSender(mailOutboxStore, mailSender, properties, "notifier@example.com");
+    }
+
+    @Test
+    public void shouldSendAndRemoveBody() {
+
+        final MailOutboxEntry entry = entry("jdoe@example.com", 0);
+        due(entry);
+
+        assertThat(sender.sendDueBatch()).isEqualTo(1);
+
+        assertThat(entry.getStatus()).isEqualTo(MailOutboxStatus.SENT);
+        assertThat(entry.getAttempts()).isEqualTo(1);
+        assertThat(entry.getSentAt()).isNotNull();
+        assertThat(entry.getHtmlBody()).isEmpty();
+        assertThat(entry.getTextBody()).isEmpty();
+        verify(mailOutboxStore).complete(Collections.singletonList(entry));
+    }
+
+    @Test
+    public void shouldDoubleBackoffUpToMax() {
+
+        final MailOutboxEntry first = entry("a@example.com", 0);
+        final MailOutboxEntry third = entry("b@example.com", 2);
+        final MailOutboxEntry capped = entry("c@example.com", 3);
+        due(first, third, capped);
+        serverUnavailable();
+
+        final long before = System.currentTimeMillis();
+        sender.sendDueBatch();
+
+        assertThat(first.getAttempts()).isEqualTo(1);
+        assertRetriedIn(first, INITIAL_BACKOFF_MS, before);
+        assertRetriedIn(third, INITIAL_BACKOFF_MS * 4, before);
+        assertRetriedIn(capped, MAX_BACKOFF_MS, before);
+        assertThat(first.getLastError()).isEqualTo("Connection refused");
+        assertThat(first.getHtmlBody()).isNotEmpty();
+    }
+
+    @Test
+    public void shouldGiveUpAfterMaxAttempts() {
+
+        final MailOutboxEntry entry = entry("jdoe@example.com", 4);
+        due(entry);
+        serverUnavailable();
+
+        sender.sendDueBatch();
+
+        assertThat(entry.getStatus()).isEqualTo(MailOutboxStatus.FAILED);
+        assertThat(entry.getAttempts()).isEqualTo(5);
+        assertThat(entry.getHtmlBody()).isEmpty();
+        assertThat(entry.getTextBody()).isEmpty();
+    }
+
+    @Test
+    public void shouldPostponeEmailsOverRecipientLimit() {
+
+        final MailOutboxEntry first = entry("jdoe@example.com", 0);
+        final MailOutboxEntry second = entry("JDoe@example.com", 0);
+        final MailOutboxEntry third = entry("jdoe@example.com", 0);
+        final MailOutboxEntry other = entry("other@example.com", 0);
+        due(first, second, third, other);
+
+        final long before = System.currentTimeMillis();
+        sender.sendDueBatch();
+
+        verify(mailSender).send(any(MimeMessage[].class));
+        assertThat(Arrays.asList(first, second, other)).extracting(MailOutboxEntry::getStatus)
+                .containsOnly(MailOutboxStatus.SENT);
+        assertThat(third.getStatus()).isEqualTo(MailOutboxStatus.PENDING);
+        assertThat(third.getAttempts()).isEqualTo(0);
+        assertRetriedIn(third, RECIPIENT_WINDOW_MS, before);
+    }
+
+    @Test
+    public void shouldRetryOnlyRejectedEmails() {
+
+        final MailOutboxEntry accepted = entry("a@example.com", 0);
+        final MailOutboxEntry rejected = entry("b@example.com", 0);
+        due(accepted, rejected);
+        doAnswer(invocation -> {
+            final List<MimeMessage> messages = messages(invocation);
+            throw new MailSendException(Collections.singletonMap(messages.get(1),
+                    new SendFailedException("Mailbox unavailable")));
+        }).when(mailSender).send(any(MimeMessage[].class));
+
+        sender.sendDueBatch();
+
+        assertThat(accepted.getStatus()).isEqualTo(MailOutboxStatus.SENT);
+        assertThat(rejected.getStatus()).isEqualTo(MailOutboxStatus.PENDING);
+        assertThat(rejected.getAttempts()).isEqualTo(1);
+        assertThat(rejected.getLastError()).isEqualTo("Mailbox unavailable");
+    }
+
+    @Test
+    public void shouldNotSendWhenNothingIsDue() {
+
+        when(mailOutboxStore.claimDue(anyInt(), anyLong())).thenReturn(Collections.emptyList());
+
+        assertThat(sender.sendDueBatch()).isEqualTo(0);
+
+        verify(mailSender, never()).send(any(MimeMessage[].class));
+        verify(mailOutboxStore, never()).complete(any());
+    }
+
+    private void due(MailOutboxEntry... entries) {
+
+        final List<MailOutboxEntry> due = Arrays.asList(entries);
+        when(mailOutboxStore.claimDue(anyInt(), anyLong())).thenReturn(due);
+        when(mailSender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage((Session) null));
+    }
+
+    private void serverUnavailable() {
+
+        // as JavaMailSenderImpl reports a failed connection, every message of the batch is listed as failed
+        doAnswer(invocation -> {
+            final MessagingException error = new MessagingException("Connection refused");
+            final Map<Object, Exception> failed = new HashMap<>();
+            for (final MimeMessage message : messages(invocation)) {
+                failed.put(message, error);
+            }
+            throw new MailSendException("Mail server connection failed", error, failed);
+        }).when(mailSender).send(any(MimeMessage[].class));
+    }
+
+    private static List<MimeMessage> messages(InvocationOnMock invocation) {
+
+        // Mockito expands the varargs of the invocation
+        final List<MimeMessage> messages = new ArrayList<>();
+        for (final Object argument : invocation.getArguments()) {
+            if (argument instanceof MimeMessage[]) {
+                messages.addAll(Arrays.asList((MimeMessage[]) argument));
+            } else {
+                messages.add((MimeMessage) argument);
+            }
+        }
+        return messages;
+    }
+
+    private static void assertRetriedIn(MailOutboxEntry entry, long delayMs, long before) {
+
+        assertThat(entry.getNextAttemptAt().getTime())
+                .isBetween(before + delayMs, System.currentTimeMillis() + delayMs);
+    }
+
+    private static MailOutboxEntry entry(String recipient, int attempts) {
+
+        final MailOutboxEntry entry = new MailOutboxEntry();
+        entry.setRecipient(recipient);
+        entry.setFromPersonal("Arachne");
+        entry.setSubject("Password reset");
+        entry.setHtmlBody("<a href=\"https://arachne/reset?token=secret\">Reset</a>");
+        entry.setTextBody("https://arachne/reset?token=secret");
+        entry.setAttempts(attempts);
+        entry.setCreatedAt(new Date());
+        entry.setNextAttemptAt(new Date());
+        return entry;
+    }
+}
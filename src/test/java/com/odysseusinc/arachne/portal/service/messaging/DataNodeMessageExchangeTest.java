@@ -0,0 +1,111 @@
+/*
+ *
+ * Copyright 2021 Odysseus Data Services, inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Company: Odysseus Data Services, Inc.
+ * Product Owner/Architecture: Gregory Klebanov
+ * Authors: Yaroslav Molodkov, Alexandr Cumarav, Vitaliy Kulakov
+ * Created: November 09, 2021
+ *
+ */
+
+package com.odysseusinc.arachne.portal.service.messaging;
+
+import static com.odysseusinc.arachne.commons.service.messaging.MessagingUtils.getRequestQueueName;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.odysseusinc.arachne.portal.SingleContextTest;
+import java.io.Serializable;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.ObjectMessage;
+import javax.jms.Session;
+import javax.jms.TemporaryQueue;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.junit4.SpringRunner;
+
+@RunWith(SpringRunner.class)
+public class DataNodeMessageExchangeTest extends SingleContextTest {
+
+    private static final String BASE_QUEUE = "exchange-test";
+    private static final String OTHER_QUEUE = "exchange-test-other";
+
+    @Autowired
+    private DataNodeMessageExchange exchange;
+    @Autowired
+    private ConnectionFactory connectionFactory;
+
+    @Test
+    public void shouldDeliverReplyThroughTemporaryQueue() throws Exception {
+
+        final CompletableFuture<Serializable> future = exchange.sendAndReceive(BASE_QUEUE, "ping", 10000);
+
+        final List<ObjectMessage> requests = exchange.receiveAll(getRequestQueueName(BASE_QUEUE), 1000);
+        assertThat(requests).hasSize(1);
+        final ObjectMessage request = requests.get(0);
+        assertThat(request.getObject()).isEqualTo("ping");
+        assertThat(request.getJMSReplyTo()).isInstanceOf(TemporaryQueue.class);
+
+        exchange.reply(BASE_QUEUE, request.getJMSCorrelationID(), "pong");
+
+        assertThat(future.get(5, TimeUnit.SECONDS)).isEqualTo("pong");
+    }
+
+    @Test
+    public void shouldDropReplyToDisconnectedInstance() throws Exception {
+
+        final CompletableFuture<Serializable> future = exchange.sendAndReceive(BASE_QUEUE, "ping", 10000);
+        final ObjectMessage request = exchange.receiveAll(getRequestQueueName(BASE_QUEUE), 1000).get(0);
+        future.cancel(false);
+
+        final String correlationId = request.getJMSCorrelationID();
+        final String goneQueue;
+        final Connection connection = connectionFactory.createConnection();
+        try {
+            goneQueue = connection.createSession(false, Session.AUTO_ACKNOWLEDGE).createTemporaryQueue().getQueueName();
+        } finally {
+            connection.close();
+        }
+
+        exchange.reply(BASE_QUEUE, goneQueue + correlationId.substring(correlationId.lastIndexOf('_')), "late");
+    }
+
+    @Test
+    public void shouldDropReplyToForgedDestination() throws Exception {
+
+        final String victimQueue = getRequestQueueName(OTHER_QUEUE);
+
+        exchange.reply(BASE_QUEUE, victimQueue + "_" + UUID.randomUUID(), "injected");
+
+        assertThat(exchange.receiveAll(victimQueue, 1000)).isEmpty();
+    }
+
+    @Test
+    public void shouldDropReplyFromAnotherDataNode() throws Exception {
+
+        final CompletableFuture<Serializable> future = exchange.sendAndReceive(BASE_QUEUE, "ping", 10000);
+        final ObjectMessage request = exchange.receiveAll(getRequestQueueName(BASE_QUEUE), 1000).get(0);
+
+        exchange.reply(OTHER_QUEUE, request.getJMSCorrelationID(), "spoofed");
+        exchange.reply(BASE_QUEUE, request.getJMSCorrelationID(), "pong");
+
+        assertThat(future.get(5, TimeUnit.SECONDS)).isEqualTo("pong");
+    }
+}
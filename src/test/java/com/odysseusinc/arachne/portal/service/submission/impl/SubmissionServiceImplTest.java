@@ -1,5 +1,7 @@
 package com.odysseusinc.arachne.portal.service.submission.impl;
 
+import com.odysseusinc.arachne.portal.component.SubmissionFileBlobStore;
+import com.odysseusinc.arachne.portal.component.ZipArchiveFactory;
 import com.odysseusinc.arachne.portal.model.IUser;
 import com.odysseusinc.arachne.portal.model.Submission;
 import com.odysseusinc.arachne.portal.repository.SubmissionResultFileRepository;
@@ -8,6 +10,7 @@ import com.odysseusinc.arachne.portal.service.UserService;
 import com.odysseusinc.arachne.portal.util.ContentStorageHelper;
 import com.odysseusinc.arachne.storage.model.ArachneFileMeta;
 import com.odysseusinc.arachne.storage.service.ContentStorageService;
+import com.odysseusinc.arachne.storage.util.FileSaveRequest;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -24,13 +27,16 @@ import org.springframework.security.core.userdetails.UserDetails;
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.anyList;
-import static org.mockito.Mockito.times;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -59,14 +65,16 @@ public class SubmissionServiceImplTest {
     private ContentStorageHelper contentStorageHelper;
     @Mock
     private SubmissionResultFileRepository submissionResultFileRepository;
+    @Mock
+    private ZipArchiveFactory zipArchiveFactory;
+    @Mock
+    private SubmissionFileBlobStore submissionFileBlobStore;
     @InjectMocks
     private SubmissionServiceImpl submissionService;
     @Captor
-    private ArgumentCaptor<File> fileCaptor;
-    @Captor
-    private ArgumentCaptor<String> stringCaptor;
+    private ArgumentCaptor<List<FileSaveRequest>> requestsCaptor;
     @Captor
-    private ArgumentCaptor<Long> longCaptor;
+    private ArgumentCaptor<List<?>> resultFilesCaptor;
 
     @Before
     public void setUp() {
@@ -75,7 +83,11 @@ public class SubmissionServiceImplTest {
         when(securityContext.getAuthentication()).thenReturn(authentication);
         when(authentication.getPrincipal()).thenReturn(userDetails);
         when(userService.getByUsername(any())).thenReturn(user);
-        when(contentStorageService.saveFile(any(), any(), any())).thenReturn(arachneFileMeta);
+        when(user.getId()).thenReturn(2L);
+        when(contentStorageHelper.getResultFilesDir(eq(submission), anyString()))
+                .thenAnswer(invocation -> "/results/" + invocation.getArgument(1));
+        when(contentStorageService.saveBatch(any(), anyLong()))
+                .thenAnswer(invocation -> Collections.nCopies(invocation.<List<?>>getArgument(0).size(), arachneFileMeta));
 
         SecurityContextHolder.setContext(securityContext);
     }
@@ -83,28 +95,47 @@ public class SubmissionServiceImplTest {
     @Test
     public void shouldUploadFlatZipArchive() throws IOException {
 
-        URL zipFileUrl = getClass().getClassLoader().getResource("submission/test.zip");
-
-        submissionService.uploadCompressedResultsByDataOwner(1L, new File(zipFileUrl.getPath()));
+        upload("submission/test.zip");
 
-        verify(contentStorageService, times(2)).saveFile(fileCaptor.capture(), stringCaptor.capture(), longCaptor.capture());
-        verify(submissionResultFileRepository).saveAll(anyList());
-        final List<String> capturedFileNames = fileCaptor.getAllValues().stream().map(File::getName).collect(Collectors.toList());
-        assertThat(capturedFileNames).containsExactly("test2.txt", "test3.txt");
+        assertThat(savedPaths()).containsExactly("/results/test2.txt", "/results/test3.txt");
+        verify(submissionResultFileRepository).saveAll(resultFilesCaptor.capture());
+        assertThat(resultFilesCaptor.getValue()).hasSize(2);
+        verify(contentStorageService, never()).saveFile(any(File.class), any(), any());
     }
 
     @Test
     public void shouldUploadZipArchivePreservingSubFolder() throws IOException {
 
-        URL zipFileUrl = getClass().getClassLoader().getResource("submission/test_with_folders.zip");
-
-        submissionService.uploadCompressedResultsByDataOwner(1L, new File(zipFileUrl.getPath()));
+        upload("submission/test_with_folders.zip");
 
         verify(contentStorageHelper).getResultFilesDir(submission, "output/test2.txt");
         verify(contentStorageHelper).getResultFilesDir(submission, "output/test3.txt");
+        assertThat(savedPaths()).containsExactly("/results/output/test2.txt", "/results/output/test3.txt");
+    }
+
+    @Test
+    public void shouldUnpackNestedArchiveIntoFolderNamedAfterIt() throws IOException {
+
+        upload("submission/test_with_nested_archive.zip");
+
+        assertThat(savedPaths()).containsExactly(
+                "/results/stdout.txt",
+                "/results/output/results/summary.csv",
+                "/results/output/results/plots/chart.txt"
+        );
+        verify(submissionResultFileRepository).saveAll(resultFilesCaptor.capture());
+        assertThat(resultFilesCaptor.getValue()).hasSize(3);
+    }
+
+    private void upload(String resource) throws IOException {
+
+        URL zipFileUrl = getClass().getClassLoader().getResource(resource);
+        submissionService.uploadCompressedResultsByDataOwner(1L, new File(zipFileUrl.getPath()));
+    }
+
+    private List<String> savedPaths() throws IOException {
 
-        verify(contentStorageService, times(2)).saveFile(fileCaptor.capture(), stringCaptor.capture(), longCaptor.capture());
-        final List<String> capturedFileNames = fileCaptor.getAllValues().stream().map(File::getName).collect(Collectors.toList());
-        assertThat(capturedFileNames).containsExactly("test2.txt", "test3.txt");
+        verify(contentStorageService).saveBatch(requestsCaptor.capture(), eq(2L));
+        return requestsCaptor.getValue().stream().map(FileSaveRequest::getDestinationFilepath).collect(Collectors.toList());
     }
 }
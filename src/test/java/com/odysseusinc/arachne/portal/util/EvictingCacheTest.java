@@ -0,0 +1,118 @@
+/*
+ *
+ * Copyright 2021 Odysseus Data Services, inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Company: Odysseus Data Services, Inc.
+ * Product Owner/Architecture: Gregory Klebanov
+ * Authors: Yaroslav Molodkov, Alexandr Cumarav, Vitaliy Kulakov
+ * Created: November 09, 2021
+ *
+ */
+
+package com.odysseusinc.arachne.portal.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public class EvictingCacheTest {
+
+    private EvictingCache<String, Long> cache;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Before
+    public void setUp() {
+
+        cache = new EvictingCache<>("Test", 100, 1, TimeUnit.MINUTES);
+    }
+
+    @After
+    public void tearDown() {
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void shouldLoadOnce() {
+
+        assertThat(cache.get("a", this::load)).isEqualTo(1L);
+        assertThat(cache.get("a", this::load)).isEqualTo(1L);
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(cache.getStats().hitCount()).isEqualTo(1);
+        assertThat(cache.getStats().missCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void shouldThrowLoaderExceptionAsIsAndNotCacheIt() {
+
+        assertThatThrownBy(() -> cache.get("a", () -> {
+            throw new IllegalArgumentException("not found");
+        })).isInstanceOf(IllegalArgumentException.class).hasMessage("not found");
+
+        assertThat(cache.get("a", this::load)).isEqualTo(1L);
+    }
+
+    @Test
+    public void shouldEvictAgainAfterTransactionCompletes() {
+
+        cache.get("a", this::load);
+        cache.get("b", this::load);
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.evict("a");
+        cache.evictIf(value -> value == 2L);
+        assertThat(cache.size()).isEqualTo(0);
+        // loaded by a concurrent request from the state before the commit
+        cache.put("a", 1L);
+        cache.put("b", 2L);
+        completeTransaction();
+
+        assertThat(cache.getIfPresent("a")).isNull();
+        assertThat(cache.getIfPresent("b")).isNull();
+    }
+
+    @Test
+    public void shouldEvictOnceOutsideOfTransaction() {
+
+        cache.get("a", this::load);
+
+        cache.evict("a");
+
+        assertThat(cache.getIfPresent("a")).isNull();
+        assertThat(TransactionSynchronizationManager.isSynchronizationActive()).isFalse();
+    }
+
+    private Long load() {
+
+        return (long) loads.incrementAndGet();
+    }
+
+    private static void completeTransaction() {
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+}
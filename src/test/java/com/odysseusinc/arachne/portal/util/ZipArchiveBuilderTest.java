@@ -0,0 +1,348 @@
+/*
+ *
+ * Copyright 2021 Odysseus Data Services, inc.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Company: Odysseus Data Services, Inc.
+ * Product Owner/Architecture: Gregory Klebanov
+ * Authors: Yaroslav Molodkov, Alexandr Cumarav, Vitaliy Kulakov
+ * Created: November 08, 2021
+ *
+ */
+
+package com.odysseusinc.arachne.portal.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Reads archives written by {@link ZipArchiveBuilder} back with java.util.zip, both through the central directory
+ * ({@link ZipFile}) and through the local headers ({@link ZipInputStream}).
+ */
+public class ZipArchiveBuilderTest {
+
+    private static final long FOUR_GB = 0x100000000L;
+
+    private Path archive;
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() throws IOException {
+
+        archive = Files.createTempFile("zip-archive-builder", ".zip");
+        executor = Executors.newFixedThreadPool(3);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+
+        executor.shutdownNow();
+        Files.deleteIfExists(archive);
+    }
+
+    @Test
+    public void sequentialArchiveShouldKeepEntriesAndOrder() throws IOException {
+
+        final Map<String, byte[]> entries = sampleEntries();
+        write(entries, new ZipArchiveBuilder(Files.newOutputStream(archive)));
+
+        assertArchive(entries);
+    }
+
+    @Test
+    public void parallelArchiveShouldKeepEntriesAndOrder() throws IOException {
+
+        final Map<String, byte[]> entries = sampleEntries();
+        write(entries, new ZipArchiveBuilder(Files.newOutputStream(archive), executor, 3));
+
+        assertArchive(entries);
+    }
+
+    @Test
+    public void emptyEntriesShouldBeWritten() throws IOException {
+
+        final Map<String, byte[]> entries = new LinkedHashMap<>();
+        entries.put("empty.txt", new byte[0]);
+        entries.put("empty.zip", new byte[0]);
+        entries.put("not-empty.txt", "text".getBytes(StandardCharsets.UTF_8));
+        entries.put("empty-too.csv", new byte[0]);
+        write(entries, new ZipArchiveBuilder(Files.newOutputStream(archive), executor, 2));
+
+        assertArchive(entries);
+    }
+
+    @Test
+    public void archiveWithoutEntriesShouldBeValid() throws IOException {
+
+        write(Collections.emptyMap(), new ZipArchiveBuilder(Files.newOutputStream(archive)));
+
+        try (ZipFile zip = new ZipFile(archive.toFile())) {
+            assertEquals(0, zip.size());
+        }
+    }
+
+    @Test
+    public void moreThan65535EntriesShouldBeWrittenAsZip64() throws IOException {
+
+        final int count = 70000;
+        try (ZipArchiveBuilder builder = new ZipArchiveBuilder(Files.newOutputStream(archive))) {
+            for (int i = 0; i < count; i++) {
+                final byte[] content = String.valueOf(i).getBytes(StandardCharsets.UTF_8);
+                builder.addEntry("entry-" + i + ".txt", () -> new ByteArrayInputStream(content));
+            }
+        }
+
+        try (ZipFile zip = new ZipFile(archive.toFile())) {
+            assertEquals(count, zip.size());
+            assertArrayEquals("69999".getBytes(StandardCharsets.UTF_8), read(zip, "entry-69999.txt"));
+        }
+        int read = 0;
+        try (ZipInputStream in = new ZipInputStream(Files.newInputStream(archive))) {
+            ZipEntry entry;
+            while ((entry = in.getNextEntry()) != null) {
+                assertEquals("entry-" + read + ".txt", entry.getName());
+                read++;
+            }
+        }
+        assertEquals(count, read);
+    }
+
+    @Test
+    public void entryOver4GbShouldBeWrittenAsZip64() throws IOException {
+
+        final long size = FOUR_GB + 1024 * 1024 + 17;
+        final long crc = zerosCrc(size);
+        final byte[] tail = "after the large entry".getBytes(StandardCharsets.UTF_8);
+        try (ZipArchiveBuilder builder = new ZipArchiveBuilder(Files.newOutputStream(archive))) {
+            builder.addEntry("large.bin", () -> new ZerosInputStream(size));
+            builder.addEntry("tail.txt", () -> new ByteArrayInputStream(tail));
+        }
+
+        try (ZipFile zip = new ZipFile(archive.toFile())) {
+            final ZipEntry large = zip.getEntry("large.bin");
+            assertEquals(size, large.getSize());
+            assertEquals(crc, large.getCrc());
+            assertArrayEquals(tail, read(zip, "tail.txt"));
+        }
+        try (ZipInputStream in = new ZipInputStream(Files.newInputStream(archive))) {
+            assertEquals("large.bin", in.getNextEntry().getName());
+            final CRC32 actual = new CRC32();
+            final byte[] buffer = new byte[64 * 1024];
+            long total = 0;
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                actual.update(buffer, 0, read);
+                total += read;
+            }
+            assertEquals(size, total);
+            assertEquals(crc, actual.getValue());
+            assertEquals("tail.txt", in.getNextEntry().getName());
+        }
+    }
+
+    @Test
+    public void sourcesShouldBeOpenedOnCallingThread() throws IOException {
+
+        final Thread caller = Thread.currentThread();
+        final List<Thread> openedBy = Collections.synchronizedList(new ArrayList<>());
+        try (ZipArchiveBuilder builder = new ZipArchiveBuilder(Files.newOutputStream(archive), executor, 3)) {
+            for (int i = 0; i < 10; i++) {
+                builder.addEntry("entry-" + i + ".txt", () -> {
+                    openedBy.add(Thread.currentThread());
+                    return new ByteArrayInputStream(new byte[1024]);
+                });
+            }
+        }
+
+        assertEquals(10, openedBy.size());
+        openedBy.forEach(thread -> assertSame(caller, thread));
+    }
+
+    @Test
+    public void failingSourceShouldFailSequentialArchive() throws IOException {
+
+        try (ZipArchiveBuilder builder = new ZipArchiveBuilder(Files.newOutputStream(archive))) {
+            builder.addEntry("ok.txt", () -> new ByteArrayInputStream(new byte[10]));
+            builder.addEntry("failing.txt", () -> {
+                throw new IOException("cannot open");
+            });
+            fail("Failure of the source must be reported");
+        } catch (IOException ex) {
+            assertEquals("cannot open", ex.getMessage());
+        }
+    }
+
+    @Test
+    public void failingReadShouldFailParallelArchive() throws IOException {
+
+        try (ZipArchiveBuilder builder = new ZipArchiveBuilder(Files.newOutputStream(archive), executor, 3)) {
+            builder.addEntry("ok.txt", () -> new ByteArrayInputStream(new byte[10]));
+            builder.addEntry("failing.txt", FailingInputStream::new);
+            builder.addEntry("another.txt", () -> new ByteArrayInputStream(new byte[10]));
+            builder.finish();
+            fail("Failure of the source must be reported");
+        } catch (IOException ex) {
+            assertEquals("cannot read", ex.getMessage());
+        }
+    }
+
+    private static Map<String, byte[]> sampleEntries() {
+
+        final Random random = new Random(42);
+        final Map<String, byte[]> entries = new LinkedHashMap<>();
+        entries.put("readme.txt", "Some text to be deflated, text to be deflated".getBytes(StandardCharsets.UTF_8));
+        entries.put("nested/dir/data.csv", "id,name\n1,a\n2,b\n".getBytes(StandardCharsets.UTF_8));
+        final byte[] compressed = new byte[100 * 1024];
+        random.nextBytes(compressed);
+        entries.put("results.zip", compressed);
+        entries.put("\u0444\u0430\u0439\u043b.txt", "utf-8 name".getBytes(StandardCharsets.UTF_8));
+        // spills to a temporary file when deflated in parallel
+        final byte[] large = new byte[3 * 1024 * 1024];
+        random.nextBytes(large);
+        entries.put("large.bin", large);
+        for (int i = 0; i < 20; i++) {
+            entries.put("small-" + i + ".txt", ("entry " + i).getBytes(StandardCharsets.UTF_8));
+        }
+        return entries;
+    }
+
+    private static void write(Map<String, byte[]> entries, ZipArchiveBuilder builder) throws IOException {
+
+        try (ZipArchiveBuilder archive = builder) {
+            for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                archive.addEntry(entry.getKey(), () -> new ByteArrayInputStream(entry.getValue()));
+            }
+        }
+    }
+
+    private void assertArchive(Map<String, byte[]> expected) throws IOException {
+
+        try (ZipFile zip = new ZipFile(archive.toFile())) {
+            assertEquals(expected.size(), zip.size());
+            final List<String> names = new ArrayList<>();
+            zip.stream().forEach(entry -> names.add(entry.getName()));
+            assertEquals(new ArrayList<>(expected.keySet()), names);
+            for (Map.Entry<String, byte[]> entry : expected.entrySet()) {
+                assertArrayEquals(entry.getKey(), entry.getValue(), read(zip, entry.getKey()));
+            }
+        }
+        try (ZipInputStream in = new ZipInputStream(Files.newInputStream(archive))) {
+            for (Map.Entry<String, byte[]> entry : expected.entrySet()) {
+                assertEquals(entry.getKey(), in.getNextEntry().getName());
+                assertArrayEquals(entry.getKey(), entry.getValue(), readFully(in));
+            }
+            assertEquals(null, in.getNextEntry());
+        }
+    }
+
+    private static byte[] read(ZipFile zip, String name) throws IOException {
+
+        try (InputStream in = zip.getInputStream(zip.getEntry(name))) {
+            return readFully(in);
+        }
+    }
+
+    private static byte[] readFully(InputStream in) throws IOException {
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    private static long zerosCrc(long size) {
+
+        final CRC32 crc = new CRC32();
+        final byte[] zeros = new byte[64 * 1024];
+        for (long left = size; left > 0; left -= zeros.length) {
+            crc.update(zeros, 0, (int) Math.min(left, zeros.length));
+        }
+        return crc.getValue();
+    }
+
+    private static class ZerosInputStream extends InputStream {
+
+        private long left;
+
+        ZerosInputStream(long size) {
+
+            this.left = size;
+        }
+
+        @Override
+        public int read() {
+
+            if (left <= 0) {
+                return -1;
+            }
+            left--;
+            return 0;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+
+            if (left <= 0) {
+                return -1;
+            }
+            final int count = (int) Math.min(len, left);
+            Arrays.fill(b, off, off + count, (byte) 0);
+            left -= count;
+            return count;
+        }
+    }
+
+    private static class FailingInputStream extends InputStream {
+
+        @Override
+        public int read() throws IOException {
+
+            throw new IOException("cannot read");
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+
+            throw new IOException("cannot read");
+        }
+    }
+}